@@ -0,0 +1,48 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la construcción completa de la solución de una hormiga
+ * (agrupamiento, selección de pedidos, reabastecimiento y A*).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AntBenchmark {
+
+    @Param({"70x50", "140x100"})
+    public String rejilla;
+
+    @Param({"50", "200", "1000"})
+    public int numeroPedidos;
+
+    @Param({"0.0", "1.0"})
+    public double densidadBloqueos;
+
+    private EscenarioACO escenario;
+    private Ant hormiga;
+    private long iteracion;
+
+    @Setup
+    public void preparar() {
+        escenario = new EscenarioACO(rejilla, numeroPedidos, densidadBloqueos);
+        hormiga = new Ant(0, escenario.parameters);
+    }
+
+    @Benchmark
+    public ACOSolution construirSolucion() {
+        // Semilla distinta en cada llamada para no medir siempre el mismo recorrido
+        hormiga.reiniciarAleatorio(EscenarioACO.SEMILLA + iteracion++);
+        return escenario.construirSolucion(hormiga);
+    }
+}
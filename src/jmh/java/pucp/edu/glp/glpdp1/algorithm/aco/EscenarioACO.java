@@ -0,0 +1,81 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import pucp.edu.glp.glpdp1.algorithm.model.GrafoRutas;
+import pucp.edu.glp.glpdp1.benchmark.DatosBenchmark;
+import pucp.edu.glp.glpdp1.domain.Almacen;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.enums.TipoAlmacen;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado de una iteración de ACO preparado igual que en ACOAlgorithm
+ * (grafo con índice de bloqueos, feromonas, heurística dinámica y listas de candidatos),
+ * compartido por los benchmarks del paquete.
+ */
+final class EscenarioACO {
+
+    static final long SEMILLA = 42;
+
+    final Mapa mapa;
+    final ACOParameters parameters;
+    final GrafoRutas grafo;
+    final PheromoneMatrix feromonas;
+    final HeuristicCalculator heuristica;
+    final ListasCandidatos listasCandidatos;
+    final Map<TipoAlmacen, Double> capacidadTanques;
+    final LocalDateTime momento;
+
+    EscenarioACO(String rejilla, int numeroPedidos, double densidadBloqueos) {
+        this.mapa = DatosBenchmark.crearMapa(rejilla, numeroPedidos, densidadBloqueos, SEMILLA);
+        this.parameters = new ACOParameters();
+        this.parameters.setSemilla(SEMILLA);
+        this.momento = DatosBenchmark.FECHA_INICIO.plusHours(10);
+
+        this.grafo = new GrafoRutas(mapa.getAncho(), mapa.getAlto(), mapa.getAlmacenes());
+        this.grafo.setIndiceBloqueos(mapa.indiceBloqueos());
+        this.feromonas = new PheromoneMatrix(grafo, parameters.getFeromonaInicial());
+
+        this.capacidadTanques = new HashMap<>();
+        for (Almacen almacen : mapa.getAlmacenes()) {
+            capacidadTanques.put(almacen.getTipoAlmacen(), almacen.getCapacidadEfectivaM3());
+        }
+
+        this.heuristica = new HeuristicCalculator(grafo, parameters);
+        this.heuristica.actualizarHeuristicaDinamica(mapa.getPedidos(), mapa.getBloqueos(), momento, capacidadTanques);
+        this.listasCandidatos = new ListasCandidatos(mapa.getPedidos(), grafo, momento, parameters);
+    }
+
+    /**
+     * Construye la solución de una hormiga sobre el escenario
+     */
+    ACOSolution construirSolucion(Ant hormiga) {
+        hormiga.setListasCandidatos(listasCandidatos);
+        return hormiga.construirSolucion(
+                mapa.getPedidos(),
+                new ArrayList<>(mapa.getFlota()),
+                feromonas,
+                heuristica,
+                momento,
+                grafo,
+                new HashMap<>(capacidadTanques)
+        );
+    }
+
+    /**
+     * Soluciones de varias hormigas, usadas como entrada para la actualización de feromonas
+     */
+    List<ACOSolution> construirSoluciones(int numeroHormigas) {
+        List<ACOSolution> soluciones = new ArrayList<>(numeroHormigas);
+        for (int i = 0; i < numeroHormigas; i++) {
+            ACOSolution solucion = construirSolucion(new Ant(i, parameters));
+            solucion.setCalidad(1.0 / (1.0 + solucion.getDistanciaTotal()));
+            soluciones.add(solucion);
+        }
+        return soluciones;
+    }
+}
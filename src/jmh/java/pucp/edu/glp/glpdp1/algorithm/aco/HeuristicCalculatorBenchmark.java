@@ -0,0 +1,74 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la actualización dinámica de la heurística (bloqueos, urgencia,
+ * tanques y viajes en vacío) y de su consulta por arista.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HeuristicCalculatorBenchmark {
+
+    private static final int NUMERO_CONSULTAS = 1024;
+
+    @Param({"70x50", "140x100", "280x200"})
+    public String rejilla;
+
+    @Param({"50", "200", "1000"})
+    public int numeroPedidos;
+
+    @Param({"0.0", "1.0"})
+    public double densidadBloqueos;
+
+    private EscenarioACO escenario;
+    private int[] origenes;
+    private int[] destinos;
+
+    @Setup
+    public void preparar() {
+        escenario = new EscenarioACO(rejilla, numeroPedidos, densidadBloqueos);
+
+        // Consultas desde nodos aleatorios hacia destinos de pedidos, como en la construcción
+        Random random = new Random(EscenarioACO.SEMILLA);
+        origenes = new int[NUMERO_CONSULTAS];
+        destinos = new int[NUMERO_CONSULTAS];
+        for (int i = 0; i < NUMERO_CONSULTAS; i++) {
+            origenes[i] = random.nextInt(escenario.grafo.getTotalNodos());
+            destinos[i] = numeroPedidos > 0
+                    ? escenario.listasCandidatos.getIdNodo(random.nextInt(numeroPedidos))
+                    : random.nextInt(escenario.grafo.getTotalNodos());
+        }
+    }
+
+    @Benchmark
+    public HeuristicCalculator actualizarHeuristicaDinamica() {
+        escenario.heuristica.actualizarHeuristicaDinamica(
+                escenario.mapa.getPedidos(),
+                escenario.mapa.getBloqueos(),
+                escenario.momento,
+                escenario.capacidadTanques
+        );
+        return escenario.heuristica;
+    }
+
+    @Benchmark
+    public double consultarHeuristica() {
+        double suma = 0;
+        for (int i = 0; i < NUMERO_CONSULTAS; i++) {
+            suma += escenario.heuristica.getValorHeuristica(origenes[i], destinos[i]);
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,54 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la actualización (evaporación + depósito) y perturbación de feromonas
+ * con las soluciones de una iteración de hormigas sobre datos sintéticos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PheromoneMatrixBenchmark {
+
+    @Param({"70x50", "140x100", "280x200"})
+    public String rejilla;
+
+    @Param({"50", "200", "1000"})
+    public int numeroPedidos;
+
+    @Param({"10"})
+    public int numeroHormigas;
+
+    private EscenarioACO escenario;
+    private List<ACOSolution> soluciones;
+
+    @Setup
+    public void preparar() {
+        escenario = new EscenarioACO(rejilla, numeroPedidos, 1.0);
+        soluciones = escenario.construirSoluciones(numeroHormigas);
+        escenario.feromonas.actualizarFeromonas(soluciones, escenario.parameters.getFactorEvaporacion());
+    }
+
+    @Benchmark
+    public PheromoneMatrix actualizarFeromonas() {
+        escenario.feromonas.actualizarFeromonas(soluciones, escenario.parameters.getFactorEvaporacion());
+        return escenario.feromonas;
+    }
+
+    @Benchmark
+    public PheromoneMatrix perturbarFeromonas() {
+        escenario.feromonas.perturbarFeromonas(escenario.parameters.getFeromonaInicial() * 0.1);
+        return escenario.feromonas;
+    }
+}
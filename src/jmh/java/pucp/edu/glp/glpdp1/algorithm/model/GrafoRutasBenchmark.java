@@ -0,0 +1,69 @@
+package pucp.edu.glp.glpdp1.algorithm.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pucp.edu.glp.glpdp1.benchmark.DatosBenchmark;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la búsqueda A* de GrafoRutas entre pares aleatorios de nodos
+ * con los bloqueos activos a media mañana del primer día de pedidos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GrafoRutasBenchmark {
+
+    private static final int NUMERO_PARES = 1024;
+
+    @Param({"70x50", "140x100", "280x200"})
+    public String rejilla;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double densidadBloqueos;
+
+    private GrafoRutas grafo;
+    private Nodo[] origenes;
+    private Nodo[] destinos;
+    private LocalDateTime momento;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        Mapa mapa = DatosBenchmark.crearMapa(rejilla, 0, densidadBloqueos, 42);
+        grafo = new GrafoRutas(mapa.getAncho(), mapa.getAlto(), mapa.getAlmacenes());
+        grafo.setIndiceBloqueos(mapa.indiceBloqueos());
+        momento = DatosBenchmark.FECHA_INICIO.plusHours(10);
+
+        Random random = new Random(42);
+        origenes = new Nodo[NUMERO_PARES];
+        destinos = new Nodo[NUMERO_PARES];
+        for (int i = 0; i < NUMERO_PARES; i++) {
+            origenes[i] = grafo.getNodoPorId(random.nextInt(grafo.getTotalNodos()));
+            destinos[i] = grafo.getNodoPorId(random.nextInt(grafo.getTotalNodos()));
+        }
+    }
+
+    @Benchmark
+    public List<Nodo> encontrarRutaViable() {
+        int i = siguiente++ & (NUMERO_PARES - 1);
+        return grafo.encontrarRutaViable(origenes[i], destinos[i], momento);
+    }
+
+    @Benchmark
+    public int calcularDistanciaViable() {
+        int i = siguiente++ & (NUMERO_PARES - 1);
+        return grafo.calcularDistanciaViable(origenes[i], destinos[i], momento);
+    }
+}
@@ -0,0 +1,73 @@
+package pucp.edu.glp.glpdp1.algorithms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pucp.edu.glp.glpdp1.benchmark.DatosBenchmark;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la evaluación de fitness de un individuo del algoritmo genético
+ * (asignación de pedidos a camiones y cálculo de rutas).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GABenchmark {
+
+    private static final int NUMERO_INDIVIDUOS = 64;
+
+    @Param({"70x50", "140x100"})
+    public String rejilla;
+
+    @Param({"50", "200", "1000"})
+    public int numeroPedidos;
+
+    private GA.Individual[] individuos;
+    private int siguiente;
+    private final Random random = new Random(42);
+
+    @Setup
+    public void preparar() {
+        Mapa mapa = DatosBenchmark.crearMapa(rejilla, numeroPedidos, 1.0, 42);
+        GA ga = new GA(mapa, NUMERO_INDIVIDUOS, 1, 0.8, 0.1, 0.1);
+
+        // Varias permutaciones para no evaluar siempre la misma
+        individuos = new GA.Individual[NUMERO_INDIVIDUOS];
+        for (int i = 0; i < NUMERO_INDIVIDUOS; i++) {
+            individuos[i] = ga.new Individual(numeroPedidos, random);
+            individuos[i].evaluate();
+        }
+    }
+
+    /**
+     * Evaluación completa: se baraja el individuo antes de evaluarlo para que la evaluación
+     * no se salte por estar ya al día (el barajado es O(n) y queda incluido en la medida)
+     */
+    @Benchmark
+    public double evaluate() {
+        GA.Individual individuo = individuos[siguiente++ & (NUMERO_INDIVIDUOS - 1)];
+        individuo.shuffleGenes(random);
+        individuo.evaluate();
+        return individuo.getDistance();
+    }
+
+    /**
+     * Evaluación incremental: una mutación y la reevaluación desde la primera posición que cambió
+     */
+    @Benchmark
+    public double evaluarMutacion() {
+        GA.Individual individuo = individuos[siguiente++ & (NUMERO_INDIVIDUOS - 1)];
+        individuo.mutate(random);
+        individuo.evaluate();
+        return individuo.getDistance();
+    }
+}
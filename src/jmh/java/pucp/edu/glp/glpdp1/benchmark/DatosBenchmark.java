@@ -0,0 +1,165 @@
+package pucp.edu.glp.glpdp1.benchmark;
+
+import pucp.edu.glp.glpdp1.algorithm.utils.GeneradorCargaSintetica;
+import pucp.edu.glp.glpdp1.domain.Bloqueo;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+import pucp.edu.glp.glpdp1.service.BloqueosService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos de entrada para los benchmarks: pedidos sintéticos con semilla fija
+ * (GeneradorCargaSintetica para los archivos de texto) y los bloqueos del archivo
+ * incluido en el proyecto (202504.bloqueos.txt).
+ * No necesita red ni archivos externos, por lo que los resultados son reproducibles.
+ */
+public final class DatosBenchmark {
+
+    public static final String RECURSO_BLOQUEOS = "/data/202504.bloqueos.txt";
+
+    // Dimensiones de la rejilla para la que fue escrito el archivo de bloqueos
+    private static final int ANCHO_ARCHIVO = 70;
+    private static final int ALTO_ARCHIVO = 50;
+
+    // Mismas fechas base que PedidoService y BloqueosService
+    private static final LocalDateTime FECHA_BASE_PEDIDOS = LocalDateTime.of(2025, 5, 1, 0, 0);
+    public static final LocalDateTime FECHA_INICIO = LocalDateTime.of(2025, 5, 2, 0, 0);
+
+    private DatosBenchmark() {
+    }
+
+    /**
+     * Ancho de una rejilla expresada como "anchoxalto" (p. ej. "70x50")
+     */
+    public static int ancho(String rejilla) {
+        return Integer.parseInt(rejilla.substring(0, rejilla.indexOf('x')));
+    }
+
+    /**
+     * Alto de una rejilla expresada como "anchoxalto" (p. ej. "70x50")
+     */
+    public static int alto(String rejilla) {
+        return Integer.parseInt(rejilla.substring(rejilla.indexOf('x') + 1));
+    }
+
+    /**
+     * Crea un mapa con pedidos sintéticos y bloqueos del archivo incluido
+     * @param rejilla Dimensiones "anchoxalto"
+     * @param numeroPedidos Número de pedidos a generar
+     * @param densidadBloqueos Fracción (0-1) de los bloqueos del archivo que se conservan
+     * @param semilla Semilla del generador
+     */
+    public static Mapa crearMapa(String rejilla, int numeroPedidos, double densidadBloqueos, long semilla) {
+        Mapa mapa = new Mapa(ancho(rejilla), alto(rejilla));
+        mapa.setPedidos(generarPedidos(numeroPedidos, mapa.getAncho(), mapa.getAlto(), semilla));
+        mapa.setBloqueos(cargarBloqueos(mapa.getAncho(), mapa.getAlto(), densidadBloqueos, semilla));
+        mapa.setFechaInicio(FECHA_INICIO);
+        return mapa;
+    }
+
+    /**
+     * Genera pedidos con destino, volumen y plazo aleatorios durante los dos primeros días
+     */
+    public static List<Pedido> generarPedidos(int numeroPedidos, int ancho, int alto, long semilla) {
+        Random random = new Random(semilla);
+        List<Pedido> pedidos = new ArrayList<>(numeroPedidos);
+        for (int i = 0; i < numeroPedidos; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setIdPedido(i + 1);
+            pedido.setDestino(Ubicacion.of(random.nextInt(ancho + 1), random.nextInt(alto + 1)));
+            pedido.setIdCliente("c-" + (100 + i));
+            pedido.setVolumen(1 + random.nextInt(8));
+            pedido.setHorasLimite(4 + random.nextInt(20));
+            pedido.setFechaRegistro(FECHA_BASE_PEDIDOS.plusDays(1 + random.nextInt(2))
+                    .plusMinutes(random.nextInt(24 * 60)));
+            pedido.setFechaLimite(pedido.getFechaRegistro().plusHours(pedido.getHorasLimite()));
+            pedidos.add(pedido);
+        }
+        return pedidos;
+    }
+
+    /**
+     * Texto de pedidos en el formato de archivo (##d##h##m:posX,posY,c-idCliente,##m3,##h)
+     */
+    public static byte[] generarTextoPedidos(int numeroPedidos, int ancho, int alto, long semilla) {
+        GeneradorCargaSintetica.Configuracion configuracion = new GeneradorCargaSintetica.Configuracion();
+        configuracion.setSemilla(semilla);
+        configuracion.setAncho(ancho);
+        configuracion.setAlto(alto);
+        configuracion.setNumeroPedidos(numeroPedidos);
+
+        StringWriter texto = new StringWriter(numeroPedidos * 32);
+        try {
+            new GeneradorCargaSintetica(configuracion).generarPedidos(texto);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al generar pedidos: " + e.getMessage(), e);
+        }
+        return texto.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Contenido del archivo de bloqueos incluido, repetido el número de veces indicado
+     */
+    public static byte[] textoBloqueos(int repeticiones) {
+        byte[] archivo = leerRecurso(RECURSO_BLOQUEOS);
+        byte[] texto = new byte[archivo.length * repeticiones];
+        for (int i = 0; i < repeticiones; i++) {
+            System.arraycopy(archivo, 0, texto, i * archivo.length, archivo.length);
+        }
+        return texto;
+    }
+
+    /**
+     * Bloqueos del archivo incluido. En rejillas mayores que la del archivo se
+     * repiten desplazados para cubrirla con la misma densidad.
+     * @param densidadBloqueos Fracción (0-1) de bloqueos que se conservan
+     */
+    public static List<Bloqueo> cargarBloqueos(int ancho, int alto, double densidadBloqueos, long semilla) {
+        List<Bloqueo> archivo;
+        try {
+            archivo = new BloqueosService().cargarBloqueosDesdeBytes(leerRecurso(RECURSO_BLOQUEOS));
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer los bloqueos de prueba: " + e.getMessage(), e);
+        }
+
+        Random random = new Random(semilla);
+        List<Bloqueo> bloqueos = new ArrayList<>();
+        for (int dx = 0; dx <= ancho; dx += ANCHO_ARCHIVO) {
+            for (int dy = 0; dy <= alto; dy += ALTO_ARCHIVO) {
+                for (Bloqueo bloqueo : archivo) {
+                    if (random.nextDouble() >= densidadBloqueos) {
+                        continue;
+                    }
+                    // Los tramos que quedan fuera de la rejilla se recortan al rasterizar
+                    int[] vertices = bloqueo.getVertices().clone();
+                    for (int i = 0; i < vertices.length; i += 2) {
+                        vertices[i] += dx;
+                        vertices[i + 1] += dy;
+                    }
+                    bloqueos.add(new Bloqueo(bloqueo.getFechaInicio(), bloqueo.getFechaFinal(), vertices));
+                }
+            }
+        }
+        return bloqueos;
+    }
+
+    private static byte[] leerRecurso(String recurso) {
+        try (InputStream in = DatosBenchmark.class.getResourceAsStream(recurso)) {
+            if (in == null) {
+                throw new IllegalStateException("No se encontró el recurso " + recurso);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el recurso " + recurso + ": " + e.getMessage(), e);
+        }
+    }
+}
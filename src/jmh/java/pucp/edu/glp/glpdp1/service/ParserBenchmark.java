@@ -0,0 +1,66 @@
+package pucp.edu.glp.glpdp1.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pucp.edu.glp.glpdp1.benchmark.DatosBenchmark;
+import pucp.edu.glp.glpdp1.domain.Bloqueo;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la lectura de archivos de pedidos (sintéticos) y de bloqueos
+ * (archivo incluido, repetido para simular archivos más grandes).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParserBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ArchivoPedidos {
+        @Param({"1000", "10000", "100000"})
+        public int numeroPedidos;
+
+        byte[] datos;
+
+        @Setup
+        public void preparar() {
+            datos = DatosBenchmark.generarTextoPedidos(numeroPedidos, 70, 50, 42);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ArchivoBloqueos {
+        @Param({"1", "10", "100"})
+        public int repeticiones;
+
+        byte[] datos;
+
+        @Setup
+        public void preparar() {
+            datos = DatosBenchmark.textoBloqueos(repeticiones);
+        }
+    }
+
+    private final PedidoService pedidoService = new PedidoService();
+    private final BloqueosService bloqueosService = new BloqueosService();
+
+    @Benchmark
+    public List<Pedido> cargarPedidos(ArchivoPedidos archivo) throws IOException {
+        return pedidoService.cargarPedidosDesdeBytes(archivo.datos);
+    }
+
+    @Benchmark
+    public List<Bloqueo> cargarBloqueos(ArchivoBloqueos archivo) throws IOException {
+        return bloqueosService.cargarBloqueosDesdeBytes(archivo.datos);
+    }
+}
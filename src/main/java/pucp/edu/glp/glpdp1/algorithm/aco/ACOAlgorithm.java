@@ -1,5 +1,6 @@
 package pucp.edu.glp.glpdp1.algorithm.aco;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import pucp.edu.glp.glpdp1.algorithm.model.CamionAsignacion;
@@ -15,6 +16,7 @@ import pucp.edu.glp.glpdp1.domain.Almacen;
 import pucp.edu.glp.glpdp1.domain.Averia;
 import pucp.edu.glp.glpdp1.domain.Bloqueo;
 import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.IndiceBloqueos;
 import pucp.edu.glp.glpdp1.domain.Mapa;
 import pucp.edu.glp.glpdp1.domain.Pedido;
 import pucp.edu.glp.glpdp1.domain.Rutas;
@@ -26,6 +28,11 @@ import pucp.edu.glp.glpdp1.domain.enums.TipoAlmacen;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -39,6 +46,8 @@ import java.util.stream.Collectors;
 @Setter
 public class ACOAlgorithm {
     private static final Logger logger = Logger.getLogger(ACOAlgorithm.class.getName());
+    // Galones con los que queda un camión tras reabastecerse (tanque lleno)
+    private static final double CAPACIDAD_TANQUE_GALONES = 25.0;
 
     // Parámetros del algoritmo
     private ACOParameters parameters;
@@ -62,6 +71,9 @@ public class ACOAlgorithm {
     private ACOLogger loggerACO;
     private ACOMonitor monitor;
     private long tiempoInicioEjecucion;
+    // Iteraciones de la ejecución en curso: las de los parámetros o las de una replanificación
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int numeroIteraciones;
 
     // Estructuras para el control de tanques intermedios
     private Map<TipoAlmacen, Double> capacidadActualTanques;
@@ -70,7 +82,7 @@ public class ACOAlgorithm {
     // Historial de mejores soluciones por iteración
     private List<ACOSolution> historicoSoluciones = new ArrayList<>();
     // Matriz para almacenar frecuencia de uso de aristas en buenas soluciones
-    private int[][] matrizFrecuenciaAristas;
+    private TablaAristas frecuenciaAristas;
     // Factor para controlar influencia de la búsqueda ogi
     private double factorBusquedaLocal = 0.8;
     // Factor para controlar influencia del aprendizaje entre iteraciones
@@ -82,6 +94,20 @@ public class ACOAlgorithm {
     // Mejor calidad histórica
     private double mejorCalidadHistorica = Double.NEGATIVE_INFINITY;
 
+    // Pool acotado para construir las soluciones de las hormigas en paralelo
+    private ForkJoinPool poolHormigas;
+
+    // Pedidos más cercanos por ubicación, reconstruidos en cada iteración
+    private ListasCandidatos listasCandidatos;
+
+    // Cancelación cooperativa: se revisa al inicio de cada iteración
+    @Setter(AccessLevel.NONE)
+    private volatile boolean cancelado;
+    // Opcional: se notifica al terminar cada iteración y cada vez que mejora la solución global
+    private ObservadorProgreso observadorProgreso;
+    // Calidad de la última mejora notificada al observador
+    private double calidadNotificada = Double.NEGATIVE_INFINITY;
+
     /**
      * Constructor principal del algoritmo
      * @param mapa Mapa con los datos de la ciudad, flota, pedidos, etc.
@@ -113,10 +139,13 @@ public class ACOAlgorithm {
     private void inicializarAlgoritmo() {
         // Inicializar el grafo
         this.grafo = new GrafoRutas(mapa.getAncho(), mapa.getAlto(), mapa.getAlmacenes());
+        this.grafo.setIndiceBloqueos(mapa.indiceBloqueos());
 
         // Inicializar matriz de feromonas y calculador de heurística
-        this.pheromonesMatrix = new PheromoneMatrix(grafo.getTotalNodos(), parameters.getFeromonaInicial());
+        this.pheromonesMatrix = new PheromoneMatrix(grafo, parameters.getFeromonaInicial());
+        this.pheromonesMatrix.setRandom(new Random(parameters.getSemilla()));
         this.heuristicCalculator = new HeuristicCalculator(grafo, parameters);
+        this.random = new Random(parameters.getSemilla());
 
         // Inicializar la colonia de hormigas
         this.colony = new AntColony(parameters.getNumeroHormigas(), parameters, grafo);
@@ -135,7 +164,7 @@ public class ACOAlgorithm {
         inicializarEstadoTanques();
 
         // Inicializar matriz de frecuencia de aristas
-        this.matrizFrecuenciaAristas = new int[grafo.getTotalNodos()][grafo.getTotalNodos()];
+        this.frecuenciaAristas = new TablaAristas(1024);
 
         // Inicializar la lista histórica de soluciones
         this.historicoSoluciones = new ArrayList<>();
@@ -189,11 +218,303 @@ public class ACOAlgorithm {
      * @return La mejor solución encontrada
      */
     public List<Rutas> ejecutar() {
-        logger.info("Iniciando algoritmo ACO con " + parameters.getNumeroIteraciones() + " iteraciones");
+        return ejecutar(parameters.getNumeroIteraciones());
+    }
+
+    private List<Rutas> ejecutar(int iteraciones) {
+        // El presupuesto de tiempo cuenta desde aquí, incluida la preparación de la ejecución
+        this.tiempoInicioEjecucion = System.currentTimeMillis();
+        this.numeroIteraciones = iteraciones;
+        int numeroHilos = Math.min(parameters.getNumeroHilos(), parameters.getNumeroHormigas());
+        this.poolHormigas = numeroHilos > 1 ? new ForkJoinPool(numeroHilos) : null;
+        try {
+            return ejecutarIteraciones();
+        } finally {
+            if (poolHormigas != null) {
+                poolHormigas.shutdownNow();
+                poolHormigas = null;
+            }
+        }
+    }
+
+    /**
+     * Solicita detener la ejecución. Es cooperativa: el algoritmo termina al inicio de
+     * la siguiente iteración lanzando CancellationException, sin devolver rutas.
+     * Puede llamarse desde cualquier hilo.
+     */
+    public void cancelar() {
+        this.cancelado = true;
+    }
+
+    private void verificarCancelacion() {
+        if (cancelado) {
+            logger.info("Algoritmo ACO cancelado en la iteración " + iteracion);
+            throw new CancellationException("Planificación cancelada en la iteración " + iteracion);
+        }
+    }
+
+    /**
+     * Replanificación en caliente (horizonte rodante): conserva las feromonas, el histórico
+     * de soluciones y la mejor solución de la ejecución anterior, inserta en esa solución
+     * los pedidos nuevos, retira los que ya no están vigentes y ejecuta una corrida corta.
+     * Debe llamarse sobre un algoritmo que ya se ejecutó; el grafo y los bloqueos se reutilizan.
+     * @param pedidos Pedidos vigentes (los que no estaban en la ejecución anterior se consideran nuevos)
+     * @param iteraciones Iteraciones de la corrida corta (solo para esta corrida; los parámetros no cambian)
+     * @return La mejor solución encontrada
+     * @throws IllegalArgumentException si iteraciones no es positivo
+     */
+    public List<Rutas> replanificar(List<Pedido> pedidos, int iteraciones) {
+        if (iteraciones <= 0) {
+            throw new IllegalArgumentException("Las iteraciones de la replanificación deben ser positivas: " + iteraciones);
+        }
+        actualizarPedidos(pedidos);
+
+        // Reiniciar el control de la ejecución; feromonas, histórico y frecuencias se conservan
+        this.iteracion = 0;
+        this.iterSinMejora = 0;
+        this.iteracionesSinMejoraGlobal = 0;
+        this.estadoColapso = false;
+        this.mejorCalidadAnterior = mejorCalidadGlobal;
+        this.calidadNotificada = Double.NEGATIVE_INFINITY;
+        return ejecutar(iteraciones);
+    }
+
+    /**
+     * Reemplaza los pedidos del mapa por los vigentes y lleva el cambio a la mejor solución:
+     * quita los retirados, inserta los nuevos y cambia los conservados por su versión vigente.
+     * Cada carga de archivo crea objetos Pedido nuevos (con otro idPedido), por lo que los
+     * pedidos se emparejan por contenido con {@link ClavePedido}.
+     * @param pedidos Pedidos vigentes
+     */
+    void actualizarPedidos(List<Pedido> pedidos) {
+        // Pedidos vigentes por clave; la cola admite varios pedidos con el mismo contenido
+        Map<ClavePedido, ArrayDeque<Pedido>> vigentesPorClave = new HashMap<>();
+        for (Pedido pedido : pedidos) {
+            vigentesPorClave.computeIfAbsent(ClavePedido.de(pedido), k -> new ArrayDeque<>()).add(pedido);
+        }
+
+        // Pedido anterior -> pedido vigente equivalente; los que no tienen equivalente se retiran
+        Map<Pedido, Pedido> conservados = new IdentityHashMap<>();
+        Set<Pedido> retirados = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Pedido anterior : mapa.getPedidos()) {
+            ArrayDeque<Pedido> cola = vigentesPorClave.get(ClavePedido.de(anterior));
+            Pedido vigente = cola != null ? cola.pollFirst() : null;
+            if (vigente != null) {
+                conservados.put(anterior, vigente);
+            } else {
+                retirados.add(anterior);
+            }
+        }
+        Set<Pedido> emparejados = Collections.newSetFromMap(new IdentityHashMap<>());
+        emparejados.addAll(conservados.values());
+        List<Pedido> nuevos = new ArrayList<>();
+        for (Pedido pedido : pedidos) {
+            if (!emparejados.contains(pedido)) {
+                nuevos.add(pedido);
+            }
+        }
+        mapa.setPedidos(new ArrayList<>(pedidos));
+        logger.info("Replanificación en caliente: " + nuevos.size() + " pedidos nuevos, "
+                + retirados.size() + " retirados");
+
+        LocalDateTime tiempoActual = mapa.getFechaInicio() != null ? mapa.getFechaInicio() : LocalDateTime.now();
+        if (mejorSolucionGlobal != null) {
+            retirarPedidos(mejorSolucionGlobal, retirados, tiempoActual);
+            sustituirPedidos(mejorSolucionGlobal, conservados);
+            for (Pedido pedido : nuevos) {
+                insertarPedido(mejorSolucionGlobal, pedido, tiempoActual);
+            }
+            // La calidad anterior no es comparable: cambió el conjunto de pedidos
+            mejorCalidadGlobal = evaluarSolucion(mejorSolucionGlobal, tiempoActual);
+        }
+    }
+
+    /**
+     * Identifica un pedido por su contenido (cliente, registro, destino y volumen),
+     * que se mantiene entre cargas del mismo archivo
+     */
+    record ClavePedido(String idCliente, LocalDateTime fechaRegistro, Ubicacion destino, double volumen) {
+        static ClavePedido de(Pedido pedido) {
+            return new ClavePedido(pedido.getIdCliente(), pedido.getFechaRegistro(),
+                    pedido.getDestino(), pedido.getVolumen());
+        }
+    }
+
+    /**
+     * Cambia en la solución cada pedido anterior por su equivalente vigente
+     */
+    private void sustituirPedidos(ACOSolution solucion, Map<Pedido, Pedido> reemplazos) {
+        solucion.getPedidosNoAsignados().replaceAll(p -> reemplazos.getOrDefault(p, p));
+        for (CamionAsignacion asignacion : solucion.getAsignaciones()) {
+            asignacion.getPedidos().replaceAll(p -> reemplazos.getOrDefault(p, p));
+            for (Ruta ruta : asignacion.getRutas()) {
+                if (ruta.getPedidoEntrega() != null) {
+                    ruta.setPedidoEntrega(reemplazos.getOrDefault(ruta.getPedidoEntrega(), ruta.getPedidoEntrega()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Quita de la solución los pedidos indicados, uniendo los tramos que los rodean
+     */
+    void retirarPedidos(ACOSolution solucion, Set<Pedido> retirados, LocalDateTime tiempoActual) {
+        if (retirados.isEmpty()) {
+            return;
+        }
+        solucion.getPedidosNoAsignados().removeAll(retirados);
+
+        List<CamionAsignacion> asignaciones = solucion.getAsignaciones();
+        for (int i = asignaciones.size() - 1; i >= 0; i--) {
+            CamionAsignacion asignacion = asignaciones.get(i);
+            if (!asignacion.getPedidos().removeAll(retirados)) {
+                continue;
+            }
+            if (asignacion.getPedidos().isEmpty()) {
+                asignaciones.remove(i);
+                continue;
+            }
+            List<Ruta> rutas = asignacion.getRutas();
+            for (int k = rutas.size() - 1; k >= 0; k--) {
+                Ruta ruta = rutas.get(k);
+                if (!ruta.isPuntoEntrega() || !retirados.contains(ruta.getPedidoEntrega())) {
+                    continue;
+                }
+                if (k + 1 < rutas.size()) {
+                    // El tramo siguiente parte ahora del origen del tramo retirado
+                    Ruta siguiente = rutas.get(k + 1);
+                    siguiente.setOrigen(ruta.getOrigen());
+                    siguiente.setDistancia(distanciaTramo(ruta.getOrigen(), siguiente.getDestino(), tiempoActual));
+                }
+                rutas.remove(k);
+            }
+            // Recalcular el consumo con los tramos actualizados
+            asignaciones.set(i, new CamionAsignacion(asignacion.getCamion(), asignacion.getPedidos(), rutas));
+        }
+    }
+
+    /**
+     * Inserta un pedido en la posición más barata de la solución (el tramo cuyo desvío
+     * es menor) entre los camiones con capacidad suficiente. Solo se parten tramos de
+     * entrega, de modo que los de reabastecimiento y el regreso se mantienen, y se descarta
+     * la posición si con el desvío el camión no alcanza su siguiente recarga.
+     * Si ninguno puede recibirlo queda como no asignado para que lo tomen las hormigas.
+     */
+    void insertarPedido(ACOSolution solucion, Pedido pedido, LocalDateTime tiempoActual) {
+        Ubicacion destino = pedido.getDestino();
+        List<Insercion> candidatas = new ArrayList<>();
+
+        List<CamionAsignacion> asignaciones = solucion.getAsignaciones();
+        for (int i = 0; i < asignaciones.size(); i++) {
+            CamionAsignacion asignacion = asignaciones.get(i);
+            double volumenAsignado = 0;
+            for (Pedido asignado : asignacion.getPedidos()) {
+                volumenAsignado += asignado.getVolumen();
+            }
+            if (volumenAsignado + pedido.getVolumen() > asignacion.getCamion().getCargaM3()) {
+                continue;
+            }
+            List<Ruta> rutas = asignacion.getRutas();
+            for (int k = 0; k < rutas.size(); k++) {
+                Ruta ruta = rutas.get(k);
+                if (!ruta.isPuntoEntrega()) {
+                    continue;
+                }
+                // Estimación Manhattan; la distancia viable se calcula solo para las que se prueban
+                double desvio = calcularDistancia(ruta.getOrigen(), destino)
+                        + calcularDistancia(destino, ruta.getDestino())
+                        - calcularDistancia(ruta.getOrigen(), ruta.getDestino());
+                candidatas.add(new Insercion(i, k, desvio));
+            }
+        }
+        // Orden estable: a igual desvío se conserva el orden de camiones y tramos
+        candidatas.sort(Comparator.comparingDouble(Insercion::desvio));
+
+        for (Insercion candidata : candidatas) {
+            CamionAsignacion asignacion = asignaciones.get(candidata.asignacion());
+            List<Ruta> rutas = new ArrayList<>(asignacion.getRutas());
+            Ruta ruta = rutas.get(candidata.tramo());
+            Ruta entrega = new Ruta(ruta.getOrigen(), destino, distanciaTramo(ruta.getOrigen(), destino, tiempoActual),
+                    true, false, false, pedido);
+            Ruta siguiente = new Ruta(destino, ruta.getDestino(), distanciaTramo(destino, ruta.getDestino(), tiempoActual),
+                    ruta.isPuntoEntrega(), ruta.isPuntoReabastecimiento(), ruta.isPuntoRegreso(), ruta.getPedidoEntrega());
+            rutas.set(candidata.tramo(), siguiente);
+            rutas.add(candidata.tramo(), entrega);
+            List<Pedido> pedidos = new ArrayList<>(asignacion.getPedidos());
+            pedidos.add(pedido);
+            if (!alcanzaCombustible(asignacion.getCamion(), pedidos, rutas)) {
+                continue;
+            }
+            asignaciones.set(candidata.asignacion(), new CamionAsignacion(asignacion.getCamion(), pedidos, rutas));
+            return;
+        }
+        solucion.addPedidoNoAsignado(pedido);
+    }
+
+    /**
+     * Posición candidata para insertar un pedido: antes del tramo indicado de una asignación
+     */
+    private record Insercion(int asignacion, int tramo, double desvio) {
+    }
+
+    /**
+     * Verifica que el camión recorra sus tramos sin quedarse sin combustible: parte con sus
+     * galones, cada tramo consume según la distancia y el peso que lleva (como en Ant) y en
+     * los puntos de reabastecimiento llena el tanque. Como en Ant, llegar a un tanque es
+     * decisión del plan, así que solo se exige combustible en los tramos de entrega y regreso.
+     */
+    private boolean alcanzaCombustible(Camion camion, List<Pedido> pedidos, List<Ruta> rutas) {
+        double combustible = camion.getGalones();
+        double peso = camion.getPesoBrutoTon() + AlgorithmUtils.calcularPesoCargaTotal(pedidos);
+        for (Ruta ruta : rutas) {
+            combustible -= ruta.getDistancia() * peso / 180.0;
+            if (ruta.isPuntoReabastecimiento()) {
+                combustible = CAPACIDAD_TANQUE_GALONES;
+            } else if (combustible < 0) {
+                return false;
+            }
+            if (ruta.isPuntoEntrega() && ruta.getPedidoEntrega() != null) {
+                peso -= AlgorithmUtils.calcularPesoCarga(ruta.getPedidoEntrega());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Distancia viable entre dos ubicaciones; si los bloqueos la impiden se usa la
+     * distancia Manhattan (evaluarSolucion penaliza el tramo bloqueado)
+     */
+    private double distanciaTramo(Ubicacion origen, Ubicacion destino, LocalDateTime tiempoActual) {
+        int distancia = grafo.calcularDistanciaViable(grafo.obtenerNodo(origen), grafo.obtenerNodo(destino), tiempoActual);
+        return distancia >= 0 ? distancia : calcularDistancia(origen, destino);
+    }
+
+    /**
+     * Verifica si se agotó el presupuesto de tiempo de la ejecución (si hay uno configurado)
+     */
+    private boolean presupuestoAgotado() {
+        long presupuesto = parameters.getPresupuestoTiempoMs();
+        return presupuesto > 0 && System.currentTimeMillis() - tiempoInicioEjecucion >= presupuesto;
+    }
+
+    /**
+     * Notifica al observador la mejor solución global si mejoró desde la última notificación.
+     * Las rutas se convierten aquí para que el observador reciba una copia que el algoritmo
+     * ya no modifica.
+     */
+    private void notificarMejora() {
+        if (observadorProgreso == null || mejorSolucionGlobal == null || mejorCalidadGlobal <= calidadNotificada) {
+            return;
+        }
+        calidadNotificada = mejorCalidadGlobal;
+        observadorProgreso.mejoraEncontrada(iteracion, mejorSolucionGlobal, convertirSolucionARutas(mejorSolucionGlobal));
+    }
+
+    private List<Rutas> ejecutarIteraciones() {
+        logger.info("Iniciando algoritmo ACO con " + numeroIteraciones + " iteraciones");
 
         this.loggerACO = new ACOLogger();
         this.monitor = new ACOMonitor();
-        this.tiempoInicioEjecucion = System.currentTimeMillis();
 
         inicializarEstadosCamiones();
 
@@ -213,7 +534,9 @@ public class ACOAlgorithm {
         // Parámetros adaptativos para búsqueda ogi
         double factorBusquedaLocalInicial = factorBusquedaLocal;
 
-        while (iteracion < parameters.getNumeroIteraciones() && !estadoColapso) {
+        while (iteracion < numeroIteraciones && !estadoColapso) {
+            verificarCancelacion();
+
             // Verificar si toca replanificar
             if (ChronoUnit.MINUTES.between(ultimaReplanificacion, tiempoActual) >= frecuenciaReplanificacion) {
                 ultimaReplanificacion = tiempoActual;
@@ -253,6 +576,9 @@ public class ACOAlgorithm {
                     capacidadActualTanques
             );
 
+            // Listas de candidatos de la iteración (k pedidos más cercanos por ubicación)
+            listasCandidatos = new ListasCandidatos(mapa.getPedidos(), grafo, tiempoActual, parameters);
+
             // RF95: Priorización por nivel de combustible
             List<Camion> camionesPriorizados = priorizarCamionesPorCombustible();
 
@@ -261,40 +587,14 @@ public class ACOAlgorithm {
             // RF100: Gestión preventiva de inventario
             priorizarTanquesPorTiempoAgotamiento();
 
-            // Construcción de soluciones por cada hormiga
-            List<ACOSolution> soluciones = new ArrayList<>();
+            // Construcción de soluciones por cada hormiga (en paralelo; el estado compartido solo se lee)
+            List<ACOSolution> soluciones = construirSolucionesHormigas(camionesPriorizados, tiempoActual);
             ACOSolution mejorSolucionIteracion = null;
             double mejorCalidadIteracion = Double.NEGATIVE_INFINITY;
 
-            for (int i = 0; i < parameters.getNumeroHormigas(); i++) {
-                List<Camion> camionesHormiga = new ArrayList<>(camionesPriorizados);
-                Map<TipoAlmacen,Double> capacidadTanquesHormiga = new HashMap<>(capacidadActualTanques);
-
-                // Construir solución con una hormiga
-                Ant hormiga = colony.getHormigas().get(i);
-
-                // MODIFICACIÓN: Si es una de las primeras hormigas y hay histórico,
-                // usar solución histórica como guía
-                if (i < 2 && !historicoSoluciones.isEmpty() && random.nextDouble() < factorAprendizaje) {
-                    ACOSolution solucionGuia = seleccionarSolucionHistoricaAleatoria();
-                    hormiga.setSolucionGuia(solucionGuia);
-                }
-
-                // Construir solución
-                ACOSolution solucion = hormiga.construirSolucion(
-                        mapa.getPedidos(),
-                        camionesHormiga,
-                        pheromonesMatrix,
-                        heuristicCalculator,
-                        tiempoActual,
-                        grafo,
-                        capacidadTanquesHormiga
-                );
-
-                // NUEVA FUNCIONALIDAD: Aplicar búsqueda ogi
-                if (busquedaLocalActiva && random.nextDouble() < factorBusquedaLocal) {
-                    aplicarBusquedaLocal(solucion);
-                }
+            // Consolidar resultados en el orden de las hormigas
+            for (int i = 0; i < soluciones.size(); i++) {
+                ACOSolution solucion = soluciones.get(i);
 
                 System.out.println("\n=== Hormiga #" + (i + 1) + "  - Iteración " + iteracion + " ===");
                 if(solucion.getAsignaciones().isEmpty()){
@@ -310,10 +610,7 @@ public class ACOAlgorithm {
                             " pedidos no pudieron asignarse");
                 }
 
-                // Evaluar calidad de la solución
-                double calidad = evaluarSolucion(solucion, tiempoActual);
-                solucion.setCalidad(calidad);
-                soluciones.add(solucion);
+                double calidad = solucion.getCalidad();
 
                 // Actualizar mejor solución de esta iteración
                 if (calidad > mejorCalidadIteracion) {
@@ -331,6 +628,15 @@ public class ACOAlgorithm {
                 }
             }
 
+            // Presupuesto agotado durante la construcción: se conserva lo que terminaron las
+            // hormigas y no se gasta más tiempo en feromonas ni registros de la iteración
+            if (presupuestoAgotado()) {
+                logger.info("Presupuesto de tiempo agotado en la iteración " + iteracion
+                        + " con " + soluciones.size() + " hormigas terminadas");
+                notificarMejora();
+                break;
+            }
+
             // MODIFICACIÓN: Actualizar historial de soluciones
             if (mejorSolucionIteracion != null) {
                 historicoSoluciones.add(mejorSolucionIteracion.clone());
@@ -373,7 +679,7 @@ public class ACOAlgorithm {
 
             // Aplicar mecanismo anti-estancamiento si es necesario
             if (iterSinMejora >= parameters.getMaxIteracionesSinMejora()) {
-                if (iteracion < parameters.getNumeroIteraciones() * parameters.getUmbralConvergenciaTemprana()) {
+                if (iteracion < numeroIteraciones * parameters.getUmbralConvergenciaTemprana()) {
                     // Convergencia temprana: perturbar para escapar de óptimo ogi
                     pheromonesMatrix.perturbarFeromonas(parameters.getFeromonaInicial());
                     iterSinMejora = 0;
@@ -397,6 +703,16 @@ public class ACOAlgorithm {
             monitor.registrarIteracion(iteracion, mejorSolucionGlobal,
                     mapa.getPedidos().size(), camionesPriorizados);
             iteracion++;
+            if (observadorProgreso != null) {
+                observadorProgreso.iteracionCompletada(iteracion, numeroIteraciones, mejorSolucionGlobal);
+                notificarMejora();
+            }
+
+            // Modo anytime: al agotar el presupuesto se devuelve la mejor solución hasta ahora
+            if (presupuestoAgotado()) {
+                logger.info("Presupuesto de tiempo agotado en la iteración " + iteracion);
+                break;
+            }
 
             // Avanzar tiempo para simulación
             if (mapa.getFechaInicio() != null) {
@@ -405,13 +721,15 @@ public class ACOAlgorithm {
         }
 
         logger.info("Algoritmo ACO finalizado después de " + iteracion + " iteraciones");
+        verificarCancelacion();
 
         // MODIFICACIÓN: Aplicar búsqueda ogi intensiva a la mejor solución final
         if (mejorSolucionGlobal != null) {
             logger.info("Aplicando búsqueda ogi intensiva a la mejor solución global");
             double factorOriginal = factorBusquedaLocal;
             factorBusquedaLocal = 1.0; // Máxima intensidad
-            for (int i = 0; i < 10; i++) { // Múltiples iteraciones de mejora
+            // Múltiples iteraciones de mejora, mientras quede presupuesto de tiempo
+            for (int i = 0; i < 10 && !presupuestoAgotado(); i++) {
                 aplicarBusquedaLocal(mejorSolucionGlobal);
             }
             factorBusquedaLocal = factorOriginal;
@@ -444,6 +762,103 @@ public class ACOAlgorithm {
         return convertirSolucionARutas(mejorSolucionGlobal);
     }
 
+    /**
+     * Construye, mejora y evalúa la solución de cada hormiga.
+     * Se ejecuta en el pool de hormigas si está disponible; el resultado
+     * conserva el orden de las hormigas, por lo que no depende del número de hilos.
+     * Con el presupuesto de tiempo agotado, las hormigas que aún no empezaron no se construyen
+     * (salvo la primera si todavía no hay ninguna solución) y se devuelven solo las terminadas.
+     */
+    private List<ACOSolution> construirSolucionesHormigas(List<Camion> camionesPriorizados, LocalDateTime tiempoActual) {
+        int numHormigas = parameters.getNumeroHormigas();
+        List<ACOSolution> soluciones = new ArrayList<>(numHormigas);
+
+        if (poolHormigas == null) {
+            for (int i = 0; i < numHormigas && debeConstruirHormiga(i); i++) {
+                soluciones.add(construirSolucionHormiga(i, camionesPriorizados, tiempoActual));
+            }
+            return soluciones;
+        }
+
+        List<Callable<ACOSolution>> tareas = new ArrayList<>(numHormigas);
+        for (int i = 0; i < numHormigas; i++) {
+            final int indice = i;
+            tareas.add(() -> debeConstruirHormiga(indice)
+                    ? construirSolucionHormiga(indice, camionesPriorizados, tiempoActual) : null);
+        }
+
+        try {
+            for (Future<ACOSolution> futuro : poolHormigas.invokeAll(tareas)) {
+                ACOSolution solucion = futuro.get();
+                if (solucion != null) {
+                    soluciones.add(solucion);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Construcción de soluciones interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error al construir la solución de una hormiga: " + e.getCause().getMessage(), e.getCause());
+        }
+        return soluciones;
+    }
+
+    private boolean debeConstruirHormiga(int indice) {
+        return !presupuestoAgotado() || (indice == 0 && mejorSolucionGlobal == null);
+    }
+
+    /**
+     * Construye la solución de una hormiga con su propio generador aleatorio.
+     * No modifica feromonas, heurística, grafo ni el estado del algoritmo.
+     */
+    private ACOSolution construirSolucionHormiga(int indice, List<Camion> camionesPriorizados, LocalDateTime tiempoActual) {
+        List<Camion> camionesHormiga = new ArrayList<>(camionesPriorizados);
+        Map<TipoAlmacen,Double> capacidadTanquesHormiga = new HashMap<>(capacidadActualTanques);
+
+        // Construir solución con una hormiga
+        Ant hormiga = colony.getHormigas().get(indice);
+        hormiga.reiniciarAleatorio(semillaHormiga(indice));
+        hormiga.setListasCandidatos(listasCandidatos);
+        Random aleatorioHormiga = hormiga.getRandom();
+
+        // MODIFICACIÓN: Si es una de las primeras hormigas y hay histórico,
+        // usar solución histórica como guía
+        if (indice < 2 && !historicoSoluciones.isEmpty() && aleatorioHormiga.nextDouble() < factorAprendizaje) {
+            ACOSolution solucionGuia = seleccionarSolucionHistoricaAleatoria(aleatorioHormiga);
+            hormiga.setSolucionGuia(solucionGuia);
+        }
+
+        // Construir solución
+        ACOSolution solucion = hormiga.construirSolucion(
+                mapa.getPedidos(),
+                camionesHormiga,
+                pheromonesMatrix,
+                heuristicCalculator,
+                tiempoActual,
+                grafo,
+                capacidadTanquesHormiga
+        );
+
+        // NUEVA FUNCIONALIDAD: Aplicar búsqueda ogi
+        if (busquedaLocalActiva && aleatorioHormiga.nextDouble() < factorBusquedaLocal) {
+            aplicarBusquedaLocal(solucion);
+        }
+
+        // Evaluar calidad de la solución
+        solucion.setCalidad(evaluarSolucion(solucion, tiempoActual));
+        return solucion;
+    }
+
+    /**
+     * Semilla determinista de una hormiga para la iteración actual (mezcla tipo SplitMix64)
+     */
+    private long semillaHormiga(int indice) {
+        long z = parameters.getSemilla() + 0x9E3779B97F4A7C15L * (((long) iteracion << 20) + indice + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
     /**
      * RF97: Detección de inconsistencias en los datos de entrada
      * @return true si se detectaron inconsistencias, false en caso contrario
@@ -481,16 +896,14 @@ public class ACOAlgorithm {
                 inconsistenciasDetectadas = true;
             }
 
-            // Verificar que los tramos sean adyacentes
-            for (int i = 0; i < bloqueo.getTramos().size() - 1; i++) {
-                if (!sonAdyacentes(bloqueo.getTramos().get(i), bloqueo.getTramos().get(i + 1))) {
-                    errores.add("Bloqueo en " + bloqueo.getFechaInicio());
-                    for(Ubicacion tramo : bloqueo.getTramos()){
-                        errores.add("Tramo: " + tramo.getX() + "," + tramo.getY());
-                    }
-                    errores.add("Bloqueo en " + bloqueo.getFechaInicio() + ": Tramos no adyacentes");
-                    inconsistenciasDetectadas = true;
+            // Verificar que los tramos sean horizontales o verticales
+            if (!bloqueo.esRectilineo()) {
+                errores.add("Bloqueo en " + bloqueo.getFechaInicio());
+                for (int i = 0; i < bloqueo.numeroVertices(); i++) {
+                    errores.add("Tramo: " + bloqueo.verticeX(i) + "," + bloqueo.verticeY(i));
                 }
+                errores.add("Bloqueo en " + bloqueo.getFechaInicio() + ": Tramos no rectilíneos");
+                inconsistenciasDetectadas = true;
             }
         }
 
@@ -521,13 +934,6 @@ public class ACOAlgorithm {
         return inconsistenciasDetectadas;
     }
 
-    /**
-     * Verifica si dos ubicaciones son adyacentes (están a distancia 1)
-     */
-    private boolean sonAdyacentes(Ubicacion u1, Ubicacion u2) {
-        return Math.abs(u1.getX() - u2.getX()) + Math.abs(u1.getY() - u2.getY()) == 1;
-    }
-
     /**
      * Verifica si una coordenada está dentro del rango válido del mapa
      */
@@ -882,17 +1288,14 @@ public class ACOAlgorithm {
      * Verifica si hay un bloqueo que afecte a una ruta en un momento dado
      */
     private boolean hayBloqueoEnRuta(Ruta ruta, LocalDateTime tiempo) {
-        for (Bloqueo bloqueo : mapa.getBloqueos()) {
-            if (estaActivoEnTiempo(bloqueo, tiempo)) {
-                // Verificar si algún punto de la ruta intersecta con el bloqueo
-                for (Ubicacion puntoBloqueo : bloqueo.getTramos()) {
-                    if (ruta.contienePunto(puntoBloqueo)) {
-                        return true;
-                    }
-                }
-            }
+        // Los puntos de la ruta son su origen y su destino (ver Ruta.contienePunto)
+        IndiceBloqueos indice = mapa.indiceBloqueos();
+        int intervalo = indice.intervalo(tiempo);
+        if (intervalo < 0) {
+            return false;
         }
-        return false;
+        return indice.estaBloqueada(intervalo, indice.idCelda(ruta.getOrigen().getX(), ruta.getOrigen().getY()))
+                || indice.estaBloqueada(intervalo, indice.idCelda(ruta.getDestino().getX(), ruta.getDestino().getY()));
     }
 
     /**
@@ -953,10 +1356,12 @@ public class ACOAlgorithm {
 
             // Convertir las rutas de la solución a lista de ubicaciones
             List<Ubicacion> ubicaciones = new ArrayList<>();
-            for (Ruta ruta : asignacion.getRutas()) {
+            List<Ruta> rutasAsignacion = asignacion.getRutas();
+            for (int i = 0; i < rutasAsignacion.size(); i++) {
+                Ruta ruta = rutasAsignacion.get(i);
                 ubicaciones.add(ruta.getOrigen());
                 // La última ruta añade también el destino
-                if (asignacion.getRutas().indexOf(ruta) == asignacion.getRutas().size() - 1) {
+                if (i == rutasAsignacion.size() - 1) {
                     ubicaciones.add(ruta.getDestino());
                 }
             }
@@ -1348,7 +1753,7 @@ public class ACOAlgorithm {
                 return almacen.getUbicacion();
             }
         }
-        return new Ubicacion(12, 8); // Valor por defecto
+        return Ubicacion.of(12, 8); // Valor por defecto
     }
 
     /**
@@ -1364,10 +1769,9 @@ public class ACOAlgorithm {
                 int destino = calcularIdNodo(ruta.getDestino());
 
                 // Incrementar contador de frecuencia
-                if (origen >= 0 && origen < matrizFrecuenciaAristas.length &&
-                        destino >= 0 && destino < matrizFrecuenciaAristas[0].length) {
-                    matrizFrecuenciaAristas[origen][destino]++;
-                    matrizFrecuenciaAristas[destino][origen]++; // Grafo no dirigido
+                if (origen >= 0 && destino >= 0) {
+                    frecuenciaAristas.sumar(TablaAristas.clave(origen, destino), 1, 0);
+                    frecuenciaAristas.sumar(TablaAristas.clave(destino, origen), 1, 0); // Grafo no dirigido
                 }
             }
         }
@@ -1378,8 +1782,7 @@ public class ACOAlgorithm {
      */
     private int calcularIdNodo(Ubicacion ubicacion) {
         // Este cálculo debe ser coherente con la forma en que se asignan IDs en el grafo
-        int ancho = mapa.getAncho() + 1;
-        return ubicacion.getY() * ancho + ubicacion.getX();
+        return grafo.calcularId(ubicacion);
     }
 
     /**
@@ -1387,44 +1790,30 @@ public class ACOAlgorithm {
      */
     private void actualizarHeuristicaConConocimientoHistorico() {
         // Solo aplicar si hay información histórica
-        if (historicoSoluciones.isEmpty() || matrizFrecuenciaAristas == null) {
+        if (historicoSoluciones.isEmpty() || frecuenciaAristas == null) {
             return;
         }
 
         // Factor de influencia del conocimiento histórico
-        double factorInfluencia = factorAprendizaje * (1.0 - (double)iteracion / parameters.getNumeroIteraciones());
-
-        // Obtener la matriz heurística original
-        double[][] matrizHeuristicaOriginal = heuristicCalculator.getMatrizHeuristicaActual();
-
-        // Crear copia para modificar
-        double[][] matrizModificada = new double[matrizHeuristicaOriginal.length][];
-        for (int i = 0; i < matrizHeuristicaOriginal.length; i++) {
-            matrizModificada[i] = matrizHeuristicaOriginal[i].clone();
-        }
+        double factorInfluencia = factorAprendizaje * (1.0 - (double)iteracion / numeroIteraciones);
 
-        // Aplicar conocimiento histórico
-        for (int i = 0; i < matrizFrecuenciaAristas.length; i++) {
-            for (int j = 0; j < matrizFrecuenciaAristas[i].length; j++) {
-                if (matrizFrecuenciaAristas[i][j] > 0 &&
-                        i < matrizModificada.length &&
-                        j < matrizModificada[i].length) {
-
-                    // Incrementar heurística según frecuencia histórica
-                    double incremento = Math.log(1 + matrizFrecuenciaAristas[i][j]) * factorInfluencia;
-                    matrizModificada[i][j] *= (1.0 + incremento);
-                }
+        // Aplicar conocimiento histórico sobre las aristas usadas anteriormente
+        for (int pos = 0; pos < frecuenciaAristas.capacidad(); pos++) {
+            if (!frecuenciaAristas.ocupada(pos)) {
+                continue;
             }
-        }
+            long clave = frecuenciaAristas.claveEn(pos);
 
-        // Establecer matriz modificada
-        heuristicCalculator.setMatrizHeuristicaActual(matrizModificada);
+            // Incrementar heurística según frecuencia histórica
+            double incremento = Math.log(1 + frecuenciaAristas.valorEn(pos)) * factorInfluencia;
+            heuristicCalculator.multiplicarValor(TablaAristas.origenDe(clave), TablaAristas.destinoDe(clave), 1.0 + incremento);
+        }
     }
 
     /**
      * Selecciona una solución histórica aleatoria dando más peso a las mejores
      */
-    private ACOSolution seleccionarSolucionHistoricaAleatoria() {
+    private ACOSolution seleccionarSolucionHistoricaAleatoria(Random aleatorio) {
         if (historicoSoluciones.isEmpty()) {
             return null;
         }
@@ -1444,7 +1833,7 @@ public class ACOAlgorithm {
         }
 
         // Selección por ruleta
-        double seleccion = Math.random() * total;
+        double seleccion = aleatorio.nextDouble() * total;
         double acumulado = 0;
 
         for (int i = 0; i < ordenadas.size(); i++) {
@@ -1503,7 +1892,7 @@ public class ACOAlgorithm {
      */
     private void ajustarEstrategiaBusquedaLocal() {
         // Calcular progreso (0 a 1)
-        double progreso = (double)iteracion / parameters.getNumeroIteraciones();
+        double progreso = (double)iteracion / numeroIteraciones;
 
         // En etapas iniciales, menos búsqueda ogi para favorecer diversificación
         if (progreso < 0.3) {
@@ -1533,7 +1922,7 @@ public class ACOAlgorithm {
         }
 
         // Tomar una solución buena aleatoria del histórico
-        int indice = new Random().nextInt(Math.min(historicoSoluciones.size(), 3));
+        int indice = random.nextInt(Math.min(historicoSoluciones.size(), 3));
         ACOSolution solucionHistorica = historicoSoluciones.get(indice);
 
         logger.info("Incorporando conocimiento de solución histórica con calidad " +
@@ -50,6 +50,16 @@ public class ACOParameters {
     // Máximo de pedidos por grupo en agrupamiento inteligente
     private int maxPedidosPorGrupo = 5;
 
+    // Pedidos más cercanos que se evalúan en cada paso de construcción (lista de candidatos)
+    private int numeroCandidatos = 10;
+
+    // Parámetros de ejecución
+    private int numeroHilos = Runtime.getRuntime().availableProcessors(); // Hilos para construir soluciones
+    private long semilla = System.nanoTime(); // Fijarla permite reproducir una ejecución
+    // Modo anytime: tras este tiempo se devuelve la mejor solución encontrada (0 = sin límite).
+    // Se revisa antes de cada hormiga: las que no empezaron se omiten y siempre se construye al menos una
+    private long presupuestoTiempoMs = 0;
+
     /**
      * Constructor por defecto con valores predefinidos
      */
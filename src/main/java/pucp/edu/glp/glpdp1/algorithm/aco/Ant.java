@@ -37,6 +37,16 @@ public class Ant {
     // NUEVO: Solución guía para construcción
     private ACOSolution solucionGuia;
 
+    // Listas de candidatos de la iteración (null para evaluar siempre todos los pedidos)
+    private ListasCandidatos listasCandidatos;
+
+    // Pedidos pendientes de la ruta en construcción, marcados por índice con un sello
+    private int[] selloPendiente = new int[0];
+    private int selloRuta;
+    private final List<Pedido> candidatosPendientes = new ArrayList<>();
+    private int[] mejoresCandidatos = new int[0];
+    private int[] distanciasCandidatos = new int[0];
+
     /**
      * Constructor
      * @param id Identificador único de la hormiga
@@ -45,8 +55,15 @@ public class Ant {
     public Ant(int id, ACOParameters parameters) {
         this.id = id;
         this.parameters = parameters;
-        this.random = new Random();
-        this.random = new Random(System.nanoTime() + id * 1000);
+        this.random = new Random(parameters.getSemilla() + id * 1000L);
+    }
+
+    /**
+     * Reinicia el generador aleatorio de la hormiga con una semilla determinista
+     * @param semilla Semilla derivada de la semilla global, la iteración y el ID de la hormiga
+     */
+    public void reiniciarAleatorio(long semilla) {
+        this.random = new Random(semilla);
     }
 
     /**
@@ -65,16 +82,15 @@ public class Ant {
         // Crear solución vacía
         ACOSolution solucion = new ACOSolution();
 
-        Collections.shuffle(pedidos, random);
+        // Hacer copia de los pedidos para no modificar la lista original (compartida entre hormigas)
+        List<Pedido> pedidosPendientes = new ArrayList<>(pedidos);
+        Collections.shuffle(pedidosPendientes, random);
 
         Collections.shuffle(camionesDisponibles, random);
 
         // IMPORTANTE: Hacer copia de los camiones disponibles para esta hormiga
         List<Camion> camionesDisponiblesHormiga = new ArrayList<>(camionesDisponibles);
 
-        // Hacer copia de los pedidos para no modificar la lista original
-        List<Pedido> pedidosPendientes = new ArrayList<>(pedidos);
-
         // Copia de capacidad de tanques para esta hormiga
         Map<TipoAlmacen,Double> capacidadTanquesHormiga = new HashMap<>(capacidadTanques);
 
@@ -84,11 +100,11 @@ public class Ant {
         // Ordenar grupos por urgencia (del más urgente al menos urgente)
         gruposPedidos.sort((g1, g2) -> {
             double urgenciaMaxG1 = g1.stream()
-                    .mapToDouble(UrgencyCalculator::calcularUrgenciaNormalizada)
+                    .mapToDouble(p -> UrgencyCalculator.calcularUrgenciaNormalizada(p, tiempoActual))
                     .max()
                     .orElse(0);
             double urgenciaMaxG2 = g2.stream()
-                    .mapToDouble(UrgencyCalculator::calcularUrgenciaNormalizada)
+                    .mapToDouble(p -> UrgencyCalculator.calcularUrgenciaNormalizada(p, tiempoActual))
                     .max()
                     .orElse(0);
             return Double.compare(urgenciaMaxG2, urgenciaMaxG1); // Orden descendente
@@ -282,6 +298,7 @@ public class Ant {
 
         // Lista de pedidos por entregar
         List<Pedido> pedidosRestantes = new ArrayList<>(pedidos);
+        marcarPendientes(pedidosRestantes);
 
         // Variables para control de combustible
         double combustibleActual = camion.getGalones();
@@ -300,7 +317,8 @@ public class Ant {
                     pedidosRestantes,
                     feromonas,
                     heuristica,
-                    grafo
+                    grafo,
+                    tiempoActual
             );
 
             // Ubicación del siguiente pedido
@@ -328,16 +346,16 @@ public class Ant {
                         capacidadTanquesHormiga
                 );
 
-                // Construir ruta hasta tanque
-                List<Nodo> caminoHastaTanque = grafo.encontrarRutaViable(
+                // Calcular ruta hasta tanque (solo su longitud)
+                int distanciaHastaTanque = grafo.calcularDistanciaViable(
                         nodoActual,
                         grafo.obtenerNodo(tanqueMasConveniente),
                         tiempoActual
                 );
 
-                if (caminoHastaTanque.isEmpty()) {
+                if (distanciaHastaTanque < 0) {
                     // No se pudo encontrar ruta viable, el pedido no se puede entregar
-                    pedidosRestantes.remove(siguiente);
+                    retirarPendiente(pedidosRestantes, siguiente);
                     solucion.addPedidoNoAsignado(siguiente);
                     continue;
                 }
@@ -346,7 +364,7 @@ public class Ant {
                 Ruta rutaReabastecimiento = new Ruta();
                 rutaReabastecimiento.setOrigen(nodoActual.getUbicacion());
                 rutaReabastecimiento.setDestino(tanqueMasConveniente);
-                rutaReabastecimiento.setDistancia(calcularDistanciaRuta(caminoHastaTanque));
+                rutaReabastecimiento.setDistancia(distanciaHastaTanque);
                 rutaReabastecimiento.setPuntoReabastecimiento(true);
                 rutas.add(rutaReabastecimiento);
 
@@ -372,16 +390,16 @@ public class Ant {
                 }
             }
 
-            // Construir ruta hasta el siguiente pedido
-            List<Nodo> caminoHastaPedido = grafo.encontrarRutaViable(
+            // Calcular ruta hasta el siguiente pedido (solo su longitud)
+            int distanciaHastaPedido = grafo.calcularDistanciaViable(
                     nodoActual,
                     nodoSiguiente,
                     tiempoActual
             );
 
-            if (caminoHastaPedido.isEmpty()) {
+            if (distanciaHastaPedido < 0) {
                 // No se pudo encontrar ruta viable, el pedido no se puede entregar
-                pedidosRestantes.remove(siguiente);
+                retirarPendiente(pedidosRestantes, siguiente);
                 solucion.addPedidoNoAsignado(siguiente);
                 continue;
             }
@@ -390,7 +408,7 @@ public class Ant {
             Ruta rutaEntrega = new Ruta();
             rutaEntrega.setOrigen(nodoActual.getUbicacion());
             rutaEntrega.setDestino(ubicacionSiguiente);
-            rutaEntrega.setDistancia(calcularDistanciaRuta(caminoHastaPedido));
+            rutaEntrega.setDistancia(distanciaHastaPedido);
             rutaEntrega.setPuntoEntrega(true);
             rutaEntrega.setPedidoEntrega(siguiente);
             rutas.add(rutaEntrega);
@@ -407,30 +425,30 @@ public class Ant {
             distanciaMaximaPosible = (combustibleActual * 180) / pesoTotal;
 
             // Eliminar pedido de pendientes
-            pedidosRestantes.remove(siguiente);
+            retirarPendiente(pedidosRestantes, siguiente);
         }
 
         // Añadir ruta de regreso al almacén más cercano
         Ubicacion almacenRegreso = encontrarAlmacenMasCercano(nodoActual.getUbicacion(), grafo);
-        List<Nodo> caminoRegreso = grafo.encontrarRutaViable(
+        int distanciaRegreso = grafo.calcularDistanciaViable(
                 nodoActual,
                 grafo.obtenerNodo(almacenRegreso),
                 tiempoActual
         );
 
         // Si no hay ruta viable de regreso, intentar con otro almacén
-        if (caminoRegreso.isEmpty()) {
+        if (distanciaRegreso < 0) {
             List<Ubicacion> otrosAlmacenes = obtenerUbicacionesAlmacenes(grafo);
             otrosAlmacenes.remove(almacenRegreso);
 
             for (Ubicacion otroAlmacen : otrosAlmacenes) {
-                caminoRegreso = grafo.encontrarRutaViable(
+                distanciaRegreso = grafo.calcularDistanciaViable(
                         nodoActual,
                         grafo.obtenerNodo(otroAlmacen),
                         tiempoActual
                 );
 
-                if (!caminoRegreso.isEmpty()) {
+                if (distanciaRegreso >= 0) {
                     almacenRegreso = otroAlmacen;
                     break;
                 }
@@ -438,7 +456,7 @@ public class Ant {
         }
 
         // Si aún no hay ruta viable de regreso, crear una ruta vacía (caso extremo)
-        if (caminoRegreso.isEmpty()) {
+        if (distanciaRegreso < 0) {
             almacenRegreso = obtenerUbicacionAlmacenCentral(grafo);
         }
 
@@ -446,7 +464,7 @@ public class Ant {
         Ruta rutaRegreso = new Ruta();
         rutaRegreso.setOrigen(nodoActual.getUbicacion());
         rutaRegreso.setDestino(almacenRegreso);
-        rutaRegreso.setDistancia(caminoRegreso.isEmpty() ? 0 : calcularDistanciaRuta(caminoRegreso));
+        rutaRegreso.setDistancia(Math.max(distanciaRegreso, 0));
         rutaRegreso.setPuntoRegreso(true);
         rutas.add(rutaRegreso);
 
@@ -455,9 +473,10 @@ public class Ant {
 
         // Calcular consumo total
         double consumoTotal = 0;
-        for (Ruta ruta : rutas) {
+        for (int i = 0; i < rutas.size(); i++) {
+            Ruta ruta = rutas.get(i);
             // Para cada tramo, calcular el consumo según el peso en ese momento
-            double pesoTramo = pesoCamion + (pedidos.size() - rutas.indexOf(ruta)) * 0.5;
+            double pesoTramo = pesoCamion + (pedidos.size() - i) * 0.5;
             double consumoTramo = (ruta.getDistancia() * pesoTramo) / 180.0;
             consumoTotal += consumoTramo;
         }
@@ -476,7 +495,8 @@ public class Ant {
             List<Pedido> pedidosRestantes,
             PheromoneMatrix feromonas,
             HeuristicCalculator heuristica,
-            GrafoRutas grafo) {
+            GrafoRutas grafo,
+            LocalDateTime tiempoActual) {
 
         // ADAPTACIÓN: Si hay solución guía, consultarla primero (25% de probabilidad)
         if (solucionGuia != null && random.nextDouble() < 0.25) {
@@ -492,16 +512,18 @@ public class Ant {
             return pedidosRestantes.get(random.nextInt(pedidosRestantes.size()));
         }
 
+        // Solo se evalúan los pedidos pendientes más cercanos (todos si la lista se agotó)
+        List<Pedido> candidatos = obtenerCandidatos(nodoActual, pedidosRestantes, grafo);
+
         // Implementación de la regla de pseudoaleatorio proporcional
         if (random.nextDouble() < q0Efectivo) {
             // Explotación: elegir el mejor según feromonas y heurística
             double mejorValor = Double.NEGATIVE_INFINITY;
             Pedido mejorPedido = null;
 
-            for (Pedido pedido : pedidosRestantes) {
-                Nodo nodoPedido = grafo.obtenerNodo(pedido.getDestino());
+            for (Pedido pedido : candidatos) {
                 int idNodoActual = nodoActual.getId();
-                int idNodoPedido = nodoPedido.getId();
+                int idNodoPedido = idNodoPedido(pedido, grafo);
 
                 double valorFeromona = feromonas.getValor(idNodoActual, idNodoPedido);
                 double valorHeuristica = heuristica.getValorHeuristica(idNodoActual, idNodoPedido);
@@ -509,8 +531,7 @@ public class Ant {
                 double ruido = 1.0 + (random.nextDouble()-0.5);
 
                 // Ajustar por urgencia
-                double urgencia = UrgencyCalculator.calcularUrgenciaNormalizada(pedido);
-                double factorUrgencia = 1.0 + urgencia * parameters.getFactorPriorizacionUrgencia();
+                double factorUrgencia = factorUrgencia(pedido, tiempoActual);
 
                 double valor = Math.pow(valorFeromona, parameters.getAlfa()) *
                         Math.pow(valorHeuristica, parameters.getBeta()) *
@@ -522,16 +543,15 @@ public class Ant {
                 }
             }
 
-            return mejorPedido != null ? mejorPedido : pedidosRestantes.get(0);
+            return mejorPedido != null ? mejorPedido : candidatos.get(0);
         } else {
             // Exploración: selección probabilística
             double total = 0;
-            Map<Pedido, Double> probabilidades = new HashMap<>();
+            Map<Pedido, Double> probabilidades = new LinkedHashMap<>(); // Orden estable para la ruleta
 
-            for (Pedido pedido : pedidosRestantes) {
-                Nodo nodoPedido = grafo.obtenerNodo(pedido.getDestino());
+            for (Pedido pedido : candidatos) {
                 int idNodoActual = nodoActual.getId();
-                int idNodoPedido = nodoPedido.getId();
+                int idNodoPedido = idNodoPedido(pedido, grafo);
 
                 double valorFeromona = feromonas.getValor(idNodoActual, idNodoPedido);
                 double valorHeuristica = heuristica.getValorHeuristica(idNodoActual, idNodoPedido);
@@ -539,8 +559,7 @@ public class Ant {
                 double pertubacion = 0.9 + 0.2 * random.nextDouble();
 
                 // Ajustar por urgencia
-                double urgencia = UrgencyCalculator.calcularUrgenciaNormalizada(pedido);
-                double factorUrgencia = 1.0 + urgencia * parameters.getFactorPriorizacionUrgencia();
+                double factorUrgencia = factorUrgencia(pedido, tiempoActual);
 
                 double valor = Math.pow(valorFeromona, parameters.getAlfa()) *
                         Math.pow(valorHeuristica, parameters.getBeta()) *
@@ -562,10 +581,99 @@ public class Ant {
             }
 
             // Si por algún error numérico no se seleccionó ninguno, devolver el primero
-            return pedidosRestantes.get(random.nextInt(pedidosRestantes.size()));
+            return candidatos.get(random.nextInt(candidatos.size()));
         }
     }
 
+    /**
+     * Obtiene los k pedidos pendientes de la ruta más cercanos al nodo actual.
+     * Si no hay listas o quedan k pedidos o menos, devuelve todos los pendientes.
+     */
+    private List<Pedido> obtenerCandidatos(Nodo nodoActual, List<Pedido> pedidosRestantes, GrafoRutas grafo) {
+        if (listasCandidatos == null) {
+            return pedidosRestantes;
+        }
+        int k = listasCandidatos.getNumeroCandidatos();
+        if (pedidosRestantes.size() <= k) {
+            return pedidosRestantes;
+        }
+
+        // Si los k más cercanos de la iteración siguen todos pendientes, son también los k más
+        // cercanos entre los pendientes de la ruta
+        candidatosPendientes.clear();
+        for (int indice : listasCandidatos.vecinosDe(grafo, nodoActual.getId())) {
+            if (selloPendiente[indice] == selloRuta) {
+                candidatosPendientes.add(listasCandidatos.getPedido(indice));
+            }
+        }
+        if (candidatosPendientes.size() == k) {
+            return candidatosPendientes;
+        }
+
+        // Si no, se buscan directamente entre los pendientes de la ruta
+        if (mejoresCandidatos.length != k) {
+            mejoresCandidatos = new int[k];
+            distanciasCandidatos = new int[k];
+        }
+        int encontrados = listasCandidatos.masCercanosEntre(grafo.coordenadaX(nodoActual.getId()),
+                grafo.coordenadaY(nodoActual.getId()), pedidosRestantes, mejoresCandidatos, distanciasCandidatos);
+        if (encontrados < 0) {
+            return pedidosRestantes;
+        }
+        candidatosPendientes.clear();
+        for (int i = 0; i < encontrados; i++) {
+            candidatosPendientes.add(listasCandidatos.getPedido(mejoresCandidatos[i]));
+        }
+        return candidatosPendientes;
+    }
+
+    /**
+     * Marca los pedidos de una nueva ruta como pendientes
+     */
+    private void marcarPendientes(List<Pedido> pedidosRestantes) {
+        if (listasCandidatos == null) {
+            return;
+        }
+        if (selloPendiente.length < listasCandidatos.size()) {
+            selloPendiente = new int[listasCandidatos.size()];
+            selloRuta = 0;
+        }
+        selloRuta++;
+        for (Pedido pedido : pedidosRestantes) {
+            int indice = listasCandidatos.indice(pedido);
+            if (indice >= 0) {
+                selloPendiente[indice] = selloRuta;
+            }
+        }
+    }
+
+    /**
+     * Quita un pedido de los pendientes de la ruta
+     */
+    private void retirarPendiente(List<Pedido> pedidosRestantes, Pedido pedido) {
+        pedidosRestantes.remove(pedido);
+        if (listasCandidatos != null) {
+            int indice = listasCandidatos.indice(pedido);
+            if (indice >= 0) {
+                selloPendiente[indice] = 0;
+            }
+        }
+    }
+
+    private int idNodoPedido(Pedido pedido, GrafoRutas grafo) {
+        int indice = listasCandidatos != null ? listasCandidatos.indice(pedido) : -1;
+        return indice >= 0 ? listasCandidatos.getIdNodo(indice) : grafo.calcularId(pedido.getDestino());
+    }
+
+    private double factorUrgencia(Pedido pedido, LocalDateTime tiempoActual) {
+        int indice = listasCandidatos != null ? listasCandidatos.indice(pedido) : -1;
+        if (indice >= 0) {
+            return listasCandidatos.getFactorUrgencia(indice);
+        }
+        double urgencia = UrgencyCalculator.calcularUrgenciaNormalizada(pedido, tiempoActual);
+        return 1.0 + urgencia * parameters.getFactorPriorizacionUrgencia();
+    }
+
     /**
      * Consulta la solución guía para encontrar un siguiente pedido recomendado
      */
@@ -655,7 +763,7 @@ public class Ant {
         // Si no hay tanques intermedios con capacidad, usar el almacén central
         Ubicacion almacenCentral = null;
 
-        Map<Ubicacion, Double> puntuaciones = new HashMap<>();
+        Map<Ubicacion, Double> puntuaciones = new LinkedHashMap<>();
 
         for (Ubicacion ubicacionAlmacen : ubicacionesAlmacenes) {
             TipoAlmacen tipoAlmacen = obtenerTipoAlmacen(ubicacionAlmacen, grafo);
@@ -761,19 +869,6 @@ public class Ant {
         return null;
     }
 
-    /**
-     * Calcula la distancia total de una ruta (lista de nodos)
-     */
-    private double calcularDistanciaRuta(List<Nodo> nodos) {
-        double distancia = 0;
-        for (int i = 0; i < nodos.size() - 1; i++) {
-            distancia += DistanceCalculator.calcularDistanciaManhattan(
-                    nodos.get(i).getUbicacion(),
-                    nodos.get(i + 1).getUbicacion());
-        }
-        return distancia;
-    }
-
     /**
      * Calcula el volumen necesario para reabastecimiento
      */
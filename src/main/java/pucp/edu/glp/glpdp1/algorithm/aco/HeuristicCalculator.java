@@ -1,9 +1,9 @@
 package pucp.edu.glp.glpdp1.algorithm.aco;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import pucp.edu.glp.glpdp1.algorithm.model.GrafoRutas;
-import pucp.edu.glp.glpdp1.algorithm.model.Nodo;
 import pucp.edu.glp.glpdp1.algorithm.utils.DistanceCalculator;
 import pucp.edu.glp.glpdp1.algorithm.utils.UrgencyCalculator;
 import pucp.edu.glp.glpdp1.domain.Bloqueo;
@@ -12,24 +12,78 @@ import pucp.edu.glp.glpdp1.domain.Ubicacion;
 import pucp.edu.glp.glpdp1.domain.enums.TipoAlmacen;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Calcula y mantiene la matriz de heurística para el algoritmo ACO.
+ * Calcula y mantiene la heurística para el algoritmo ACO.
  * Incluye funcionalidad para actualizar la heurística dinámicamente según
  * bloqueos, pedidos urgentes y otros factores.
+ * La heurística base (inverso de la distancia Manhattan) se calcula al vuelo;
+ * los ajustes dinámicos se guardan como multiplicadores dispersos por arista
+ * y como influencias radiales alrededor de pedidos urgentes y tanques.
+ * Cada influencia solo se registra en los nodos de su ventana (rombo de radio
+ * RADIO_INFLUENCIA recorrido con una plantilla precalculada), de modo que su costo
+ * depende de radio² y no del tamaño de la rejilla.
  */
 @Getter
 @Setter
 public class HeuristicCalculator {
 
-    private double[][] matrizHeuristicaBase;
-    private double[][] matrizHeuristicaActual;
+    // Radio (distancia Manhattan) de influencia de pedidos urgentes y tanques
+    private static final int RADIO_INFLUENCIA = 15;
+
+    // Plantilla de desplazamientos (dx, dy) con 0 < |dx| + |dy| < RADIO_INFLUENCIA
+    private static final int[] PLANTILLA_DX;
+    private static final int[] PLANTILLA_DY;
+
+    static {
+        List<int[]> desplazamientos = new ArrayList<>();
+        for (int dx = -RADIO_INFLUENCIA + 1; dx < RADIO_INFLUENCIA; dx++) {
+            int restante = RADIO_INFLUENCIA - 1 - Math.abs(dx);
+            for (int dy = -restante; dy <= restante; dy++) {
+                if (dx != 0 || dy != 0) {
+                    desplazamientos.add(new int[]{dx, dy});
+                }
+            }
+        }
+        PLANTILLA_DX = new int[desplazamientos.size()];
+        PLANTILLA_DY = new int[desplazamientos.size()];
+        for (int k = 0; k < desplazamientos.size(); k++) {
+            PLANTILLA_DX[k] = desplazamientos.get(k)[0];
+            PLANTILLA_DY[k] = desplazamientos.get(k)[1];
+        }
+    }
+
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private TablaAristas multiplicadores;
     private GrafoRutas grafo;
     private ACOParameters parameters;
     private int tamanio;
 
+    // Influencias radiales por nodo origen: listas enlazadas sobre arreglos primitivos.
+    // La cabeza de un nodo solo es válida si su sello coincide con la generación actual.
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int[] primeraInfluencia;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int[] ultimaInfluencia;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int[] selloInfluencia;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int generacionInfluencias;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int[] siguienteInfluencia;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int[] centroInfluencia;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int[] distanciaInfluencia; // Distancia del nodo origen al centro
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private double[] factorInfluencia;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int numInfluencias;
+
     /**
      * Constructor
      * @param grafo Grafo de la ciudad
@@ -39,36 +93,26 @@ public class HeuristicCalculator {
         this.grafo = grafo;
         this.parameters = parameters;
         this.tamanio = grafo.getTotalNodos();
-        inicializarMatrizHeuristica();
+        this.multiplicadores = new TablaAristas(1024);
+        this.primeraInfluencia = new int[tamanio];
+        this.ultimaInfluencia = new int[tamanio];
+        this.selloInfluencia = new int[tamanio];
+        this.generacionInfluencias = 1;
+        this.siguienteInfluencia = new int[PLANTILLA_DX.length];
+        this.centroInfluencia = new int[PLANTILLA_DX.length];
+        this.distanciaInfluencia = new int[PLANTILLA_DX.length];
+        this.factorInfluencia = new double[PLANTILLA_DX.length];
+        this.numInfluencias = 0;
     }
 
     /**
-     * Inicializa la matriz de heurística base con el inverso de las distancias
+     * Heurística base: inverso de la distancia Manhattan entre dos nodos
      */
-    private void inicializarMatrizHeuristica() {
-        matrizHeuristicaBase = new double[tamanio][tamanio];
-        matrizHeuristicaActual = new double[tamanio][tamanio];
-
-        // Inicializar con heurística basada en distancia Manhattan (inverso)
-        for (int i = 0; i < tamanio; i++) {
-            Nodo origen = grafo.getNodoPorId(i);
-            if (origen == null) continue;
-
-            for (int j = 0; j < tamanio; j++) {
-                Nodo destino = grafo.getNodoPorId(j);
-                if (destino == null) continue;
-
-                // La heurística base es el inverso de la distancia
-                double distancia = DistanceCalculator.calcularDistanciaManhattan(
-                        origen.getUbicacion(), destino.getUbicacion());
+    private double valorBase(int origen, int destino) {
+        double distancia = grafo.distanciaManhattan(origen, destino);
 
-                // Evitar división por cero
-                double heuristica = (distancia > 0) ? 1.0 / distancia : 1.0;
-
-                matrizHeuristicaBase[i][j] = heuristica;
-                matrizHeuristicaActual[i][j] = heuristica;
-            }
-        }
+        // Evitar división por cero
+        return (distancia > 0) ? 1.0 / distancia : 1.0;
     }
 
     /**
@@ -79,11 +123,34 @@ public class HeuristicCalculator {
      */
     public double getValorHeuristica(int origen, int destino) {
         if (origen >= 0 && origen < tamanio && destino >= 0 && destino < tamanio) {
-            return matrizHeuristicaActual[origen][destino];
+            double valor = valorBase(origen, destino) *
+                    multiplicadores.get(TablaAristas.clave(origen, destino), 1.0);
+
+            // Influencias hacia pedidos urgentes y tanques intermedios cercanos al origen
+            if (selloInfluencia[origen] == generacionInfluencias) {
+                for (int e = primeraInfluencia[origen]; e >= 0; e = siguienteInfluencia[e]) {
+                    if (grafo.distanciaManhattan(destino, centroInfluencia[e]) < distanciaInfluencia[e]) {
+                        valor *= factorInfluencia[e];
+                    }
+                }
+            }
+            return valor;
         }
         return 0.0;
     }
 
+    /**
+     * Multiplica la heurística actual de una arista por un factor
+     * @param origen ID del nodo origen
+     * @param destino ID del nodo destino
+     * @param factor Factor multiplicativo
+     */
+    public void multiplicarValor(int origen, int destino, double factor) {
+        if (origen >= 0 && origen < tamanio && destino >= 0 && destino < tamanio) {
+            multiplicadores.multiplicar(TablaAristas.clave(origen, destino), factor, 1.0);
+        }
+    }
+
     /**
      * Actualiza la matriz de heurística según condiciones dinámicas
      * Implementa RF86, RF88, RF98
@@ -94,22 +161,21 @@ public class HeuristicCalculator {
             LocalDateTime tiempoActual,
             Map<TipoAlmacen, Double> capacidadTanques) {
 
-        // Copiar la matriz base como punto de partida
-        for (int i = 0; i < tamanio; i++) {
-            System.arraycopy(matrizHeuristicaBase[i], 0, matrizHeuristicaActual[i], 0, tamanio);
-        }
+        // Partir de la heurística base (sin ajustes)
+        multiplicadores.limpiar();
+        limpiarInfluencias();
 
         // 1. Ajustar según bloqueos actuales
         actualizarHeuristicaPorBloqueos(bloqueos, tiempoActual);
 
         // 2. Ajustar según urgencia de pedidos
-        actualizarHeuristicaPorUrgenciaPedidos(pedidos);
+        actualizarHeuristicaPorUrgenciaPedidos(pedidos, tiempoActual);
 
         // 3. RF86: Priorizar uso de tanques intermedios
         actualizarHeuristicaPorTanquesIntermedios(capacidadTanques);
 
         // 4. RF98: Optimización de secuencia para minimizar viajes en vacío
-        actualizarHeuristicaParaMinimizarViajesVacios(pedidos);
+        actualizarHeuristicaParaMinimizarViajesVacios(pedidos, tiempoActual);
     }
 
     /**
@@ -121,21 +187,26 @@ public class HeuristicCalculator {
             if (tiempoActual.isAfter(bloqueo.getFechaInicio()) &&
                     tiempoActual.isBefore(bloqueo.getFechaFinal())) {
 
-                // Recorrer tramos bloqueados
-                List<Ubicacion> tramos = bloqueo.getTramos();
-
-                // Para cada par de ubicaciones adyacentes en el tramo
-                for (int i = 0; i < tramos.size() - 1; i++) {
-                    Ubicacion u1 = tramos.get(i);
-                    Ubicacion u2 = tramos.get(i + 1);
-
-                    Nodo n1 = grafo.obtenerNodo(u1);
-                    Nodo n2 = grafo.obtenerNodo(u2);
-
-                    if (n1 != null && n2 != null) {
-                        // Reducir drásticamente la heurística para estos tramos
-                        matrizHeuristicaActual[n1.getId()][n2.getId()] = 0.0001;
-                        matrizHeuristicaActual[n2.getId()][n1.getId()] = 0.0001;
+                // Recorrer los tramos rectilíneos del bloqueo celda por celda
+                for (int v = 0; v + 1 < bloqueo.numeroVertices(); v++) {
+                    int x1 = bloqueo.verticeX(v), y1 = bloqueo.verticeY(v);
+                    int x2 = bloqueo.verticeX(v + 1), y2 = bloqueo.verticeY(v + 1);
+                    if (x1 != x2 && y1 != y2) {
+                        continue;
+                    }
+                    int dx = Integer.signum(x2 - x1);
+                    int dy = Integer.signum(y2 - y1);
+
+                    // Para cada par de celdas adyacentes en el tramo
+                    for (int x = x1, y = y1; x != x2 || y != y2; x += dx, y += dy) {
+                        int n1 = grafo.calcularId(x, y);
+                        int n2 = grafo.calcularId(x + dx, y + dy);
+
+                        if (n1 >= 0 && n2 >= 0) {
+                            // Reducir drásticamente la heurística para estos tramos
+                            multiplicadores.put(TablaAristas.clave(n1, n2), 0.0001 / valorBase(n1, n2));
+                            multiplicadores.put(TablaAristas.clave(n2, n1), 0.0001 / valorBase(n2, n1));
+                        }
                     }
                 }
             }
@@ -145,46 +216,19 @@ public class HeuristicCalculator {
     /**
      * Actualiza la heurística aumentando valores hacia pedidos urgentes
      */
-    private void actualizarHeuristicaPorUrgenciaPedidos(List<Pedido> pedidos) {
+    private void actualizarHeuristicaPorUrgenciaPedidos(List<Pedido> pedidos, LocalDateTime tiempoActual) {
         for (Pedido pedido : pedidos) {
             // Calcular la urgencia normalizada (0-1)
-            double urgencia = UrgencyCalculator.calcularUrgenciaNormalizada(pedido);
+            double urgencia = UrgencyCalculator.calcularUrgenciaNormalizada(pedido, tiempoActual);
 
             // Solo priorizar pedidos con cierta urgencia
             if (urgencia > 0.3) {
-                Nodo nodoPedido = grafo.obtenerNodo(pedido.getDestino());
-
-                if (nodoPedido != null) {
-                    int idPedido = nodoPedido.getId();
-
-                    // Radio de influencia en nodos cercanos
-                    for (int i = 0; i < tamanio; i++) {
-                        Nodo nodoOrigen = grafo.getNodoPorId(i);
-                        if (nodoOrigen == null) continue;
-
-                        // Calcular distancia al pedido
-                        double distancia = DistanceCalculator.calcularDistanciaManhattan(
-                                nodoOrigen.getUbicacion(), pedido.getDestino());
-
-                        // Sólo influir en nodos dentro de cierto radio (más cercanos)
-                        if (distancia < 15) {
-                            // Para cada posible nodo destino
-                            for (int j = 0; j < tamanio; j++) {
-                                Nodo nodoDestino = grafo.getNodoPorId(j);
-                                if (nodoDestino == null) continue;
-
-                                // Si el destino está más cerca del pedido que el origen
-                                double distanciaDestinoPedido = DistanceCalculator.calcularDistanciaManhattan(
-                                        nodoDestino.getUbicacion(), pedido.getDestino());
-
-                                if (distanciaDestinoPedido < distancia) {
-                                    // Aumentar heurística en dirección al pedido urgente
-                                    double factor = 1.0 + urgencia * parameters.getFactorPriorizacionUrgencia();
-                                    matrizHeuristicaActual[i][j] *= factor;
-                                }
-                            }
-                        }
-                    }
+                int idPedido = grafo.calcularId(pedido.getDestino());
+
+                if (idPedido >= 0) {
+                    // Aumentar heurística en dirección al pedido urgente (dentro del radio de influencia)
+                    double factor = 1.0 + urgencia * parameters.getFactorPriorizacionUrgencia();
+                    agregarInfluenciaRadial(idPedido, factor);
                 }
             }
         }
@@ -204,41 +248,14 @@ public class HeuristicCalculator {
                 Ubicacion ubicacionTanque = grafo.obtenerUbicacionAlmacen(tipo);
 
                 if (ubicacionTanque != null) {
-                    Nodo nodoTanque = grafo.obtenerNodo(ubicacionTanque);
-
-                    if (nodoTanque != null) {
-                        int idTanque = nodoTanque.getId();
-
-                        // Radio de influencia para priorización
-                        for (int i = 0; i < tamanio; i++) {
-                            Nodo nodoOrigen = grafo.getNodoPorId(i);
-                            if (nodoOrigen == null) continue;
-
-                            // Calcular distancia al tanque
-                            double distancia = DistanceCalculator.calcularDistanciaManhattan(
-                                    nodoOrigen.getUbicacion(), ubicacionTanque);
-
-                            // Solo influir en nodos dentro de cierto radio
-                            if (distancia < 15) {
-                                // Para cada posible nodo destino
-                                for (int j = 0; j < tamanio; j++) {
-                                    Nodo nodoDestino = grafo.getNodoPorId(j);
-                                    if (nodoDestino == null) continue;
-
-                                    // Si el destino está más cerca del tanque que el origen
-                                    double distanciaDestinoTanque = DistanceCalculator.calcularDistanciaManhattan(
-                                            nodoDestino.getUbicacion(), ubicacionTanque);
-
-                                    if (distanciaDestinoTanque < distancia) {
-                                        // Factor de priorización según capacidad
-                                        double factorCapacidad = capacidad / 160.0; // Normalizada
-                                        double factor = 1.0 + factorCapacidad * parameters.getFactorPriorizacionTanques();
-
-                                        matrizHeuristicaActual[i][j] *= factor;
-                                    }
-                                }
-                            }
-                        }
+                    int idTanque = grafo.calcularId(ubicacionTanque);
+
+                    if (idTanque >= 0) {
+                        // Factor de priorización según capacidad
+                        double factorCapacidad = capacidad / 160.0; // Normalizada
+                        double factor = 1.0 + factorCapacidad * parameters.getFactorPriorizacionTanques();
+
+                        agregarInfluenciaRadial(idTanque, factor);
                     }
                 }
             }
@@ -248,7 +265,7 @@ public class HeuristicCalculator {
     /**
      * RF98: Actualiza la heurística para minimizar viajes en vacío
      */
-    private void actualizarHeuristicaParaMinimizarViajesVacios(List<Pedido> pedidos) {
+    private void actualizarHeuristicaParaMinimizarViajesVacios(List<Pedido> pedidos, LocalDateTime tiempoActual) {
         // Identificar pares de pedidos que podrían encadenarse eficientemente
         for (int i = 0; i < pedidos.size(); i++) {
             Pedido p1 = pedidos.get(i);
@@ -262,16 +279,14 @@ public class HeuristicCalculator {
 
                 // Si están lo suficientemente cerca, reforzar camino entre ellos
                 if (distancia < parameters.getUmbralDistanciaPedidosCercanos()) {
-                    Nodo nodoP1 = grafo.obtenerNodo(p1.getDestino());
-                    Nodo nodoP2 = grafo.obtenerNodo(p2.getDestino());
+                    int idP1 = grafo.calcularId(p1.getDestino());
+                    int idP2 = grafo.calcularId(p2.getDestino());
 
-                    if (nodoP1 != null && nodoP2 != null) {
-                        int idP1 = nodoP1.getId();
-                        int idP2 = nodoP2.getId();
+                    if (idP1 >= 0 && idP2 >= 0) {
 
                         // Calcular factor basado en la cercanía y urgencia combinada
-                        double urgenciaP1 = UrgencyCalculator.calcularUrgenciaNormalizada(p1);
-                        double urgenciaP2 = UrgencyCalculator.calcularUrgenciaNormalizada(p2);
+                        double urgenciaP1 = UrgencyCalculator.calcularUrgenciaNormalizada(p1, tiempoActual);
+                        double urgenciaP2 = UrgencyCalculator.calcularUrgenciaNormalizada(p2, tiempoActual);
                         double urgenciaPromedio = (urgenciaP1 + urgenciaP2) / 2;
 
                         // Calcular factor de cercanía (más cerca = mayor factor)
@@ -294,27 +309,20 @@ public class HeuristicCalculator {
      */
     private void reforzarCaminoEntrePuntos(int origen, int destino, double factor) {
         // Obtener puntos intermedios en línea recta aproximada
-        Nodo nodoOrigen = grafo.getNodoPorId(origen);
-        Nodo nodoDestino = grafo.getNodoPorId(destino);
-
-        if (nodoOrigen == null || nodoDestino == null) {
+        if (origen < 0 || origen >= tamanio || destino < 0 || destino >= tamanio) {
             return;
         }
 
-        // Calcular distancia Manhattan entre origen y destino
-        int dx = Math.abs(nodoDestino.getUbicacion().getX() - nodoOrigen.getUbicacion().getX());
-        int dy = Math.abs(nodoDestino.getUbicacion().getY() - nodoOrigen.getUbicacion().getY());
-
         // Reforzar camino directo
-        matrizHeuristicaActual[origen][destino] *= factor;
-        matrizHeuristicaActual[destino][origen] *= factor;
+        multiplicarValor(origen, destino, factor);
+        multiplicarValor(destino, origen, factor);
 
         // Reforzar caminos intermedios en la ruta aproximada
-        int xActual = nodoOrigen.getUbicacion().getX();
-        int yActual = nodoOrigen.getUbicacion().getY();
+        int xActual = grafo.coordenadaX(origen);
+        int yActual = grafo.coordenadaY(origen);
 
-        int xDestino = nodoDestino.getUbicacion().getX();
-        int yDestino = nodoDestino.getUbicacion().getY();
+        int xDestino = grafo.coordenadaX(destino);
+        int yDestino = grafo.coordenadaY(destino);
 
         // Determinar dirección
         int xDir = Integer.compare(xDestino, xActual);
@@ -330,11 +338,9 @@ public class HeuristicCalculator {
             }
 
             // Buscar el nodo correspondiente a esta ubicación
-            Ubicacion ubicacion = new Ubicacion(xActual, yActual);
-            Nodo nodoIntermedio = grafo.obtenerNodo(ubicacion);
+            int idIntermedio = grafo.calcularId(xActual, yActual);
 
-            if (nodoIntermedio != null) {
-                int idIntermedio = nodoIntermedio.getId();
+            if (idIntermedio >= 0) {
 
                 // Reforzar conexiones con nodos anterior y siguiente en la ruta
                 if (xActual != xDestino || yActual != yDestino) {
@@ -349,13 +355,11 @@ public class HeuristicCalculator {
                         ySiguiente = yActual + yDir;
                     }
 
-                    Ubicacion ubicacionSiguiente = new Ubicacion(xSiguiente, ySiguiente);
-                    Nodo nodoSiguiente = grafo.obtenerNodo(ubicacionSiguiente);
+                    int idSiguiente = grafo.calcularId(xSiguiente, ySiguiente);
 
-                    if (nodoSiguiente != null) {
-                        int idSiguiente = nodoSiguiente.getId();
-                        matrizHeuristicaActual[idIntermedio][idSiguiente] *= factor;
-                        matrizHeuristicaActual[idSiguiente][idIntermedio] *= factor;
+                    if (idSiguiente >= 0) {
+                        multiplicarValor(idIntermedio, idSiguiente, factor);
+                        multiplicarValor(idSiguiente, idIntermedio, factor);
                     }
                 }
             }
@@ -363,19 +367,62 @@ public class HeuristicCalculator {
     }
 
     /**
-     * NUEVO: Método getter para la matriz heurística actual
+     * Registra una influencia radial alrededor de un punto de interés (pedido urgente
+     * o tanque): desde cualquier nodo a menos de RADIO_INFLUENCIA del punto, los
+     * destinos más cercanos al punto que el origen reciben el factor.
+     * Solo recorre la plantilla de la ventana, no la rejilla completa.
      */
-    public double[][] getMatrizHeuristicaActual() {
-        return matrizHeuristicaActual;
+    private void agregarInfluenciaRadial(int idCentro, double factor) {
+        int xCentro = grafo.coordenadaX(idCentro);
+        int yCentro = grafo.coordenadaY(idCentro);
+        int ancho = grafo.getAncho();
+        int alto = grafo.getAlto();
+
+        for (int k = 0; k < PLANTILLA_DX.length; k++) {
+            int x = xCentro + PLANTILLA_DX[k];
+            int y = yCentro + PLANTILLA_DY[k];
+            if (x < 0 || x > ancho || y < 0 || y > alto) {
+                continue;
+            }
+            int idNodo = x * (alto + 1) + y;
+
+            if (numInfluencias == centroInfluencia.length) {
+                ampliarInfluencias();
+            }
+            int e = numInfluencias++;
+            centroInfluencia[e] = idCentro;
+            distanciaInfluencia[e] = Math.abs(PLANTILLA_DX[k]) + Math.abs(PLANTILLA_DY[k]);
+            factorInfluencia[e] = factor;
+
+            // Enlazar al final de la lista del nodo para conservar el orden de registro
+            siguienteInfluencia[e] = -1;
+            if (selloInfluencia[idNodo] != generacionInfluencias) {
+                selloInfluencia[idNodo] = generacionInfluencias;
+                primeraInfluencia[idNodo] = e;
+            } else {
+                siguienteInfluencia[ultimaInfluencia[idNodo]] = e;
+            }
+            ultimaInfluencia[idNodo] = e;
+        }
+    }
+
+    private void ampliarInfluencias() {
+        int nuevaCapacidad = centroInfluencia.length * 2;
+        siguienteInfluencia = Arrays.copyOf(siguienteInfluencia, nuevaCapacidad);
+        centroInfluencia = Arrays.copyOf(centroInfluencia, nuevaCapacidad);
+        distanciaInfluencia = Arrays.copyOf(distanciaInfluencia, nuevaCapacidad);
+        factorInfluencia = Arrays.copyOf(factorInfluencia, nuevaCapacidad);
     }
 
     /**
-     * NUEVO: Método setter para la matriz heurística actual
+     * Descarta todas las influencias radiales sin recorrer los arreglos por nodo
      */
-    public void setMatrizHeuristicaActual(double[][] nuevaMatriz) {
-        if (nuevaMatriz != null && nuevaMatriz.length == matrizHeuristicaActual.length &&
-                nuevaMatriz[0].length == matrizHeuristicaActual[0].length) {
-            this.matrizHeuristicaActual = nuevaMatriz;
+    private void limpiarInfluencias() {
+        numInfluencias = 0;
+        generacionInfluencias++;
+        if (generacionInfluencias == Integer.MAX_VALUE) {
+            Arrays.fill(selloInfluencia, 0);
+            generacionInfluencias = 1;
         }
     }
-}
\ No newline at end of file
+}
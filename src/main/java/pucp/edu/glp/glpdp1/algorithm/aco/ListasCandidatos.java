@@ -0,0 +1,251 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import pucp.edu.glp.glpdp1.algorithm.model.GrafoRutas;
+import pucp.edu.glp.glpdp1.algorithm.utils.UrgencyCalculator;
+import pucp.edu.glp.glpdp1.domain.Almacen;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listas de candidatos del algoritmo ACO para una iteración.
+ * Para cada ubicación relevante (destinos de pedidos y almacenes) guarda los k
+ * pedidos más cercanos por distancia Manhattan, obtenidos con un índice espacial
+ * de celdas. También guarda por pedido su ID de nodo y su factor de urgencia,
+ * que no cambian durante la iteración.
+ * Una ruta solo elige entre los pedidos de su grupo: si tiene k o menos pendientes
+ * se evalúan todos, y si tiene más se usan los k más cercanos entre sus pendientes
+ * ({@link #masCercanosEntre}); las listas de la iteración solo se precalculan cuando
+ * los grupos pueden superar k pedidos.
+ * Es inmutable una vez construida y la comparten todas las hormigas.
+ */
+final class ListasCandidatos {
+
+    // Lado (en unidades de la rejilla) de cada celda del índice espacial
+    private static final int TAMANIO_CELDA = 8;
+
+    private final List<Pedido> pedidos;
+    private final Map<Pedido, Integer> indicePorPedido;
+    private final int[] idNodoPedido;
+    private final double[] factorUrgencia;
+    private final int numeroCandidatos;
+
+    // Índice espacial: pedidos agrupados por celda (formato compacto por filas)
+    private final int celdasX;
+    private final int celdasY;
+    private final int[] inicioCelda;
+    private final int[] pedidosPorCelda;
+    private final int[] xPedido;
+    private final int[] yPedido;
+
+    // k vecinos más cercanos precalculados por ID de nodo
+    private final Map<Integer, int[]> vecinosPorNodo;
+
+    /**
+     * Constructor
+     * @param pedidos Pedidos de la iteración
+     * @param grafo Grafo de la ciudad
+     * @param tiempoActual Momento de la iteración (para la urgencia)
+     * @param parameters Parámetros del algoritmo
+     */
+    ListasCandidatos(List<Pedido> pedidos, GrafoRutas grafo, LocalDateTime tiempoActual, ACOParameters parameters) {
+        int n = pedidos.size();
+        this.pedidos = pedidos;
+        this.numeroCandidatos = Math.max(1, parameters.getNumeroCandidatos());
+        this.indicePorPedido = new IdentityHashMap<>(n * 2);
+        this.idNodoPedido = new int[n];
+        this.factorUrgencia = new double[n];
+        this.xPedido = new int[n];
+        this.yPedido = new int[n];
+
+        this.celdasX = grafo.getAncho() / TAMANIO_CELDA + 1;
+        this.celdasY = grafo.getAlto() / TAMANIO_CELDA + 1;
+        int[] conteoCelda = new int[celdasX * celdasY + 1];
+
+        for (int i = 0; i < n; i++) {
+            Pedido pedido = pedidos.get(i);
+            indicePorPedido.put(pedido, i);
+            idNodoPedido[i] = grafo.calcularId(pedido.getDestino());
+
+            double urgencia = UrgencyCalculator.calcularUrgenciaNormalizada(pedido, tiempoActual);
+            factorUrgencia[i] = 1.0 + urgencia * parameters.getFactorPriorizacionUrgencia();
+
+            // Los pedidos fuera de la rejilla se ubican en la celda del borde más cercano
+            xPedido[i] = pedido.getDestino().getX();
+            yPedido[i] = pedido.getDestino().getY();
+            conteoCelda[celda(xPedido[i], yPedido[i]) + 1]++;
+        }
+
+        this.inicioCelda = conteoCelda;
+        for (int c = 1; c < inicioCelda.length; c++) {
+            inicioCelda[c] += inicioCelda[c - 1];
+        }
+        this.pedidosPorCelda = new int[n];
+        int[] siguiente = Arrays.copyOf(inicioCelda, inicioCelda.length - 1);
+        for (int i = 0; i < n; i++) {
+            pedidosPorCelda[siguiente[celda(xPedido[i], yPedido[i])]++] = i;
+        }
+
+        // Precalcular vecinos desde destinos de pedidos y almacenes (puntos de partida de las rutas),
+        // salvo que ningún grupo pueda tener más de k pedidos y las listas no lleguen a consultarse
+        this.vecinosPorNodo = new HashMap<>();
+        if (parameters.getMaxPedidosPorGrupo() <= numeroCandidatos) {
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            if (idNodoPedido[i] >= 0 && !vecinosPorNodo.containsKey(idNodoPedido[i])) {
+                vecinosPorNodo.put(idNodoPedido[i], buscarMasCercanos(xPedido[i], yPedido[i]));
+            }
+        }
+        for (Almacen almacen : grafo.getAlmacenes()) {
+            int idAlmacen = grafo.calcularId(almacen.getUbicacion());
+            if (idAlmacen >= 0 && !vecinosPorNodo.containsKey(idAlmacen)) {
+                vecinosPorNodo.put(idAlmacen, buscarMasCercanos(
+                        almacen.getUbicacion().getX(), almacen.getUbicacion().getY()));
+            }
+        }
+    }
+
+    /**
+     * Índice de un pedido de la iteración, o -1 si no pertenece a ella
+     */
+    int indice(Pedido pedido) {
+        Integer indice = indicePorPedido.get(pedido);
+        return indice != null ? indice : -1;
+    }
+
+    Pedido getPedido(int indice) {
+        return pedidos.get(indice);
+    }
+
+    int size() {
+        return pedidos.size();
+    }
+
+    int getIdNodo(int indice) {
+        return idNodoPedido[indice];
+    }
+
+    double getFactorUrgencia(int indice) {
+        return factorUrgencia[indice];
+    }
+
+    /**
+     * Número k de candidatos por ubicación
+     */
+    int getNumeroCandidatos() {
+        return numeroCandidatos;
+    }
+
+    /**
+     * Obtiene los índices de los k pedidos más cercanos a un nodo, ordenados por distancia
+     * @param grafo Grafo de la ciudad
+     * @param idNodo ID del nodo actual
+     */
+    int[] vecinosDe(GrafoRutas grafo, int idNodo) {
+        int[] vecinos = vecinosPorNodo.get(idNodo);
+        if (vecinos != null) {
+            return vecinos;
+        }
+        // Nodo no precalculado: se consulta el índice sin modificar el mapa (compartido entre hilos)
+        return buscarMasCercanos(grafo.coordenadaX(idNodo), grafo.coordenadaY(idNodo));
+    }
+
+    /**
+     * Busca los k pedidos más cercanos a (x, y) entre los indicados, con el mismo orden que
+     * {@link #vecinosDe} (distancia y luego índice)
+     * @param pendientes Pedidos entre los que se busca
+     * @param mejores Arreglo de salida con los índices encontrados (de largo k)
+     * @param distancias Arreglo auxiliar del mismo largo
+     * @return Número de índices escritos, o -1 si algún pedido no pertenece a la iteración
+     */
+    int masCercanosEntre(int x, int y, List<Pedido> pendientes, int[] mejores, int[] distancias) {
+        int encontrados = 0;
+        for (Pedido pedido : pendientes) {
+            int indice = indice(pedido);
+            if (indice < 0) {
+                return -1;
+            }
+            int distancia = Math.abs(xPedido[indice] - x) + Math.abs(yPedido[indice] - y);
+            encontrados = insertarOrdenado(mejores, distancias, encontrados, indice, distancia);
+        }
+        return encontrados;
+    }
+
+    private int celda(int x, int y) {
+        int cx = Math.min(Math.max(x, 0) / TAMANIO_CELDA, celdasX - 1);
+        int cy = Math.min(Math.max(y, 0) / TAMANIO_CELDA, celdasY - 1);
+        return cx * celdasY + cy;
+    }
+
+    /**
+     * Busca los k pedidos más cercanos a (x, y) recorriendo anillos de celdas
+     * alrededor de la celda del punto hasta que ningún anillo restante pueda mejorarlos
+     */
+    private int[] buscarMasCercanos(int x, int y) {
+        int k = Math.min(numeroCandidatos, pedidos.size());
+        int[] mejores = new int[k];
+        int[] distancias = new int[k];
+        int encontrados = 0;
+
+        int celdaCentral = celda(x, y);
+        int cx = celdaCentral / celdasY;
+        int cy = celdaCentral % celdasY;
+        int anilloMaximo = Math.max(Math.max(cx, celdasX - 1 - cx), Math.max(cy, celdasY - 1 - cy));
+
+        for (int anillo = 0; anillo <= anilloMaximo; anillo++) {
+            // Las celdas de este anillo están al menos a (anillo - 1) * TAMANIO_CELDA + 1 del punto
+            if (encontrados == k && anillo > 0 && distancias[k - 1] <= (anillo - 1) * TAMANIO_CELDA) {
+                break;
+            }
+            for (int i = cx - anillo; i <= cx + anillo; i++) {
+                if (i < 0 || i >= celdasX) {
+                    continue;
+                }
+                boolean borde = i == cx - anillo || i == cx + anillo;
+                int paso = borde ? 1 : 2 * anillo;
+                for (int j = cy - anillo; j <= cy + anillo; j += Math.max(paso, 1)) {
+                    if (j < 0 || j >= celdasY) {
+                        continue;
+                    }
+                    int c = i * celdasY + j;
+                    for (int p = inicioCelda[c]; p < inicioCelda[c + 1]; p++) {
+                        int indice = pedidosPorCelda[p];
+                        int distancia = Math.abs(xPedido[indice] - x) + Math.abs(yPedido[indice] - y);
+                        encontrados = insertarOrdenado(mejores, distancias, encontrados, indice, distancia);
+                    }
+                }
+            }
+        }
+        return encontrados == k ? mejores : Arrays.copyOf(mejores, encontrados);
+    }
+
+    /**
+     * Inserta un candidato en la lista acotada (ordenada por distancia y luego por índice)
+     * @return Número de candidatos en la lista tras la inserción
+     */
+    private static int insertarOrdenado(int[] mejores, int[] distancias, int encontrados, int indice, int distancia) {
+        int k = mejores.length;
+        if (encontrados == k && !antes(distancia, indice, distancias[k - 1], mejores[k - 1])) {
+            return encontrados;
+        }
+        int pos = encontrados < k ? encontrados++ : k - 1;
+        while (pos > 0 && antes(distancia, indice, distancias[pos - 1], mejores[pos - 1])) {
+            mejores[pos] = mejores[pos - 1];
+            distancias[pos] = distancias[pos - 1];
+            pos--;
+        }
+        mejores[pos] = indice;
+        distancias[pos] = distancia;
+        return encontrados;
+    }
+
+    private static boolean antes(int distancia, int indice, int otraDistancia, int otroIndice) {
+        return distancia < otraDistancia || (distancia == otraDistancia && indice < otroIndice);
+    }
+}
@@ -0,0 +1,31 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import pucp.edu.glp.glpdp1.domain.Rutas;
+
+import java.util.List;
+
+/**
+ * Recibe el avance del algoritmo ACO al terminar cada iteración y, opcionalmente,
+ * cada nueva mejor solución global.
+ * Se invoca desde el hilo que ejecuta el algoritmo, por lo que debe ser rápido
+ * y publicar sus datos de forma segura si otros hilos los leen.
+ */
+@FunctionalInterface
+public interface ObservadorProgreso {
+
+    /**
+     * @param iteracion Número de iteraciones completadas
+     * @param totalIteraciones Máximo de iteraciones configurado
+     * @param mejorSolucion Mejor solución global hasta el momento (puede ser null)
+     */
+    void iteracionCompletada(int iteracion, int totalIteraciones, ACOSolution mejorSolucion);
+
+    /**
+     * Se invoca al final de una iteración en la que mejoró la solución global
+     * @param iteracion Número de iteraciones completadas
+     * @param mejorSolucion Nueva mejor solución global (el algoritmo puede seguir modificándola)
+     * @param rutas Rutas de la solución, ya convertidas y propias del observador
+     */
+    default void mejoraEncontrada(int iteracion, ACOSolution mejorSolucion, List<Rutas> rutas) {
+    }
+}
@@ -1,7 +1,10 @@
 package pucp.edu.glp.glpdp1.algorithm.aco;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import pucp.edu.glp.glpdp1.algorithm.model.GrafoRutas;
+import pucp.edu.glp.glpdp1.algorithm.model.Ruta;
 
 import java.util.List;
 import java.util.Random;
@@ -9,31 +12,64 @@ import java.util.Random;
 /**
  * Representa la matriz de feromonas del algoritmo ACO.
  * Gestiona la actualización, evaporación y perturbación de feromonas.
+ * Se almacena de forma dispersa: solo se guardan las aristas que recibieron
+ * depósitos o ajustes (nodo actual → destino de pedido o almacén); el resto
+ * comparte un valor por defecto que evoluciona igual que una celda sin depósitos.
+ *
+ * La evaporación es perezosa: los valores se guardan relativos a una escala
+ * global que se multiplica por (1 - evaporación) en cada iteración. Las
+ * perturbaciones se registran como eventos y cada celda las aplica al ser
+ * leída o escrita según su época (número de eventos ya aplicados).
  */
 @Getter
 @Setter
 public class PheromoneMatrix {
 
-    private double[][] matriz;
+    // Por debajo de esta escala se renormalizan los valores para evitar underflow
+    private static final double ESCALA_MINIMA = 1e-100;
+    // Número máximo de perturbaciones pendientes antes de materializarlas
+    private static final int MAX_PERTURBACIONES_PENDIENTES = 8;
+    private static final double PERTURBACION = 0.2; // 20% de perturbación máxima
+
     private int tamanio;
     private Random random;
 
+    // Estado interno de la evaporación perezosa: solo se accede a través de getValor/setValor
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private GrafoRutas grafo;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private TablaAristas aristas;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private double valorPorDefecto;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private double escala;
+
+    // Eventos de perturbación pendientes (la época de una celda indica cuántos ya aplicó)
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private int numPerturbaciones;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private double[] escalaPerturbacion;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private double[] minimoPerturbacion;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private long[] semillaPerturbacion;
+
     /**
      * Constructor
-     * @param tamanio Tamaño de la matriz (número de nodos)
+     * @param grafo Grafo de la ciudad (define los IDs de nodo)
      * @param valorInicial Valor inicial de feromona
      */
-    public PheromoneMatrix(int tamanio, double valorInicial) {
-        this.tamanio = tamanio;
-        this.matriz = new double[tamanio][tamanio];
+    public PheromoneMatrix(GrafoRutas grafo, double valorInicial) {
+        this.grafo = grafo;
+        this.tamanio = grafo.getTotalNodos();
+        this.aristas = new TablaAristas(1024);
+        this.valorPorDefecto = valorInicial;
+        this.escala = 1.0;
         this.random = new Random();
-
-        // Inicializar matriz con valor inicial
-        for (int i = 0; i < tamanio; i++) {
-            for (int j = 0; j < tamanio; j++) {
-                matriz[i][j] = valorInicial;
-            }
-        }
+        this.numPerturbaciones = 0;
+        this.escalaPerturbacion = new double[MAX_PERTURBACIONES_PENDIENTES];
+        this.minimoPerturbacion = new double[MAX_PERTURBACIONES_PENDIENTES];
+        this.semillaPerturbacion = new long[MAX_PERTURBACIONES_PENDIENTES];
     }
 
     /**
@@ -44,7 +80,11 @@ public class PheromoneMatrix {
      */
     public double getValor(int origen, int destino) {
         if (origen >= 0 && origen < tamanio && destino >= 0 && destino < tamanio) {
-            return matriz[origen][destino];
+            int pos = aristas.buscar(TablaAristas.clave(origen, destino));
+            if (pos < 0) {
+                return valorPorDefecto * escala;
+            }
+            return valorRelativo(pos) * escala;
         }
         return 0.0;
     }
@@ -57,21 +97,28 @@ public class PheromoneMatrix {
      */
     public void setValor(int origen, int destino, double valor) {
         if (origen >= 0 && origen < tamanio && destino >= 0 && destino < tamanio) {
-            matriz[origen][destino] = valor;
+            int pos = posicionActualizada(TablaAristas.clave(origen, destino));
+            aristas.setValorEn(pos, valor / escala);
         }
     }
 
+    /**
+     * Número de aristas almacenadas explícitamente
+     */
+    public int getAristasAlmacenadas() {
+        return aristas.size();
+    }
+
     /**
      * Actualiza la matriz de feromonas basada en las soluciones generadas
      * @param soluciones Lista de soluciones
      * @param factorEvaporacion Factor de evaporación (0-1)
      */
     public void actualizarFeromonas(List<ACOSolution> soluciones, double factorEvaporacion) {
-        // Evaporación global de feromonas
-        for (int i = 0; i < tamanio; i++) {
-            for (int j = 0; j < tamanio; j++) {
-                matriz[i][j] *= (1 - factorEvaporacion);
-            }
+        // Evaporación global de feromonas: O(1) sobre la escala
+        escala *= (1 - factorEvaporacion);
+        if (escala < ESCALA_MINIMA) {
+            renormalizar();
         }
 
         // Depósito de feromonas proporcional a la calidad de las soluciones
@@ -83,25 +130,23 @@ public class PheromoneMatrix {
 
             // Depositar feromona en cada tramo de las rutas de la solución
             solucion.getAsignaciones().forEach(asignacion -> {
-                // Obtener nodos anteriores y siguientes para cada ruta
-                for (int i = 0; i < asignacion.getRutas().size(); i++) {
-                    int origen = asignacion.getRutas().get(i).getOrigen().getX() * 1000 +
-                            asignacion.getRutas().get(i).getOrigen().getY();
-                    int destino = asignacion.getRutas().get(i).getDestino().getX() * 1000 +
-                            asignacion.getRutas().get(i).getDestino().getY();
+                for (Ruta ruta : asignacion.getRutas()) {
+                    int origen = grafo.calcularId(ruta.getOrigen());
+                    int destino = grafo.calcularId(ruta.getDestino());
 
-                    // Asegurar que los IDs están dentro del rango de la matriz
-                    origen = Math.min(origen, tamanio - 1);
-                    destino = Math.min(destino, tamanio - 1);
+                    // Ignorar tramos fuera de la rejilla
+                    if (origen < 0 || destino < 0) {
+                        continue;
+                    }
 
                     // Factor dependiente de la distancia (inversamente proporcional)
-                    double distancia = asignacion.getRutas().get(i).getDistancia();
+                    double distancia = ruta.getDistancia();
                     double factorDistancia = distancia > 0 ? 1.0 / distancia : 1.0;
 
                     // Incrementar feromona
-                    double incremento = factorDeposito * factorDistancia;
-                    matriz[origen][destino] += incremento;
-                    matriz[destino][origen] += incremento; // Grafo no dirigido
+                    double incremento = factorDeposito * factorDistancia / escala;
+                    sumarRelativo(TablaAristas.clave(origen, destino), incremento);
+                    sumarRelativo(TablaAristas.clave(destino, origen), incremento); // Grafo no dirigido
                 }
             });
         }
@@ -112,33 +157,112 @@ public class PheromoneMatrix {
      * @param feromonaMinima Valor mínimo de feromona
      */
     public void perturbarFeromonas(double feromonaMinima) {
-        double perturbacion = 0.2; // 20% de perturbación máxima
+        if (numPerturbaciones == MAX_PERTURBACIONES_PENDIENTES) {
+            renormalizar();
+        }
 
-        for (int i = 0; i < tamanio; i++) {
-            for (int j = 0; j < tamanio; j++) {
-                // Añadir ruido aleatorio entre -perturbación y +perturbación
-                double factorRuido = 1.0 + (random.nextDouble() * 2 * perturbacion - perturbacion);
-                matriz[i][j] *= factorRuido;
+        // Registrar el evento; cada celda aplicará ruido y mínimo al ser accedida
+        escalaPerturbacion[numPerturbaciones] = escala;
+        minimoPerturbacion[numPerturbaciones] = feromonaMinima / 2;
+        semillaPerturbacion[numPerturbaciones] = random.nextLong();
+        numPerturbaciones++;
 
-                // Garantizar valor mínimo de feromona
-                if (matriz[i][j] < feromonaMinima / 2) {
-                    matriz[i][j] = feromonaMinima / 2;
-                }
-            }
-        }
+        // Las aristas no almacenadas comparten el valor por defecto (ruido de media 1)
+        valorPorDefecto = Math.max(valorPorDefecto * escala, feromonaMinima / 2) / escala;
 
-        // Reforzar aleatoriamente algunos caminos
-        int numRefuerzos = tamanio / 10; // 10% de los nodos
+        // Reforzar aleatoriamente algunos caminos ya explorados
+        int numRefuerzos = aristas.size() / 10; // 10% de las aristas
 
         for (int k = 0; k < numRefuerzos; k++) {
-            int i = random.nextInt(tamanio);
-            int j = random.nextInt(tamanio);
+            int pos = random.nextInt(aristas.capacidad());
+            while (!aristas.ocupada(pos)) {
+                pos = (pos + 1) % aristas.capacidad();
+            }
+            long clave = aristas.claveEn(pos);
+            int i = TablaAristas.origenDe(clave);
+            int j = TablaAristas.destinoDe(clave);
 
             // Solo reforzar nodos diferentes
             if (i != j) {
-                matriz[i][j] *= 3.0; // Triplicar feromona
-                matriz[j][i] *= 3.0;
+                multiplicarRelativo(clave, 3.0); // Triplicar feromona
+                multiplicarRelativo(TablaAristas.clave(j, i), 3.0);
+            }
+        }
+    }
+
+    /**
+     * Valor relativo a la escala de una celda, con las perturbaciones pendientes
+     * aplicadas sin modificar la tabla (lectura pura)
+     */
+    private double valorRelativo(int pos) {
+        double valor = aristas.valorEn(pos);
+        long clave = aristas.claveEn(pos);
+        for (int e = aristas.marcaEn(pos); e < numPerturbaciones; e++) {
+            valor = aplicarPerturbacion(valor, clave, e);
+        }
+        return valor;
+    }
+
+    private double aplicarPerturbacion(double valorRelativo, long clave, int evento) {
+        double escalaEvento = escalaPerturbacion[evento];
+        double valor = valorRelativo * escalaEvento;
+
+        // Ruido determinista por arista y evento entre -perturbación y +perturbación
+        double factorRuido = 1.0 + (ruidoUniforme(clave, semillaPerturbacion[evento]) * 2 * PERTURBACION - PERTURBACION);
+        valor *= factorRuido;
+
+        // Garantizar valor mínimo de feromona
+        valor = Math.max(valor, minimoPerturbacion[evento]);
+        return valor / escalaEvento;
+    }
+
+    /**
+     * Ruido uniforme en [0, 1) determinado por la arista y la semilla del evento
+     */
+    static double ruidoUniforme(long clave, long semilla) {
+        long h = clave ^ semilla;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Obtiene la posición de la arista con las perturbaciones pendientes ya materializadas
+     */
+    private int posicionActualizada(long clave) {
+        int pos = aristas.buscarOInsertar(clave, valorPorDefecto, numPerturbaciones);
+        if (aristas.marcaEn(pos) < numPerturbaciones) {
+            aristas.setValorEn(pos, valorRelativo(pos));
+            aristas.setMarcaEn(pos, numPerturbaciones);
+        }
+        return pos;
+    }
+
+    private void sumarRelativo(long clave, double incremento) {
+        int pos = posicionActualizada(clave);
+        aristas.setValorEn(pos, aristas.valorEn(pos) + incremento);
+    }
+
+    private void multiplicarRelativo(long clave, double factor) {
+        int pos = posicionActualizada(clave);
+        aristas.setValorEn(pos, aristas.valorEn(pos) * factor);
+    }
+
+    /**
+     * Materializa perturbaciones pendientes y escala en los valores almacenados
+     */
+    private void renormalizar() {
+        for (int pos = 0; pos < aristas.capacidad(); pos++) {
+            if (aristas.ocupada(pos)) {
+                aristas.setValorEn(pos, valorRelativo(pos) * escala);
+                aristas.setMarcaEn(pos, 0);
             }
         }
+        valorPorDefecto *= escala;
+        escala = 1.0;
+        numPerturbaciones = 0;
     }
-}
\ No newline at end of file
+}
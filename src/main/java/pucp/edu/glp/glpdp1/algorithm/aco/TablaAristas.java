@@ -0,0 +1,216 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto que asocia una arista (origen, destino)
+ * a un valor double sin crear objetos por entrada.
+ * Es la base de las estructuras dispersas del algoritmo ACO, donde solo interesa
+ * un subconjunto pequeño de los N² pares de nodos posibles.
+ */
+final class TablaAristas {
+
+    private static final long VACIO = Long.MIN_VALUE;
+    private static final int CAPACIDAD_MINIMA = 64;
+
+    private long[] claves;
+    private double[] valores;
+    private int[] marcas;
+    private int mascara;
+    private int ocupados;
+
+    /**
+     * Constructor
+     * @param capacidadEsperada Número aproximado de aristas que se almacenarán
+     */
+    TablaAristas(int capacidadEsperada) {
+        int capacidad = CAPACIDAD_MINIMA;
+        while (capacidad < capacidadEsperada * 2) {
+            capacidad <<= 1;
+        }
+        inicializar(capacidad);
+    }
+
+    private void inicializar(int capacidad) {
+        this.claves = new long[capacidad];
+        this.valores = new double[capacidad];
+        this.marcas = new int[capacidad];
+        this.mascara = capacidad - 1;
+        this.ocupados = 0;
+        Arrays.fill(claves, VACIO);
+    }
+
+    /**
+     * Empaqueta el par de IDs de nodo en una única clave
+     */
+    static long clave(int origen, int destino) {
+        return ((long) origen << 32) | (destino & 0xFFFFFFFFL);
+    }
+
+    static int origenDe(long clave) {
+        return (int) (clave >>> 32);
+    }
+
+    static int destinoDe(long clave) {
+        return (int) clave;
+    }
+
+    private int posicionInicial(long clave) {
+        // Mezcla de bits (finalizador de MurmurHash3) para repartir claves consecutivas
+        long h = clave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+
+    /**
+     * Busca la posición de una clave en la tabla
+     * @return Posición de la clave, o -1 si no está almacenada
+     */
+    int buscar(long clave) {
+        int pos = posicionInicial(clave);
+        while (true) {
+            long actual = claves[pos];
+            if (actual == clave) {
+                return pos;
+            }
+            if (actual == VACIO) {
+                return -1;
+            }
+            pos = (pos + 1) & mascara;
+        }
+    }
+
+    /**
+     * Obtiene la posición de una clave, insertándola con el valor indicado si no existía
+     */
+    int buscarOInsertar(long clave, double valorInicial) {
+        return buscarOInsertar(clave, valorInicial, 0);
+    }
+
+    /**
+     * Igual que buscarOInsertar, asignando además la marca de una entrada nueva
+     */
+    int buscarOInsertar(long clave, double valorInicial, int marcaInicial) {
+        if ((ocupados + 1) * 2 > claves.length) {
+            redimensionar(claves.length << 1);
+        }
+        int pos = posicionInicial(clave);
+        while (true) {
+            long actual = claves[pos];
+            if (actual == clave) {
+                return pos;
+            }
+            if (actual == VACIO) {
+                claves[pos] = clave;
+                valores[pos] = valorInicial;
+                marcas[pos] = marcaInicial;
+                ocupados++;
+                return pos;
+            }
+            pos = (pos + 1) & mascara;
+        }
+    }
+
+    double get(long clave, double porDefecto) {
+        int pos = buscar(clave);
+        return pos >= 0 ? valores[pos] : porDefecto;
+    }
+
+    void put(long clave, double valor) {
+        // La posición se obtiene antes de indexar: buscarOInsertar puede redimensionar los arreglos
+        int pos = buscarOInsertar(clave, valor);
+        valores[pos] = valor;
+    }
+
+    /**
+     * Suma un incremento al valor de la arista; si no existía parte de valorBase
+     */
+    void sumar(long clave, double incremento, double valorBase) {
+        int pos = buscarOInsertar(clave, valorBase);
+        valores[pos] += incremento;
+    }
+
+    /**
+     * Multiplica el valor de la arista; si no existía parte de valorBase
+     */
+    void multiplicar(long clave, double factor, double valorBase) {
+        int pos = buscarOInsertar(clave, valorBase);
+        valores[pos] *= factor;
+    }
+
+    /**
+     * Multiplica todos los valores almacenados por un factor
+     */
+    void multiplicarTodos(double factor) {
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != VACIO) {
+                valores[i] *= factor;
+            }
+        }
+    }
+
+    private void redimensionar(int nuevaCapacidad) {
+        long[] clavesAnteriores = claves;
+        double[] valoresAnteriores = valores;
+        int[] marcasAnteriores = marcas;
+        inicializar(nuevaCapacidad);
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO) {
+                int pos = posicionInicial(clavesAnteriores[i]);
+                while (claves[pos] != VACIO) {
+                    pos = (pos + 1) & mascara;
+                }
+                claves[pos] = clavesAnteriores[i];
+                valores[pos] = valoresAnteriores[i];
+                marcas[pos] = marcasAnteriores[i];
+                ocupados++;
+            }
+        }
+    }
+
+    void limpiar() {
+        Arrays.fill(claves, VACIO);
+        ocupados = 0;
+    }
+
+    int size() {
+        return ocupados;
+    }
+
+    // Acceso por posición para recorrer la tabla sin crear iteradores
+
+    int capacidad() {
+        return claves.length;
+    }
+
+    boolean ocupada(int pos) {
+        return claves[pos] != VACIO;
+    }
+
+    long claveEn(int pos) {
+        return claves[pos];
+    }
+
+    double valorEn(int pos) {
+        return valores[pos];
+    }
+
+    void setValorEn(int pos, double valor) {
+        valores[pos] = valor;
+    }
+
+    /**
+     * Marca entera asociada a cada entrada (p. ej. época de la última actualización)
+     */
+    int marcaEn(int pos) {
+        return marcas[pos];
+    }
+
+    void setMarcaEn(int pos, int marca) {
+        marcas[pos] = marca;
+    }
+}
@@ -0,0 +1,227 @@
+package pucp.edu.glp.glpdp1.algorithm.model;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Contexto reutilizable para el algoritmo A* sobre la rejilla de GrafoRutas.
+ * Trabaja solo con arreglos primitivos indexados por ID de nodo y un heap
+ * binario indexado, por lo que una búsqueda no crea objetos.
+ * Los arreglos usan sellos de generación: una entrada solo es válida si su
+ * sello coincide con la búsqueda actual, así no hace falta limpiarlos.
+ * No es seguro entre hilos; GrafoRutas presta cada instancia a una sola búsqueda a la vez.
+ */
+final class BusquedaAEstrella {
+
+    private int[] selloVisto;   // Generación en que el nodo recibió un costo G
+    private int[] selloCerrado; // Generación en que el nodo fue explorado
+    private int[] costoG;
+    private int[] costoF;
+    private int[] padre;
+    private int[] posicionHeap; // Posición del nodo en el heap, -1 si no está
+
+    private int[] heap;
+    private int tamanioHeap;
+    private int generacion;
+
+    BusquedaAEstrella(int totalNodos) {
+        reservar(totalNodos);
+    }
+
+    private void reservar(int totalNodos) {
+        selloVisto = new int[totalNodos];
+        selloCerrado = new int[totalNodos];
+        costoG = new int[totalNodos];
+        costoF = new int[totalNodos];
+        padre = new int[totalNodos];
+        posicionHeap = new int[totalNodos];
+        heap = new int[totalNodos];
+        generacion = 0;
+    }
+
+    /**
+     * Vuelve a reservar los arreglos si la rejilla tiene más nodos que el contexto
+     */
+    void asegurarCapacidad(int totalNodos) {
+        if (selloVisto.length < totalNodos) {
+            reservar(totalNodos);
+        }
+    }
+
+    /**
+     * Prepara el contexto para una nueva búsqueda sin recorrer los arreglos
+     */
+    private void iniciar(int totalNodos) {
+        asegurarCapacidad(totalNodos);
+        generacion++;
+        if (generacion == Integer.MAX_VALUE) {
+            Arrays.fill(selloVisto, 0);
+            Arrays.fill(selloCerrado, 0);
+            generacion = 1;
+        }
+        tamanioHeap = 0;
+    }
+
+    /**
+     * Ejecuta A* entre dos nodos de la rejilla (aristas de costo unitario)
+     * @return Costo del camino más corto, o -1 si no hay ruta viable
+     */
+    int buscar(GrafoRutas grafo, int idOrigen, int idDestino, LocalDateTime tiempoActual) {
+        int altoNodos = grafo.getAlto() + 1;
+        int ancho = grafo.getAncho();
+        int alto = grafo.getAlto();
+        int xDestino = idDestino / altoNodos;
+        int yDestino = idDestino % altoNodos;
+
+        iniciar(grafo.getTotalNodos());
+
+        // El intervalo de bloqueos se resuelve una sola vez por búsqueda
+        int intervaloBloqueo = grafo.intervaloBloqueo(tiempoActual);
+
+        selloVisto[idOrigen] = generacion;
+        costoG[idOrigen] = 0;
+        padre[idOrigen] = -1;
+        insertar(idOrigen, distancia(idOrigen / altoNodos, idOrigen % altoNodos, xDestino, yDestino));
+
+        while (tamanioHeap > 0) {
+            // Obtener nodo con menor f
+            int idActual = extraerMinimo();
+
+            // Si llegamos al destino, devolver el costo acumulado
+            if (idActual == idDestino) {
+                return costoG[idActual];
+            }
+
+            // Marcar nodo como explorado
+            selloCerrado[idActual] = generacion;
+
+            int x = idActual / altoNodos;
+            int y = idActual % altoNodos;
+            int nuevoG = costoG[idActual] + 1; // 1 es la distancia entre nodos adyacentes
+
+            // Explorar vecinos en el mismo orden que Nodo.getVecinos()
+            if (x < ancho) {
+                relajar(grafo, idActual, x + 1, y, idActual + altoNodos, nuevoG, xDestino, yDestino, intervaloBloqueo);
+            }
+            if (x > 0) {
+                relajar(grafo, idActual, x - 1, y, idActual - altoNodos, nuevoG, xDestino, yDestino, intervaloBloqueo);
+            }
+            if (y < alto) {
+                relajar(grafo, idActual, x, y + 1, idActual + 1, nuevoG, xDestino, yDestino, intervaloBloqueo);
+            }
+            if (y > 0) {
+                relajar(grafo, idActual, x, y - 1, idActual - 1, nuevoG, xDestino, yDestino, intervaloBloqueo);
+            }
+        }
+
+        // Si llegamos aquí, no hay ruta viable
+        return -1;
+    }
+
+    private void relajar(GrafoRutas grafo, int idActual, int x, int y, int idVecino, int nuevoG,
+                         int xDestino, int yDestino, int intervaloBloqueo) {
+        // Si ya exploramos este vecino, continuar
+        if (selloCerrado[idVecino] == generacion) {
+            return;
+        }
+
+        boolean visto = selloVisto[idVecino] == generacion;
+        if (visto && nuevoG >= costoG[idVecino]) {
+            return;
+        }
+
+        // Verificar si el vecino está bloqueado en este tiempo
+        if (!visto && grafo.estaBloqueado(intervaloBloqueo, idVecino)) {
+            return;
+        }
+
+        padre[idVecino] = idActual;
+        costoG[idVecino] = nuevoG;
+        int f = nuevoG + distancia(x, y, xDestino, yDestino);
+
+        if (visto && posicionHeap[idVecino] >= 0) {
+            costoF[idVecino] = f;
+            subir(posicionHeap[idVecino]);
+        } else {
+            selloVisto[idVecino] = generacion;
+            insertar(idVecino, f);
+        }
+    }
+
+    /**
+     * ID del nodo que precede a otro en el camino de la última búsqueda
+     */
+    int getPadre(int id) {
+        return padre[id];
+    }
+
+    private static int distancia(int x1, int y1, int x2, int y2) {
+        return Math.abs(x1 - x2) + Math.abs(y1 - y2);
+    }
+
+    // --- Heap binario indexado ordenado por f (desempate: mayor g primero) ---
+
+    private boolean menor(int a, int b) {
+        if (costoF[a] != costoF[b]) {
+            return costoF[a] < costoF[b];
+        }
+        return costoG[a] > costoG[b];
+    }
+
+    private void insertar(int id, int f) {
+        costoF[id] = f;
+        heap[tamanioHeap] = id;
+        posicionHeap[id] = tamanioHeap;
+        subir(tamanioHeap++);
+    }
+
+    private int extraerMinimo() {
+        int minimo = heap[0];
+        posicionHeap[minimo] = -1;
+        tamanioHeap--;
+        if (tamanioHeap > 0) {
+            int ultimo = heap[tamanioHeap];
+            heap[0] = ultimo;
+            posicionHeap[ultimo] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    private void subir(int pos) {
+        int id = heap[pos];
+        while (pos > 0) {
+            int posPadre = (pos - 1) >>> 1;
+            int idPadre = heap[posPadre];
+            if (!menor(id, idPadre)) {
+                break;
+            }
+            heap[pos] = idPadre;
+            posicionHeap[idPadre] = pos;
+            pos = posPadre;
+        }
+        heap[pos] = id;
+        posicionHeap[id] = pos;
+    }
+
+    private void bajar(int pos) {
+        int id = heap[pos];
+        while (true) {
+            int hijo = 2 * pos + 1;
+            if (hijo >= tamanioHeap) {
+                break;
+            }
+            if (hijo + 1 < tamanioHeap && menor(heap[hijo + 1], heap[hijo])) {
+                hijo++;
+            }
+            if (!menor(heap[hijo], id)) {
+                break;
+            }
+            heap[pos] = heap[hijo];
+            posicionHeap[heap[pos]] = pos;
+            pos = hijo;
+        }
+        heap[pos] = id;
+        posicionHeap[id] = pos;
+    }
+}
@@ -1,19 +1,23 @@
 package pucp.edu.glp.glpdp1.algorithm.model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import pucp.edu.glp.glpdp1.algorithm.utils.DistanceCalculator;
 import pucp.edu.glp.glpdp1.domain.Almacen;
-import pucp.edu.glp.glpdp1.domain.Bloqueo;
+import pucp.edu.glp.glpdp1.domain.IndiceBloqueos;
 import pucp.edu.glp.glpdp1.domain.Ubicacion;
 import pucp.edu.glp.glpdp1.domain.enums.TipoAlmacen;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Representa el grafo de la ciudad para el algoritmo ACO.
- * Implementa una estructura de grafo basada en una rejilla 2D.
+ * Implementa una estructura de grafo basada en una rejilla 2D implícita:
+ * los IDs de nodo se calculan como x * (alto + 1) + y y los vecinos se derivan
+ * aritméticamente, sin crear un objeto por celda. Los objetos Nodo solo se
+ * crean como vistas cuando se consultan desde fuera del grafo.
  */
 @Getter
 @Setter
@@ -21,10 +25,19 @@ public class GrafoRutas {
 
     private int ancho;
     private int alto;
-    private Nodo[][] nodos;
     private List<Almacen> almacenes;
     private int totalNodos;
-    private Map<Integer, Nodo> mapaNodos;
+    private Map<Integer, TipoAlmacen> almacenesPorNodo;
+    private IndiceBloqueos indiceBloqueos; // null si no se consideran bloqueos
+
+    // Parte inmutable (ubicaciones y almacenes por nodo), compartida entre planificaciones
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final RejillaBase rejilla;
+
+    // Contextos de A* libres de este grafo (uno por búsqueda simultánea como máximo); viven lo
+    // que la planificación que creó el grafo y se descartan con él
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final ConcurrentLinkedQueue<BusquedaAEstrella> contextosLibres = new ConcurrentLinkedQueue<>();
 
     /**
      * Constructor
@@ -36,70 +49,10 @@ public class GrafoRutas {
         this.ancho = ancho;
         this.alto = alto;
         this.almacenes = almacenes;
-        this.nodos = new Nodo[ancho + 1][alto + 1]; // +1 porque las posiciones van de 0 a ancho/alto
-        this.mapaNodos = new HashMap<>();
-
-        inicializarGrafo();
-    }
-
-    /**
-     * Inicializa el grafo creando los nodos y conexiones
-     */
-    private void inicializarGrafo() {
-        int id = 0;
-
-        // Crear nodos
-        for (int x = 0; x <= ancho; x++) {
-            for (int y = 0; y <= alto; y++) {
-                Ubicacion ubicacion = new Ubicacion(x, y);
-                Nodo nodo = new Nodo(id, ubicacion);
-
-                // Marcar nodos especiales (almacenes)
-                for (Almacen almacen : almacenes) {
-                    if (almacen.getUbicacion().getX() == x && almacen.getUbicacion().getY() == y) {
-                        nodo.setEsAlmacen(true);
-                        nodo.setTipoAlmacen(almacen.getTipoAlmacen());
-                        break;
-                    }
-                }
-
-                nodos[x][y] = nodo;
-                mapaNodos.put(id, nodo);
-                id++;
-            }
-        }
-
-        // Establecer conexiones (aristas)
-        for (int x = 0; x <= ancho; x++) {
-            for (int y = 0; y <= alto; y++) {
-                Nodo nodo = nodos[x][y];
-                List<Nodo> vecinos = new ArrayList<>();
-
-                // Conexión horizontal derecha
-                if (x < ancho) {
-                    vecinos.add(nodos[x + 1][y]);
-                }
-
-                // Conexión horizontal izquierda
-                if (x > 0) {
-                    vecinos.add(nodos[x - 1][y]);
-                }
-
-                // Conexión vertical arriba
-                if (y < alto) {
-                    vecinos.add(nodos[x][y + 1]);
-                }
-
-                // Conexión vertical abajo
-                if (y > 0) {
-                    vecinos.add(nodos[x][y - 1]);
-                }
-
-                nodo.setVecinos(vecinos);
-            }
-        }
-
-        this.totalNodos = id;
+        this.rejilla = RejillaBase.obtener(ancho, alto, almacenes);
+        this.totalNodos = rejilla.getTotalNodos();
+        // Nodos especiales (almacenes), de solo lectura
+        this.almacenesPorNodo = rejilla.getAlmacenesPorNodo();
     }
 
     /**
@@ -108,14 +61,29 @@ public class GrafoRutas {
      * @return Nodo correspondiente o null si no existe
      */
     public Nodo obtenerNodo(Ubicacion ubicacion) {
-        int x = ubicacion.getX();
-        int y = ubicacion.getY();
+        int id = calcularId(ubicacion);
+        return id >= 0 ? crearNodo(id) : null;
+    }
+
+    /**
+     * Calcula el ID del nodo en una ubicación
+     * @param ubicacion Ubicación (coordenadas X,Y)
+     * @return ID del nodo o -1 si la ubicación está fuera de la rejilla
+     */
+    public int calcularId(Ubicacion ubicacion) {
+        return calcularId(ubicacion.getX(), ubicacion.getY());
+    }
 
+    /**
+     * Calcula el ID del nodo en las coordenadas (x, y)
+     * @return ID del nodo o -1 si la posición está fuera de la rejilla
+     */
+    public int calcularId(int x, int y) {
         if (x >= 0 && x <= ancho && y >= 0 && y <= alto) {
-            return nodos[x][y];
+            return x * (alto + 1) + y;
         }
 
-        return null;
+        return -1;
     }
 
     /**
@@ -124,7 +92,84 @@ public class GrafoRutas {
      * @return Nodo correspondiente o null si no existe
      */
     public Nodo getNodoPorId(int id) {
-        return mapaNodos.get(id);
+        if (id < 0 || id >= totalNodos) {
+            return null;
+        }
+        return crearNodo(id);
+    }
+
+    /**
+     * Coordenada X del nodo con el ID indicado
+     */
+    public int coordenadaX(int id) {
+        return id / (alto + 1);
+    }
+
+    /**
+     * Coordenada Y del nodo con el ID indicado
+     */
+    public int coordenadaY(int id) {
+        return id % (alto + 1);
+    }
+
+    /**
+     * Distancia Manhattan entre dos nodos a partir de sus IDs
+     */
+    public int distanciaManhattan(int origen, int destino) {
+        return Math.abs(coordenadaX(origen) - coordenadaX(destino)) +
+                Math.abs(coordenadaY(origen) - coordenadaY(destino));
+    }
+
+    /**
+     * Obtiene los vecinos de un nodo (derecha, izquierda, arriba, abajo)
+     * @param id Identificador del nodo
+     * @return Vistas de los nodos adyacentes
+     */
+    public List<Nodo> obtenerVecinos(int id) {
+        int x = coordenadaX(id);
+        int y = coordenadaY(id);
+        int altoNodos = alto + 1;
+        List<Nodo> vecinos = new ArrayList<>(4);
+
+        // Conexión horizontal derecha
+        if (x < ancho) {
+            vecinos.add(crearNodo(id + altoNodos));
+        }
+
+        // Conexión horizontal izquierda
+        if (x > 0) {
+            vecinos.add(crearNodo(id - altoNodos));
+        }
+
+        // Conexión vertical arriba
+        if (y < alto) {
+            vecinos.add(crearNodo(id + 1));
+        }
+
+        // Conexión vertical abajo
+        if (y > 0) {
+            vecinos.add(crearNodo(id - 1));
+        }
+
+        return vecinos;
+    }
+
+    /**
+     * Ubicación de un nodo; siempre devuelve la misma instancia para el mismo ID
+     * @param id ID de nodo válido
+     */
+    public Ubicacion ubicacion(int id) {
+        return rejilla.ubicacion(id);
+    }
+
+    /**
+     * Crea la vista Nodo de un ID válido
+     */
+    private Nodo crearNodo(int id) {
+        TipoAlmacen tipoAlmacen = almacenesPorNodo.get(id);
+        Nodo nodo = new Nodo(id, ubicacion(id), tipoAlmacen != null, tipoAlmacen);
+        nodo.setGrafo(this);
+        return nodo;
     }
 
     /**
@@ -155,94 +200,62 @@ public class GrafoRutas {
             return Collections.singletonList(origen);
         }
 
-        // Conjunto de nodos abiertos (por explorar)
-        PriorityQueue<NodoAStar> listaAbierta = new PriorityQueue<>(
-                Comparator.comparingDouble(NodoAStar::getF));
-
-        // Conjunto de nodos ya explorados
-        Set<Integer> listaCerrada = new HashSet<>();
-
-        // Mapa de nodos a sus padres en la ruta
-        Map<Integer, Integer> padres = new HashMap<>();
-
-        // Costo acumulado desde el origen hasta cada nodo
-        Map<Integer, Double> costoG = new HashMap<>();
-
-        // Inicializar con el nodo de origen
-        listaAbierta.add(new NodoAStar(origen.getId(), 0,
-                DistanceCalculator.calcularDistanciaManhattan(origen.getUbicacion(), destino.getUbicacion())));
-        costoG.put(origen.getId(), 0.0);
-
-        while (!listaAbierta.isEmpty()) {
-            // Obtener nodo con menor f
-            NodoAStar actual = listaAbierta.poll();
-            int idActual = actual.getId();
-
-            // Si llegamos al destino, reconstruir y devolver la ruta
-            if (idActual == destino.getId()) {
-                return reconstruirRuta(padres, origen.getId(), destino.getId());
+        BusquedaAEstrella busqueda = tomarContexto();
+        try {
+            if (busqueda.buscar(this, origen.getId(), destino.getId(), tiempoActual) < 0) {
+                // No hay ruta viable
+                return new ArrayList<>();
             }
 
-            // Marcar nodo como explorado
-            listaCerrada.add(idActual);
-
-            // Explorar vecinos
-            Nodo nodoActual = getNodoPorId(idActual);
-            for (Nodo vecino : nodoActual.getVecinos()) {
-                int idVecino = vecino.getId();
-
-                // Si ya exploramos este vecino, continuar
-                if (listaCerrada.contains(idVecino)) {
-                    continue;
-                }
-
-                // Verificar si el vecino está bloqueado en este tiempo
-                if (estaBloqueo(vecino, tiempoActual)) {
-                    continue;
-                }
-
-                // Calcular costo acumulado hasta este vecino
-                double nuevoG = costoG.get(idActual) + 1; // 1 es la distancia entre nodos adyacentes
-
-                // Si ya está en la lista abierta pero con mayor costo, o no está en la lista
-                if (!costoG.containsKey(idVecino) || nuevoG < costoG.get(idVecino)) {
-                    // Actualizar padre
-                    padres.put(idVecino, idActual);
-
-                    // Actualizar costo
-                    costoG.put(idVecino, nuevoG);
-
-                    // Calcular f = g + h
-                    double h = DistanceCalculator.calcularDistanciaManhattan(
-                            vecino.getUbicacion(), destino.getUbicacion());
-                    double f = nuevoG + h;
+            return reconstruirRuta(busqueda, destino.getId());
+        } finally {
+            contextosLibres.offer(busqueda);
+        }
+    }
 
-                    // Añadir a la lista abierta (o actualizar si ya estaba)
-                    listaAbierta.removeIf(n -> n.getId() == idVecino);
-                    listaAbierta.add(new NodoAStar(idVecino, nuevoG, f));
-                }
-            }
+    /**
+     * Calcula la longitud de la ruta viable más corta entre dos nodos sin construirla
+     * @param origen Nodo de origen
+     * @param destino Nodo de destino
+     * @param tiempoActual Momento actual para evaluar bloqueos
+     * @return Distancia en número de tramos, o -1 si no hay ruta viable
+     */
+    public int calcularDistanciaViable(Nodo origen, Nodo destino, LocalDateTime tiempoActual) {
+        if (origen.getId() == destino.getId()) {
+            return 0;
+        }
+        BusquedaAEstrella busqueda = tomarContexto();
+        try {
+            return busqueda.buscar(this, origen.getId(), destino.getId(), tiempoActual);
+        } finally {
+            contextosLibres.offer(busqueda);
         }
+    }
 
-        // Si llegamos aquí, no hay ruta viable
-        return new ArrayList<>();
+    /**
+     * Toma un contexto de A* libre de este grafo o crea uno nuevo si todos están en uso.
+     * El contexto se redimensiona si la rejilla creció desde que se reservó.
+     */
+    private BusquedaAEstrella tomarContexto() {
+        BusquedaAEstrella busqueda = contextosLibres.poll();
+        if (busqueda == null) {
+            return new BusquedaAEstrella(totalNodos);
+        }
+        busqueda.asegurarCapacidad(totalNodos);
+        return busqueda;
     }
 
     /**
-     * Reconstruye la ruta a partir del mapa de padres
+     * Reconstruye la ruta a partir de los padres de la última búsqueda
      */
-    private List<Nodo> reconstruirRuta(Map<Integer, Integer> padres, int idOrigen, int idDestino) {
+    private List<Nodo> reconstruirRuta(BusquedaAEstrella busqueda, int idDestino) {
         List<Nodo> ruta = new ArrayList<>();
-        int actual = idDestino;
 
         // Reconstruir desde el destino hasta el origen
-        while (actual != idOrigen) {
-            ruta.add(0, getNodoPorId(actual));
-            actual = padres.get(actual);
+        for (int actual = idDestino; actual >= 0; actual = busqueda.getPadre(actual)) {
+            ruta.add(getNodoPorId(actual));
         }
-
-        // Añadir el origen al principio
-        ruta.add(0, getNodoPorId(idOrigen));
+        Collections.reverse(ruta);
 
         return ruta;
     }
@@ -254,35 +267,21 @@ public class GrafoRutas {
      * @return true si el nodo está bloqueado, false en caso contrario
      */
     public boolean estaBloqueo(Nodo nodo, LocalDateTime tiempo) {
-        // Esta implementación simplificada siempre devuelve false
-        // En una implementación real, consultaría la lista de bloqueos activos
-        return false;
+        return estaBloqueado(intervaloBloqueo(tiempo), nodo.getId());
     }
 
     /**
-     * Clase auxiliar para el algoritmo A*
+     * Intervalo del índice de bloqueos para un momento (se calcula una vez por búsqueda)
+     * @return Índice del intervalo, o -1 si no hay bloqueos activos
      */
-    private static class NodoAStar {
-        private int id;
-        private double g; // Costo acumulado desde el origen
-        private double f; // Función de evaluación f = g + h
-
-        public NodoAStar(int id, double g, double f) {
-            this.id = id;
-            this.g = g;
-            this.f = f;
-        }
-
-        public int getId() {
-            return id;
-        }
-
-        public double getG() {
-            return g;
-        }
+    int intervaloBloqueo(LocalDateTime tiempo) {
+        return indiceBloqueos == null ? -1 : indiceBloqueos.intervalo(tiempo);
+    }
 
-        public double getF() {
-            return f;
-        }
+    /**
+     * Verifica si un nodo está bloqueado en un intervalo obtenido con intervaloBloqueo
+     */
+    boolean estaBloqueado(int intervalo, int idNodo) {
+        return intervalo >= 0 && indiceBloqueos.estaBloqueada(intervalo, idNodo);
     }
-}
\ No newline at end of file
+}
@@ -21,6 +21,7 @@ public class Nodo {
     private List<Nodo> vecinos;
     private boolean esAlmacen;
     private TipoAlmacen tipoAlmacen;
+    private GrafoRutas grafo; // Si no es null, los vecinos se derivan del grafo bajo demanda
 
     /**
      * Constructor
@@ -50,12 +51,23 @@ public class Nodo {
         this.tipoAlmacen = tipoAlmacen;
     }
 
+    /**
+     * Obtiene los nodos adyacentes; en las vistas del grafo se calculan la primera vez
+     * @return Lista de vecinos
+     */
+    public List<Nodo> getVecinos() {
+        if (vecinos.isEmpty() && grafo != null) {
+            vecinos = grafo.obtenerVecinos(id);
+        }
+        return vecinos;
+    }
+
     /**
      * Añade un vecino (nodo adyacente) a este nodo
      * @param vecino Nodo vecino a añadir
      */
     public void addVecino(Nodo vecino) {
-        if (!vecinos.contains(vecino)) {
+        if (!getVecinos().contains(vecino)) {
             vecinos.add(vecino);
         }
     }
@@ -66,7 +78,7 @@ public class Nodo {
      * @return true si es vecino, false en caso contrario
      */
     public boolean esVecino(Nodo vecino) {
-        return vecinos.contains(vecino);
+        return getVecinos().contains(vecino);
     }
 
     /**
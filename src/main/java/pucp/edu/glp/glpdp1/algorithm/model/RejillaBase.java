@@ -0,0 +1,100 @@
+package pucp.edu.glp.glpdp1.algorithm.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import pucp.edu.glp.glpdp1.domain.Almacen;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+import pucp.edu.glp.glpdp1.domain.enums.TipoAlmacen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parte inmutable de GrafoRutas: dimensiones, ubicación de cada nodo y almacén de cada nodo.
+ * Solo depende del tamaño de la rejilla y de la disposición de los almacenes, que casi
+ * nunca cambian, así que se guarda en un caché de proceso y la comparten de solo lectura
+ * todas las planificaciones (también las que corren en paralelo).
+ */
+@Getter
+public final class RejillaBase {
+
+    // Rejillas distintas que se conservan; en la práctica hay una sola
+    private static final int MAX_REJILLAS = 8;
+    private static final Map<Clave, RejillaBase> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Clave, RejillaBase> mayor) {
+                    return size() > MAX_REJILLAS;
+                }
+            });
+
+    private final int ancho;
+    private final int alto;
+    private final int totalNodos;
+    private final Map<Integer, TipoAlmacen> almacenesPorNodo;
+    @Getter(AccessLevel.NONE)
+    private final Ubicacion[] ubicaciones;
+
+    /**
+     * Disposición de un almacén (la capacidad no influye en la rejilla)
+     */
+    private record PosicionAlmacen(int x, int y, TipoAlmacen tipo) {
+    }
+
+    private record Clave(int ancho, int alto, List<PosicionAlmacen> almacenes) {
+    }
+
+    private RejillaBase(int ancho, int alto, List<PosicionAlmacen> almacenes) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.totalNodos = (ancho + 1) * (alto + 1); // +1 porque las posiciones van de 0 a ancho/alto
+
+        this.ubicaciones = new Ubicacion[totalNodos];
+        for (int x = 0; x <= ancho; x++) {
+            for (int y = 0; y <= alto; y++) {
+                ubicaciones[x * (alto + 1) + y] = Ubicacion.of(x, y);
+            }
+        }
+
+        Map<Integer, TipoAlmacen> porNodo = new HashMap<>();
+        for (PosicionAlmacen almacen : almacenes) {
+            if (almacen.x() >= 0 && almacen.x() <= ancho && almacen.y() >= 0 && almacen.y() <= alto) {
+                porNodo.putIfAbsent(almacen.x() * (alto + 1) + almacen.y(), almacen.tipo());
+            }
+        }
+        this.almacenesPorNodo = Collections.unmodifiableMap(porNodo);
+    }
+
+    /**
+     * Obtiene la rejilla compartida para estas dimensiones y almacenes, creándola si no existe
+     */
+    public static RejillaBase obtener(int ancho, int alto, List<Almacen> almacenes) {
+        List<PosicionAlmacen> posiciones = new ArrayList<>(almacenes.size());
+        for (Almacen almacen : almacenes) {
+            posiciones.add(new PosicionAlmacen(almacen.getUbicacion().getX(), almacen.getUbicacion().getY(),
+                    almacen.getTipoAlmacen()));
+        }
+        Clave clave = new Clave(ancho, alto, List.copyOf(posiciones));
+        // Crear la rejilla es barato y no tiene efectos: no hace falta bloquear durante la creación
+        RejillaBase rejilla = CACHE.get(clave);
+        if (rejilla == null) {
+            rejilla = new RejillaBase(ancho, alto, clave.almacenes());
+            RejillaBase existente = CACHE.putIfAbsent(clave, rejilla);
+            if (existente != null) {
+                rejilla = existente;
+            }
+        }
+        return rejilla;
+    }
+
+    /**
+     * Ubicación compartida de un nodo válido
+     */
+    public Ubicacion ubicacion(int id) {
+        return ubicaciones[id];
+    }
+}
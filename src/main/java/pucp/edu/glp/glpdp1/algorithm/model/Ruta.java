@@ -88,14 +88,14 @@ public class Ruta {
     }
 
     /**
-     * Crea una copia profunda del objeto
+     * Crea una copia del objeto
      * @return Nueva instancia con los mismos datos
      */
     @Override
     public Ruta clone() {
         return new Ruta(
-                new Ubicacion(origen.getX(), origen.getY()),
-                new Ubicacion(destino.getX(), destino.getY()),
+                origen, // Ubicacion es inmutable: se comparte
+                destino,
                 distancia,
                 puntoEntrega,
                 puntoReabastecimiento,
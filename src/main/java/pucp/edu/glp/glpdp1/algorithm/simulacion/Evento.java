@@ -0,0 +1,40 @@
+package pucp.edu.glp.glpdp1.algorithm.simulacion;
+
+import lombok.Getter;
+import lombok.Setter;
+import pucp.edu.glp.glpdp1.domain.Averia;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.enums.TipoEvento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de la simulación. Se ordenan por tiempo y, a igual tiempo, por orden de
+ * creación, de modo que la simulación es determinista.
+ * Solo se llenan los datos que el tipo de evento necesita.
+ */
+@Getter
+@Setter
+public class Evento implements Comparable<Evento> {
+    private final LocalDateTime tiempo;
+    private final TipoEvento tipo;
+    private long secuencia;
+
+    private Pedido pedido;
+    private Camion camion;
+    private Averia averia;
+    // Viaje del camión al que pertenece el evento; si el viaje se anuló, el evento se ignora
+    private int viaje;
+
+    public Evento(LocalDateTime tiempo, TipoEvento tipo) {
+        this.tiempo = tiempo;
+        this.tipo = tipo;
+    }
+
+    @Override
+    public int compareTo(Evento otro) {
+        int comparacion = tiempo.compareTo(otro.tiempo);
+        return comparacion != 0 ? comparacion : Long.compare(secuencia, otro.secuencia);
+    }
+}
@@ -0,0 +1,30 @@
+package pucp.edu.glp.glpdp1.algorithm.simulacion;
+
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOSolution;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Planificador que invoca el simulador cuando los eventos lo requieren
+ */
+@FunctionalInterface
+public interface Planificador {
+
+    /**
+     * @param pendientes Pedidos recibidos que aún no salieron en ningún camión
+     * @param camionesDisponibles Camiones en el almacén y operativos
+     * @param ahora Instante simulado de la planificación
+     * @return Asignaciones a despachar desde ahora (null si no hay plan)
+     */
+    ACOSolution planificar(List<Pedido> pendientes, List<Camion> camionesDisponibles, LocalDateTime ahora);
+
+    /**
+     * Detiene la planificación en curso y las siguientes; puede llamarse desde otro hilo.
+     * Por defecto no hace nada: el simulador se detiene al terminar la planificación en curso.
+     */
+    default void cancelar() {
+    }
+}
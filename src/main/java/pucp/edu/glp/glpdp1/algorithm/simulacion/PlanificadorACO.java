@@ -0,0 +1,76 @@
+package pucp.edu.glp.glpdp1.algorithm.simulacion;
+
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOAlgorithm;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOParameters;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOSolution;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+/**
+ * Planificador del simulador basado en ACO: cada llamada resuelve solo los pedidos
+ * pendientes con los camiones libres, en el instante simulado y sin avanzar el tiempo
+ * entre iteraciones (el avance lo lleva el simulador)
+ */
+public class PlanificadorACO implements Planificador {
+
+    private final Mapa mapa;
+    private final Supplier<ACOParameters> parametros;
+
+    // Cancelación desde otro hilo: se detiene el algoritmo en curso y no se inician más
+    private volatile boolean cancelado;
+    private volatile ACOAlgorithm enCurso;
+
+    /**
+     * @param mapa Mapa con bloqueos y almacenes de la simulación
+     * @param parametros Crea los parámetros de cada planificación (corrida corta, con presupuesto de tiempo)
+     */
+    public PlanificadorACO(Mapa mapa, Supplier<ACOParameters> parametros) {
+        this.mapa = mapa;
+        this.parametros = parametros;
+    }
+
+    @Override
+    public ACOSolution planificar(List<Pedido> pendientes, List<Camion> camionesDisponibles, LocalDateTime ahora) {
+        if (cancelado) {
+            throw new CancellationException("Simulación cancelada en " + ahora);
+        }
+        Mapa estado = new Mapa(mapa.getAncho(), mapa.getAlto());
+        estado.setPedidos(pendientes);
+        estado.setFlota(camionesDisponibles);
+        estado.setBloqueos(mapa.getBloqueos());
+        estado.setAlmacenes(mapa.getAlmacenes());
+        // Las averías las aplica el simulador como eventos
+        estado.setAverias(new ArrayList<>());
+        estado.setFechaInicio(ahora);
+
+        ACOParameters params = parametros.get();
+        params.setTiempoAvanceSimulacion(0);
+        ACOAlgorithm algoritmo = new ACOAlgorithm(estado, params);
+        enCurso = algoritmo;
+        if (cancelado) {
+            algoritmo.cancelar(); // Se canceló mientras se preparaba el algoritmo
+        }
+        try {
+            algoritmo.ejecutar();
+        } finally {
+            enCurso = null;
+        }
+        return algoritmo.getMejorSolucionGlobal();
+    }
+
+    @Override
+    public void cancelar() {
+        cancelado = true;
+        ACOAlgorithm algoritmo = enCurso;
+        if (algoritmo != null) {
+            algoritmo.cancelar();
+        }
+    }
+}
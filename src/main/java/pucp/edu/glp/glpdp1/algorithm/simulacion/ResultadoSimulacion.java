@@ -0,0 +1,34 @@
+package pucp.edu.glp.glpdp1.algorithm.simulacion;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de una ejecución del simulador de eventos
+ */
+@Getter
+@Setter
+public class ResultadoSimulacion {
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    // Último instante simulado (antes de fechaFin si la simulación se detuvo por colapso)
+    private LocalDateTime fechaAlcanzada;
+
+    private int eventosProcesados;
+    private int planificaciones;
+    private int pedidosRecibidos;
+    private int pedidosEntregados;
+    private int entregasATiempo;
+    private int entregasConRetraso;
+    private int pedidosPendientes;
+    private int averiasAplicadas;
+
+    // Colapso: primer pedido cuyo plazo venció sin haber sido entregado
+    private boolean colapso;
+    private LocalDateTime fechaColapso;
+    private Integer pedidoColapso;
+
+    private long tiempoEjecucionMs;
+}
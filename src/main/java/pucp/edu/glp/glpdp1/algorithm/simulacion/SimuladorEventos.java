@@ -0,0 +1,443 @@
+package pucp.edu.glp.glpdp1.algorithm.simulacion;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOParameters;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOSolution;
+import pucp.edu.glp.glpdp1.algorithm.model.CamionAsignacion;
+import pucp.edu.glp.glpdp1.algorithm.model.Ruta;
+import pucp.edu.glp.glpdp1.domain.Almacen;
+import pucp.edu.glp.glpdp1.domain.Averia;
+import pucp.edu.glp.glpdp1.domain.Bloqueo;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.enums.EstadoCamion;
+import pucp.edu.glp.glpdp1.domain.enums.Incidente;
+import pucp.edu.glp.glpdp1.domain.enums.TipoAlmacen;
+import pucp.edu.glp.glpdp1.domain.enums.TipoEvento;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Logger;
+
+/**
+ * Simulación de eventos discretos de la operación (escenarios semanal y de colapso).
+ * El reloj salta de evento en evento usando una cola de prioridad: llegada y vencimiento
+ * de pedidos, inicio y fin de bloqueos, averías y reparaciones, entregas, regresos al
+ * almacén y recarga de tanques al inicio de cada día.
+ * El planificador solo se invoca cuando un evento lo requiere (hay pedidos pendientes y
+ * camiones libres) y tras una ventana de agrupación, en lugar de una vez por iteración:
+ * el tiempo simulado ya no depende de las iteraciones del optimizador.
+ * Los planes se ejecutan tal cual: cada tramo dura distancia / velocidadPromedio, cada
+ * entrega suma el tiempo de descarga y el regreso el mantenimiento de rutina.
+ */
+@Getter
+@Setter
+public class SimuladorEventos {
+    private static final Logger logger = Logger.getLogger(SimuladorEventos.class.getName());
+
+    private final Mapa mapa;
+    private final ACOParameters parameters; // Velocidad y tiempos de descarga y mantenimiento
+    private final Planificador planificador;
+
+    // Minutos que se espera tras un evento antes de planificar, para agrupar llegadas cercanas
+    private int minutosAgrupacion = 10;
+    // El escenario de colapso no aplica averías
+    private boolean aplicarAverias = true;
+    // Detener la simulación en el primer pedido que vence sin entregarse
+    private boolean detenerEnColapso = false;
+
+    // Estado de la ejecución
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private PriorityQueue<Evento> eventos;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private long secuencia;
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime reloj;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private Set<Pedido> pendientes;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private Set<Pedido> entregados;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private Map<Camion, EstadoSimulado> camiones;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private boolean planificacionProgramada;
+    @Setter(AccessLevel.NONE)
+    private ResultadoSimulacion resultado;
+    // Cancelación cooperativa: se revisa antes de cada evento
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private volatile boolean cancelado;
+
+    /**
+     * Estado de un camión durante la simulación
+     */
+    private static class EstadoSimulado {
+        private boolean enRuta;
+        private LocalDateTime disponibleDesde; // Fin de la reparación (null si está operativo)
+        private int viaje;
+        private final List<Pedido> pedidosEnViaje = new ArrayList<>();
+        private final List<Evento> eventosViaje = new ArrayList<>(); // Eventos del viaje aún sin procesar
+
+        private boolean disponible(LocalDateTime ahora) {
+            return !enRuta && (disponibleDesde == null || !disponibleDesde.isAfter(ahora));
+        }
+    }
+
+    public SimuladorEventos(Mapa mapa, ACOParameters parameters, Planificador planificador) {
+        this.mapa = mapa;
+        this.parameters = parameters;
+        this.planificador = planificador;
+    }
+
+    /**
+     * Solicita detener la simulación: termina antes del siguiente evento (o al detenerse
+     * la planificación en curso) lanzando CancellationException. Puede llamarse desde cualquier hilo.
+     */
+    public void cancelar() {
+        cancelado = true;
+        planificador.cancelar();
+    }
+
+    /**
+     * Simula la operación en [inicio, fin)
+     * @return Resumen de la simulación
+     * @throws CancellationException si se llamó a {@link #cancelar()}
+     */
+    public ResultadoSimulacion simular(LocalDateTime inicio, LocalDateTime fin) {
+        long inicioEjecucion = System.currentTimeMillis();
+        inicializar(inicio, fin);
+        programarEventosIniciales(inicio, fin);
+        logger.info("Simulación de " + inicio + " a " + fin + " con " + eventos.size() + " eventos iniciales");
+
+        while (!eventos.isEmpty()) {
+            if (cancelado) {
+                throw new CancellationException("Simulación cancelada en " + reloj);
+            }
+            Evento evento = eventos.poll();
+            if (!evento.getTiempo().isBefore(fin)) {
+                break;
+            }
+            reloj = evento.getTiempo();
+            procesar(evento);
+            resultado.setEventosProcesados(resultado.getEventosProcesados() + 1);
+            if (resultado.isColapso() && detenerEnColapso) {
+                logger.info("Simulación detenida por colapso en " + reloj);
+                break;
+            }
+        }
+
+        int enViaje = 0;
+        for (EstadoSimulado estado : camiones.values()) {
+            enViaje += estado.pedidosEnViaje.size();
+        }
+        resultado.setPedidosPendientes(pendientes.size() + enViaje);
+        resultado.setFechaAlcanzada(reloj);
+        resultado.setTiempoEjecucionMs(System.currentTimeMillis() - inicioEjecucion);
+        logger.info("Simulación finalizada: " + resultado.getEventosProcesados() + " eventos, "
+                + resultado.getPlanificaciones() + " planificaciones, "
+                + resultado.getPedidosEntregados() + " pedidos entregados");
+        return resultado;
+    }
+
+    private void inicializar(LocalDateTime inicio, LocalDateTime fin) {
+        eventos = new PriorityQueue<>();
+        secuencia = 0;
+        reloj = inicio;
+        pendientes = new LinkedHashSet<>();
+        entregados = new HashSet<>();
+        camiones = new LinkedHashMap<>();
+        for (Camion camion : mapa.getFlota()) {
+            camiones.put(camion, new EstadoSimulado());
+        }
+        planificacionProgramada = false;
+        resultado = new ResultadoSimulacion();
+        resultado.setFechaInicio(inicio);
+        resultado.setFechaFin(fin);
+    }
+
+    private void programarEventosIniciales(LocalDateTime inicio, LocalDateTime fin) {
+        // Pedidos: los registrados antes del inicio y aún vigentes llegan al inicio
+        for (Pedido pedido : mapa.getPedidos()) {
+            if (!pedido.getFechaRegistro().isBefore(fin) || !pedido.getFechaLimite().isAfter(inicio)) {
+                continue;
+            }
+            LocalDateTime llegada = pedido.getFechaRegistro().isBefore(inicio) ? inicio : pedido.getFechaRegistro();
+            Evento evento = new Evento(llegada, TipoEvento.LLEGADA_PEDIDO);
+            evento.setPedido(pedido);
+            programar(evento);
+        }
+
+        // Bloqueos: los ya activos al inicio no generan evento; el planificador los ve por su intervalo
+        for (Bloqueo bloqueo : mapa.getBloqueos()) {
+            if (!bloqueo.getFechaFinal().isAfter(inicio) || !bloqueo.getFechaInicio().isBefore(fin)) {
+                continue;
+            }
+            if (!bloqueo.getFechaInicio().isBefore(inicio)) {
+                programar(new Evento(bloqueo.getFechaInicio(), TipoEvento.INICIO_BLOQUEO));
+            }
+            programar(new Evento(bloqueo.getFechaFinal(), TipoEvento.FIN_BLOQUEO));
+        }
+
+        if (aplicarAverias && mapa.getAverias() != null) {
+            for (Averia averia : mapa.getAverias()) {
+                Evento evento = new Evento(momentoAveria(averia, inicio, fin), TipoEvento.AVERIA);
+                evento.setAveria(averia);
+                programar(evento);
+            }
+        }
+
+        // Recarga de tanques intermedios al inicio de cada día
+        for (LocalDateTime dia = inicio.toLocalDate().plusDays(1).atStartOfDay(); dia.isBefore(fin); dia = dia.plusDays(1)) {
+            programar(new Evento(dia, TipoEvento.RECARGA_TANQUES));
+        }
+    }
+
+    /**
+     * Momento de una avería: su fecha si cae en la simulación; si no (el archivo solo indica
+     * el turno), la mitad de ese turno en el primer día simulado en que aún no haya pasado
+     */
+    private LocalDateTime momentoAveria(Averia averia, LocalDateTime inicio, LocalDateTime fin) {
+        LocalDateTime fecha = averia.getFechaIncidente();
+        if (fecha != null && !fecha.isBefore(inicio) && fecha.isBefore(fin)) {
+            return fecha;
+        }
+        int horaInicioTurno = averia.getTurno() != null ? averia.getTurno().ordinal() * 8 : 0;
+        LocalDateTime momento = inicio.toLocalDate().atStartOfDay().plusHours(horaInicioTurno + 4);
+        return momento.isBefore(inicio) ? momento.plusDays(1) : momento;
+    }
+
+    private void programar(Evento evento) {
+        evento.setSecuencia(secuencia++);
+        eventos.add(evento);
+    }
+
+    private void procesar(Evento evento) {
+        switch (evento.getTipo()) {
+            case LLEGADA_PEDIDO -> {
+                Pedido pedido = evento.getPedido();
+                pendientes.add(pedido);
+                resultado.setPedidosRecibidos(resultado.getPedidosRecibidos() + 1);
+                Evento vencimiento = new Evento(pedido.getFechaLimite(), TipoEvento.VENCIMIENTO_PEDIDO);
+                vencimiento.setPedido(pedido);
+                programar(vencimiento);
+                solicitarPlanificacion();
+            }
+            case VENCIMIENTO_PEDIDO -> {
+                Pedido pedido = evento.getPedido();
+                if (!entregados.contains(pedido) && !resultado.isColapso()) {
+                    resultado.setColapso(true);
+                    resultado.setFechaColapso(reloj);
+                    resultado.setPedidoColapso(pedido.getIdPedido());
+                    logger.warning("Colapso: el pedido " + pedido.getIdPedido() + " venció sin entregarse en " + reloj);
+                }
+            }
+            case INICIO_BLOQUEO, FIN_BLOQUEO, RECARGA_TANQUES -> {
+                if (evento.getTipo() == TipoEvento.RECARGA_TANQUES) {
+                    rellenarTanquesIntermedios();
+                }
+                // Cambió la red o el combustible disponible: replanificar lo que sigue pendiente
+                if (!pendientes.isEmpty()) {
+                    solicitarPlanificacion();
+                }
+            }
+            case AVERIA -> aplicarAveria(evento.getAveria());
+            case FIN_REPARACION -> {
+                if (!pendientes.isEmpty()) {
+                    solicitarPlanificacion();
+                }
+            }
+            case ENTREGA_COMPLETADA -> {
+                EstadoSimulado estado = camiones.get(evento.getCamion());
+                if (estado == null || evento.getViaje() != estado.viaje) {
+                    return; // Viaje anulado por una avería
+                }
+                estado.eventosViaje.remove(evento);
+                Pedido pedido = evento.getPedido();
+                estado.pedidosEnViaje.remove(pedido);
+                entregados.add(pedido);
+                resultado.setPedidosEntregados(resultado.getPedidosEntregados() + 1);
+                if (reloj.isAfter(pedido.getFechaLimite())) {
+                    resultado.setEntregasConRetraso(resultado.getEntregasConRetraso() + 1);
+                } else {
+                    resultado.setEntregasATiempo(resultado.getEntregasATiempo() + 1);
+                }
+            }
+            case REGRESO_CAMION -> {
+                EstadoSimulado estado = camiones.get(evento.getCamion());
+                if (estado == null || evento.getViaje() != estado.viaje) {
+                    return;
+                }
+                estado.enRuta = false;
+                estado.eventosViaje.clear();
+                if (!pendientes.isEmpty()) {
+                    solicitarPlanificacion();
+                }
+            }
+            case PLANIFICACION -> {
+                planificacionProgramada = false;
+                planificar();
+            }
+        }
+    }
+
+    /**
+     * Programa una planificación tras la ventana de agrupación (una sola a la vez)
+     */
+    private void solicitarPlanificacion() {
+        if (planificacionProgramada) {
+            return;
+        }
+        planificacionProgramada = true;
+        programar(new Evento(reloj.plusMinutes(minutosAgrupacion), TipoEvento.PLANIFICACION));
+    }
+
+    private void planificar() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<Camion> disponibles = new ArrayList<>();
+        for (Map.Entry<Camion, EstadoSimulado> entrada : camiones.entrySet()) {
+            if (entrada.getValue().disponible(reloj)) {
+                Camion camion = entrada.getKey();
+                // El estado de la flota lo lleva el simulador; el planificador lo recibe limpio
+                camion.setAveriado(false);
+                camion.setEstado(EstadoCamion.DISPONIBLE);
+                disponibles.add(camion);
+            }
+        }
+        if (disponibles.isEmpty()) {
+            return; // Se vuelve a planificar cuando regrese o se repare un camión
+        }
+
+        ACOSolution plan = planificador.planificar(new ArrayList<>(pendientes), disponibles, reloj);
+        resultado.setPlanificaciones(resultado.getPlanificaciones() + 1);
+        if (plan != null) {
+            despachar(plan);
+        }
+    }
+
+    /**
+     * Ejecuta las asignaciones del plan: programa cada entrega y el regreso del camión
+     */
+    private void despachar(ACOSolution plan) {
+        for (CamionAsignacion asignacion : plan.getAsignaciones()) {
+            EstadoSimulado estado = camiones.get(asignacion.getCamion());
+            if (estado == null || !estado.disponible(reloj)) {
+                continue;
+            }
+            estado.viaje++;
+            estado.pedidosEnViaje.clear();
+            estado.eventosViaje.clear();
+
+            LocalDateTime tiempo = reloj;
+            for (Ruta ruta : asignacion.getRutas()) {
+                tiempo = tiempo.plusMinutes(minutosViaje(ruta.getDistancia()));
+                Pedido pedido = ruta.getPedidoEntrega();
+                if (ruta.isPuntoEntrega() && pedido != null && pendientes.remove(pedido)) {
+                    Evento entrega = eventoViaje(tiempo, TipoEvento.ENTREGA_COMPLETADA, asignacion.getCamion(), estado);
+                    entrega.setPedido(pedido);
+                    estado.pedidosEnViaje.add(pedido);
+                    tiempo = tiempo.plusMinutes(parameters.getTiempoDescargaCliente());
+                }
+            }
+            if (estado.pedidosEnViaje.isEmpty()) {
+                continue; // Ningún pedido pendiente en esta asignación: el camión no sale
+            }
+            tiempo = tiempo.plusMinutes(parameters.getTiempoMantenimientoRutina());
+            eventoViaje(tiempo, TipoEvento.REGRESO_CAMION, asignacion.getCamion(), estado);
+            estado.enRuta = true;
+        }
+    }
+
+    private Evento eventoViaje(LocalDateTime tiempo, TipoEvento tipo, Camion camion, EstadoSimulado estado) {
+        Evento evento = new Evento(tiempo, tipo);
+        evento.setCamion(camion);
+        evento.setViaje(estado.viaje);
+        estado.eventosViaje.add(evento);
+        programar(evento);
+        return evento;
+    }
+
+    private long minutosViaje(double distancia) {
+        return (long) Math.ceil(distancia / parameters.getVelocidadPromedio() * 60);
+    }
+
+    /**
+     * Avería de un camión en ruta (si no está en ruta no tiene efecto):
+     * TI1 lo inmoviliza 2 horas y continúa su viaje;
+     * TI2 y TI3 devuelven su carga a pendientes (trasvase a otra unidad) y lo dejan en taller,
+     * TI2 hasta el turno subsiguiente y TI3 hasta el inicio del día A+3.
+     */
+    private void aplicarAveria(Averia averia) {
+        Camion camion = buscarCamion(averia.getCodigo());
+        EstadoSimulado estado = camion != null ? camiones.get(camion) : null;
+        if (estado == null || !estado.enRuta) {
+            return;
+        }
+        resultado.setAveriasAplicadas(resultado.getAveriasAplicadas() + 1);
+        logger.info("Avería " + averia.getIncidente() + " del camión " + camion.getIdC() + " en " + reloj);
+
+        List<Evento> restantes = new ArrayList<>(estado.eventosViaje);
+        estado.eventosViaje.clear();
+        estado.viaje++; // Anula los eventos programados del viaje
+
+        if (averia.getIncidente() == Incidente.TI1) {
+            // Reprogramar el resto del viaje con 2 horas de retraso (incluye los eventos
+            // de este mismo minuto que aún no se procesaron)
+            for (Evento anterior : restantes) {
+                Evento retrasado = eventoViaje(anterior.getTiempo().plusHours(2), anterior.getTipo(), camion, estado);
+                retrasado.setPedido(anterior.getPedido());
+            }
+            return;
+        }
+
+        pendientes.addAll(estado.pedidosEnViaje);
+        estado.pedidosEnViaje.clear();
+        estado.enRuta = false;
+        estado.disponibleDesde = finReparacion(averia.getIncidente());
+        Evento reparacion = new Evento(estado.disponibleDesde, TipoEvento.FIN_REPARACION);
+        reparacion.setCamion(camion);
+        programar(reparacion);
+        solicitarPlanificacion();
+    }
+
+    private LocalDateTime finReparacion(Incidente incidente) {
+        LocalDateTime inicioDia = reloj.toLocalDate().atStartOfDay();
+        if (incidente == Incidente.TI3) {
+            return inicioDia.plusDays(3);
+        }
+        // TI2: disponible al inicio del turno subsiguiente (T1 -> T3, T2 -> T1 del día siguiente, ...)
+        int turno = reloj.getHour() / 8;
+        return inicioDia.plusHours((turno + 2) * 8L);
+    }
+
+    private Camion buscarCamion(String codigo) {
+        for (Camion camion : camiones.keySet()) {
+            if (camion.getIdC().equals(codigo)) {
+                return camion;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recarga de los tanques intermedios al inicio del día
+     */
+    private void rellenarTanquesIntermedios() {
+        for (Almacen almacen : mapa.getAlmacenes()) {
+            if (almacen.getTipoAlmacen() != TipoAlmacen.CENTRAL) {
+                almacen.setCapacidadActualM3(almacen.getCapacidadEfectivaM3());
+            }
+        }
+    }
+}
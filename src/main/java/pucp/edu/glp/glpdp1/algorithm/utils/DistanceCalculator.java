@@ -98,7 +98,7 @@ public class DistanceCalculator {
         int x = sumaX / ubicaciones.size();
         int y = sumaY / ubicaciones.size();
 
-        return new Ubicacion(x, y);
+        return Ubicacion.of(x, y);
     }
 
     /**
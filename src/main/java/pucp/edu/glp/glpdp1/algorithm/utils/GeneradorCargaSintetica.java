@@ -0,0 +1,320 @@
+package pucp.edu.glp.glpdp1.algorithm.utils;
+
+import lombok.Getter;
+import lombok.Setter;
+import pucp.edu.glp.glpdp1.domain.enums.Incidente;
+import pucp.edu.glp.glpdp1.domain.enums.Turnos;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generador de cargas sintéticas para pruebas de escala de ACOAlgorithm y GA.
+ * Escribe archivos con el mismo formato que leen PedidoService, BloqueosService
+ * y AveriaService, de forma incremental (sin mantener la carga en memoria),
+ * por lo que sirve desde mil hasta millones de pedidos.
+ * Todo depende de la semilla de la configuración: la misma configuración produce
+ * siempre los mismos archivos.
+ *
+ * Uso desde línea de comandos (argumentos clave=valor, todos opcionales):
+ * java ... GeneradorCargaSintetica directorio=carga numeroPedidos=100000 pedidosPorHora=500 semilla=7
+ */
+public class GeneradorCargaSintetica {
+
+    // BloqueosService interpreta los días como días de mayo de 2025 con dos dígitos
+    private static final int MAX_DIA_BLOQUEO = 31;
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+
+    // Códigos de la flota cargada por Mapa (tipo, cantidad)
+    private static final String[] TIPOS_CAMION = {"TA", "TB", "TC", "TD"};
+    private static final int[] CANTIDAD_CAMIONES = {2, 4, 4, 10};
+
+    /**
+     * Parámetros de la carga sintética
+     */
+    @Getter
+    @Setter
+    public static class Configuracion {
+        private long semilla = 1L;
+
+        // Rejilla (posiciones de 0 a ancho / alto)
+        private int ancho = 70;
+        private int alto = 50;
+
+        // Pedidos: llegada como proceso de Poisson con la tasa indicada
+        private int numeroPedidos = 1000;
+        private double pedidosPorHora = 20.0;
+        private int numeroClientes = 1000;
+
+        // Volumen (m3) entre mínimo y máximo; sesgo > 1 favorece volúmenes pequeños
+        private int volumenMinimo = 1;
+        private int volumenMaximo = 25;
+        private double sesgoVolumen = 2.0;
+
+        // Plazo (horas) entre mínimo y máximo; rigidez > 1 favorece plazos cortos
+        private int plazoMinimoHoras = 4;
+        private int plazoMaximoHoras = 36;
+        private double rigidezPlazos = 1.0;
+
+        // Bloqueos: cantidad por día, duración y tramos por bloqueo
+        private double bloqueosPorDia = 10.0;
+        private int duracionMinimaBloqueoHoras = 2;
+        private int duracionMaximaBloqueoHoras = 20;
+        private int maxTramosBloqueo = 3;
+        private int longitudMaximaTramo = 15;
+
+        // Averías: cantidad de líneas (turno, camión, tipo de incidente)
+        private int numeroAverias = 20;
+    }
+
+    private final Configuracion configuracion;
+
+    /**
+     * Constructor
+     * @param configuracion Parámetros de la carga
+     */
+    public GeneradorCargaSintetica(Configuracion configuracion) {
+        this.configuracion = configuracion;
+    }
+
+    /**
+     * Escribe los pedidos con formato ##d##h##m:posX,posY,c-idCliente,##m3,##h
+     * @param salida Destino de las líneas (no se cierra)
+     * @return Número de días (desde el día 1) que abarcan los pedidos
+     */
+    public int generarPedidos(Writer salida) throws IOException {
+        Random random = new Random(configuracion.getSemilla());
+        double minutosEntreLlegadas = 60.0 / configuracion.getPedidosPorHora();
+        double minuto = 0;
+        StringBuilder linea = new StringBuilder(48);
+
+        for (int i = 0; i < configuracion.getNumeroPedidos(); i++) {
+            // Tiempo entre llegadas exponencial (proceso de Poisson)
+            minuto += -Math.log(1.0 - random.nextDouble()) * minutosEntreLlegadas;
+            long minutoEntero = (long) minuto;
+
+            int x = random.nextInt(configuracion.getAncho() + 1);
+            int y = random.nextInt(configuracion.getAlto() + 1);
+            int cliente = random.nextInt(Math.max(1, configuracion.getNumeroClientes()));
+            int volumen = valorSesgado(random, configuracion.getVolumenMinimo(),
+                    configuracion.getVolumenMaximo(), configuracion.getSesgoVolumen());
+            int plazo = valorSesgado(random, configuracion.getPlazoMinimoHoras(),
+                    configuracion.getPlazoMaximoHoras(), configuracion.getRigidezPlazos());
+
+            linea.setLength(0);
+            agregarMomento(linea, minutoEntero);
+            linea.append(':').append(x).append(',').append(y)
+                    .append(",c-").append(cliente)
+                    .append(',').append(volumen).append("m3,")
+                    .append(plazo).append("h\n");
+            salida.write(linea.toString());
+        }
+
+        return (int) ((long) minuto / MINUTOS_POR_DIA) + 1;
+    }
+
+    /**
+     * Escribe los bloqueos con formato ##d##h##m-##d##h##m:x1,y1,x2,y2,...
+     * Cada bloqueo es una poligonal de tramos horizontales o verticales.
+     * @param salida Destino de las líneas (no se cierra)
+     * @param dias Días a cubrir desde el día 1 (como máximo 31, el límite del formato)
+     */
+    public void generarBloqueos(Writer salida, int dias) throws IOException {
+        Random random = new Random(configuracion.getSemilla() + 1);
+        int diasBloqueo = Math.min(Math.max(dias, 1), MAX_DIA_BLOQUEO);
+        int limiteMinutos = diasBloqueo * MINUTOS_POR_DIA - 1;
+        StringBuilder linea = new StringBuilder(64);
+
+        for (int dia = 0; dia < diasBloqueo; dia++) {
+            // Inicios del día ordenados, como en los archivos reales
+            int[] inicios = new int[cantidadPoisson(random, configuracion.getBloqueosPorDia())];
+            for (int b = 0; b < inicios.length; b++) {
+                inicios[b] = dia * MINUTOS_POR_DIA + random.nextInt(MINUTOS_POR_DIA);
+            }
+            Arrays.sort(inicios);
+
+            for (int inicio : inicios) {
+                int duracionHoras = configuracion.getDuracionMinimaBloqueoHoras() + random.nextInt(
+                        Math.max(1, configuracion.getDuracionMaximaBloqueoHoras()
+                                - configuracion.getDuracionMinimaBloqueoHoras() + 1));
+                int fin = Math.min(inicio + duracionHoras * 60 + random.nextInt(60), limiteMinutos);
+                if (fin <= inicio) {
+                    continue;
+                }
+
+                linea.setLength(0);
+                agregarMomento(linea, inicio);
+                linea.append('-');
+                agregarMomento(linea, fin);
+                linea.append(':');
+                agregarPoligonal(linea, random);
+                linea.append('\n');
+                salida.write(linea.toString());
+            }
+        }
+    }
+
+    /**
+     * Escribe las averías con formato turno_codigoCamion_incidente (p. ej. T1_TA01_TI2)
+     * @param salida Destino de las líneas (no se cierra)
+     */
+    public void generarAverias(Writer salida) throws IOException {
+        Random random = new Random(configuracion.getSemilla() + 2);
+        List<String> camiones = new ArrayList<>();
+        for (int t = 0; t < TIPOS_CAMION.length; t++) {
+            for (int i = 1; i <= CANTIDAD_CAMIONES[t]; i++) {
+                camiones.add(TIPOS_CAMION[t] + String.format("%02d", i));
+            }
+        }
+
+        Turnos[] turnos = Turnos.values();
+        Incidente[] incidentes = Incidente.values();
+        for (int i = 0; i < configuracion.getNumeroAverias(); i++) {
+            salida.write(turnos[random.nextInt(turnos.length)] + "_"
+                    + camiones.get(random.nextInt(camiones.size())) + "_"
+                    + incidentes[random.nextInt(incidentes.length)] + "\n");
+        }
+    }
+
+    /**
+     * Genera los tres archivos en un directorio
+     * @param directorio Directorio de salida (se crea si no existe)
+     */
+    public void generarArchivos(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+
+        int dias;
+        try (BufferedWriter salida = Files.newBufferedWriter(directorio.resolve("pedidos.txt"), StandardCharsets.UTF_8)) {
+            dias = generarPedidos(salida);
+        }
+        try (BufferedWriter salida = Files.newBufferedWriter(directorio.resolve("bloqueos.txt"), StandardCharsets.UTF_8)) {
+            generarBloqueos(salida, dias);
+        }
+        try (BufferedWriter salida = Files.newBufferedWriter(directorio.resolve("averias.txt"), StandardCharsets.UTF_8)) {
+            generarAverias(salida);
+        }
+    }
+
+    /**
+     * Escribe un instante como ##d##h##m a partir de minutos desde el día 1
+     */
+    private static void agregarMomento(StringBuilder sb, long minutos) {
+        long dia = minutos / MINUTOS_POR_DIA + 1;
+        long hora = (minutos % MINUTOS_POR_DIA) / 60;
+        long minuto = minutos % 60;
+        agregarDosDigitos(sb, dia).append('d');
+        agregarDosDigitos(sb, hora).append('h');
+        agregarDosDigitos(sb, minuto).append('m');
+    }
+
+    private static StringBuilder agregarDosDigitos(StringBuilder sb, long valor) {
+        if (valor < 10) {
+            sb.append('0');
+        }
+        return sb.append(valor);
+    }
+
+    /**
+     * Poligonal de 1 a maxTramosBloqueo tramos alternando horizontal y vertical, dentro de la rejilla
+     */
+    private void agregarPoligonal(StringBuilder sb, Random random) {
+        int ancho = configuracion.getAncho();
+        int alto = configuracion.getAlto();
+        int x = random.nextInt(ancho + 1);
+        int y = random.nextInt(alto + 1);
+        sb.append(x).append(',').append(y);
+
+        int tramos = 1 + random.nextInt(Math.max(1, configuracion.getMaxTramosBloqueo()));
+        boolean horizontal = random.nextBoolean();
+        for (int t = 0; t < tramos; t++) {
+            int longitud = 1 + random.nextInt(Math.max(1, configuracion.getLongitudMaximaTramo()));
+            int direccion = random.nextBoolean() ? 1 : -1;
+            if (horizontal) {
+                x = Math.min(Math.max(x + direccion * longitud, 0), ancho);
+            } else {
+                y = Math.min(Math.max(y + direccion * longitud, 0), alto);
+            }
+            sb.append(',').append(x).append(',').append(y);
+            horizontal = !horizontal;
+        }
+    }
+
+    /**
+     * Entero entre mínimo y máximo (inclusive) con sesgo hacia el mínimo si sesgo > 1
+     */
+    private static int valorSesgado(Random random, int minimo, int maximo, double sesgo) {
+        if (maximo <= minimo) {
+            return minimo;
+        }
+        double u = Math.pow(random.nextDouble(), Math.max(sesgo, 1e-6));
+        return minimo + (int) Math.min(u * (maximo - minimo + 1), maximo - minimo);
+    }
+
+    /**
+     * Muestra de una distribución de Poisson (método de Knuth; la media es pequeña)
+     */
+    private static int cantidadPoisson(Random random, double media) {
+        if (media <= 0) {
+            return 0;
+        }
+        double limite = Math.exp(-media);
+        int k = 0;
+        double producto = random.nextDouble();
+        while (producto > limite) {
+            k++;
+            producto *= random.nextDouble();
+        }
+        return k;
+    }
+
+    /**
+     * Punto de entrada para generar archivos desde línea de comandos
+     * @param args Argumentos clave=valor con los campos de Configuracion y "directorio"
+     */
+    public static void main(String[] args) throws IOException {
+        Configuracion configuracion = new Configuracion();
+        Path directorio = Path.of("carga-sintetica");
+
+        for (String arg : args) {
+            int separador = arg.indexOf('=');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Argumento inválido (se espera clave=valor): " + arg);
+            }
+            String clave = arg.substring(0, separador);
+            String valor = arg.substring(separador + 1);
+            switch (clave) {
+                case "directorio" -> directorio = Path.of(valor);
+                case "semilla" -> configuracion.setSemilla(Long.parseLong(valor));
+                case "ancho" -> configuracion.setAncho(Integer.parseInt(valor));
+                case "alto" -> configuracion.setAlto(Integer.parseInt(valor));
+                case "numeroPedidos" -> configuracion.setNumeroPedidos(Integer.parseInt(valor));
+                case "pedidosPorHora" -> configuracion.setPedidosPorHora(Double.parseDouble(valor));
+                case "numeroClientes" -> configuracion.setNumeroClientes(Integer.parseInt(valor));
+                case "volumenMinimo" -> configuracion.setVolumenMinimo(Integer.parseInt(valor));
+                case "volumenMaximo" -> configuracion.setVolumenMaximo(Integer.parseInt(valor));
+                case "sesgoVolumen" -> configuracion.setSesgoVolumen(Double.parseDouble(valor));
+                case "plazoMinimoHoras" -> configuracion.setPlazoMinimoHoras(Integer.parseInt(valor));
+                case "plazoMaximoHoras" -> configuracion.setPlazoMaximoHoras(Integer.parseInt(valor));
+                case "rigidezPlazos" -> configuracion.setRigidezPlazos(Double.parseDouble(valor));
+                case "bloqueosPorDia" -> configuracion.setBloqueosPorDia(Double.parseDouble(valor));
+                case "duracionMinimaBloqueoHoras" -> configuracion.setDuracionMinimaBloqueoHoras(Integer.parseInt(valor));
+                case "duracionMaximaBloqueoHoras" -> configuracion.setDuracionMaximaBloqueoHoras(Integer.parseInt(valor));
+                case "maxTramosBloqueo" -> configuracion.setMaxTramosBloqueo(Integer.parseInt(valor));
+                case "longitudMaximaTramo" -> configuracion.setLongitudMaximaTramo(Integer.parseInt(valor));
+                case "numeroAverias" -> configuracion.setNumeroAverias(Integer.parseInt(valor));
+                default -> throw new IllegalArgumentException("Parámetro desconocido: " + clave);
+            }
+        }
+
+        new GeneradorCargaSintetica(configuracion).generarArchivos(directorio);
+        System.out.println("Carga sintética generada en " + directorio.toAbsolutePath());
+    }
+}
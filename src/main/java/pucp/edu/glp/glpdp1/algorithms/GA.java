@@ -1,13 +1,21 @@
 package pucp.edu.glp.glpdp1.algorithms;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.IndiceBloqueos;
 import pucp.edu.glp.glpdp1.domain.Mapa;
 import pucp.edu.glp.glpdp1.domain.Pedido;
 import pucp.edu.glp.glpdp1.domain.Rutas;
@@ -17,17 +25,44 @@ import pucp.edu.glp.glpdp1.domain.Ubicacion;
  * Clase que implementa el algoritmo genético para asignación de pedidos a camiones
  * minimizando la distancia total recorrida.
  * Se trabaja sobre una lista de pedidos y flota de camiones almacenada en el Mapa.
+ * Los hijos de cada generación se evalúan en paralelo por lotes. Con más de una isla,
+ * cada isla es una subpoblación que evoluciona en su propio hilo y cada cierto número
+ * de generaciones envía sus mejores individuos a la siguiente isla (topología en anillo).
  */
 public class GA {
     private final Mapa mapa;                        /** Información del entorno (pedidos, camiones, almacenes) */
-    private final int populationSize;               /** Tamaño de la población por generación */
+    private final int populationSize;               /** Tamaño de la población por generación (de cada isla) */
     private final int maxGenerations;               /** Máximo número de generaciones */
     private final double crossoverRate;             /** Probabilidad de cruce entre padres */
     private final double mutationRate;              /** Probabilidad de mutación de un hijo */
     private final double elitismRate;               /** Porcentaje de individuos que pasan directo a la siguiente generación */
-    private final Random random;                    /** Para generar números aleatorios */
+    private Random random;                          /** Para generar números aleatorios (del que salen los de las islas) */
+    private final int numeroIslas;                  /** Subpoblaciones que evolucionan en paralelo (1 = sin islas) */
+    private final int intervaloMigracion;           /** Generaciones entre migraciones de élite entre islas */
+    private final int numeroMigrantes;              /** Mejores individuos que cada isla envía a la siguiente */
+    private int numeroHilos = Runtime.getRuntime().availableProcessors(); /** Hilos para evaluar y para las islas */
+    private ForkJoinPool pool;                      /** Pool acotado de la ejecución (null si es secuencial) */
+    private int intentosBusquedaLocal = 0;          /** Movimientos de búsqueda local sobre el mejor individuo final */
     private List<Individual> population;
 
+    // Pedidos y camiones en arreglos primitivos (mismo índice que en el mapa) para evaluar sin asignaciones
+    private final int[] destinoX;
+    private final int[] destinoY;
+    private final double[] volumen;
+    private final long[] limiteSegundos;            /** Fecha límite de cada pedido en segundos de época */
+    private final double[] capacidad;
+    private final int origenX;
+    private final int origenY;
+    private final long inicioSegundos;
+    private final IndiceBloqueos indiceBloqueos;
+    // Genes entre puntos de control de la evaluación incremental
+    private static final int INTERVALO_CONTROL = 32;
+    // Estado de evaluación reutilizable por hilo
+    private final ThreadLocal<EstadoEvaluacion> estadoEvaluacion;
+    // Marcas por pedido para el cruce, reutilizables por hilo
+    private final ThreadLocal<MarcasCruce> marcasCruce;
+    private final Comparator<Individual> porFitness = Comparator.comparingDouble(i -> i.fitness);
+
     /** Constructor */
     public GA(Mapa mapa,
               int populationSize,
@@ -35,6 +70,24 @@ public class GA {
               double crossoverRate,
               double mutationRate,
               double elitismRate) {
+        this(mapa, populationSize, maxGenerations, crossoverRate, mutationRate, elitismRate, 1, 0, 0);
+    }
+
+    /**
+     * Constructor con modelo de islas
+     * @param numeroIslas Subpoblaciones de populationSize individuos cada una
+     * @param intervaloMigracion Generaciones entre migraciones
+     * @param numeroMigrantes Individuos de élite que migran de cada isla
+     */
+    public GA(Mapa mapa,
+              int populationSize,
+              int maxGenerations,
+              double crossoverRate,
+              double mutationRate,
+              double elitismRate,
+              int numeroIslas,
+              int intervaloMigracion,
+              int numeroMigrantes) {
         this.mapa = mapa;
         this.populationSize = populationSize;
         this.maxGenerations = maxGenerations;
@@ -42,52 +95,89 @@ public class GA {
         this.mutationRate = mutationRate;
         this.elitismRate = elitismRate;
         this.random = new Random();
+        this.numeroIslas = Math.max(1, numeroIslas);
+        this.intervaloMigracion = Math.max(1, intervaloMigracion);
+        this.numeroMigrantes = Math.max(0, Math.min(numeroMigrantes, populationSize / 2));
+
+        List<Pedido> pedidos = mapa.getPedidos();
+        this.destinoX = new int[pedidos.size()];
+        this.destinoY = new int[pedidos.size()];
+        this.volumen = new double[pedidos.size()];
+        this.limiteSegundos = new long[pedidos.size()];
+        for (int i = 0; i < pedidos.size(); i++) {
+            Pedido p = pedidos.get(i);
+            destinoX[i] = p.getDestino().getX();
+            destinoY[i] = p.getDestino().getY();
+            volumen[i] = p.getVolumen();
+            limiteSegundos[i] = p.getFechaLimite().toEpochSecond(ZoneOffset.UTC);
+        }
+        List<Camion> flota = mapa.getFlota();
+        this.capacidad = new double[flota.size()];
+        for (int t = 0; t < flota.size(); t++) {
+            capacidad[t] = flota.get(t).getCargaM3();
+        }
+        Ubicacion origen = mapa.getAlmacenes().get(0).getUbicacion();
+        this.origenX = origen.getX();
+        this.origenY = origen.getY();
+        if (mapa.getFechaInicio() == null) {
+            throw new IllegalArgumentException("El mapa debe tener fecha de inicio para el algoritmo genético");
+        }
+        this.inicioSegundos = mapa.getFechaInicio().toEpochSecond(ZoneOffset.UTC);
+        this.indiceBloqueos = mapa.getBloqueos() == null ? null : mapa.indiceBloqueos();
+        this.estadoEvaluacion = ThreadLocal.withInitial(() -> new EstadoEvaluacion(flota.size()));
+        this.marcasCruce = ThreadLocal.withInitial(() -> new MarcasCruce(pedidos.size()));
+    }
+
+    public void setNumeroHilos(int numeroHilos) {
+        this.numeroHilos = numeroHilos;
+    }
+
+    public void setIntentosBusquedaLocal(int intentosBusquedaLocal) {
+        this.intentosBusquedaLocal = intentosBusquedaLocal;
+    }
+
+    /**
+     * Fija la semilla: con la misma semilla, run() da el mismo resultado con cualquier número de hilos
+     */
+    public void setSemilla(long semilla) {
+        this.random = new Random(semilla);
     }
+
     /**
      * Ejecuta el algoritmo genético completo: inicializa, evoluciona y retorna el mejor individuo.
      */
     public Individual run() {
-        initializePopulation();                                 // Crea y evalúa la población inicial
+        int hilos = Math.min(numeroHilos, numeroIslas > 1 ? numeroIslas : populationSize);
+        this.pool = hilos > 1 ? new ForkJoinPool(hilos) : null;
+        try {
+            Individual best = numeroIslas > 1 ? evolucionarIslas() : evolucionar();
+            if (intentosBusquedaLocal > 0) {
+                best = best.copy();
+                best.busquedaLocal(intentosBusquedaLocal, random);
+            }
+            return best;
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+                pool = null;
+            }
+        }
+    }
+
+    /**
+     * Evolución de una sola población; los hijos de cada generación se evalúan en paralelo
+     */
+    private Individual evolucionar() {
+        population = initializePopulation(random, true);        // Crea y evalúa la población inicial
         Individual best = getBestIndividual(population);
+        ReservaIndividuos reserva = new ReservaIndividuos();
         int stagnationCount = 0;
 
         for (int gen = 0; gen < maxGenerations; gen++) {
             // Aplica elitismo, selección, cruce, mutación y evaluación
-            List<Individual> next = new ArrayList<>();
-            int eliteCount = (int)(elitismRate * populationSize);
-
-            // Ordenar por fitness y preservar la élite
-            Collections.sort(population, Comparator.comparingDouble(i -> i.fitness));
-            for (int i = 0; i < eliteCount; i++) {
-                next.add(population.get(i).copy());
-            }
-
-            // Generar el resto de la población
-            while (next.size() < populationSize) {
-                Individual p1 = tournamentSelection();                  // Selección por torneo
-                Individual p2 = tournamentSelection();
-                List<Individual> offspring;
-
-                if (random.nextDouble() < crossoverRate) {
-                offspring = orderedCrossover(p1, p2);                   // Cruce
-                } else {
-                    offspring = Arrays.asList(p1.copy(), p2.copy());    // Copia directa si no hay cruce
-                }
-
-                // Mutación y evaluación
-                for (Individual c : offspring) {
-                    c.evaluate();                                   // Evaluación obligatoria
-                    if (random.nextDouble() < mutationRate) {
-                        c.mutate();     // Mutación
-                        c.evaluate();   // Reevaluación tras mutación
-                    }
-                    next.add(c);
-                    if (next.size() >= populationSize) break;
-                }
-            }
+            population = nextGeneration(population, random, true, reserva, best);
 
             // Verificar si hay mejora
-            population = next;
             Individual genBest = getBestIndividual(population);
             if (genBest.fitness < best.fitness) {
                 best = genBest;
@@ -101,65 +191,254 @@ public class GA {
 
         return best;
     }
+
+    /**
+     * Modelo de islas: cada isla evoluciona intervaloMigracion generaciones en su propio hilo,
+     * luego se migra la élite y se repite hasta agotar las generaciones o estancarse
+     */
+    private Individual evolucionarIslas() {
+        List<Isla> islas = new ArrayList<>(numeroIslas);
+        for (int i = 0; i < numeroIslas; i++) {
+            islas.add(new Isla(new Random(random.nextLong())));
+        }
+        ejecutarEnIslas(islas, Isla::inicializar);
+        Individual best = mejorDeIslas(islas);
+        int stagnationCount = 0;
+
+        int gen = 0;
+        while (gen < maxGenerations && stagnationCount < 50) {
+            int generaciones = Math.min(intervaloMigracion, maxGenerations - gen);
+            ejecutarEnIslas(islas, isla -> isla.evolucionar(generaciones));
+            gen += generaciones;
+            migrar(islas);
+
+            Individual epocaBest = mejorDeIslas(islas);
+            if (epocaBest.fitness < best.fitness) {
+                best = epocaBest;
+                stagnationCount = 0;
+            } else {
+                stagnationCount += generaciones;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Genera la siguiente población: élite, y el resto por torneo, cruce y mutación.
+     * Los hijos se evalúan todos juntos al final (en paralelo si se indica).
+     * Los individuos de la población anterior que nadie comparte vuelven a la reserva.
+     * @param protegido Individuo que se sigue usando fuera de la población (el mejor)
+     */
+    List<Individual> nextGeneration(List<Individual> pop, Random rnd, boolean evaluarEnParalelo,
+                                    ReservaIndividuos reserva, Individual protegido) {
+        List<Individual> next = new ArrayList<>(populationSize);
+        int eliteCount = (int)(elitismRate * populationSize);
+
+        // Ordenar por fitness y preservar la élite (ya evaluada)
+        pop.sort(porFitness);
+        for (int i = 0; i < eliteCount; i++) {
+            next.add(pop.get(i).copy());
+        }
+
+        // Generar el resto de la población
+        List<Individual> hijos = new ArrayList<>(populationSize - eliteCount);
+        while (next.size() + hijos.size() < populationSize) {
+            Individual p1 = tournamentSelection(pop, rnd);           // Selección por torneo
+            Individual p2 = tournamentSelection(pop, rnd);
+            List<Individual> offspring;
+
+            if (rnd.nextDouble() < crossoverRate) {
+                offspring = orderedCrossover(p1, p2, rnd, reserva);  // Cruce
+            } else {
+                offspring = Arrays.asList(p1.copy(), p2.copy());    // Copia directa si no hay cruce
+            }
+
+            for (Individual c : offspring) {
+                if (rnd.nextDouble() < mutationRate) {
+                    c.mutate(rnd);  // Mutación
+                }
+                hijos.add(c);
+                if (next.size() + hijos.size() >= populationSize) break;
+            }
+        }
+
+        evaluarLote(hijos, evaluarEnParalelo);                      // Evaluación obligatoria
+        next.addAll(hijos);
+
+        for (Individual ind : pop) {
+            if (ind != protegido) {
+                reserva.liberar(ind);
+            }
+        }
+        return next;
+    }
+
     /**
-     * Crea la población inicial con permutaciones aleatorias de pedidos y los evalúa.
+     * Crea una población con permutaciones aleatorias de pedidos y la evalúa.
      */
-    private void initializePopulation() {
-        population = new ArrayList<>();
+    List<Individual> initializePopulation(Random rnd, boolean evaluarEnParalelo) {
+        List<Individual> pop = new ArrayList<>(populationSize);
         int n = mapa.getPedidos().size();
         for (int i = 0; i < populationSize; i++) {
-            Individual ind = new Individual(n);
-            ind.evaluate();             // Calcula fitness de entrada
-            population.add(ind);
+            pop.add(new Individual(n, rnd));
+        }
+        evaluarLote(pop, evaluarEnParalelo);                        // Calcula fitness de entrada
+        return pop;
+    }
+
+    /**
+     * Evalúa un lote de individuos; en paralelo se reparte en un bloque por hilo del pool
+     */
+    private void evaluarLote(List<Individual> lote, boolean enParalelo) {
+        if (!enParalelo || pool == null || lote.size() < 2) {
+            for (Individual ind : lote) {
+                ind.evaluate();
+            }
+            return;
+        }
+
+        int bloques = Math.min(pool.getParallelism(), lote.size());
+        List<Callable<Void>> tareas = new ArrayList<>(bloques);
+        for (int b = 0; b < bloques; b++) {
+            List<Individual> bloque = lote.subList(b * lote.size() / bloques, (b + 1) * lote.size() / bloques);
+            tareas.add(() -> {
+                for (Individual ind : bloque) {
+                    ind.evaluate();
+                }
+                return null;
+            });
+        }
+        invocarTodas(tareas, "evaluar la población");
+    }
+
+    /**
+     * Ejecuta una acción sobre cada isla, cada una en su propio hilo si hay pool
+     */
+    private void ejecutarEnIslas(List<Isla> islas, Consumer<Isla> accion) {
+        if (pool == null) {
+            islas.forEach(accion);
+            return;
+        }
+
+        List<Callable<Void>> tareas = new ArrayList<>(islas.size());
+        for (Isla isla : islas) {
+            tareas.add(() -> {
+                accion.accept(isla);
+                return null;
+            });
+        }
+        invocarTodas(tareas, "evolucionar las islas");
+    }
+
+    private void invocarTodas(List<Callable<Void>> tareas, String descripcion) {
+        try {
+            for (Future<Void> futuro : pool.invokeAll(tareas)) {
+                futuro.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido al " + descripcion, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error al " + descripcion + ": " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Migración en anillo: los mejores de cada isla reemplazan a los peores de la siguiente
+     */
+    private void migrar(List<Isla> islas) {
+        if (numeroMigrantes == 0) return;
+
+        List<List<Individual>> emigrantes = new ArrayList<>(islas.size());
+        for (Isla isla : islas) {
+            isla.poblacion.sort(porFitness);
+            List<Individual> elite = new ArrayList<>(numeroMigrantes);
+            for (int i = 0; i < numeroMigrantes; i++) {
+                elite.add(isla.poblacion.get(i).copy());
+            }
+            emigrantes.add(elite);
+        }
+        for (int i = 0; i < islas.size(); i++) {
+            List<Individual> destino = islas.get((i + 1) % islas.size()).poblacion;
+            List<Individual> llegan = emigrantes.get(i);
+            for (int j = 0; j < llegan.size(); j++) {
+                destino.set(destino.size() - 1 - j, llegan.get(j));
+            }
+        }
+    }
+
+    private Individual mejorDeIslas(List<Isla> islas) {
+        Individual best = islas.get(0).mejor;
+        for (Isla isla : islas) {
+            if (isla.mejor.fitness < best.fitness) best = isla.mejor;
         }
+        return best;
     }
+
     // Selecciona al mejor de 3 individuos aleatorios (menor fitness)
-    private Individual tournamentSelection() {
+    private Individual tournamentSelection(List<Individual> pop, Random rnd) {
         Individual best = null;
         for (int i = 0; i < 3; i++) {
-            Individual cand = population.get(random.nextInt(populationSize));
+            Individual cand = pop.get(rnd.nextInt(pop.size()));
             if (best == null || cand.fitness < best.fitness) {
                 best = cand;
             }
         }
-        return best.copy();     // Se devuelve una copia para evitar modificar el original
+        return best;            // Sin copiar: el cruce escribe en individuos de la reserva
     }
 
-    private List<Individual> orderedCrossover(Individual p1, Individual p2) {
+    private List<Individual> orderedCrossover(Individual p1, Individual p2, Random random, ReservaIndividuos reserva) {
         // Combina genes de dos padres sin repetir pedidos
         int n = p1.genes.length;
-        Individual c1 = p1.copy();
-        Individual c2 = p2.copy();
+        Individual c1 = reserva.copiaDe(p1);
+        Individual c2 = reserva.copiaDe(p2);
         int i1 = random.nextInt(n);
         int i2 = random.nextInt(n);
         int start = Math.min(i1, i2);
         int end = Math.max(i1, i2);
 
-        List<Integer> seg1 = new ArrayList<>();
-        List<Integer> seg2 = new ArrayList<>();
+        cruzar(c1.genes, p1.genes, p2.genes, start, end);
+        cruzar(c2.genes, p2.genes, p1.genes, start, end);
+
+        // Cada hijo conserva la evaluación de su padre fuera del rango de genes distintos
+        marcarDiferencias(c1, p1);
+        marcarDiferencias(c2, p2);
+
+        return Arrays.asList(c1, c2);
+    }
+
+    /**
+     * Cruce ordenado: el hijo toma el segmento [start, end] del donante y el resto de
+     * pedidos en el orden del padre base, empezando después del segmento.
+     * La pertenencia al segmento se marca con un sello por pedido (O(n), sin listas).
+     */
+    void cruzar(int[] hijo, int[] base, int[] donante, int start, int end) {
+        int n = hijo.length;
+        MarcasCruce marcas = marcasCruce.get();
+        int sello = marcas.nuevoSello();
 
         for (int i = start; i <= end; i++) {
-            c1.genes[i] = p2.genes[i]; seg1.add(c1.genes[i]);
-            c2.genes[i] = p1.genes[i]; seg2.add(c2.genes[i]);
+            hijo[i] = donante[i];
+            marcas.marca[donante[i]] = sello;
         }
 
-        int pos1 = (end + 1) % n;
-        int pos2 = pos1;
-
+        int pos = (end + 1) % n;
         for (int k = 0; k < n; k++) {
-            int g1 = p1.genes[(end + 1 + k) % n];
-            if (!seg1.contains(g1)) {
-                c1.genes[pos1] = g1;
-                pos1 = (pos1 + 1) % n;
-            }
-            int g2 = p2.genes[(end + 1 + k) % n];
-            if (!seg2.contains(g2)) {
-                c2.genes[pos2] = g2;
-                pos2 = (pos2 + 1) % n;
+            int g = base[(end + 1 + k) % n];
+            if (marcas.marca[g] != sello) {
+                hijo[pos] = g;
+                pos = (pos + 1) % n;
             }
         }
+    }
 
-        return Arrays.asList(c1, c2);
+    private void marcarDiferencias(Individual hijo, Individual padre) {
+        int desde = Arrays.mismatch(hijo.genes, padre.genes);
+        if (desde < 0) return;
+        int hasta = hijo.genes.length - 1;
+        while (hijo.genes[hasta] == padre.genes[hasta]) hasta--;
+        hijo.marcarCambio(desde, hasta);
     }
 
     private Individual getBestIndividual(List<Individual> pop) {
@@ -172,10 +451,6 @@ public class GA {
     }
 
     public void printSolution(Individual ind) {
-        if (ind.getRutas() == null) {
-            ind.evaluate();
-        }
-
         Ubicacion origen = mapa.getAlmacenes().get(0).getUbicacion();
 
         for (Rutas ruta : ind.getRutas()) {
@@ -202,156 +477,541 @@ public class GA {
 
 
     private List<Ubicacion> trazarRuta(Ubicacion origen, Ubicacion destino, LocalDateTime tiempoInicio) {
-        List<Ubicacion> pasos = new ArrayList<>();
+        // Verificación O(1) del camino completo con las sumas prefijas del intervalo de bloqueos
+        if (indiceBloqueos != null && !indiceBloqueos.caminoEnLLibre(indiceBloqueos.intervalo(tiempoInicio),
+                origen.getX(), origen.getY(), destino.getX(), destino.getY())) {
+            return null;
+        }
+
+        List<Ubicacion> pasos = new ArrayList<>(Math.abs(destino.getX() - origen.getX())
+                + Math.abs(destino.getY() - origen.getY()));
         int x = origen.getX();
         int y = origen.getY();
 
         // Horizontal (Eje X)
         while (x != destino.getX()) {
             x += (destino.getX() > x) ? 1 : -1;
-            Ubicacion paso = new Ubicacion(x, y);
-            if (mapa.estaBloqueado(paso, tiempoInicio)) return null;
-            pasos.add(paso);
+            pasos.add(Ubicacion.of(x, y));
         }
 
         // Vertical (Eje Y)
         while (y != destino.getY()) {
             y += (destino.getY() > y) ? 1 : -1;
-            Ubicacion paso = new Ubicacion(x, y);
-            if (mapa.estaBloqueado(paso, tiempoInicio)) return null;
-            pasos.add(paso);
+            pasos.add(Ubicacion.of(x, y));
         }
 
         return pasos;
     }
 
+    /**
+     * Equivale a trazarRuta(...) != null sin crear objetos: el intervalo de bloqueos se
+     * resuelve una vez y el camino en L se verifica en O(1)
+     */
+    private boolean caminoLibre(int x, int y, int destX, int destY, long segundos) {
+        if (indiceBloqueos == null) return true;
+        return indiceBloqueos.caminoEnLLibre(indiceBloqueos.intervaloEnSegundos(segundos), x, y, destX, destY);
+    }
+
+    // Carga, posición, distancia y tiempo de cada camión durante una evaluación
+    private static class EstadoEvaluacion {
+        final double[] carga;
+        final int[] x;
+        final int[] y;
+        final double[] distancia;
+        final double[] tiempo;
+
+        EstadoEvaluacion(int camiones) {
+            carga = new double[camiones];
+            x = new int[camiones];
+            y = new int[camiones];
+            distancia = new double[camiones];
+            tiempo = new double[camiones];
+        }
+
+        void reiniciar(int origenX, int origenY) {
+            Arrays.fill(carga, 0);
+            Arrays.fill(x, origenX);
+            Arrays.fill(y, origenY);
+            Arrays.fill(distancia, 0);
+            Arrays.fill(tiempo, 0);
+        }
+
+        // Valores por camión en un punto de control
+        static final int CAMPOS = 5;
+
+        void guardar(double[] destino, int punto) {
+            int n = carga.length;
+            int base = punto * CAMPOS * n;
+            for (int t = 0; t < n; t++) {
+                destino[base + t] = carga[t];
+                destino[base + n + t] = x[t];
+                destino[base + 2 * n + t] = y[t];
+                destino[base + 3 * n + t] = distancia[t];
+                destino[base + 4 * n + t] = tiempo[t];
+            }
+        }
+
+        boolean igualA(double[] puntos, int punto) {
+            int n = carga.length;
+            int base = punto * CAMPOS * n;
+            for (int t = 0; t < n; t++) {
+                if (carga[t] != puntos[base + t] || x[t] != puntos[base + n + t] || y[t] != puntos[base + 2 * n + t]
+                        || distancia[t] != puntos[base + 3 * n + t] || tiempo[t] != puntos[base + 4 * n + t]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void cargar(double[] origen, int punto) {
+            int n = carga.length;
+            int base = punto * CAMPOS * n;
+            for (int t = 0; t < n; t++) {
+                carga[t] = origen[base + t];
+                x[t] = (int) origen[base + n + t];
+                y[t] = (int) origen[base + 2 * n + t];
+                distancia[t] = origen[base + 3 * n + t];
+                tiempo[t] = origen[base + 4 * n + t];
+            }
+        }
+    }
+
+
+
+    // Sello por pedido: un pedido está marcado si su valor es el sello actual
+    private static class MarcasCruce {
+        final int[] marca;
+        int sello;
+
+        MarcasCruce(int pedidos) {
+            marca = new int[pedidos];
+        }
+
+        int nuevoSello() {
+            if (sello == Integer.MAX_VALUE) {
+                Arrays.fill(marca, 0);
+                sello = 0;
+            }
+            return ++sello;
+        }
+    }
+
+    /**
+     * Individuos descartados cuyos arreglos se reutilizan para los hijos del cruce.
+     * Cada población (o isla) tiene la suya y solo la usa su hilo.
+     */
+    class ReservaIndividuos {
+        private final ArrayDeque<Individual> libres = new ArrayDeque<>();
+
+        /**
+         * Hijo con los genes y la evaluación del padre, en arreglos propios
+         */
+        Individual copiaDe(Individual padre) {
+            Individual hijo = libres.poll();
+            if (hijo == null) {
+                hijo = new Individual(new int[padre.genes.length]);
+            }
+            hijo.copiarDe(padre);
+            return hijo;
+        }
+
+        /**
+         * Devuelve un individuo que ya no se usa; los que comparten arreglos no se reutilizan
+         */
+        void liberar(Individual ind) {
+            if (!ind.compartido && libres.size() < populationSize) {
+                libres.push(ind);
+            }
+        }
+    }
+
+    // Una isla es una subpoblación con su propio generador aleatorio; solo la modifica su hilo
+    private class Isla {
+        private final Random random;
+        private final ReservaIndividuos reserva = new ReservaIndividuos();
+        private List<Individual> poblacion;
+        private Individual mejor;
+
+        Isla(Random random) {
+            this.random = random;
+        }
+
+        void inicializar() {
+            poblacion = initializePopulation(random, false);
+            mejor = getBestIndividual(poblacion);
+        }
 
+        void evolucionar(int generaciones) {
+            for (int gen = 0; gen < generaciones; gen++) {
+                poblacion = nextGeneration(poblacion, random, false, reserva, mejor);
+                Individual genBest = getBestIndividual(poblacion);
+                if (genBest.fitness < mejor.fitness) mejor = genBest;
+            }
+        }
+    }
 
     // Un Individual representa una solución posible: una forma de distribuir los pedidos entre los camiones.
     public class Individual {
         private int[] genes;                            // Permutación de pedidos
         private double fitness;                         // Distancia total de todas las rutas
-        private List<Rutas> rutas;                      // Lista de rutas generadas para la solución
-        private final Random random = new Random();
-
-        public Individual(int n) {
+        private List<Rutas> rutas;                      // Rutas de la solución (se construyen al pedirlas)
+        // Copia en escritura: las copias comparten los arreglos hasta que una de ellas los modifica
+        private boolean compartido;
+
+        // Evaluación incremental: camión asignado a cada posición y estado de los camiones cada
+        // INTERVALO_CONTROL genes, válidos para las posiciones anteriores a validoHasta
+        private int[] camionPorGen;
+        private double[] puntosControl;
+        private int validoHasta;
+        private int sucioDesde;                         // Primera posición modificada desde la última evaluación
+        private int sucioHasta = -1;                    // Última posición modificada desde la última evaluación
+        private boolean evaluado;
+        // Rango modificado por el último movimiento
+        private int movDesde;
+        private int movHasta;
+
+        public Individual(int n, Random random) {
             // Crea un individuo con pedidos en orden aleatorio
             genes = new int[n];
             for (int i = 0; i < n; i++) genes[i] = i;
-            shuffleGenes();
+            camionPorGen = new int[n];
+            shuffleGenes(random);
+        }
+
+        Individual(int[] genes) {
+            // Individuo con arreglos propios, sin barajar ni evaluar
+            this.genes = genes;
+            this.camionPorGen = new int[genes.length];
         }
 
         private Individual(Individual o) {
-            this.genes = o.genes.clone();
+            // La copia conserva la evaluación del original hasta que se modifique y reevalúe
+            this.genes = o.genes;
+            this.fitness = o.fitness;
+            this.rutas = o.rutas;
+            this.camionPorGen = o.camionPorGen;
+            this.puntosControl = o.puntosControl;
+            this.validoHasta = o.validoHasta;
+            this.sucioDesde = o.sucioDesde;
+            this.sucioHasta = o.sucioHasta;
+            this.evaluado = o.evaluado;
+            this.compartido = true;
+            o.compartido = true;
         }
 
         public Individual copy() {
             return new Individual(this);
         }
 
-        public void shuffleGenes() {
+        /**
+         * Copia los genes y la evaluación de otro individuo sobre los arreglos propios
+         */
+        private void copiarDe(Individual o) {
+            System.arraycopy(o.genes, 0, genes, 0, genes.length);
+            System.arraycopy(o.camionPorGen, 0, camionPorGen, 0, camionPorGen.length);
+            if (o.puntosControl == null) {
+                puntosControl = null;
+            } else if (puntosControl == null) {
+                puntosControl = o.puntosControl.clone();
+            } else {
+                System.arraycopy(o.puntosControl, 0, puntosControl, 0, puntosControl.length);
+            }
+            fitness = o.fitness;
+            rutas = null;
+            validoHasta = o.validoHasta;
+            sucioDesde = o.sucioDesde;
+            sucioHasta = o.sucioHasta;
+            evaluado = o.evaluado;
+        }
+
+        /**
+         * Se asegura de tener arreglos propios antes de modificarlos
+         */
+        private void propio() {
+            if (compartido) {
+                genes = genes.clone();
+                camionPorGen = camionPorGen.clone();
+                puntosControl = puntosControl == null ? null : puntosControl.clone();
+                compartido = false;
+            }
+        }
+
+        public void shuffleGenes(Random random) {
+            propio();
             for (int i = genes.length - 1; i > 0; i--) {
                 int j = random.nextInt(i + 1);
                 int tmp = genes[i]; genes[i] = genes[j]; genes[j] = tmp;
             }
+            marcarCambio(0, genes.length - 1);
+        }
+
+        public void mutate(Random random) {
+            // Aplica un movimiento aleatorio; solo se reevalúa desde la primera posición que cambió
+            moverAleatorio(random);
+            marcarCambio(movDesde, movHasta);
+        }
+
+        /**
+         * Búsqueda local de primera mejora: prueba movimientos aleatorios evaluándolos de forma
+         * incremental y conserva solo los que reducen la distancia total
+         * @param intentos Número de movimientos a probar
+         * @param random Generador de los movimientos
+         */
+        public void busquedaLocal(int intentos, Random random) {
+            evaluate();
+            propio();
+            int n = genes.length;
+            if (n < 2) return;
+
+            int[] respaldo = genes.clone();
+            EstadoEvaluacion e = estadoEvaluacion.get();
+            for (int k = 0; k < intentos; k++) {
+                moverAleatorio(random);
+                int desde = movDesde;
+                int hasta = movHasta;
+                if (desde > hasta) continue;
+                int inicio = Math.min(desde, validoHasta);
+                restaurar(e, inicio);
+                double candidato = continuar(e, inicio, hasta, false);
+                if (candidato < fitness) {
+                    marcarCambio(desde, hasta);
+                    evaluate();
+                    System.arraycopy(genes, desde, respaldo, desde, hasta - desde + 1);
+                } else {
+                    System.arraycopy(respaldo, desde, genes, desde, hasta - desde + 1);
+                }
+            }
+        }
+
+        /**
+         * Aplica uno de los movimientos (intercambio, inserción, intercambio doble o movimiento
+         * de bloque) sin marcarlo; deja en movDesde..movHasta el rango modificado
+         */
+        private void moverAleatorio(Random random) {
+            int n = genes.length;
+            iniciarMovimiento();
+            if (n < 2) return;
+            switch (random.nextInt(4)) {
+                case 0:
+                    intercambiar(random.nextInt(n), random.nextInt(n));
+                    break;
+                case 1:
+                    insertar(random.nextInt(n), random.nextInt(n));
+                    break;
+                case 2:
+                    intercambiar(random.nextInt(n), random.nextInt(n));
+                    intercambiar(random.nextInt(n), random.nextInt(n));
+                    break;
+                default:
+                    int largo = 1 + random.nextInt(Math.min(8, n / 2));
+                    moverBloque(random.nextInt(n - largo + 1), largo, random.nextInt(n - largo + 1));
+            }
+        }
+
+        /**
+         * Aplica un movimiento concreto (intercambiar, insertar o moverBloque) y lo marca
+         * para la evaluación incremental, igual que mutate()
+         */
+        void aplicar(Runnable movimiento) {
+            iniciarMovimiento();
+            movimiento.run();
+            marcarCambio(movDesde, movHasta);
+        }
+
+        private void iniciarMovimiento() {
+            movDesde = genes.length;
+            movHasta = -1;
+            propio();
         }
 
-        public void mutate() {
-            // Intercambia dos pedidos para alterar ligeramente la solución
-            int i = random.nextInt(genes.length);
-            int j = random.nextInt(genes.length);
+        // Intercambia dos pedidos
+        void intercambiar(int i, int j) {
+            if (i == j) return;
             int tmp = genes[i]; genes[i] = genes[j]; genes[j] = tmp;
+            registrarMovimiento(Math.min(i, j), Math.max(i, j));
+        }
+
+        // Saca el pedido de la posición i y lo inserta en la posición j
+        void insertar(int i, int j) {
+            if (i == j) return;
+            int g = genes[i];
+            if (i < j) {
+                System.arraycopy(genes, i + 1, genes, i, j - i);
+            } else {
+                System.arraycopy(genes, j, genes, j + 1, i - j);
+            }
+            genes[j] = g;
+            registrarMovimiento(Math.min(i, j), Math.max(i, j));
+        }
+
+        // Mueve el bloque de largo pedidos que empieza en i para que empiece en j
+        void moverBloque(int i, int largo, int j) {
+            if (i == j) return;
+            int[] bloque = Arrays.copyOfRange(genes, i, i + largo);
+            if (j < i) {
+                System.arraycopy(genes, j, genes, j + largo, i - j);
+            } else {
+                System.arraycopy(genes, i + largo, genes, i, j - i);
+            }
+            System.arraycopy(bloque, 0, genes, j, largo);
+            registrarMovimiento(Math.min(i, j), Math.max(i, j) + largo - 1);
+        }
+
+        private void registrarMovimiento(int desde, int hasta) {
+            movDesde = Math.min(movDesde, desde);
+            movHasta = Math.max(movHasta, hasta);
+        }
+
+        /**
+         * Registra que los genes cambiaron entre dos posiciones (inclusive)
+         */
+        private void marcarCambio(int desde, int hasta) {
+            if (desde > hasta) return;
+            sucioDesde = Math.min(sucioDesde, desde);
+            sucioHasta = Math.max(sucioHasta, hasta);
+            rutas = null;
         }
 
         public void evaluate() {
             // Intenta asignar los pedidos respetando restricciones de volumen y fecha
-            // Si no se puede asignar un pedido, penaliza con fitness infinito
-            Mapa mapa = GA.this.mapa;
-            int tcount = mapa.getFlota().size();
-            rutas = new ArrayList<>();
-            List<List<Pedido>> loads = new ArrayList<>();
+            // Si no se puede asignar un pedido, penaliza con fitness infinito.
+            // Solo se repite la asignación desde la primera posición modificada
+            if (evaluado && sucioDesde >= genes.length) return;
+
+            propio();
+            EstadoEvaluacion e = estadoEvaluacion.get();
+            int desde = evaluado ? Math.min(sucioDesde, validoHasta) : 0;
+            restaurar(e, desde);
+            fitness = continuar(e, desde, sucioHasta, true);
+            evaluado = true;
+            sucioDesde = genes.length;
+            sucioHasta = -1;
+            rutas = null;
+        }
 
-            for (int t = 0; t < tcount; t++) {
-                Rutas r = new Rutas();
-                r.setCamion(mapa.getFlota().get(t));
-                r.setUbicaciones(new ArrayList<>());
-                r.setDistanciaTotal(0);
-                r.setTiempoTotal(0);
-                rutas.add(r);
-                loads.add(new ArrayList<>());
-            }
-
-            fitness = 0;
-            LocalDateTime start = mapa.getFechaInicio();
-
-            for (int g : genes) {
-                Pedido p = mapa.getPedidos().get(g);
-                boolean placed = false;
-                for (int t = 0; t < tcount && !placed; t++) {
-                    Rutas r = rutas.get(t);
-                    List<Pedido> ld = loads.get(t);
-                    if (canPlace(p, r, ld, start)) {
-                        placeOrder(p, r, ld, start);
-                        placed = true;
+        /**
+         * Deja en e el estado de los camiones tras asignar las primeras "hasta" posiciones:
+         * parte del punto de control anterior y repite las asignaciones registradas, sin verificar
+         */
+        private void restaurar(EstadoEvaluacion e, int hasta) {
+            int control = genes.length == 0 ? 0 : Math.min(hasta, genes.length - 1) / INTERVALO_CONTROL;
+            if (control == 0) {
+                e.reiniciar(origenX, origenY);
+            } else {
+                e.cargar(puntosControl, control);
+            }
+            for (int p = control * INTERVALO_CONTROL; p < hasta; p++) {
+                placeOrder(genes[p], camionPorGen[p], e, null);
+            }
+        }
+
+        /**
+         * Asigna cada pedido desde la posición indicada, en el orden de los genes, al primer
+         * camión donde cabe. Es O(pedidos × camiones) y no crea objetos.
+         * Pasada la última posición modificada, si en un punto de control los camiones quedan
+         * igual que en la evaluación anterior, el resto también es igual y se reutiliza.
+         * @param cambiosHasta Última posición modificada desde la evaluación anterior
+         * @param guardar Si se registran las asignaciones y los puntos de control
+         * @return Distancia total, o Double.MAX_VALUE si algún pedido no pudo asignarse
+         */
+        private double continuar(EstadoEvaluacion e, int desde, int cambiosHasta, boolean guardar) {
+            int n = genes.length;
+            int tcount = capacidad.length;
+
+            for (int p = desde; p < n; p++) {
+                if (p > 0 && p % INTERVALO_CONTROL == 0 && evaluado && p > cambiosHasta && p <= validoHasta
+                        && e.igualA(puntosControl, p / INTERVALO_CONTROL)) {
+                    return fitness;
+                }
+                if (guardar && p > 0 && p % INTERVALO_CONTROL == 0) {
+                    if (puntosControl == null) {
+                        puntosControl = new double[((n - 1) / INTERVALO_CONTROL + 1) * EstadoEvaluacion.CAMPOS * tcount];
                     }
+                    e.guardar(puntosControl, p / INTERVALO_CONTROL);
                 }
-                if (!placed) {
-                    fitness = Double.MAX_VALUE;
-                    return;
+                int g = genes[p];
+                int asignado = -1;
+                for (int t = 0; t < tcount && asignado < 0; t++) {
+                    if (canPlace(g, t, e)) {
+                        asignado = t;
+                    }
+                }
+                if (asignado < 0) {
+                    if (guardar) validoHasta = p;
+                    return Double.MAX_VALUE;
                 }
+                if (guardar) camionPorGen[p] = asignado;
+                placeOrder(g, asignado, e, null);
             }
+            if (guardar) validoHasta = n;
 
-            for (Rutas r : rutas) {
-                fitness += r.getDistanciaTotal();
+            double total = 0;
+            for (int t = 0; t < tcount; t++) {
+                total += e.distancia[t];
             }
+            return total;
         }
 
-        private boolean canPlace(Pedido p, Rutas r, List<Pedido> ld, LocalDateTime start) {
+        private boolean canPlace(int g, int t, EstadoEvaluacion e) {
             // Verifica capacidad
-            double vol = ld.stream().mapToDouble(Pedido::getVolumen).sum();
-            if (vol + p.getVolumen() > r.getCamion().getCargaM3()) return false;
-
-            // Origen de ruta
-            Ubicacion last = r.getUbicaciones().isEmpty()
-                    ? mapa.getAlmacenes().get(0).getUbicacion()
-                    : r.getUbicaciones().get(r.getUbicaciones().size() - 1);
+            if (e.carga[t] + volumen[g] > capacidad[t]) return false;
 
-            // Calcular llegada estimada
-            double dist = Math.abs(last.getX() - p.getDestino().getX()) +
-                    Math.abs(last.getY() - p.getDestino().getY());
+            // Calcular llegada estimada desde la última entrega del camión (o el almacén)
+            double dist = Math.abs(e.x[t] - destinoX[g]) + Math.abs(e.y[t] - destinoY[g]);
             double hrs = dist / 50.0 + 0.25;
-            LocalDateTime llegada = start.plusSeconds((long)(hrs * 3600));
+            long llegada = (long)(hrs * 3600);
 
-            if (llegada.isAfter(p.getFechaLimite())) return false;
+            if (inicioSegundos + llegada > limiteSegundos[g]) return false;
 
             // Verifica si algún nodo del camino está bloqueado
-            List<Ubicacion> pasos = GA.this.trazarRuta(last, p.getDestino(), llegada.minusSeconds((long)(hrs * 1800)));
-            return pasos != null;
+            return caminoLibre(e.x[t], e.y[t], destinoX[g], destinoY[g], inicioSegundos + llegada - (long)(hrs * 1800));
         }
 
-
-        private void placeOrder(Pedido p, Rutas r, List<Pedido> ld, LocalDateTime start) {
-            Ubicacion last;
-            if (r.getUbicaciones().isEmpty()) {
-                last = GA.this.mapa.getAlmacenes().get(0).getUbicacion();
-            } else {
-                last = r.getUbicaciones().get(r.getUbicaciones().size() - 1);
+        private void placeOrder(int g, int t, EstadoEvaluacion e, List<Rutas> salida) {
+            double dist = Math.abs(e.x[t] - destinoX[g]) + Math.abs(e.y[t] - destinoY[g]);
+            e.distancia[t] += dist;
+            e.tiempo[t] = e.tiempo[t] + dist / 50.0 + 0.25;
+            e.carga[t] += volumen[g];
+            e.x[t] = destinoX[g];
+            e.y[t] = destinoY[g];
+            if (salida != null) {
+                salida.get(t).getUbicaciones().add(mapa.getPedidos().get(g).getDestino());
             }
-
-            double dist = Math.abs(last.getX() - p.getDestino().getX())
-                    + Math.abs(last.getY() - p.getDestino().getY());
-            r.getUbicaciones().add(p.getDestino());
-            r.setDistanciaTotal(r.getDistanciaTotal() + dist);
-            r.setTiempoTotal(r.getTiempoTotal() + dist / 50.0 + 0.25);
-            ld.add(p);
-
         }
 
         public double getDistance() {
             return fitness;
         }
 
+        int[] copiaGenes() {
+            return genes.clone();
+        }
+
+        /**
+         * Rutas por camión de este individuo; se construyen la primera vez que se piden
+         */
         public List<Rutas> getRutas() {
+            if (rutas == null) {
+                evaluate();
+                List<Rutas> construidas = new ArrayList<>(capacidad.length);
+                for (Camion camion : mapa.getFlota()) {
+                    Rutas r = new Rutas();
+                    r.setCamion(camion);
+                    r.setUbicaciones(new ArrayList<>());
+                    construidas.add(r);
+                }
+                // Repite las asignaciones registradas (hasta el primer pedido sin camión, si lo hubo)
+                EstadoEvaluacion e = estadoEvaluacion.get();
+                e.reiniciar(origenX, origenY);
+                for (int p = 0; p < validoHasta; p++) {
+                    placeOrder(genes[p], camionPorGen[p], e, construidas);
+                }
+                for (int t = 0; t < construidas.size(); t++) {
+                    construidas.get(t).setDistanciaTotal(e.distancia[t]);
+                    construidas.get(t).setTiempoTotal(e.tiempo[t]);
+                }
+                rutas = construidas;
+            }
             return rutas;
         }
     }
@@ -1,7 +1,10 @@
 // src/main/java/pucp/edu/glp/glpdp1/algorithms/GeneticoResolver.java
 package pucp.edu.glp.glpdp1.algorithms;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import pucp.edu.glp.glpdp1.domain.Mapa;
 import pucp.edu.glp.glpdp1.domain.Pedido;
@@ -16,24 +19,44 @@ public class GeneticoResolver {
     private final BloqueosService bloqueosService;
     private final AveriaService averiaService;
     private final MapaService mapaService;
+    private final int poblacion;
+    private final int islas;
+    private final int intentosBusquedaLocal;
 
+    /**
+     * @param poblacion Individuos en total; con varias islas se reparten entre ellas
+     * @param islas Subpoblaciones (por defecto 1: sin islas)
+     * @param intentosBusquedaLocal Movimientos de búsqueda local sobre el mejor final (por defecto 0: sin búsqueda local)
+     */
     public GeneticoResolver(PedidoService ps,
                             BloqueosService bs,
                             AveriaService as,
-                            MapaService ms) {
+                            MapaService ms,
+                            @Value("${glp.genetico.poblacion:100}") int poblacion,
+                            @Value("${glp.genetico.islas:1}") int islas,
+                            @Value("${glp.genetico.intentos-busqueda-local:0}") int intentosBusquedaLocal) {
         this.pedidoService   = ps;
         this.bloqueosService = bs;
         this.averiaService   = as;
         this.mapaService     = ms;
+        this.poblacion = poblacion;
+        this.islas = Math.max(1, islas);
+        this.intentosBusquedaLocal = intentosBusquedaLocal;
     }
 
     public GA.Individual solve(byte[] pedidosBytes,
                                byte[] bloqueosBytes,
                                byte[] averiasBytes) throws Exception {
+        return solve(new ByteArrayInputStream(pedidosBytes), bloqueosBytes, averiasBytes);
+    }
+
+    public GA.Individual solve(InputStream pedidos,
+                               byte[] bloqueosBytes,
+                               byte[] averiasBytes) throws Exception {
         // 1) Inicializar mapa
         Mapa mapa = new Mapa(70, 50);
-        // 2) Cargar datos
-        mapaService.cargarPedidosEnMapaDesdeBytes (mapa, pedidosBytes);
+        // 2) Cargar datos (los pedidos se leen del flujo sin copiarlos a memoria)
+        mapaService.cargarPedidosEnMapaDesdeStream(mapa, pedidos);
         mapaService.cargarBloqueosEnMapaDesdeBytes(mapa, bloqueosBytes);
         mapaService.cargarAveriasEnMapaDesdeBytes  (mapa, averiasBytes);
         // 3) Ajustar fecha de inicio al primer pedido
@@ -43,8 +66,10 @@ public class GeneticoResolver {
                 .orElse(LocalDateTime.now());
         mapa.setFechaInicio(inicio);
 
-        // 4) Ejecutar GA
-        GA ga = new GA(mapa, 100, 500, 0.8, 0.1, 0.1);
+        // 4) Ejecutar GA: la población total se reparte entre las islas (migración cada 10 generaciones),
+        //    así el resultado no depende de los núcleos de la máquina
+        GA ga = new GA(mapa, Math.max(2, poblacion / islas), 500, 0.8, 0.1, 0.1, islas, 10, 2);
+        ga.setIntentosBusquedaLocal(intentosBusquedaLocal);
         GA.Individual best = ga.run();
 
         // 5)   imprimir en consola
@@ -7,6 +7,8 @@ import org.springframework.web.multipart.MultipartFile;
 import pucp.edu.glp.glpdp1.algorithms.GA;
 import pucp.edu.glp.glpdp1.algorithms.GeneticoResolver;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/genetic")
 public class GeneticController {
@@ -23,11 +25,13 @@ public class GeneticController {
             @RequestPart("bloqueos") MultipartFile bloqueosFile,
             @RequestPart("averias")  MultipartFile averiasFile
     ) throws Exception {
-        byte[] pedidos   = pedidosFile.getBytes();
         byte[] bloqueos  = bloqueosFile.getBytes();
         byte[] averias   = averiasFile.getBytes();
 
-        GA.Individual solution = resolver.solve(pedidos, bloqueos, averias);
-        return ResponseEntity.ok(solution);
+        // Los pedidos pueden ser muy voluminosos: se leen directamente del archivo subido
+        try (InputStream pedidos = pedidosFile.getInputStream()) {
+            GA.Individual solution = resolver.solve(pedidos, bloqueos, averias);
+            return ResponseEntity.ok(solution);
+        }
     }
 }
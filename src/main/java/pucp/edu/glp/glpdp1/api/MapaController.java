@@ -3,20 +3,29 @@ package pucp.edu.glp.glpdp1.api;
 import org.apache.coyote.Response;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import pucp.edu.glp.glpdp1.algorithm.aco.ACOParameters;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.SimuladorEventos;
 import pucp.edu.glp.glpdp1.domain.*;
+import pucp.edu.glp.glpdp1.domain.enums.EstadoTrabajo;
 import pucp.edu.glp.glpdp1.service.AlgoritmoService;
 import pucp.edu.glp.glpdp1.service.MapaService;
+import pucp.edu.glp.glpdp1.service.PlanificacionService;
+import pucp.edu.glp.glpdp1.service.SimulacionService;
+import pucp.edu.glp.glpdp1.service.TrabajoPlanificacion;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -37,8 +46,10 @@ public class MapaController {
                                                 @RequestParam(required = false) String fechaInicio,
                                                 @RequestParam(required = false) String fechaFin) {
         try {
-            // Cargar pedidos desde el archivo subido
-            mapaService.cargarPedidosEnMapaDesdeBytes(mapa, archivo.getBytes());
+            // Cargar pedidos leyendo directamente el archivo subido
+            try (InputStream entrada = archivo.getInputStream()) {
+                mapaService.cargarPedidosEnMapaDesdeStream(mapa, entrada);
+            }
             if(!mapa.getPedidos().isEmpty()){
                 mapa.getPedidos().stream().limit(3).forEach(p->
                         System.out.println("Pedido ID: " + p.getIdPedido() + " | Fecha Registro: " + p.getFechaRegistro() + " | Fecha Límite: "+ p.getFechaLimite()));
@@ -110,6 +121,12 @@ public class MapaController {
     @Autowired
     private AlgoritmoService acoAlgorithmService; // Servicio para el algoritmo ACO
 
+    @Autowired
+    private PlanificacionService planificacionService; // Planificaciones en segundo plano
+
+    @Autowired
+    private SimulacionService simulacionService; // Simulación de eventos discretos
+
     @PostMapping("/planificar-rutas")
     public ResponseEntity<?> planificarRutas(
             @RequestParam(required = false)Map<String,String> requestParams,
@@ -118,105 +135,285 @@ public class MapaController {
             @RequestParam(required = false) String fechaFin) {
 
         try {
-            if(requestParams != null){
-                if(requestParams.containsKey("escenario")){
-                    escenario = requestParams.get("escenario");
-                }
-                if(requestParams.containsKey("fechaInicio")){
-                    fechaInicio = requestParams.get("fechaInicio");
-                }
-                if(requestParams.containsKey("fechaFin")){
-                    fechaFin = requestParams.get("fechaFin");
-                }
-            }
-            // Configurar fechas para simulación si se proporcionan
-            if (fechaInicio != null && !fechaInicio.isEmpty()) {
-                LocalDateTime inicio = LocalDateTime.parse(fechaInicio);
-                System.out.println("Fecha de inicio: " + inicio);
-                mapa.setFechaInicio(inicio);
+            SolicitudPlanificacion solicitud = prepararPlanificacion(requestParams, escenario, fechaInicio, fechaFin);
+            if (solicitud == null) {
+                return ResponseEntity.badRequest().body("Escenario no reconocido. Use 'dia', 'semana' o 'colapso'");
             }
 
-            if (fechaFin != null && !fechaFin.isEmpty()) {
-                LocalDateTime fin = LocalDateTime.parse(fechaFin);
-                System.out.println("Fecha de fin: " + fin);
-                mapa.setFechaFin(fin);
-            }
+            // Ejecutar algoritmo ACO (su estado queda disponible para /replanificar-rutas)
+            List<Rutas> rutasOptimizadas = acoAlgorithmService.planificarRutas(mapa, solicitud.mapa(), solicitud.parametros());
 
-            List<Pedido> pedidosFiltrados= filtrarPedidosPorRangoFecha(
-                    mapa.getPedidos(),
-                    mapa.getFechaInicio(),
-                    mapa.getFechaFin()
-            );
-
-            Mapa mapaFiltrado =new Mapa(mapa.getAncho(),mapa.getAlto());
-            mapaFiltrado.setPedidos(pedidosFiltrados);
-            mapaFiltrado.setBloqueos(mapa.getBloqueos());
-            mapaFiltrado.setAlmacenes(mapa.getAlmacenes());
-            mapaFiltrado.setAverias(mapa.getAverias());
-            mapaFiltrado.setFlota(mapa.getFlota());
-            mapaFiltrado.setFechaInicio(mapa.getFechaInicio());
-            mapaFiltrado.setFechaFin(mapa.getFechaFin());
-
-            // Configurar parámetros según el escenario seleccionado
-            ACOParameters params;
-            switch (escenario.toLowerCase()) {
-                case "dia":
-                case "diario":
-                    // 1. Escenario de operaciones día a día
-                    params = ACOParameters.getConfiguracionEquilibrada();
-                    params.setNumeroIteraciones(50);  // Menos iteraciones para respuesta rápida
-                    break;
-
-                case "semana":
-                case "semanal":
-                    // 2. Escenario de simulación semanal (7 días)
-                    params = ACOParameters.getConfiguracionRapida();
-                    params.setNumeroIteraciones(20);  // Más iteraciones para mejor calidad
-                    // Configurar para que termine en tiempo adecuado (20-50 minutos)
-                    params.setTiempoAvanceSimulacion(20);  // 30 minutos por iteración
-
-                    // Si no se especifica un período, configurar 7 días por defecto
-                    if (mapa.getFechaInicio() == null) {
-                        mapa.setFechaInicio(LocalDateTime.now());
-                    }
-                    if (mapa.getFechaFin() == null) {
-                        mapa.setFechaFin(mapa.getFechaInicio().plusDays(7));
-                    }
-                    break;
-
-                case "colapso":
-                    // 3. Escenario de simulación hasta colapso
-                    params = ACOParameters.getConfiguracionCalidad();
-                    params.activarDeteccionColapsoSensible();
-                    params.setNumeroIteraciones(5000);  // Muchas iteraciones para llegar al colapso
-                    params.setUmbralColapso(0.15);      // Umbral de colapso más sensible (15%)
-
-                    // Si no se especifica un período, configurar un período largo
-                    if (mapa.getFechaInicio() == null) {
-                        mapa.setFechaInicio(LocalDateTime.now());
-                    }
-                    if (mapa.getFechaFin() == null) {
-                        mapa.setFechaFin(mapa.getFechaInicio().plusMonths(1)); // Simulación de hasta un mes
-                    }
-                    break;
-
-                default:
-                    return ResponseEntity.badRequest().body("Escenario no reconocido. Use 'dia', 'semana' o 'colapso'");
-            }
+            // Guardar las rutas en el mapa
+            mapa.setRutas(rutasOptimizadas);
 
-            // Ejecutar algoritmo ACO
-            List<Rutas> rutasOptimizadas = acoAlgorithmService.generarRutasOptimizadas(mapaFiltrado, params);
+            return ResponseEntity.ok(rutasOptimizadas);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.badRequest().body("Error al planificar rutas: " + e.getMessage());
+        }
+    }
 
-            // Guardar las rutas en el mapa
+    /**
+     * Replanifica en caliente tras la llegada de pedidos nuevos: parte del plan de la
+     * planificación anterior (feromonas y mejor solución) y ejecuta pocas iteraciones.
+     * Acepta los mismos parámetros que /planificar-rutas; si no hay plan previo planifica desde cero.
+     */
+    @PostMapping("/replanificar-rutas")
+    public ResponseEntity<?> replanificarRutas(
+            @RequestParam(required = false)Map<String,String> requestParams,
+            @RequestParam(required = false, defaultValue = "dia") String escenario,
+            @RequestParam(required = false) String fechaInicio,
+            @RequestParam(required = false) String fechaFin,
+            @RequestParam(required = false, defaultValue = "10") int iteraciones) {
+
+        if (iteraciones <= 0) {
+            return ResponseEntity.badRequest().body("El número de iteraciones debe ser positivo");
+        }
+        try {
+            SolicitudPlanificacion solicitud = prepararPlanificacion(requestParams, escenario, fechaInicio, fechaFin);
+            if (solicitud == null) {
+                return ResponseEntity.badRequest().body("Escenario no reconocido. Use 'dia', 'semana' o 'colapso'");
+            }
+
+            List<Rutas> rutasOptimizadas = acoAlgorithmService.replanificarRutas(
+                    mapa, solicitud.mapa(), solicitud.parametros(), iteraciones);
             mapa.setRutas(rutasOptimizadas);
 
             return ResponseEntity.ok(rutasOptimizadas);
         } catch (Exception e) {
             e.printStackTrace();
+            return ResponseEntity.badRequest().body("Error al replanificar rutas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Encola una simulación de los escenarios "semana" (7 días por defecto) o "colapso" (hasta
+     * un mes o hasta el primer pedido vencido) con el simulador de eventos: el planificador solo
+     * se invoca cuando llegan pedidos, cambian los bloqueos o quedan camiones libres.
+     * Responde de inmediato con el id del trabajo; el estado, el resultado y la cancelación
+     * se consultan en /planificaciones/{id}, igual que una planificación.
+     */
+    @PostMapping("/simular")
+    public ResponseEntity<?> simular(
+            @RequestParam(required = false, defaultValue = "semana") String escenario,
+            @RequestParam(required = false) String fechaInicio,
+            @RequestParam(required = false) String fechaFin) {
+        try {
+            // El escenario se valida antes de ocupar un lugar en la cola
+            SimuladorEventos simulador = simulacionService.crearSimulador(mapa, escenario);
+            if (simulador == null) {
+                return ResponseEntity.badRequest().body("Escenario no reconocido. Use 'semana' o 'colapso'");
+            }
+
+            LocalDateTime inicio = fechaInicio != null && !fechaInicio.isEmpty()
+                    ? LocalDateTime.parse(fechaInicio) : mapa.getFechaInicio();
+            if (inicio == null) {
+                // Sin fecha: desde el primer pedido registrado
+                inicio = mapa.getPedidos().stream()
+                        .map(Pedido::getFechaRegistro)
+                        .min(LocalDateTime::compareTo)
+                        .orElse(LocalDateTime.now());
+            }
+            LocalDateTime fin;
+            if (fechaFin != null && !fechaFin.isEmpty()) {
+                fin = LocalDateTime.parse(fechaFin);
+            } else {
+                fin = escenario.equalsIgnoreCase("colapso") ? inicio.plusMonths(1) : inicio.plusDays(7);
+            }
+
+            TrabajoPlanificacion trabajo = planificacionService.enviarSimulacion(simulador, escenario, inicio, fin);
+            return ResponseEntity.accepted().body(trabajo.resumen());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body("Hay demasiadas planificaciones en cola. Intente nuevamente más tarde");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.badRequest().body("Error en la simulación: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Encola la planificación de rutas y responde de inmediato con el id del trabajo.
+     * Acepta los mismos parámetros que /planificar-rutas, incluido presupuestoMs.
+     */
+    @PostMapping("/planificaciones")
+    public ResponseEntity<?> enviarPlanificacion(
+            @RequestParam(required = false)Map<String,String> requestParams,
+            @RequestParam(required = false, defaultValue = "dia") String escenario,
+            @RequestParam(required = false) String fechaInicio,
+            @RequestParam(required = false) String fechaFin) {
+
+        try {
+            SolicitudPlanificacion solicitud = prepararPlanificacion(requestParams, escenario, fechaInicio, fechaFin);
+            if (solicitud == null) {
+                return ResponseEntity.badRequest().body("Escenario no reconocido. Use 'dia', 'semana' o 'colapso'");
+            }
+
+            // Al terminar, las rutas se guardan en el mapa igual que en la planificación síncrona
+            TrabajoPlanificacion trabajo = planificacionService.enviar(
+                    solicitud.mapa(), solicitud.parametros(), solicitud.escenario(), rutas -> mapa.setRutas(rutas));
+            return ResponseEntity.accepted().body(trabajo.resumen());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body("Hay demasiadas planificaciones en cola. Intente nuevamente más tarde");
+        } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error al planificar rutas: " + e.getMessage());
         }
     }
 
+    @GetMapping("/planificaciones/{id}")
+    public ResponseEntity<?> obtenerPlanificacion(@PathVariable String id) {
+        TrabajoPlanificacion trabajo = planificacionService.obtener(id);
+        if (trabajo == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No existe la planificación " + id);
+        }
+        return ResponseEntity.ok(trabajo.resumen());
+    }
+
+    @GetMapping("/planificaciones/{id}/resultado")
+    public ResponseEntity<?> obtenerResultadoPlanificacion(@PathVariable String id) {
+        TrabajoPlanificacion trabajo = planificacionService.obtener(id);
+        if (trabajo == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No existe la planificación " + id);
+        }
+        if (trabajo.getEstado() != EstadoTrabajo.COMPLETADO) {
+            // Aún en curso, cancelada o fallida: se devuelve el estado en lugar de las rutas
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(trabajo.resumen());
+        }
+        return ResponseEntity.ok(trabajo.getResultado());
+    }
+
+    /**
+     * Eventos de la planificación (server-sent events): "estado", "mejora" con cada nueva
+     * mejor solución y sus rutas, y "fin" con el estado final
+     */
+    @GetMapping(path = "/planificaciones/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> eventosPlanificacion(@PathVariable String id) {
+        SseEmitter emisor = planificacionService.suscribir(id);
+        if (emisor == null) {
+            // El tipo de respuesta debe ser SseEmitter para que Spring la trate como stream
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(emisor);
+    }
+
+    @DeleteMapping("/planificaciones/{id}")
+    public ResponseEntity<?> cancelarPlanificacion(@PathVariable String id) {
+        TrabajoPlanificacion trabajo = planificacionService.cancelar(id);
+        if (trabajo == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No existe la planificación " + id);
+        }
+        // Si estaba en ejecución, el estado pasa a CANCELADO al terminar la iteración en curso
+        return ResponseEntity.accepted().body(trabajo.resumen());
+    }
+
+    /**
+     * Mapa filtrado y parámetros de una planificación
+     */
+    private record SolicitudPlanificacion(Mapa mapa, ACOParameters parametros, String escenario) {
+    }
+
+    /**
+     * Aplica las fechas recibidas, filtra los pedidos del rango y configura los
+     * parámetros del escenario
+     * @return Solicitud lista para ejecutar, o null si el escenario no es válido
+     */
+    private SolicitudPlanificacion prepararPlanificacion(Map<String,String> requestParams, String escenario,
+                                                         String fechaInicio, String fechaFin) {
+        if(requestParams != null){
+            if(requestParams.containsKey("escenario")){
+                escenario = requestParams.get("escenario");
+            }
+            if(requestParams.containsKey("fechaInicio")){
+                fechaInicio = requestParams.get("fechaInicio");
+            }
+            if(requestParams.containsKey("fechaFin")){
+                fechaFin = requestParams.get("fechaFin");
+            }
+        }
+        // Configurar fechas para simulación si se proporcionan
+        if (fechaInicio != null && !fechaInicio.isEmpty()) {
+            LocalDateTime inicio = LocalDateTime.parse(fechaInicio);
+            System.out.println("Fecha de inicio: " + inicio);
+            mapa.setFechaInicio(inicio);
+        }
+
+        if (fechaFin != null && !fechaFin.isEmpty()) {
+            LocalDateTime fin = LocalDateTime.parse(fechaFin);
+            System.out.println("Fecha de fin: " + fin);
+            mapa.setFechaFin(fin);
+        }
+
+        List<Pedido> pedidosFiltrados= filtrarPedidosPorRangoFecha(
+                mapa.getPedidos(),
+                mapa.getFechaInicio(),
+                mapa.getFechaFin()
+        );
+
+        Mapa mapaFiltrado =new Mapa(mapa.getAncho(),mapa.getAlto());
+        mapaFiltrado.setPedidos(pedidosFiltrados);
+        mapaFiltrado.setBloqueos(mapa.getBloqueos());
+        mapaFiltrado.setAlmacenes(mapa.getAlmacenes());
+        mapaFiltrado.setAverias(mapa.getAverias());
+        mapaFiltrado.setFlota(mapa.getFlota());
+        mapaFiltrado.setFechaInicio(mapa.getFechaInicio());
+        mapaFiltrado.setFechaFin(mapa.getFechaFin());
+
+        // Configurar parámetros según el escenario seleccionado
+        ACOParameters params;
+        switch (escenario.toLowerCase()) {
+            case "dia":
+            case "diario":
+                // 1. Escenario de operaciones día a día
+                params = ACOParameters.getConfiguracionEquilibrada();
+                params.setNumeroIteraciones(50);  // Menos iteraciones para respuesta rápida
+                break;
+
+            case "semana":
+            case "semanal":
+                // 2. Escenario de simulación semanal (7 días)
+                params = ACOParameters.getConfiguracionRapida();
+                params.setNumeroIteraciones(20);  // Más iteraciones para mejor calidad
+                // Configurar para que termine en tiempo adecuado (20-50 minutos)
+                params.setTiempoAvanceSimulacion(20);  // 30 minutos por iteración
+
+                // Si no se especifica un período, configurar 7 días por defecto
+                if (mapa.getFechaInicio() == null) {
+                    mapa.setFechaInicio(LocalDateTime.now());
+                }
+                if (mapa.getFechaFin() == null) {
+                    mapa.setFechaFin(mapa.getFechaInicio().plusDays(7));
+                }
+                break;
+
+            case "colapso":
+                // 3. Escenario de simulación hasta colapso
+                params = ACOParameters.getConfiguracionCalidad();
+                params.activarDeteccionColapsoSensible();
+                params.setNumeroIteraciones(5000);  // Muchas iteraciones para llegar al colapso
+                params.setUmbralColapso(0.15);      // Umbral de colapso más sensible (15%)
+
+                // Si no se especifica un período, configurar un período largo
+                if (mapa.getFechaInicio() == null) {
+                    mapa.setFechaInicio(LocalDateTime.now());
+                }
+                if (mapa.getFechaFin() == null) {
+                    mapa.setFechaFin(mapa.getFechaInicio().plusMonths(1)); // Simulación de hasta un mes
+                }
+                break;
+
+            default:
+                return null;
+        }
+
+        // Modo anytime: presupuesto de tiempo en ms tras el cual se devuelve la mejor solución
+        if (requestParams != null && requestParams.containsKey("presupuestoMs")) {
+            params.setPresupuestoTiempoMs(Long.parseLong(requestParams.get("presupuestoMs")));
+        }
+
+        return new SolicitudPlanificacion(mapaFiltrado, params, escenario.toLowerCase());
+    }
+
     @GetMapping("/visualizar-rutas")
     public ResponseEntity<?> visualizarRutas(
             @RequestParam(required = false, defaultValue = "false") boolean detalleCompleto,
@@ -274,13 +471,13 @@ public class MapaController {
         // Primero nos movemos horizontalmente
         int paso = x1 < x2 ? factorMuestreo : -factorMuestreo;
         for (int x = x1 + paso; (paso > 0 && x < x2) || (paso < 0 && x > x2); x += paso) {
-            puntosIntermedios.add(new Ubicacion(x, y1));
+            puntosIntermedios.add(Ubicacion.of(x, y1));
         }
 
         // Después nos movemos verticalmente
         paso = y1 < y2 ? factorMuestreo : -factorMuestreo;
         for (int y = y1 + paso; (paso > 0 && y < y2) || (paso < 0 && y > y2); y += paso) {
-            puntosIntermedios.add(new Ubicacion(x2, y));
+            puntosIntermedios.add(Ubicacion.of(x2, y));
         }
 
         return puntosIntermedios;
@@ -10,4 +10,17 @@ public class Almacen {
     private Ubicacion ubicacion;
     private double capacidadEfectivaM3;
     private double capacidadActualM3;
+
+    /**
+     * Crea una copia del almacén con la misma capacidad actual
+     * @return Una nueva instancia con los mismos datos
+     */
+    public Almacen copia(){
+        Almacen copia = new Almacen();
+        copia.setTipoAlmacen(tipoAlmacen);
+        copia.setUbicacion(ubicacion);
+        copia.setCapacidadEfectivaM3(capacidadEfectivaM3);
+        copia.setCapacidadActualM3(capacidadActualM3);
+        return copia;
+    }
 }
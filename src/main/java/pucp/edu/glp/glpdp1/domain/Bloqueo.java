@@ -1,20 +1,167 @@
 package pucp.edu.glp.glpdp1.domain;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Bloqueo de calles durante un intervalo [fechaInicio, fechaFinal].
+ * Las calles bloqueadas se guardan como una poligonal de tramos rectilíneos
+ * (vertices = x0, y0, x1, y1, ...) en lugar de una Ubicacion por celda; las celdas
+ * se obtienen recorriendo los tramos solo cuando se necesitan (p. ej. al rasterizar
+ * el bloqueo en el bitset de IndiceBloqueos cuando se activa).
+ * Los tramos que no son horizontales ni verticales no bloquean ninguna celda, y un
+ * bloqueo de un solo vértice (sin tramos) tampoco, igual que al expandir las celdas
+ * tramo por tramo al leer el archivo.
+ */
 @Getter @Setter
 public class Bloqueo {
     private LocalDateTime fechaInicio;
     private LocalDateTime fechaFinal;
-    private List<Ubicacion> tramos;
 
-    public Bloqueo(LocalDateTime fechaInicio, LocalDateTime fechaFinal, List<Ubicacion> tramos) {
+    // Vértices de la poligonal como pares (x, y) consecutivos; no debe modificarse
+    @Setter(AccessLevel.NONE)
+    private int[] vertices;
+
+    public Bloqueo(LocalDateTime fechaInicio, LocalDateTime fechaFinal, int[] vertices) {
+        if (vertices == null || vertices.length % 2 != 0) {
+            throw new IllegalArgumentException("Los vértices del bloqueo deben ser pares (x, y)");
+        }
         this.fechaInicio = fechaInicio;
         this.fechaFinal = fechaFinal;
-        this.tramos = tramos;
+        this.vertices = vertices;
+    }
+
+    /**
+     * @param tramos Vértices de la poligonal (también sirve una lista de al menos dos celdas contiguas)
+     */
+    public Bloqueo(LocalDateTime fechaInicio, LocalDateTime fechaFinal, List<Ubicacion> tramos) {
+        this(fechaInicio, fechaFinal, aVertices(tramos));
+    }
+
+    public int numeroVertices() {
+        return vertices.length / 2;
+    }
+
+    public int verticeX(int i) {
+        return vertices[2 * i];
+    }
+
+    public int verticeY(int i) {
+        return vertices[2 * i + 1];
+    }
+
+    /**
+     * Verifica que todos los tramos sean horizontales o verticales
+     */
+    public boolean esRectilineo() {
+        for (int i = 0; i + 3 < vertices.length; i += 2) {
+            if (vertices[i] != vertices[i + 2] && vertices[i + 1] != vertices[i + 3]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Celdas bloqueadas, en el orden de la poligonal y sin repetir las esquinas.
+     * Se calculan en cada llamada: preferir {@link #rasterizar} o {@link #contiene}
+     * en código sensible al rendimiento.
+     */
+    public List<Ubicacion> getTramos() {
+        List<Ubicacion> celdas = new ArrayList<>();
+        int ultimoX = Integer.MIN_VALUE;
+        int ultimoY = Integer.MIN_VALUE;
+        for (int i = 0; i + 3 < vertices.length; i += 2) {
+            int x1 = vertices[i], y1 = vertices[i + 1], x2 = vertices[i + 2], y2 = vertices[i + 3];
+            if (x1 != x2 && y1 != y2) {
+                continue;
+            }
+            int dx = Integer.signum(x2 - x1);
+            int dy = Integer.signum(y2 - y1);
+            int x = x1, y = y1;
+            while (true) {
+                if (x != ultimoX || y != ultimoY) {
+                    celdas.add(Ubicacion.of(x, y));
+                    ultimoX = x;
+                    ultimoY = y;
+                }
+                if (x == x2 && y == y2) {
+                    break;
+                }
+                x += dx;
+                y += dy;
+            }
+        }
+        return celdas;
+    }
+
+    /**
+     * Verifica si la celda (x, y) pertenece a algún tramo del bloqueo
+     */
+    public boolean contiene(int x, int y) {
+        for (int i = 0; i + 3 < vertices.length; i += 2) {
+            int x1 = vertices[i], y1 = vertices[i + 1], x2 = vertices[i + 2], y2 = vertices[i + 3];
+            if (x1 == x2) {
+                if (x == x1 && y >= Math.min(y1, y2) && y <= Math.max(y1, y2)) {
+                    return true;
+                }
+            } else if (y1 == y2) {
+                if (y == y1 && x >= Math.min(x1, x2) && x <= Math.max(x1, x2)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marca las celdas del bloqueo en un bitset de celdas con id x * (alto + 1) + y
+     * (mismo id que GrafoRutas); las celdas fuera de la rejilla se ignoran
+     * @return true si marcó al menos una celda
+     */
+    public boolean rasterizar(long[] celdas, int ancho, int alto) {
+        boolean marco = false;
+        for (int i = 0; i + 3 < vertices.length; i += 2) {
+            int x1 = vertices[i], y1 = vertices[i + 1], x2 = vertices[i + 2], y2 = vertices[i + 3];
+            if (x1 == x2) {
+                if (x1 < 0 || x1 > ancho) {
+                    continue;
+                }
+                int desde = Math.max(Math.min(y1, y2), 0);
+                int hasta = Math.min(Math.max(y1, y2), alto);
+                int base = x1 * (alto + 1);
+                for (int y = desde; y <= hasta; y++) {
+                    int id = base + y;
+                    celdas[id >>> 6] |= 1L << id;
+                    marco = true;
+                }
+            } else if (y1 == y2) {
+                if (y1 < 0 || y1 > alto) {
+                    continue;
+                }
+                int desde = Math.max(Math.min(x1, x2), 0);
+                int hasta = Math.min(Math.max(x1, x2), ancho);
+                for (int x = desde; x <= hasta; x++) {
+                    int id = x * (alto + 1) + y1;
+                    celdas[id >>> 6] |= 1L << id;
+                    marco = true;
+                }
+            }
+        }
+        return marco;
+    }
+
+    private static int[] aVertices(List<Ubicacion> tramos) {
+        int[] vertices = new int[tramos.size() * 2];
+        for (int i = 0; i < tramos.size(); i++) {
+            vertices[2 * i] = tramos.get(i).getX();
+            vertices[2 * i + 1] = tramos.get(i).getY();
+        }
+        return vertices;
     }
 }
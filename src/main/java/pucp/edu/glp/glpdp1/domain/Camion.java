@@ -28,4 +28,23 @@ public class Camion {
         double pesoCarga = volumen * pesoCargaTon;
         return this.getPesoCombinadoTon() >= pesoCarga;
     }
+
+    /**
+     * Crea una copia del camión con el mismo estado
+     * @return Una nueva instancia con los mismos datos
+     */
+    public Camion copia(){
+        Camion copia = new Camion();
+        copia.setIdC(idC);
+        copia.setTipo(tipo);
+        copia.setPesoBrutoTon(pesoBrutoTon);
+        copia.setCargaM3(cargaM3);
+        copia.setPesoCargaTon(pesoCargaTon);
+        copia.setPesoCombinadoTon(pesoCombinadoTon);
+        copia.setDistanciaMaximaKm(distanciaMaximaKm);
+        copia.setGalones(galones);
+        copia.setAveriado(averiado);
+        copia.setEstado(estado);
+        return copia;
+    }
 }
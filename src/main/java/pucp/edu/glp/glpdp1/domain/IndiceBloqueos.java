@@ -0,0 +1,369 @@
+package pucp.edu.glp.glpdp1.domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice temporal de bloqueos para consultas O(1) de "¿está bloqueada esta celda en este momento?".
+ * Los instantes de inicio y fin de todos los bloqueos dividen el tiempo en intervalos
+ * elementales; cada intervalo guarda los bloqueos activos durante él y un bitset con
+ * sus celdas, que se rasteriza a partir de los tramos la primera vez que se consulta
+ * el intervalo (la mayoría de intervalos de un archivo mensual nunca se consultan).
+ * Para ubicar el intervalo de un instante se usan cubetas de una hora que apuntan
+ * al primer intervalo que las toca.
+ * El índice puede compartirse entre hilos; {@link #compartido} lo reutiliza entre todos los
+ * mapas y planificaciones que usan la misma lista de bloqueos.
+ */
+public final class IndiceBloqueos {
+
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+    private static final long NANOS_POR_HORA = 3600L * NANOS_POR_SEGUNDO;
+    private static final int MAX_CUBETAS = 1 << 16;
+    // Marca de un intervalo ya rasterizado sin celdas dentro de la rejilla
+    private static final long[] SIN_CELDAS = new long[0];
+    private static final VarHandle CELDAS = MethodHandles.arrayElementVarHandle(long[][].class);
+    private static final VarHandle SUMAS = MethodHandles.arrayElementVarHandle(int[][].class);
+
+    // Índices compartidos por lista de bloqueos (por identidad), con los intervalos ya rasterizados
+    private static final int MAX_COMPARTIDOS = 8;
+    private static final Map<ClaveIndice, IndiceBloqueos> COMPARTIDOS = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ClaveIndice, IndiceBloqueos> mayor) {
+                    return size() > MAX_COMPARTIDOS;
+                }
+            });
+
+    private final int ancho;
+    private final int alto;
+    private final int palabrasPorIntervalo;
+
+    // Intervalo k = [limites[k], limites[k + 1]) en nanosegundos
+    private final long[] limites;
+    private final Bloqueo[] bloqueos;
+    // Bloqueos activos del intervalo k: activos[inicioActivos[k]] .. activos[inicioActivos[k + 1] - 1]
+    private final int[] inicioActivos;
+    private final int[] activos;
+    // Bitset de celdas por intervalo (null hasta que se rasteriza)
+    private final long[][] celdasPorIntervalo;
+    // Sumas prefijas de celdas bloqueadas por fila y por columna de cada intervalo (null hasta que se piden)
+    private final int[][] sumasPorIntervalo;
+
+    private final long inicioCubetas;
+    private final long tamanioCubeta;
+    private final int[] primerIntervaloCubeta;
+
+    /**
+     * Construye el índice a partir de la lista de bloqueos
+     * @param bloqueos Lista de bloqueos (el intervalo [inicio, fin] es inclusivo)
+     * @param ancho Ancho de la rejilla (posiciones de 0 a ancho)
+     * @param alto Alto de la rejilla (posiciones de 0 a alto)
+     */
+    public IndiceBloqueos(List<Bloqueo> bloqueos, int ancho, int alto) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.palabrasPorIntervalo = (((ancho + 1) * (alto + 1)) + 63) >>> 6;
+
+        List<Bloqueo> validos = bloqueos == null ? List.of() : bloqueos.stream()
+                .filter(b -> b.getFechaInicio() != null && b.getFechaFinal() != null
+                        && !b.getFechaFinal().isBefore(b.getFechaInicio()))
+                .toList();
+
+        // Límites ordenados y sin repetidos; el fin se vuelve exclusivo sumando 1 ns
+        long[] todos = new long[validos.size() * 2];
+        for (int i = 0; i < validos.size(); i++) {
+            todos[2 * i] = aNanos(validos.get(i).getFechaInicio());
+            todos[2 * i + 1] = aNanos(validos.get(i).getFechaFinal()) + 1;
+        }
+        Arrays.sort(todos);
+        int unicos = 0;
+        for (int i = 0; i < todos.length; i++) {
+            if (i == 0 || todos[i] != todos[i - 1]) {
+                todos[unicos++] = todos[i];
+            }
+        }
+        this.limites = Arrays.copyOf(todos, unicos);
+
+        // Bloqueos activos por intervalo elemental (en formato compacto)
+        int numIntervalos = Math.max(unicos - 1, 0);
+        this.bloqueos = validos.toArray(new Bloqueo[0]);
+        int[] desde = new int[this.bloqueos.length];
+        int[] hasta = new int[this.bloqueos.length];
+        this.inicioActivos = new int[numIntervalos + 1];
+        for (int b = 0; b < this.bloqueos.length; b++) {
+            desde[b] = Arrays.binarySearch(limites, aNanos(this.bloqueos[b].getFechaInicio()));
+            hasta[b] = Arrays.binarySearch(limites, aNanos(this.bloqueos[b].getFechaFinal()) + 1);
+            for (int k = desde[b]; k < hasta[b]; k++) {
+                inicioActivos[k + 1]++;
+            }
+        }
+        for (int k = 0; k < numIntervalos; k++) {
+            inicioActivos[k + 1] += inicioActivos[k];
+        }
+        this.activos = new int[inicioActivos[numIntervalos]];
+        int[] siguiente = Arrays.copyOf(inicioActivos, numIntervalos);
+        for (int b = 0; b < this.bloqueos.length; b++) {
+            for (int k = desde[b]; k < hasta[b]; k++) {
+                activos[siguiente[k]++] = b;
+            }
+        }
+        this.celdasPorIntervalo = new long[numIntervalos][];
+        this.sumasPorIntervalo = new int[numIntervalos][];
+
+        // Cubetas de una hora (más anchas si el rango es muy grande)
+        if (numIntervalos == 0) {
+            this.inicioCubetas = 0;
+            this.tamanioCubeta = NANOS_POR_HORA;
+            this.primerIntervaloCubeta = new int[0];
+        } else {
+            long rango = limites[unicos - 1] - limites[0];
+            this.inicioCubetas = limites[0];
+            this.tamanioCubeta = Math.max(NANOS_POR_HORA, rango / MAX_CUBETAS + 1);
+            int numCubetas = (int) (rango / tamanioCubeta) + 1;
+            this.primerIntervaloCubeta = new int[numCubetas];
+            int k = 0;
+            for (int c = 0; c < numCubetas; c++) {
+                long inicioCubeta = inicioCubetas + c * tamanioCubeta;
+                while (k + 1 < numIntervalos && limites[k + 1] <= inicioCubeta) {
+                    k++;
+                }
+                primerIntervaloCubeta[c] = k;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el índice compartido de una lista de bloqueos, construyéndolo si no existe.
+     * Las listas se distinguen por identidad y tamaño: una lista cargada nueva (o a la
+     * que se agregaron bloqueos) obtiene su propio índice.
+     * @param bloqueos Lista de bloqueos (no debe modificarse mientras se use el índice)
+     * @param ancho Ancho de la rejilla
+     * @param alto Alto de la rejilla
+     */
+    public static IndiceBloqueos compartido(List<Bloqueo> bloqueos, int ancho, int alto) {
+        if (bloqueos == null || bloqueos.isEmpty()) {
+            return new IndiceBloqueos(bloqueos, ancho, alto);
+        }
+        ClaveIndice clave = new ClaveIndice(bloqueos, bloqueos.size(), ancho, alto);
+        IndiceBloqueos indice = COMPARTIDOS.get(clave);
+        if (indice == null) {
+            indice = new IndiceBloqueos(bloqueos, ancho, alto);
+            IndiceBloqueos existente = COMPARTIDOS.putIfAbsent(clave, indice);
+            if (existente != null) {
+                indice = existente;
+            }
+        }
+        return indice;
+    }
+
+    private record ClaveIndice(List<Bloqueo> bloqueos, int tamanio, int ancho, int alto) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ClaveIndice otra && bloqueos == otra.bloqueos && tamanio == otra.tamanio
+                    && ancho == otra.ancho && alto == otra.alto;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((System.identityHashCode(bloqueos) * 31 + tamanio) * 31 + ancho) * 31 + alto;
+        }
+    }
+
+    /**
+     * Obtiene el intervalo elemental que contiene un instante
+     * @param momento Instante a consultar
+     * @return Índice del intervalo, o -1 si no hay bloqueos activos en ese instante
+     */
+    public int intervalo(LocalDateTime momento) {
+        if (momento == null) {
+            return -1;
+        }
+        return intervaloNanos(aNanos(momento));
+    }
+
+    /**
+     * Obtiene el intervalo elemental de un instante dado en segundos de época (UTC, como
+     * LocalDateTime.toEpochSecond(ZoneOffset.UTC)); evita crear un LocalDateTime por consulta
+     * @return Índice del intervalo, o -1 si no hay bloqueos activos en ese instante
+     */
+    public int intervaloEnSegundos(long segundosEpoca) {
+        return intervaloNanos(segundosEpoca * NANOS_POR_SEGUNDO);
+    }
+
+    private int intervaloNanos(long t) {
+        if (celdasPorIntervalo.length == 0) {
+            return -1;
+        }
+        if (t < limites[0] || t >= limites[limites.length - 1]) {
+            return -1;
+        }
+        int k = primerIntervaloCubeta[(int) ((t - inicioCubetas) / tamanioCubeta)];
+        while (limites[k + 1] <= t) {
+            k++;
+        }
+        if (inicioActivos[k] == inicioActivos[k + 1]) {
+            return -1;
+        }
+        long[] celdas = (long[]) CELDAS.getAcquire(celdasPorIntervalo, k);
+        if (celdas == null) {
+            celdas = rasterizar(k);
+        }
+        return celdas == SIN_CELDAS ? -1 : k;
+    }
+
+    /**
+     * Construye el bitset de un intervalo con las celdas de sus bloqueos activos.
+     * Se publica con semántica release para que los hilos que lo ven desde {@link #intervalo}
+     * puedan leerlo sin sincronización en {@link #estaBloqueada}.
+     */
+    private synchronized long[] rasterizar(int k) {
+        long[] celdas = celdasPorIntervalo[k];
+        if (celdas != null) {
+            return celdas;
+        }
+        celdas = new long[palabrasPorIntervalo];
+        boolean marco = false;
+        for (int i = inicioActivos[k]; i < inicioActivos[k + 1]; i++) {
+            marco |= bloqueos[activos[i]].rasterizar(celdas, ancho, alto);
+        }
+        if (!marco) {
+            celdas = SIN_CELDAS;
+        }
+        CELDAS.setRelease(celdasPorIntervalo, k, celdas);
+        return celdas;
+    }
+
+    /**
+     * Verifica si una celda está bloqueada en un intervalo obtenido con {@link #intervalo}
+     * (que garantiza que el bitset del intervalo ya está construido)
+     * @param intervalo Índice del intervalo (-1 indica que no hay bloqueos)
+     * @param idCelda ID de la celda (x * (alto + 1) + y)
+     */
+    public boolean estaBloqueada(int intervalo, int idCelda) {
+        if (intervalo < 0 || idCelda < 0) {
+            return false;
+        }
+        return (celdasPorIntervalo[intervalo][idCelda >>> 6] & (1L << idCelda)) != 0;
+    }
+
+    /**
+     * Verifica si el camino en L de (x0, y0) a (x1, y1), primero en X y luego en Y y sin contar
+     * el origen, está libre en un intervalo obtenido con {@link #intervalo}.
+     * Con las sumas prefijas por fila y columna del intervalo cuesta O(1) sin importar el largo
+     * del camino; las sumas se calculan la primera vez y se comparten entre hilos.
+     */
+    public boolean caminoEnLLibre(int intervalo, int x0, int y0, int x1, int y1) {
+        if (intervalo < 0) {
+            return true;
+        }
+        if (idCelda(x0, y0) < 0 || idCelda(x1, y1) < 0) {
+            return recorrerCaminoEnL(intervalo, x0, y0, x1, y1);
+        }
+
+        int[] sumas = (int[]) SUMAS.getAcquire(sumasPorIntervalo, intervalo);
+        if (sumas == null) {
+            sumas = calcularSumas(intervalo);
+        }
+        // Tramo horizontal en la fila y0
+        if (x1 != x0) {
+            int desde = x1 > x0 ? x0 + 1 : x1;
+            int hasta = x1 > x0 ? x1 : x0 - 1;
+            int fila = y0 * (ancho + 2);
+            if (sumas[fila + hasta + 1] != sumas[fila + desde]) {
+                return false;
+            }
+        }
+        // Tramo vertical en la columna x1
+        if (y1 != y0) {
+            int desde = y1 > y0 ? y0 + 1 : y1;
+            int hasta = y1 > y0 ? y1 : y0 - 1;
+            int columna = (alto + 1) * (ancho + 2) + x1 * (alto + 2);
+            if (sumas[columna + hasta + 1] != sumas[columna + desde]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sumas prefijas del intervalo k: primero una fila de ancho + 2 valores por cada y,
+     * luego una columna de alto + 2 valores por cada x.
+     * Como en {@link #rasterizar}, se calculan una sola vez y se publican con semántica
+     * release para que {@link #caminoEnLLibre} las lea sin sincronización.
+     */
+    private synchronized int[] calcularSumas(int k) {
+        int[] sumas = sumasPorIntervalo[k];
+        if (sumas != null) {
+            return sumas;
+        }
+        sumas = new int[(alto + 1) * (ancho + 2) + (ancho + 1) * (alto + 2)];
+        for (int y = 0; y <= alto; y++) {
+            int fila = y * (ancho + 2);
+            for (int x = 0; x <= ancho; x++) {
+                sumas[fila + x + 1] = sumas[fila + x] + (estaBloqueada(k, idCelda(x, y)) ? 1 : 0);
+            }
+        }
+        int inicioColumnas = (alto + 1) * (ancho + 2);
+        for (int x = 0; x <= ancho; x++) {
+            int columna = inicioColumnas + x * (alto + 2);
+            for (int y = 0; y <= alto; y++) {
+                sumas[columna + y + 1] = sumas[columna + y] + (estaBloqueada(k, idCelda(x, y)) ? 1 : 0);
+            }
+        }
+        SUMAS.setRelease(sumasPorIntervalo, k, sumas);
+        return sumas;
+    }
+
+    // Camino en L celda por celda, para extremos fuera de la rejilla
+    private boolean recorrerCaminoEnL(int intervalo, int x, int y, int x1, int y1) {
+        while (x != x1) {
+            x += (x1 > x) ? 1 : -1;
+            if (estaBloqueada(intervalo, idCelda(x, y))) {
+                return false;
+            }
+        }
+        while (y != y1) {
+            y += (y1 > y) ? 1 : -1;
+            if (estaBloqueada(intervalo, idCelda(x, y))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifica si la posición (x, y) está bloqueada en un momento dado
+     */
+    public boolean estaBloqueado(int x, int y, LocalDateTime momento) {
+        return estaBloqueada(intervalo(momento), idCelda(x, y));
+    }
+
+    /**
+     * ID de celda coherente con GrafoRutas, o -1 si está fuera de la rejilla
+     */
+    public int idCelda(int x, int y) {
+        if (x < 0 || x > ancho || y < 0 || y > alto) {
+            return -1;
+        }
+        return x * (alto + 1) + y;
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+
+    public int getAlto() {
+        return alto;
+    }
+
+    private static long aNanos(LocalDateTime momento) {
+        return momento.toEpochSecond(ZoneOffset.UTC) * NANOS_POR_SEGUNDO + momento.getNano();
+    }
+}
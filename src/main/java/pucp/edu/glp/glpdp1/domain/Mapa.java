@@ -1,5 +1,6 @@
 package pucp.edu.glp.glpdp1.domain;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import pucp.edu.glp.glpdp1.domain.Rutas;
@@ -21,11 +22,16 @@ public class Mapa {
     private List<Bloqueo> bloqueos;
     private List<Almacen> almacenes;
     private List<Averia> averias;
-    private List<Rutas> rutas;
+    // Se reemplaza desde los hilos de planificación y se lee desde los de la API
+    private volatile List<Rutas> rutas;
     // Por el momento
     private LocalDateTime fechaInicio;
     private LocalDateTime fechaFin;
 
+    // Índice temporal de bloqueos, construido bajo demanda e invalidado al cambiar la lista
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private volatile IndiceBloqueos indiceBloqueos;
+
     // Setear almacenes
     public Mapa(int ancho,int alto){
         this.ancho = ancho;
@@ -44,17 +50,17 @@ public class Mapa {
         //Iniciar almancenes
         Almacen almacen1 = new Almacen();
         almacen1.setTipoAlmacen(TipoAlmacen.CENTRAL);
-        almacen1.setUbicacion(new Ubicacion(12,8));
+        almacen1.setUbicacion(Ubicacion.of(12,8));
         almacen1.setCapacidadEfectivaM3(160.0);
 
         Almacen almacen2 = new Almacen();
         almacen2.setTipoAlmacen(TipoAlmacen.INTERMEDIO_ESTE);
-        almacen2.setUbicacion(new Ubicacion(63,3));
+        almacen2.setUbicacion(Ubicacion.of(63,3));
         almacen2.setCapacidadEfectivaM3(160.0);
 
         Almacen almacen3 = new Almacen();
         almacen3.setTipoAlmacen(TipoAlmacen.INTERMEDIO_NORTE);
-        almacen3.setUbicacion(new Ubicacion(42,42));
+        almacen3.setUbicacion(Ubicacion.of(42,42));
         almacen3.setCapacidadEfectivaM3(160.0);
 
         this.almacenes.add(almacen1);
@@ -72,15 +78,59 @@ public class Mapa {
     public boolean estaBloqueado(Ubicacion u, LocalDateTime momento) {
         if (bloqueos == null) return false;
 
-        for (Bloqueo b : bloqueos) {
-            if (!momento.isBefore(b.getFechaInicio()) && !momento.isAfter(b.getFechaFinal())) {
-                if (b.getTramos().contains(u)) {
-                    return true;
+        return indiceBloqueos().estaBloqueado(u.getX(), u.getY(), momento);
+    }
+
+    public void setBloqueos(List<Bloqueo> bloqueos) {
+        this.bloqueos = bloqueos;
+        this.indiceBloqueos = null;
+    }
+
+    /**
+     * Índice temporal de los bloqueos actuales (se construye la primera vez que se consulta
+     * y se comparte con los demás mapas que usan la misma lista de bloqueos)
+     */
+    public IndiceBloqueos indiceBloqueos() {
+        IndiceBloqueos indice = this.indiceBloqueos;
+        if (!indiceVigente(indice)) {
+            synchronized (this) {
+                indice = this.indiceBloqueos;
+                if (!indiceVigente(indice)) {
+                    indice = IndiceBloqueos.compartido(bloqueos, ancho, alto);
+                    this.indiceBloqueos = indice;
                 }
             }
         }
+        return indice;
+    }
+
+    private boolean indiceVigente(IndiceBloqueos indice) {
+        return indice != null && indice.getAncho() == ancho && indice.getAlto() == alto;
+    }
 
-        return false;
+    /**
+     * Copia del mapa con flota y almacenes propios, para planificar o simular sin modificar
+     * los camiones ni los tanques de este mapa. Pedidos, bloqueos y averías se comparten.
+     */
+    public Mapa copiaOperativa() {
+        Mapa copia = new Mapa(ancho, alto);
+        List<Camion> flotaCopia = new ArrayList<>(flota.size());
+        for (Camion camion : flota) {
+            flotaCopia.add(camion.copia());
+        }
+        List<Almacen> almacenesCopia = new ArrayList<>(almacenes.size());
+        for (Almacen almacen : almacenes) {
+            almacenesCopia.add(almacen.copia());
+        }
+        copia.setFlota(flotaCopia);
+        copia.setPedidos(pedidos);
+        copia.setBloqueos(bloqueos);
+        copia.setAlmacenes(almacenesCopia);
+        copia.setAverias(averias);
+        copia.setRutas(rutas);
+        copia.setFechaInicio(fechaInicio);
+        copia.setFechaFin(fechaFin);
+        return copia;
     }
 
 
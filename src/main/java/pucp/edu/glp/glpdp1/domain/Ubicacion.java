@@ -1,15 +1,61 @@
 package pucp.edu.glp.glpdp1.domain;
 
 import lombok.Getter;
-import lombok.Setter;
 
-@Getter @Setter
-public class Ubicacion {
-    private int x;
-    private int y;
+/**
+ * Coordenada (x, y) de la rejilla de la ciudad.
+ * Es inmutable y se compara por valor, por lo que puede compartirse entre rutas,
+ * nodos y pedidos y usarse como clave en mapas y conjuntos.
+ * {@link #of} devuelve instancias compartidas para las coordenadas habituales de la
+ * rejilla en lugar de crear un objeto nuevo en cada paso de una ruta.
+ */
+@Getter
+public final class Ubicacion {
+
+    // Coordenadas 0..LIMITE_CACHE-1 en cada eje usan instancias compartidas
+    private static final int LIMITE_CACHE = 256;
+    private static final Ubicacion[] CACHE = new Ubicacion[LIMITE_CACHE * LIMITE_CACHE];
+
+    private final int x;
+    private final int y;
 
     public Ubicacion(int x, int y) {
         this.x = x;
         this.y = y;
     }
+
+    /**
+     * Obtiene la ubicación (x, y), reutilizando la instancia compartida si está en el rango del caché.
+     * Como los campos son final, publicar la instancia sin sincronización es seguro:
+     * en el peor caso dos hilos crean instancias equivalentes.
+     */
+    public static Ubicacion of(int x, int y) {
+        if (x < 0 || x >= LIMITE_CACHE || y < 0 || y >= LIMITE_CACHE) {
+            return new Ubicacion(x, y);
+        }
+        int indice = x * LIMITE_CACHE + y;
+        Ubicacion ubicacion = CACHE[indice];
+        if (ubicacion == null) {
+            ubicacion = new Ubicacion(x, y);
+            CACHE[indice] = ubicacion;
+        }
+        return ubicacion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Ubicacion otra)) return false;
+        return x == otra.x && y == otra.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + ")";
+    }
 }
@@ -0,0 +1,9 @@
+package pucp.edu.glp.glpdp1.domain.enums;
+
+public enum EstadoTrabajo {
+    EN_COLA,
+    EN_EJECUCION,
+    COMPLETADO,
+    CANCELADO,
+    FALLIDO,
+}
@@ -0,0 +1,14 @@
+package pucp.edu.glp.glpdp1.domain.enums;
+
+public enum TipoEvento {
+    LLEGADA_PEDIDO,
+    VENCIMIENTO_PEDIDO,
+    INICIO_BLOQUEO,
+    FIN_BLOQUEO,
+    AVERIA,
+    FIN_REPARACION,
+    ENTREGA_COMPLETADA,
+    REGRESO_CAMION,
+    RECARGA_TANQUES,
+    PLANIFICACION
+}
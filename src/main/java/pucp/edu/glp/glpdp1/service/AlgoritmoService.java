@@ -7,6 +7,8 @@ import pucp.edu.glp.glpdp1.domain.Mapa;
 import pucp.edu.glp.glpdp1.domain.Rutas;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 @Service
@@ -14,6 +16,17 @@ public class AlgoritmoService {
 
     private static final Logger logger = Logger.getLogger(AlgoritmoService.class.getName());
 
+    // Plan vigente de cada mapa, conservado para replanificar en caliente. Las planificaciones
+    // de un mismo mapa se serializan sobre su PlanVigente; las de mapas distintos no se esperan
+    private final Map<Mapa, PlanVigente> planesPorMapa = new ConcurrentHashMap<>();
+
+    /**
+     * Último algoritmo ejecutado para un mapa; también es el cerrojo de sus planificaciones
+     */
+    private static final class PlanVigente {
+        private ACOAlgorithm algoritmo;
+    }
+
     /**
      * Genera rutas optimizadas utilizando el algoritmo ACO
      * @param mapa Mapa con los datos de la ciudad, flota, pedidos, etc.
@@ -33,4 +46,82 @@ public class AlgoritmoService {
 
         return rutas;
     }
+
+    /**
+     * Planifica desde cero y conserva el estado del algoritmo (feromonas, histórico y
+     * mejor solución) asociado al mapa de origen para las replanificaciones siguientes
+     * @param mapaOrigen Mapa del que se obtuvo el mapa filtrado; identifica el plan vigente
+     * @param mapaFiltrado Mapa con los pedidos a planificar
+     * @param params Parámetros del algoritmo
+     * @return Lista de rutas optimizadas
+     */
+    public List<Rutas> planificarRutas(Mapa mapaOrigen, Mapa mapaFiltrado, ACOParameters params) {
+        PlanVigente plan = planDe(mapaOrigen);
+        synchronized (plan) {
+            return planificarDesdeCero(plan, mapaFiltrado, params);
+        }
+    }
+
+    /**
+     * Replanifica en caliente a partir del plan vigente del mapa: inserta los pedidos nuevos
+     * en la mejor solución anterior y ejecuta unas pocas iteraciones con las feromonas
+     * aprendidas. Si no hay plan vigente o cambiaron los bloqueos o la flota, planifica desde cero.
+     * @param mapaOrigen Mapa del que se obtuvo el mapa filtrado
+     * @param mapaFiltrado Mapa con los pedidos vigentes
+     * @param params Parámetros del escenario (para una planificación desde cero)
+     * @param iteraciones Iteraciones de la replanificación en caliente
+     * @return Lista de rutas optimizadas
+     */
+    public List<Rutas> replanificarRutas(Mapa mapaOrigen, Mapa mapaFiltrado, ACOParameters params,
+                                         int iteraciones) {
+        PlanVigente plan = planDe(mapaOrigen);
+        synchronized (plan) {
+            ACOAlgorithm algoritmo = plan.algoritmo;
+            if (algoritmo == null || algoritmo.getMejorSolucionGlobal() == null
+                    || algoritmo.getMapa().getBloqueos() != mapaFiltrado.getBloqueos()
+                    || algoritmo.getMapa().getFlota() != mapaFiltrado.getFlota()) {
+                logger.info("Sin plan vigente reutilizable: se planifica desde cero");
+                return planificarDesdeCero(plan, mapaFiltrado, params);
+            }
+
+            algoritmo.getMapa().setFechaInicio(mapaFiltrado.getFechaInicio());
+            algoritmo.getMapa().setFechaFin(mapaFiltrado.getFechaFin());
+            algoritmo.getParameters().setPresupuestoTiempoMs(params.getPresupuestoTiempoMs());
+            try {
+                List<Rutas> rutas = algoritmo.replanificar(mapaFiltrado.getPedidos(), iteraciones);
+                logger.info("Replanificación completada. Total rutas: " + rutas.size());
+                return rutas;
+            } catch (RuntimeException e) {
+                // El estado quedó a medio actualizar: la siguiente llamada planifica desde cero
+                plan.algoritmo = null;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Algoritmo del plan vigente del mapa (null si no hay), para las pruebas
+     */
+    ACOAlgorithm algoritmoVigente(Mapa mapaOrigen) {
+        PlanVigente plan = planDe(mapaOrigen);
+        synchronized (plan) {
+            return plan.algoritmo;
+        }
+    }
+
+    private PlanVigente planDe(Mapa mapaOrigen) {
+        return planesPorMapa.computeIfAbsent(mapaOrigen, m -> new PlanVigente());
+    }
+
+    /**
+     * Planifica desde cero y deja el algoritmo como plan vigente; se llama con el cerrojo del plan
+     */
+    private List<Rutas> planificarDesdeCero(PlanVigente plan, Mapa mapaFiltrado, ACOParameters params) {
+        ACOAlgorithm algoritmo = new ACOAlgorithm(mapaFiltrado, params);
+        List<Rutas> rutas = algoritmo.ejecutar();
+        plan.algoritmo = algoritmo;
+
+        logger.info("Planificación completada. Total rutas: " + rutas.size());
+        return rutas;
+    }
 }
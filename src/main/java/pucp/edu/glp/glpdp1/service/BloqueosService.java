@@ -7,30 +7,46 @@ import pucp.edu.glp.glpdp1.domain.Ubicacion;
 
 import java.io.*;
 import java.nio.Buffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 public class BloqueosService {
 
+    // Compilado una sola vez: Pattern es seguro entre hilos y se usa desde los bloques en paralelo
+    private static final Pattern PATRON_FECHAS =
+            Pattern.compile("(\\d{2})d(\\d{2})h(\\d{2})m-(\\d{2})d(\\d{2})h(\\d{2})m");
+
     /**
      * Carga bloqueos desde un archivo de texto en la ruta especificada
      * @param rutaArchivo Ruta del archivo de bloqueos
      * @return Lista de pedidos cargados desde el archivo
      * **/
     public List<Bloqueo> cargarBloqueosDesdeArchivo(String rutaArchivo) throws IOException{
-        // Usando API moderno de Java para leer archivos
-        return Files.lines(Path.of(rutaArchivo))
-                .map(this::parsearLineaBloqueo)
-                .filter(bloqueo -> bloqueo != null)
-                .toList();
+        // Los bloques del archivo se parsean en paralelo, cada uno como un flujo
+        return LectorArchivoParalelo.leer(Path.of(rutaArchivo), this::parsearBloque);
+    }
+
+    /**
+     * Parsea un bloque de líneas completas del archivo de bloqueos, línea por línea
+     */
+    private List<Bloqueo> parsearBloque(InputStream bloque) throws IOException {
+        List<Bloqueo> bloqueos = new ArrayList<>();
+        BufferedReader lector = new BufferedReader(new InputStreamReader(bloque, StandardCharsets.UTF_8));
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            Bloqueo bloqueo = parsearLineaBloqueo(linea);
+            if (bloqueo != null) {
+                bloqueos.add(bloqueo);
+            }
+        }
+        return bloqueos;
     }
 
     /**
@@ -63,8 +79,7 @@ public class BloqueosService {
             return null;
         }
 
-        Pattern patternFechas = Pattern.compile("(\\d{2})d(\\d{2})h(\\d{2})m-(\\d{2})d(\\d{2})h(\\d{2})m");
-        Matcher matcher = patternFechas.matcher(partes[0]);
+        Matcher matcher = PATRON_FECHAS.matcher(partes[0]);
 
         if(matcher.find()){
             int diaInicio = Integer.parseInt(matcher.group(1));
@@ -80,47 +95,17 @@ public class BloqueosService {
             String coordenadas = partes[1];
             String[] coordenadasArray = coordenadas.split(",");
 
-            List<Ubicacion> tramosCompletos = new ArrayList<>();
-            for(int i=0;i<coordenadasArray.length-2;i+=2){
-                int x1 = Integer.parseInt(coordenadasArray[i].trim());
-                int y1 = Integer.parseInt(coordenadasArray[i+1].trim());
-                int x2 = Integer.parseInt(coordenadasArray[i+2].trim());
-                int y2 = Integer.parseInt(coordenadasArray[i+3].trim());
-                List<Ubicacion> puntosSegmento = generarPuntosIntermedios(x1, y1, x2, y2);
-                // Agregar la ubicación a la lista de tramos
-                tramosCompletos.addAll(puntosSegmento);
+            // Se guardan solo los vértices de la poligonal; las celdas se obtienen de los tramos al usarlas
+            int[] vertices = new int[coordenadasArray.length / 2 * 2];
+            for(int i=0;i<vertices.length;i++){
+                vertices[i] = Integer.parseInt(coordenadasArray[i].trim());
             }
-
-            Set<Ubicacion> ubicacionesUnicas = new LinkedHashSet<>(tramosCompletos);
-            List<Ubicacion> tramosFinales = new ArrayList<>(ubicacionesUnicas);
-            return new Bloqueo(fechaInicio, fechaFinal, tramosFinales);
+            return new Bloqueo(fechaInicio, fechaFinal, vertices);
         }
 
         return null;
     }
 
-    private List<Ubicacion> generarPuntosIntermedios(int x1,int y1,int x2,int y2){
-        List<Ubicacion> puntos = new ArrayList<>();
-
-        if (y1 == y2) {
-            int inicio = Math.min(x1, x2);
-            int fin = Math.max(x1, x2);
-            for (int x = inicio; x <= fin; x++) {
-                puntos.add(new Ubicacion(x, y1));
-            }
-        }
-        // Si es una línea vertical
-        else if (x1 == x2) {
-            int inicio = Math.min(y1, y2);
-            int fin = Math.max(y1, y2);
-            for (int y = inicio; y <= fin; y++) {
-                puntos.add(new Ubicacion(x1, y));
-            }
-        }
-
-        return puntos;
-    }
-
     public void cargarBloqueosFromFile(String filePath){
         try(BufferedReader reader = new BufferedReader(new FileReader(filePath))){
             String line;
@@ -131,7 +116,7 @@ public class BloqueosService {
                 for(int i=0;i<coordenadas.length;i+=2){
                     int x = Integer.parseInt(coordenadas[i].trim());
                     int y = Integer.parseInt(coordenadas[i+1].trim());
-                    Ubicacion ubi = new Ubicacion(x, y);
+                    Ubicacion ubi = Ubicacion.of(x, y);
                     // Agregar la ubicación a la lista de tramos
                     tramos.add(ubi);
                 }
@@ -0,0 +1,225 @@
+package pucp.edu.glp.glpdp1.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Lectura en paralelo de archivos de texto grandes (pedidos, bloqueos).
+ * El archivo se divide en bloques que terminan en un salto de línea; cada bloque se
+ * parsea en el pool común de fork-join como un flujo que lee su rango con lecturas
+ * posicionales del FileChannel (un buffer pequeño por bloque, sin copiar el bloque
+ * completo en memoria) y los resultados se unen respetando el orden de las líneas.
+ * Los archivos pequeños se parsean como un único bloque en el hilo que llama.
+ */
+final class LectorArchivoParalelo {
+
+    /**
+     * Parser de un bloque de líneas completas
+     */
+    @FunctionalInterface
+    interface ParserBloque<T> {
+        /**
+         * @param bloque Flujo con los bytes del bloque (solo líneas completas, la última puede no
+         *               tener salto de línea); lo cierra el lector
+         */
+        List<T> parsear(InputStream bloque) throws IOException;
+    }
+
+    // Por debajo de este tamaño no compensa repartir el archivo entre hilos
+    private static final long TAMANIO_MINIMO_BLOQUE = 4L << 20;
+    // Límite por bloque para que los bloques de archivos muy grandes se repartan entre hilos
+    private static final long TAMANIO_MAXIMO_BLOQUE = 256L << 20;
+    // Bloques por hilo del pool, para repartir mejor la carga entre hilos
+    private static final int BLOQUES_POR_HILO = 4;
+    private static final int TAMANIO_BUSQUEDA = 8192;
+
+    private LectorArchivoParalelo() {
+    }
+
+    /**
+     * Parsea el archivo completo
+     * @param ruta Ruta del archivo
+     * @param parser Parser aplicado a cada bloque
+     * @return Elementos de todos los bloques, en el orden del archivo
+     */
+    static <T> List<T> leer(Path ruta, ParserBloque<T> parser) throws IOException {
+        return leer(ruta, parser, -1);
+    }
+
+    /**
+     * Parsea el archivo completo con bloques del tamaño indicado
+     * @param tamanioBloque Tamaño nominal de cada bloque en bytes, o -1 para elegirlo según el
+     *                      tamaño del archivo y el número de hilos
+     */
+    static <T> List<T> leer(Path ruta, ParserBloque<T> parser, long tamanioBloque) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            long[] limites = calcularLimites(canal, tamanio,
+                    tamanioBloque > 0 ? tamanioBloque : tamanioBloque(tamanio));
+            int numeroBloques = limites.length - 1;
+
+            if (numeroBloques <= 1) {
+                return parsearBloque(canal, 0, tamanio, parser);
+            }
+
+            List<ForkJoinTask<List<T>>> tareas = new ArrayList<>(numeroBloques);
+            for (int i = 0; i < numeroBloques; i++) {
+                long inicio = limites[i];
+                long fin = limites[i + 1];
+                tareas.add(ForkJoinPool.commonPool().submit(() -> parsearBloque(canal, inicio, fin, parser)));
+            }
+
+            // Unir los resultados en orden; el canal debe seguir abierto hasta que terminen todas las tareas
+            List<List<T>> parciales = new ArrayList<>(numeroBloques);
+            int total = 0;
+            try {
+                for (ForkJoinTask<List<T>> tarea : tareas) {
+                    List<T> parcial = tarea.get();
+                    parciales.add(parcial);
+                    total += parcial.size();
+                }
+            } catch (InterruptedException e) {
+                cancelar(tareas);
+                Thread.currentThread().interrupt();
+                throw new IOException("Lectura interrumpida: " + ruta, e);
+            } catch (ExecutionException e) {
+                cancelar(tareas);
+                if (e.getCause() instanceof IOException causa) {
+                    throw causa;
+                }
+                throw new IOException("Error al leer " + ruta + ": " + e.getCause().getMessage(), e.getCause());
+            }
+
+            List<T> resultado = new ArrayList<>(total);
+            for (List<T> parcial : parciales) {
+                resultado.addAll(parcial);
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Tamaño de bloque para repartir un archivo entre los hilos del pool común
+     */
+    private static long tamanioBloque(long tamanio) {
+        int hilos = ForkJoinPool.getCommonPoolParallelism();
+        long tamanioBloque = Math.max(TAMANIO_MINIMO_BLOQUE, tamanio / ((long) hilos * BLOQUES_POR_HILO));
+        return Math.min(tamanioBloque, TAMANIO_MAXIMO_BLOQUE);
+    }
+
+    /**
+     * Divide el archivo en bloques de tamaño similar, desplazando cada límite
+     * hasta el byte siguiente al próximo salto de línea
+     * @return Posiciones de inicio de cada bloque, más el tamaño del archivo al final
+     */
+    static long[] calcularLimites(FileChannel canal, long tamanio, long tamanioBloque) throws IOException {
+
+        List<Long> limites = new ArrayList<>();
+        limites.add(0L);
+        ByteBuffer busqueda = ByteBuffer.allocate(TAMANIO_BUSQUEDA);
+        long anterior = 0;
+        while (tamanio - anterior > tamanioBloque) {
+            long limite = buscarFinDeLinea(canal, anterior + tamanioBloque, tamanio, busqueda);
+            if (limite >= tamanio) {
+                break;
+            }
+            limites.add(limite);
+            anterior = limite;
+        }
+        limites.add(tamanio);
+
+        long[] resultado = new long[limites.size()];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = limites.get(i);
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Posición siguiente al primer '\n' a partir de desde, o el tamaño del archivo si no hay más
+     */
+    private static long buscarFinDeLinea(FileChannel canal, long desde, long tamanio, ByteBuffer busqueda)
+            throws IOException {
+        long posicion = desde;
+        while (posicion < tamanio) {
+            busqueda.clear();
+            int leidos = canal.read(busqueda, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            byte[] datos = busqueda.array();
+            for (int i = 0; i < leidos; i++) {
+                if (datos[i] == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamanio;
+    }
+
+    private static <T> List<T> parsearBloque(FileChannel canal, long inicio, long fin, ParserBloque<T> parser)
+            throws IOException {
+        try (InputStream bloque = new FlujoRegion(canal, inicio, fin)) {
+            return parser.parsear(bloque);
+        }
+    }
+
+    /**
+     * Flujo sobre el rango [inicio, fin) de un canal. Usa lecturas posicionales, que no mueven
+     * la posición del canal, por lo que varios bloques del mismo canal se leen en paralelo.
+     * No cierra el canal.
+     */
+    private static final class FlujoRegion extends InputStream {
+
+        private final FileChannel canal;
+        private final long fin;
+        private long posicion;
+
+        FlujoRegion(FileChannel canal, long inicio, long fin) {
+            this.canal = canal;
+            this.posicion = inicio;
+            this.fin = fin;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] uno = new byte[1];
+            return read(uno, 0, 1) < 0 ? -1 : uno[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int largo) throws IOException {
+            if (posicion >= fin) {
+                return -1;
+            }
+            if (largo == 0) {
+                return 0;
+            }
+            int maximo = (int) Math.min(largo, fin - posicion);
+            int leidos = canal.read(ByteBuffer.wrap(destino, desde, maximo), posicion);
+            if (leidos < 0) {
+                // El archivo se acortó mientras se leía
+                posicion = fin;
+                return -1;
+            }
+            posicion += leidos;
+            return leidos;
+        }
+    }
+
+    private static void cancelar(List<? extends ForkJoinTask<?>> tareas) {
+        for (ForkJoinTask<?> tarea : tareas) {
+            tarea.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package pucp.edu.glp.glpdp1.service;
+
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lector de archivos de pedidos en una sola pasada sobre los bytes de un InputStream.
+ * Reconoce la gramática ##d##h##m:posX,posY,c-idCliente,##m3,##h con un analizador
+ * escrito a mano (sin expresiones regulares ni un String por campo); solo crea el
+ * String del identificador del cliente, que es parte del Pedido.
+ * Acepta lo mismo que la expresión regular anterior con Matcher.find(): el patrón puede
+ * empezar en cualquier parte de la línea (se ignoran BOM, espacios u otro texto previo y
+ * lo que siga al patrón), los números no tienen límite de dígitos en el formato y las
+ * líneas terminan en \n, \r\n o \r. Las líneas que no respetan el formato se ignoran.
+ * A diferencia del parser anterior, que lanzaba NumberFormatException, una línea con un
+ * campo entero que no cabe en un int también se ignora.
+ */
+final class LectorPedidos {
+
+    private static final int TAMANIO_BUFFER = 1 << 16;
+    // Máximo de dígitos del volumen que se acumulan en un long (más allá se usa Double.parseDouble)
+    private static final int MAX_DIGITOS_LONG = 18;
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+
+    // Asumimos una fecha base y sumamos días, horas y minutos
+    private static final LocalDateTime FECHA_BASE = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+    private final InputStream entrada;
+    private byte[] buffer;
+    private int inicio;  // Inicio de la línea actual en el buffer
+    private int limite;  // Bytes válidos en el buffer
+    private boolean finEntrada;
+
+    // Posición de lectura y resultado del último número leído dentro de la línea actual
+    private int pos;
+    private int finLinea;
+    private int numero;
+    private double volumen;
+
+    LectorPedidos(InputStream entrada) {
+        this.entrada = entrada;
+        this.buffer = new byte[TAMANIO_BUFFER];
+    }
+
+    /**
+     * Lee todos los pedidos de la entrada (no la cierra)
+     */
+    List<Pedido> leerTodos() throws IOException {
+        List<Pedido> pedidos = new ArrayList<>();
+        while (siguienteLinea()) {
+            Pedido pedido = parsearLinea();
+            if (pedido != null) {
+                pedidos.add(pedido);
+            }
+        }
+        return pedidos;
+    }
+
+    /**
+     * Ubica la siguiente línea completa en [pos, finLinea) leyendo más datos si hace falta
+     * @return false si no quedan líneas
+     */
+    private boolean siguienteLinea() throws IOException {
+        int busqueda = inicio;
+        while (true) {
+            for (int i = busqueda; i < limite; i++) {
+                // Un \r\n deja una línea vacía entre ambos, que no contiene ningún pedido
+                if (buffer[i] == '\n' || buffer[i] == '\r') {
+                    pos = inicio;
+                    finLinea = i;
+                    inicio = i + 1;
+                    return true;
+                }
+            }
+            if (finEntrada) {
+                if (inicio < limite) {
+                    // Última línea sin salto de línea final
+                    pos = inicio;
+                    finLinea = limite;
+                    inicio = limite;
+                    return true;
+                }
+                return false;
+            }
+            busqueda = limite - inicio;
+            rellenar();
+        }
+    }
+
+    /**
+     * Descarta las líneas ya procesadas y lee más bytes (agranda el buffer si una línea no cabe)
+     */
+    private void rellenar() throws IOException {
+        int pendientes = limite - inicio;
+        if (inicio > 0) {
+            System.arraycopy(buffer, inicio, buffer, 0, pendientes);
+        } else if (pendientes == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        inicio = 0;
+        limite = pendientes;
+
+        int leidos = entrada.read(buffer, limite, buffer.length - limite);
+        if (leidos < 0) {
+            finEntrada = true;
+        } else {
+            limite += leidos;
+        }
+    }
+
+    /**
+     * Parsea la línea actual
+     * @return Pedido de la primera coincidencia del formato en la línea, o null si no hay ninguna
+     */
+    private Pedido parsearLinea() {
+        int inicioLinea = pos;
+        for (int desde = inicioLinea; desde < finLinea; desde++) {
+            // Como con Matcher.find(), el patrón se busca desde cada secuencia de dígitos de la
+            // línea (empezar a la mitad de una secuencia fallaría en el mismo punto)
+            if (esDigito(desde) && (desde == inicioLinea || !esDigito(desde - 1))) {
+                pos = desde;
+                Pedido pedido = parsearDesdePosicion();
+                if (pedido != null) {
+                    return pedido;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parsea un pedido que empieza en la posición actual
+     * @return Pedido leído, o null si el formato no coincide desde esta posición
+     */
+    private Pedido parsearDesdePosicion() {
+        if (!leerNumero() || !esperar('d')) return null;
+        int dia = numero;
+        if (!leerNumero() || !esperar('h')) return null;
+        int hora = numero;
+        if (!leerNumero() || !esperar('m') || !esperar(':')) return null;
+        int minuto = numero;
+        if (!leerNumero() || !esperar(',')) return null;
+        int posX = numero;
+        if (!leerNumero() || !esperar(',')) return null;
+        int posY = numero;
+
+        // Identificador del cliente: "c-" seguido de dígitos
+        int inicioCliente = pos;
+        if (!esperar('c') || !esperar('-') || !saltarDigitos()) return null;
+        int finCliente = pos;
+        if (!esperar(',')) return null;
+
+        if (!leerVolumen() || !esperar('m') || !esperar('3') || !esperar(',')) return null;
+        if (!leerNumero() || !esperar('h')) return null;
+        int horasLimite = numero;
+
+        // Crear el objeto Pedido
+        Pedido pedido = new Pedido();
+        pedido.setDestino(Ubicacion.of(posX, posY));
+
+        LocalDateTime fechaRegistro = FECHA_BASE.plusMinutes(
+                (long) dia * MINUTOS_POR_DIA + (long) hora * 60 + minuto);
+        pedido.setFechaRegistro(fechaRegistro);
+
+        pedido.setIdCliente(new String(buffer, inicioCliente, finCliente - inicioCliente, StandardCharsets.ISO_8859_1));
+        pedido.setVolumen(volumen);
+        pedido.setHorasLimite(horasLimite);
+
+        // Calcular la fecha límite
+        pedido.setFechaLimite(fechaRegistro.plusHours(horasLimite));
+
+        // Asignar ID - en un sistema real, esto podría venir de una base de datos
+        pedido.setIdPedido(Math.abs(pedido.hashCode()));
+
+        return pedido;
+    }
+
+    /**
+     * Lee un número decimal sin signo en la posición actual y lo deja en {@code numero}
+     * @return false si no hay dígitos o el número no cabe en un int
+     */
+    private boolean leerNumero() {
+        long valor = 0;
+        int inicioDigitos = pos;
+        while (pos < finLinea && esDigito(pos)) {
+            valor = valor * 10 + (buffer[pos] - '0');
+            if (valor > Integer.MAX_VALUE) {
+                return false;
+            }
+            pos++;
+        }
+        numero = (int) valor;
+        return pos > inicioDigitos;
+    }
+
+    /**
+     * Lee el volumen en la posición actual y lo deja en {@code volumen}, con el mismo valor
+     * que Double.parseDouble sobre sus dígitos
+     */
+    private boolean leerVolumen() {
+        int inicioDigitos = pos;
+        long valor = 0;
+        while (pos < finLinea && esDigito(pos)) {
+            valor = valor * 10 + (buffer[pos] - '0');
+            pos++;
+            if (pos - inicioDigitos > MAX_DIGITOS_LONG) {
+                saltarDigitos();
+                volumen = Double.parseDouble(
+                        new String(buffer, inicioDigitos, pos - inicioDigitos, StandardCharsets.ISO_8859_1));
+                return true;
+            }
+        }
+        volumen = valor;
+        return pos > inicioDigitos;
+    }
+
+    private boolean esDigito(int posicion) {
+        return buffer[posicion] >= '0' && buffer[posicion] <= '9';
+    }
+
+    /**
+     * Avanza sobre una secuencia de dígitos de cualquier longitud
+     */
+    private boolean saltarDigitos() {
+        int inicioDigitos = pos;
+        while (pos < finLinea && buffer[pos] >= '0' && buffer[pos] <= '9') {
+            pos++;
+        }
+        return pos > inicioDigitos;
+    }
+
+    private boolean esperar(char caracter) {
+        if (pos < finLinea && buffer[pos] == caracter) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+}
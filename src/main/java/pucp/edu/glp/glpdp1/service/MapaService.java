@@ -8,6 +8,7 @@ import pucp.edu.glp.glpdp1.domain.Averia;
 import pucp.edu.glp.glpdp1.service.AveriaService;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Service
@@ -49,6 +50,18 @@ public class MapaService {
         }
     }
 
+    /**
+     * Carga pedidos leyendo un flujo (p. ej. un archivo subido) y los asigna al mapa
+     */
+    public void cargarPedidosEnMapaDesdeStream(Mapa mapa, InputStream entrada) {
+        try {
+            List<Pedido> pedidos = pedidoService.cargarPedidosDesdeStream(entrada);
+            mapa.setPedidos(pedidos);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al cargar pedidos desde el flujo de datos", e);
+        }
+    }
+
     public void cargarBloqueosEnMapa(Mapa mapa,String rutaArchivo){
         try{
             List<Bloqueo> bloqueos = bloqueosService.cargarBloqueosDesdeArchivo(rutaArchivo);
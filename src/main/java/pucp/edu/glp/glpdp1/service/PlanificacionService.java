@@ -0,0 +1,368 @@
+package pucp.edu.glp.glpdp1.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOAlgorithm;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOParameters;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOSolution;
+import pucp.edu.glp.glpdp1.algorithm.aco.ObservadorProgreso;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.ResultadoSimulacion;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.SimuladorEventos;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Rutas;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ejecuta planificaciones ACO como trabajos en segundo plano, para no ocupar un hilo
+ * del servidor HTTP durante toda la ejecución.
+ * Los trabajos corren en un pool acotado con una cola de capacidad fija; si la cola está
+ * llena, enviar un trabajo lanza RejectedExecutionException (la API responde 429).
+ * Cada trabajo planifica sobre su propia copia de la flota, porque el algoritmo cambia el
+ * estado de los camiones y otras planificaciones pueden estar usando los mismos.
+ * Las simulaciones también son trabajos ({@link #enviarSimulacion}) y usan el mismo pool,
+ * para que el número de ejecuciones simultáneas siga acotado.
+ * Los trabajos terminados se conservan para consultar su resultado hasta superar
+ * el máximo configurado; entonces se descartan los más antiguos.
+ * Los clientes pueden suscribirse a un trabajo por server-sent events para recibir cada
+ * mejor solución a medida que el algoritmo la encuentra. Los eventos se envían desde un
+ * hilo propio, de modo que un cliente lento no retrasa al algoritmo.
+ */
+@Service
+public class PlanificacionService {
+
+    private static final Logger logger = Logger.getLogger(PlanificacionService.class.getName());
+
+    private final ThreadPoolExecutor ejecutor;
+    private final int maxTrabajosTerminados;
+    private final Map<String, TrabajoPlanificacion> trabajos = new ConcurrentHashMap<>();
+
+    // Un solo hilo para los eventos: se envían en el orden en que se generan
+    private final ExecutorService notificador;
+    private final long timeoutEventosMs;
+    private final Map<String, List<SseEmitter>> suscriptores = new ConcurrentHashMap<>();
+
+    /**
+     * @param hilos Planificaciones simultáneas
+     * @param capacidadCola Trabajos que pueden esperar en cola
+     * @param maxTrabajosTerminados Trabajos terminados que se conservan para consulta
+     * @param timeoutEventosMs Tiempo máximo de una suscripción a eventos
+     */
+    public PlanificacionService(@Value("${glp.planificacion.hilos:1}") int hilos,
+                                @Value("${glp.planificacion.capacidad-cola:4}") int capacidadCola,
+                                @Value("${glp.planificacion.max-trabajos-terminados:50}") int maxTrabajosTerminados,
+                                @Value("${glp.planificacion.timeout-eventos-ms:600000}") long timeoutEventosMs) {
+        AtomicInteger contador = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "planificacion-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxTrabajosTerminados = maxTrabajosTerminados;
+        this.notificador = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "planificacion-eventos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.timeoutEventosMs = timeoutEventosMs;
+    }
+
+    /**
+     * Encola una planificación
+     * @param mapa Mapa (ya filtrado) sobre el que se planifica; su flota no se modifica
+     * @param parametros Parámetros del algoritmo
+     * @param escenario Nombre del escenario, solo informativo
+     * @param alCompletar Se invoca desde el hilo del trabajo con las rutas cuando termina
+     *                    correctamente (puede ser null)
+     * @return Trabajo creado, en estado EN_COLA
+     * @throws RejectedExecutionException si la cola de trabajos está llena
+     */
+    public TrabajoPlanificacion enviar(Mapa mapa, ACOParameters parametros, String escenario,
+                                       Consumer<List<Rutas>> alCompletar) {
+        descartarTrabajosAntiguos();
+
+        TrabajoPlanificacion trabajo = new TrabajoPlanificacion(
+                UUID.randomUUID().toString(), escenario, parametros.getNumeroIteraciones());
+        trabajos.put(trabajo.getId(), trabajo);
+        Mapa mapaTrabajo = mapa.copiaOperativa();
+        encolar(trabajo, t -> planificar(t, mapaTrabajo, parametros, alCompletar));
+        logger.info("Planificación " + trabajo.getId() + " encolada (escenario " + escenario + ")");
+        return trabajo;
+    }
+
+    /**
+     * Encola una simulación como trabajo: se consulta, cancela y obtiene su resultado
+     * (un ResultadoSimulacion) igual que una planificación
+     * @param simulador Simulador ya preparado, con su propia copia de la flota
+     * @param escenario Nombre del escenario, solo informativo
+     * @param inicio Inicio de la simulación
+     * @param fin Fin de la simulación
+     * @return Trabajo creado, en estado EN_COLA
+     * @throws RejectedExecutionException si la cola de trabajos está llena
+     */
+    public TrabajoPlanificacion enviarSimulacion(SimuladorEventos simulador, String escenario,
+                                                 LocalDateTime inicio, LocalDateTime fin) {
+        descartarTrabajosAntiguos();
+
+        TrabajoPlanificacion trabajo = new TrabajoPlanificacion(UUID.randomUUID().toString(), escenario, 0);
+        trabajos.put(trabajo.getId(), trabajo);
+        encolar(trabajo, t -> simular(t, simulador, inicio, fin));
+        logger.info("Simulación " + trabajo.getId() + " encolada (escenario " + escenario
+                + ", de " + inicio + " a " + fin + ")");
+        return trabajo;
+    }
+
+    /**
+     * @return Trabajo con ese id, o null si no existe o ya fue descartado
+     */
+    public TrabajoPlanificacion obtener(String id) {
+        return trabajos.get(id);
+    }
+
+    /**
+     * Solicita cancelar un trabajo
+     * @return Trabajo, o null si no existe
+     */
+    public TrabajoPlanificacion cancelar(String id) {
+        TrabajoPlanificacion trabajo = trabajos.get(id);
+        if (trabajo != null && trabajo.cancelar()) {
+            logger.info("Cancelación solicitada para la planificación " + id);
+            if (trabajo.estaTerminado()) {
+                publicarFin(trabajo); // Estaba en cola: no llegará a ejecutarse
+            }
+        }
+        return trabajo;
+    }
+
+    /**
+     * Suscribe un cliente a los eventos de un trabajo:
+     * "estado" al suscribirse, "mejora" con el resumen y las rutas de cada nueva mejor
+     * solución (la actual, si ya hay una, se envía al suscribirse) y "fin" con el
+     * resumen final, tras el cual se cierra la conexión.
+     * @return Emisor de eventos, o null si el trabajo no existe
+     */
+    public SseEmitter suscribir(String id) {
+        TrabajoPlanificacion trabajo = trabajos.get(id);
+        if (trabajo == null) {
+            return null;
+        }
+        SseEmitter emisor = new SseEmitter(timeoutEventosMs);
+        // El registro pasa por el hilo de eventos para no perder un "fin" concurrente
+        notificar(() -> registrarSuscriptor(trabajo, emisor));
+        return emisor;
+    }
+
+    private void registrarSuscriptor(TrabajoPlanificacion trabajo, SseEmitter emisor) {
+        if (trabajo.estaTerminado()) {
+            if (enviar(emisor, "fin", trabajo.resumen())) {
+                emisor.complete();
+            }
+            return;
+        }
+        List<SseEmitter> lista = suscriptores.computeIfAbsent(trabajo.getId(), clave -> new CopyOnWriteArrayList<>());
+        lista.add(emisor);
+        Runnable quitar = () -> lista.remove(emisor);
+        emisor.onCompletion(quitar);
+        emisor.onTimeout(quitar);
+        emisor.onError(error -> quitar.run());
+
+        if (!enviar(emisor, "estado", trabajo.resumen())) {
+            lista.remove(emisor);
+            return;
+        }
+        List<Rutas> mejoresRutas = trabajo.getMejoresRutas();
+        if (mejoresRutas != null && !enviar(emisor, "mejora", eventoMejora(trabajo, mejoresRutas))) {
+            lista.remove(emisor);
+        }
+    }
+
+    private void publicarMejora(TrabajoPlanificacion trabajo, List<Rutas> rutas) {
+        notificar(() -> {
+            List<SseEmitter> lista = suscriptores.get(trabajo.getId());
+            if (lista == null || lista.isEmpty()) {
+                return;
+            }
+            Map<String, Object> evento = eventoMejora(trabajo, rutas);
+            for (SseEmitter emisor : lista) {
+                if (!enviar(emisor, "mejora", evento)) {
+                    lista.remove(emisor);
+                }
+            }
+        });
+    }
+
+    private void publicarFin(TrabajoPlanificacion trabajo) {
+        notificar(() -> {
+            List<SseEmitter> lista = suscriptores.remove(trabajo.getId());
+            if (lista == null) {
+                return;
+            }
+            Map<String, Object> resumen = trabajo.resumen();
+            for (SseEmitter emisor : lista) {
+                if (enviar(emisor, "fin", resumen)) {
+                    emisor.complete();
+                }
+            }
+        });
+    }
+
+    private void notificar(Runnable tarea) {
+        try {
+            notificador.execute(tarea);
+        } catch (RejectedExecutionException e) {
+            // El servicio se está deteniendo: los suscriptores ya fueron cerrados
+        }
+    }
+
+    private static Map<String, Object> eventoMejora(TrabajoPlanificacion trabajo, List<Rutas> rutas) {
+        Map<String, Object> evento = trabajo.resumen();
+        evento.put("rutas", rutas);
+        return evento;
+    }
+
+    /**
+     * Envía un evento; si el cliente se desconectó cierra el emisor con error
+     * @return false si no se pudo enviar
+     */
+    private static boolean enviar(SseEmitter emisor, String nombre, Object datos) {
+        try {
+            emisor.send(SseEmitter.event().name(nombre).data(datos));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emisor.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void encolar(TrabajoPlanificacion trabajo, Function<TrabajoPlanificacion, Object> tarea) {
+        try {
+            ejecutor.execute(() -> ejecutar(trabajo, tarea));
+        } catch (RejectedExecutionException e) {
+            trabajos.remove(trabajo.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * Ejecuta un trabajo en el hilo del pool y registra cómo terminó
+     * @param tarea Inicia el trabajo con {@link TrabajoPlanificacion#iniciar} y devuelve su
+     *              resultado, o null si fue cancelado antes de iniciarse
+     */
+    private void ejecutar(TrabajoPlanificacion trabajo, Function<TrabajoPlanificacion, Object> tarea) {
+        if (trabajo.estaTerminado()) {
+            return; // Cancelado mientras estaba en cola
+        }
+        try {
+            Object resultado = tarea.apply(trabajo);
+            if (resultado == null) {
+                return;
+            }
+            trabajo.completar(resultado);
+            logger.info("Trabajo " + trabajo.getId() + " completado");
+        } catch (CancellationException e) {
+            trabajo.marcarCancelado();
+            logger.info("Trabajo " + trabajo.getId() + " cancelado");
+        } catch (RuntimeException e) {
+            trabajo.fallar(e);
+            logger.log(Level.WARNING, "Error en el trabajo " + trabajo.getId(), e);
+        } catch (Error e) {
+            trabajo.fallar(e);
+            throw e;
+        } finally {
+            publicarFin(trabajo);
+        }
+    }
+
+    private List<Rutas> planificar(TrabajoPlanificacion trabajo, Mapa mapa, ACOParameters parametros,
+                                   Consumer<List<Rutas>> alCompletar) {
+        ACOAlgorithm algoritmo = new ACOAlgorithm(mapa, parametros);
+        algoritmo.setObservadorProgreso(new ObservadorProgreso() {
+            @Override
+            public void iteracionCompletada(int iteracion, int totalIteraciones, ACOSolution mejorSolucion) {
+                trabajo.registrarProgreso(iteracion, totalIteraciones, mejorSolucion);
+            }
+
+            @Override
+            public void mejoraEncontrada(int iteracion, ACOSolution mejorSolucion, List<Rutas> rutas) {
+                trabajo.registrarMejora(iteracion, rutas);
+                publicarMejora(trabajo, rutas);
+            }
+        });
+        if (!trabajo.iniciar(algoritmo::cancelar)) {
+            return null;
+        }
+
+        List<Rutas> rutas = algoritmo.ejecutar();
+
+        if (alCompletar != null) {
+            alCompletar.accept(rutas);
+        }
+        logger.info("Planificación " + trabajo.getId() + " terminada. Total rutas: " + rutas.size());
+        return rutas;
+    }
+
+    private ResultadoSimulacion simular(TrabajoPlanificacion trabajo, SimuladorEventos simulador,
+                                        LocalDateTime inicio, LocalDateTime fin) {
+        if (!trabajo.iniciar(simulador::cancelar)) {
+            return null;
+        }
+        return simulador.simular(inicio, fin);
+    }
+
+    /**
+     * Conserva como máximo maxTrabajosTerminados trabajos terminados (los más recientes)
+     */
+    private void descartarTrabajosAntiguos() {
+        List<TrabajoPlanificacion> terminados = new ArrayList<>();
+        for (TrabajoPlanificacion trabajo : trabajos.values()) {
+            if (trabajo.estaTerminado()) {
+                terminados.add(trabajo);
+            }
+        }
+        int sobrantes = terminados.size() - maxTrabajosTerminados;
+        if (sobrantes <= 0) {
+            return;
+        }
+        terminados.sort(Comparator.comparing(TrabajoPlanificacion::getFechaFin));
+        for (int i = 0; i < sobrantes; i++) {
+            trabajos.remove(terminados.get(i).getId());
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        for (TrabajoPlanificacion trabajo : trabajos.values()) {
+            trabajo.cancelar();
+        }
+        ejecutor.shutdownNow();
+        notificador.shutdownNow();
+        for (List<SseEmitter> lista : suscriptores.values()) {
+            lista.forEach(SseEmitter::complete);
+        }
+    }
+}
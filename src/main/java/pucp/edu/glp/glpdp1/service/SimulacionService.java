@@ -0,0 +1,81 @@
+package pucp.edu.glp.glpdp1.service;
+
+import org.springframework.stereotype.Service;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOParameters;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.PlanificadorACO;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.ResultadoSimulacion;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.SimuladorEventos;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+
+import java.time.LocalDateTime;
+import java.util.logging.Logger;
+
+/**
+ * Ejecuta los escenarios semanal y de colapso con el simulador de eventos discretos
+ */
+@Service
+public class SimulacionService {
+
+    private static final Logger logger = Logger.getLogger(SimulacionService.class.getName());
+
+    // Cada planificación es una corrida ACO corta con presupuesto de tiempo
+    private static final int ITERACIONES_POR_PLANIFICACION = 10;
+    private static final int HORMIGAS_POR_PLANIFICACION = 10;
+    private static final long PRESUPUESTO_PLANIFICACION_MS = 2000;
+
+    /**
+     * Simula sobre una copia de la flota y los almacenes: el mapa recibido no se modifica
+     * @param mapa Mapa con pedidos, bloqueos, averías y flota
+     * @param escenario "semana" o "colapso" (en colapso no hay averías y se detiene al primer vencimiento)
+     * @param inicio Inicio de la simulación
+     * @param fin Fin de la simulación
+     * @return Resumen de la simulación, o null si el escenario no es válido
+     */
+    public ResultadoSimulacion simular(Mapa mapa, String escenario, LocalDateTime inicio, LocalDateTime fin) {
+        SimuladorEventos simulador = crearSimulador(mapa, escenario);
+        if (simulador == null) {
+            return null;
+        }
+        logger.info("Iniciando simulación de eventos (" + escenario + ") de " + inicio + " a " + fin);
+        return simulador.simular(inicio, fin);
+    }
+
+    /**
+     * Prepara el simulador de un escenario sobre una copia de la flota y los almacenes
+     * tomada en este momento, para ejecutarlo después (p. ej. como trabajo en segundo plano)
+     * @param mapa Mapa con pedidos, bloqueos, averías y flota; no se modifica
+     * @param escenario "semana" o "colapso"
+     * @return Simulador listo para {@link SimuladorEventos#simular}, o null si el escenario no es válido
+     */
+    public SimuladorEventos crearSimulador(Mapa mapa, String escenario) {
+        boolean colapso;
+        switch (escenario.toLowerCase()) {
+            case "semana":
+            case "semanal":
+                colapso = false;
+                break;
+            case "colapso":
+                colapso = true;
+                break;
+            default:
+                return null;
+        }
+
+        // El simulador cambia el estado de los camiones y recarga los tanques intermedios
+        Mapa mapaSimulacion = mapa.copiaOperativa();
+        ACOParameters parametrosSimulacion = new ACOParameters();
+        PlanificadorACO planificador = new PlanificadorACO(mapaSimulacion, SimulacionService::parametrosPlanificacion);
+        SimuladorEventos simulador = new SimuladorEventos(mapaSimulacion, parametrosSimulacion, planificador);
+        simulador.setAplicarAverias(!colapso);
+        simulador.setDetenerEnColapso(colapso);
+        return simulador;
+    }
+
+    private static ACOParameters parametrosPlanificacion() {
+        ACOParameters params = ACOParameters.getConfiguracionRapida();
+        params.setNumeroIteraciones(ITERACIONES_POR_PLANIFICACION);
+        params.setNumeroHormigas(HORMIGAS_POR_PLANIFICACION);
+        params.setPresupuestoTiempoMs(PRESUPUESTO_PLANIFICACION_MS);
+        return params;
+    }
+}
@@ -0,0 +1,154 @@
+package pucp.edu.glp.glpdp1.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOSolution;
+import pucp.edu.glp.glpdp1.domain.Rutas;
+import pucp.edu.glp.glpdp1.domain.enums.EstadoTrabajo;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trabajo de planificación de rutas o de simulación ejecutado en segundo plano por
+ * PlanificacionService.
+ * El hilo del algoritmo actualiza el progreso y los hilos HTTP lo consultan, por eso
+ * los campos mutables son volatile y los cambios de estado están sincronizados.
+ */
+@Getter
+public class TrabajoPlanificacion {
+
+    private final String id;
+    private final String escenario;
+    private final LocalDateTime fechaCreacion;
+
+    private volatile EstadoTrabajo estado;
+    private volatile LocalDateTime fechaInicio;
+    private volatile LocalDateTime fechaFin;
+    private volatile int iteracion;
+    private volatile int totalIteraciones;
+    private volatile double mejorCalidad;
+    private volatile int pedidosAsignados;
+    private volatile String mensajeError;
+    // Rutas (planificación) o ResultadoSimulacion (simulación)
+    private volatile Object resultado;
+    // Rutas de la mejor solución encontrada hasta ahora y la iteración en que se encontró
+    private volatile List<Rutas> mejoresRutas;
+    private volatile int iteracionMejora;
+
+    // Detiene la ejecución en curso (null mientras el trabajo está en cola)
+    @Getter(AccessLevel.NONE)
+    private Runnable cancelacion;
+
+    public TrabajoPlanificacion(String id, String escenario, int totalIteraciones) {
+        this.id = id;
+        this.escenario = escenario;
+        this.totalIteraciones = totalIteraciones;
+        this.fechaCreacion = LocalDateTime.now();
+        this.estado = EstadoTrabajo.EN_COLA;
+    }
+
+    /**
+     * Pasa el trabajo a ejecución
+     * @param cancelacion Detiene la ejecución (p. ej. ACOAlgorithm::cancelar); se invoca desde el hilo que cancela
+     * @return false si el trabajo fue cancelado mientras esperaba en la cola
+     */
+    synchronized boolean iniciar(Runnable cancelacion) {
+        if (estado != EstadoTrabajo.EN_COLA) {
+            return false;
+        }
+        this.cancelacion = cancelacion;
+        this.estado = EstadoTrabajo.EN_EJECUCION;
+        this.fechaInicio = LocalDateTime.now();
+        return true;
+    }
+
+    /**
+     * Progreso reportado por el algoritmo al terminar cada iteración
+     */
+    void registrarProgreso(int iteracion, int totalIteraciones, ACOSolution mejorSolucion) {
+        this.iteracion = iteracion;
+        this.totalIteraciones = totalIteraciones;
+        if (mejorSolucion != null) {
+            this.mejorCalidad = mejorSolucion.getCalidad();
+            this.pedidosAsignados = mejorSolucion.getNumeroPedidosAsignados();
+        }
+    }
+
+    /**
+     * Mejor solución global reportada por el algoritmo durante la ejecución
+     */
+    void registrarMejora(int iteracion, List<Rutas> rutas) {
+        this.iteracionMejora = iteracion;
+        this.mejoresRutas = rutas;
+    }
+
+    synchronized void completar(Object resultado) {
+        this.resultado = resultado;
+        terminar(EstadoTrabajo.COMPLETADO);
+    }
+
+    synchronized void fallar(Throwable error) {
+        this.mensajeError = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        terminar(EstadoTrabajo.FALLIDO);
+    }
+
+    synchronized void marcarCancelado() {
+        terminar(EstadoTrabajo.CANCELADO);
+    }
+
+    /**
+     * Solicita la cancelación: si está en cola no llegará a ejecutarse; si está en
+     * ejecución se detiene al inicio de su siguiente iteración o evento
+     * @return false si el trabajo ya había terminado
+     */
+    synchronized boolean cancelar() {
+        if (estado == EstadoTrabajo.EN_COLA) {
+            terminar(EstadoTrabajo.CANCELADO);
+            return true;
+        }
+        if (estado == EstadoTrabajo.EN_EJECUCION) {
+            cancelacion.run();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean estaTerminado() {
+        EstadoTrabajo actual = estado;
+        return actual == EstadoTrabajo.COMPLETADO || actual == EstadoTrabajo.CANCELADO
+                || actual == EstadoTrabajo.FALLIDO;
+    }
+
+    /**
+     * Estado y progreso del trabajo para la API (sin las rutas)
+     */
+    public Map<String, Object> resumen() {
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("id", id);
+        resumen.put("escenario", escenario);
+        resumen.put("estado", estado);
+        resumen.put("iteracion", iteracion);
+        resumen.put("totalIteraciones", totalIteraciones);
+        resumen.put("mejorCalidad", mejorCalidad);
+        resumen.put("pedidosAsignados", pedidosAsignados);
+        resumen.put("iteracionMejora", iteracionMejora);
+        resumen.put("fechaCreacion", fechaCreacion);
+        resumen.put("fechaInicio", fechaInicio);
+        resumen.put("fechaFin", fechaFin);
+        if (mensajeError != null) {
+            resumen.put("error", mensajeError);
+        }
+        return resumen;
+    }
+
+    private void terminar(EstadoTrabajo estadoFinal) {
+        // fechaFin antes que estado: quien ve el estado final ve también la fecha
+        this.fechaFin = LocalDateTime.now();
+        this.estado = estadoFinal;
+        // Liberar el algoritmo o el simulador (grafo, feromonas) en cuanto termina
+        this.cancelacion = null;
+    }
+}
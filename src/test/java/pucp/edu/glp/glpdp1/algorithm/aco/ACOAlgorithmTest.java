@@ -0,0 +1,351 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.algorithm.model.CamionAsignacion;
+import pucp.edu.glp.glpdp1.algorithm.model.Ruta;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.Rutas;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static pucp.edu.glp.glpdp1.algorithm.aco.DatosPruebaACO.INICIO;
+import static pucp.edu.glp.glpdp1.algorithm.aco.DatosPruebaACO.leer;
+import static pucp.edu.glp.glpdp1.algorithm.aco.DatosPruebaACO.mapa;
+import static pucp.edu.glp.glpdp1.algorithm.aco.DatosPruebaACO.parametros;
+
+class ACOAlgorithmTest {
+
+	private static final String PEDIDOS = String.join("\n",
+			"01d00h10m:20,10,c-1,3m3,24h",
+			"01d00h20m:30,15,c-2,6m3,24h",
+			"01d00h30m:35,20,c-3,5m3,24h");
+
+	@Test
+	void recargaDelMismoArchivoConservaAsignacionesEInsertaSoloElNuevo() throws IOException {
+		List<Pedido> cargados = leer(PEDIDOS);
+		Mapa mapa = mapa(cargados);
+		ACOAlgorithm algoritmo = new ACOAlgorithm(mapa, parametros());
+		Camion td = mapa.getFlota().get(0);  // 5 m3
+		Camion ta = mapa.getFlota().get(18); // 25 m3
+		ACOSolution solucion = new ACOSolution();
+		solucion.addAsignacion(asignacion(mapa, td, cargados.get(0)));
+		solucion.addAsignacion(asignacion(mapa, ta, cargados.get(1), cargados.get(2)));
+		algoritmo.setMejorSolucionGlobal(solucion);
+
+		// Se vuelve a subir el archivo con una línea más: todos los objetos Pedido son nuevos
+		List<Pedido> recargados = leer(PEDIDOS + "\n01d01h00m:32,18,c-4,4m3,24h");
+		for (int i = 0; i < cargados.size(); i++) {
+			assertNotSame(cargados.get(i), recargados.get(i));
+		}
+		algoritmo.actualizarPedidos(recargados);
+
+		List<CamionAsignacion> asignaciones = algoritmo.getMejorSolucionGlobal().getAsignaciones();
+		assertEquals(2, asignaciones.size());
+		assertTrue(algoritmo.getMejorSolucionGlobal().getPedidosNoAsignados().isEmpty());
+
+		// Las asignaciones anteriores siguen, ahora con los pedidos recargados
+		assertSame(td, asignaciones.get(0).getCamion());
+		assertEquals(1, asignaciones.get(0).getPedidos().size());
+		assertSame(recargados.get(0), asignaciones.get(0).getPedidos().get(0));
+		assertSame(ta, asignaciones.get(1).getCamion());
+		List<Pedido> pedidosTa = asignaciones.get(1).getPedidos();
+		assertEquals(3, pedidosTa.size());
+		assertTrue(contiene(pedidosTa, recargados.get(1)));
+		assertTrue(contiene(pedidosTa, recargados.get(2)));
+		// El único pedido insertado es el nuevo, en el camión con capacidad
+		assertTrue(contiene(pedidosTa, recargados.get(3)));
+
+		Set<Pedido> vigentes = Collections.newSetFromMap(new IdentityHashMap<>());
+		vigentes.addAll(recargados);
+		int entregas = 0;
+		for (CamionAsignacion a : asignaciones) {
+			for (Ruta ruta : a.getRutas()) {
+				if (ruta.isPuntoEntrega()) {
+					assertTrue(vigentes.contains(ruta.getPedidoEntrega()));
+					entregas++;
+				}
+			}
+		}
+		assertEquals(4, entregas);
+	}
+
+	@Test
+	void retirarQuitaLosPedidosYUneLosTramosVecinos() throws IOException {
+		List<Pedido> pedidos = leer(PEDIDOS + "\n01d01h00m:40,30,c-4,2m3,24h");
+		Mapa mapa = mapa(pedidos);
+		ACOAlgorithm algoritmo = new ACOAlgorithm(mapa, parametros());
+		Camion td = mapa.getFlota().get(0);
+		Camion ta = mapa.getFlota().get(18);
+		ACOSolution solucion = new ACOSolution();
+		solucion.addAsignacion(asignacion(mapa, td, pedidos.get(0)));
+		solucion.addAsignacion(asignacion(mapa, ta, pedidos.get(1), pedidos.get(2), pedidos.get(3)));
+
+		Set<Pedido> retirados = Collections.newSetFromMap(new IdentityHashMap<>());
+		retirados.add(pedidos.get(0));
+		retirados.add(pedidos.get(2));
+		algoritmo.retirarPedidos(solucion, retirados, INICIO);
+
+		// El camión que solo llevaba un pedido retirado deja la solución
+		assertEquals(1, solucion.getAsignaciones().size());
+		CamionAsignacion restante = solucion.getAsignaciones().get(0);
+		assertSame(ta, restante.getCamion());
+		assertEquals(List.of(pedidos.get(1), pedidos.get(3)), restante.getPedidos());
+
+		// central -> p1, p1 -> p3 (tramo unido), p3 -> central
+		List<Ruta> rutas = restante.getRutas();
+		assertEquals(3, rutas.size());
+		Ruta unido = rutas.get(1);
+		assertEquals(pedidos.get(1).getDestino(), unido.getOrigen());
+		assertEquals(pedidos.get(3).getDestino(), unido.getDestino());
+		assertSame(pedidos.get(3), unido.getPedidoEntrega());
+		assertEquals(manhattan(unido.getOrigen(), unido.getDestino()), unido.getDistancia());
+		for (int k = 1; k < rutas.size(); k++) {
+			assertEquals(rutas.get(k - 1).getDestino(), rutas.get(k).getOrigen());
+		}
+	}
+
+	@Test
+	void insertarUsaUnCamionConCapacidad() throws IOException {
+		// El camión TD lleva 5 m3 y está lleno; el pedido nuevo queda junto a su ruta
+		List<Pedido> pedidos = leer(String.join("\n",
+				"01d00h10m:20,10,c-1,5m3,24h",
+				"01d00h20m:60,40,c-2,6m3,24h",
+				"01d01h00m:21,10,c-3,2m3,24h"));
+		Mapa mapa = mapa(pedidos);
+		ACOAlgorithm algoritmo = new ACOAlgorithm(mapa, parametros());
+		Camion td = mapa.getFlota().get(0);
+		Camion ta = mapa.getFlota().get(18);
+		ACOSolution solucion = new ACOSolution();
+		solucion.addAsignacion(asignacion(mapa, td, pedidos.get(0)));
+		solucion.addAsignacion(asignacion(mapa, ta, pedidos.get(1)));
+
+		Pedido nuevo = pedidos.get(2);
+		algoritmo.insertarPedido(solucion, nuevo, INICIO);
+
+		assertEquals(List.of(pedidos.get(0)), solucion.getAsignaciones().get(0).getPedidos());
+		CamionAsignacion conNuevo = solucion.getAsignaciones().get(1);
+		assertSame(ta, conNuevo.getCamion());
+		assertTrue(contiene(conNuevo.getPedidos(), nuevo));
+		assertTrue(solucion.getPedidosNoAsignados().isEmpty());
+
+		// La entrega nueva queda encadenada con los tramos que la rodean
+		List<Ruta> rutas = conNuevo.getRutas();
+		assertEquals(3, rutas.size());
+		int entregasNuevo = 0;
+		for (int k = 0; k < rutas.size(); k++) {
+			if (rutas.get(k).getPedidoEntrega() == nuevo) {
+				entregasNuevo++;
+				assertEquals(nuevo.getDestino(), rutas.get(k).getDestino());
+			}
+			if (k > 0) {
+				assertEquals(rutas.get(k - 1).getDestino(), rutas.get(k).getOrigen());
+			}
+		}
+		assertEquals(1, entregasNuevo);
+
+		// Sin capacidad en ningún camión queda como no asignado
+		Pedido grande = leer("01d02h00m:22,10,c-5,20m3,24h").get(0);
+		algoritmo.insertarPedido(solucion, grande, INICIO);
+		assertEquals(List.of(grande), solucion.getPedidosNoAsignados());
+	}
+
+	@Test
+	void insertarNoParteTramosDeReabastecimientoNiElRegreso() throws IOException {
+		List<Pedido> pedidos = leer(String.join("\n",
+				"01d00h10m:40,40,c-1,5m3,24h",
+				"01d01h00m:26,24,c-2,2m3,24h"));
+		Mapa mapa = mapa(pedidos);
+		ACOAlgorithm algoritmo = new ACOAlgorithm(mapa, parametros());
+		Camion ta = mapa.getFlota().get(18);
+		Pedido asignado = pedidos.get(0);
+		Ubicacion central = Ubicacion.of(12, 8);
+		Ubicacion tanque = Ubicacion.of(42, 42);
+		List<Ruta> rutas = List.of(
+				new Ruta(central, tanque, manhattan(central, tanque), false, true, false, null),
+				new Ruta(tanque, asignado.getDestino(), manhattan(tanque, asignado.getDestino()), true, false, false, asignado),
+				new Ruta(asignado.getDestino(), central, manhattan(asignado.getDestino(), central), false, false, true, null));
+		ACOSolution solucion = new ACOSolution();
+		solucion.addAsignacion(new CamionAsignacion(ta, List.of(asignado), rutas));
+
+		// (26,24) no desvía ni el tramo al tanque ni el regreso, pero solo se parten entregas
+		Pedido nuevo = pedidos.get(1);
+		algoritmo.insertarPedido(solucion, nuevo, INICIO);
+
+		List<Ruta> resultado = solucion.getAsignaciones().get(0).getRutas();
+		assertEquals(4, resultado.size());
+		assertTrue(resultado.get(0).isPuntoReabastecimiento());
+		assertEquals(central, resultado.get(0).getOrigen());
+		assertEquals(tanque, resultado.get(0).getDestino());
+		assertSame(nuevo, resultado.get(1).getPedidoEntrega());
+		assertEquals(tanque, resultado.get(1).getOrigen());
+		assertSame(asignado, resultado.get(2).getPedidoEntrega());
+		assertEquals(nuevo.getDestino(), resultado.get(2).getOrigen());
+		assertTrue(resultado.get(3).isPuntoRegreso());
+		assertEquals(asignado.getDestino(), resultado.get(3).getOrigen());
+	}
+
+	@Test
+	void insertarDescartaElDesvioQueAgotaElCombustible() throws IOException {
+		List<Pedido> pedidos = leer(String.join("\n",
+				"01d00h10m:20,10,c-1,2m3,24h",
+				"01d01h00m:60,45,c-2,2m3,24h"));
+		Mapa mapa = mapa(pedidos);
+		ACOAlgorithm algoritmo = new ACOAlgorithm(mapa, parametros());
+		Camion ta = mapa.getFlota().get(18);
+		Pedido nuevo = pedidos.get(1);
+
+		// 2 galones alcanzan para la ruta actual (20 km) pero no para ir antes a (60,45)
+		ta.setGalones(2);
+		ACOSolution solucion = new ACOSolution();
+		solucion.addAsignacion(asignacion(mapa, ta, pedidos.get(0)));
+		algoritmo.insertarPedido(solucion, nuevo, INICIO);
+		assertEquals(List.of(nuevo), solucion.getPedidosNoAsignados());
+		assertEquals(List.of(pedidos.get(0)), solucion.getAsignaciones().get(0).getPedidos());
+		assertEquals(2, solucion.getAsignaciones().get(0).getRutas().size());
+
+		// Con el tanque lleno el mismo desvío es viable
+		ta.setGalones(25);
+		ACOSolution conTanqueLleno = new ACOSolution();
+		conTanqueLleno.addAsignacion(asignacion(mapa, ta, pedidos.get(0)));
+		algoritmo.insertarPedido(conTanqueLleno, nuevo, INICIO);
+		assertTrue(conTanqueLleno.getPedidosNoAsignados().isEmpty());
+		assertTrue(contiene(conTanqueLleno.getAsignaciones().get(0).getPedidos(), nuevo));
+	}
+
+	@Test
+	void replanificarRechazaIteracionesNoPositivasYNoCambiaLosParametros() throws IOException {
+		ACOParameters parametros = parametros();
+		ACOAlgorithm algoritmo = new ACOAlgorithm(mapa(leer(PEDIDOS)), parametros);
+		algoritmo.ejecutar();
+
+		assertThrows(IllegalArgumentException.class, () -> algoritmo.replanificar(leer(PEDIDOS), 0));
+		assertThrows(IllegalArgumentException.class, () -> algoritmo.replanificar(leer(PEDIDOS), -1));
+
+		algoritmo.replanificar(leer(PEDIDOS), 1);
+		assertTrue(algoritmo.getIteracion() <= 1);
+		assertEquals(3, parametros.getNumeroIteraciones());
+	}
+
+	@Test
+	void mismaSemillaDaLaMismaSolucionConCualquierNumeroDeHilos() throws IOException {
+		String texto = pedidosAleatorios(15, 3);
+
+		String esperada = null;
+		for (int hilos : new int[]{1, 4}) {
+			ACOParameters parametros = new ACOParameters(8, 4, 0.3);
+			parametros.setNumeroHilos(hilos);
+			parametros.setSemilla(11);
+			// Cada ejecución con su propio mapa: el algoritmo cambia el estado de la flota
+			ACOAlgorithm algoritmo = new ACOAlgorithm(mapa(leer(texto)), parametros);
+			algoritmo.ejecutar();
+
+			String firma = firma(algoritmo.getMejorSolucionGlobal());
+			if (esperada == null) {
+				esperada = firma;
+			} else {
+				assertEquals(esperada, firma, "hilos=" + hilos);
+			}
+		}
+	}
+
+	@Test
+	void elPresupuestoDeTiempoAcotaLaEjecucion() throws IOException {
+		long presupuestoMs = 1000;
+		// Margen para la hormiga en curso y los informes finales
+		long margenMs = 750;
+		ACOParameters parametros = new ACOParameters(20, 10_000, 0.3);
+		parametros.setNumeroHilos(2);
+		parametros.setSemilla(5);
+		parametros.setPresupuestoTiempoMs(presupuestoMs);
+		ACOAlgorithm algoritmo = new ACOAlgorithm(mapa(leer(pedidosAleatorios(60, 9))), parametros);
+
+		long inicio = System.currentTimeMillis();
+		List<Rutas> rutas = algoritmo.ejecutar();
+		long transcurrido = System.currentTimeMillis() - inicio;
+
+		assertNotNull(rutas);
+		assertNotNull(algoritmo.getMejorSolucionGlobal());
+		assertTrue(algoritmo.getIteracion() < parametros.getNumeroIteraciones());
+		assertTrue(transcurrido < presupuestoMs + margenMs, "transcurrido=" + transcurrido + " ms");
+	}
+
+	/**
+	 * Descripción de una solución que no depende de la identidad de los objetos Pedido
+	 */
+	private static String firma(ACOSolution solucion) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(solucion.getCalidad()).append('\n');
+		for (CamionAsignacion a : solucion.getAsignaciones()) {
+			sb.append(a.getCamion().getIdC()).append(':');
+			for (Ruta ruta : a.getRutas()) {
+				sb.append(' ').append(ruta.getOrigen()).append("->").append(ruta.getDestino())
+						.append('=').append(ruta.getDistancia());
+				if (ruta.getPedidoEntrega() != null) {
+					sb.append('[').append(ruta.getPedidoEntrega().getIdCliente()).append(']');
+				}
+			}
+			sb.append('\n');
+		}
+		for (Pedido p : solucion.getPedidosNoAsignados()) {
+			sb.append('!').append(p.getIdCliente());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Archivo de pedidos con destinos, volúmenes y plazos aleatorios, cuatro por hora
+	 */
+	private static String pedidosAleatorios(int cantidad, long semilla) {
+		StringBuilder texto = new StringBuilder();
+		Random rnd = new Random(semilla);
+		for (int i = 0; i < cantidad; i++) {
+			texto.append(String.format("01d%02dh%02dm:%d,%d,c-%d,%dm3,%dh%n",
+					i / 4, 15 * (i % 4), rnd.nextInt(71), rnd.nextInt(51), i, 1 + rnd.nextInt(8), 12 + rnd.nextInt(24)));
+		}
+		return texto.toString();
+	}
+
+	/**
+	 * Asignación que sale del almacén central, entrega los pedidos en orden y regresa
+	 */
+	private static CamionAsignacion asignacion(Mapa mapa, Camion camion, Pedido... pedidos) {
+		Ubicacion central = mapa.getAlmacenes().get(0).getUbicacion();
+		List<Ruta> rutas = new ArrayList<>();
+		Ubicacion actual = central;
+		for (Pedido pedido : pedidos) {
+			rutas.add(new Ruta(actual, pedido.getDestino(), manhattan(actual, pedido.getDestino()),
+					true, false, false, pedido));
+			actual = pedido.getDestino();
+		}
+		rutas.add(new Ruta(actual, central, manhattan(actual, central), false, false, true, null));
+		return new CamionAsignacion(camion, List.of(pedidos), rutas);
+	}
+
+	private static double manhattan(Ubicacion a, Ubicacion b) {
+		return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
+	}
+
+	private static boolean contiene(List<Pedido> pedidos, Pedido pedido) {
+		for (Pedido p : pedidos) {
+			if (p == pedido) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
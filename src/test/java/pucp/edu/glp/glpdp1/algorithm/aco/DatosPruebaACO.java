@@ -0,0 +1,53 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.service.PedidoService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos comunes de las pruebas del algoritmo ACO y del servicio que lo ejecuta
+ */
+public final class DatosPruebaACO {
+
+	public static final LocalDateTime INICIO = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+	private DatosPruebaACO() {
+	}
+
+	/**
+	 * Pedidos leídos con el mismo lector que la carga de archivos
+	 */
+	public static List<Pedido> leer(String texto) throws IOException {
+		return new PedidoService().cargarPedidosDesdeBytes(texto.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Corrida corta, en un hilo y con semilla fija
+	 */
+	public static ACOParameters parametros() {
+		ACOParameters parametros = new ACOParameters(4, 3, 0.3);
+		parametros.setNumeroHilos(1);
+		parametros.setSemilla(7);
+		return parametros;
+	}
+
+	/**
+	 * Mapa de 70x50 con los pedidos indicados y la flota con el tanque lleno
+	 */
+	public static Mapa mapa(List<Pedido> pedidos) {
+		Mapa mapa = new Mapa(70, 50);
+		mapa.setFechaInicio(INICIO);
+		mapa.setPedidos(new ArrayList<>(pedidos));
+		for (Camion camion : mapa.getFlota()) {
+			camion.setGalones(25);
+		}
+		return mapa;
+	}
+}
@@ -0,0 +1,133 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.algorithm.model.GrafoRutas;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ListasCandidatosTest {
+
+	private static final int ANCHO = 70;
+	private static final int ALTO = 50;
+	private static final LocalDateTime AHORA = LocalDateTime.of(2025, 4, 1, 12, 0);
+
+	@Test
+	void vecinosCoincidenConFuerzaBruta() {
+		Random rnd = new Random(5);
+		GrafoRutas grafo = new GrafoRutas(ANCHO, ALTO, List.of());
+		for (int k : new int[]{1, 3, 10, 40}) {
+			List<Pedido> pedidos = pedidosAleatorios(rnd, 120);
+			for (boolean precalculadas : new boolean[]{true, false}) {
+				ListasCandidatos listas = new ListasCandidatos(pedidos, grafo, AHORA, parametros(k, precalculadas));
+				for (int id = 0; id < grafo.getTotalNodos(); id++) {
+					int[] esperado = masCercanos(pedidos, grafo.coordenadaX(id), grafo.coordenadaY(id), indicesDe(pedidos.size()), k);
+					assertArrayEquals(esperado, listas.vecinosDe(grafo, id), "k=" + k + " nodo " + id);
+				}
+			}
+		}
+	}
+
+	@Test
+	void masCercanosEntrePendientesCoincideConFuerzaBruta() {
+		Random rnd = new Random(9);
+		GrafoRutas grafo = new GrafoRutas(ANCHO, ALTO, List.of());
+		List<Pedido> pedidos = pedidosAleatorios(rnd, 200);
+		int k = 10;
+		ListasCandidatos listas = new ListasCandidatos(pedidos, grafo, AHORA, parametros(k, true));
+		int[] mejores = new int[k];
+		int[] distancias = new int[k];
+
+		for (int caso = 0; caso < 300; caso++) {
+			List<Pedido> pendientes = new ArrayList<>();
+			List<Integer> indices = new ArrayList<>();
+			for (int i = 0; i < pedidos.size(); i++) {
+				if (rnd.nextInt(4) == 0) {
+					pendientes.add(pedidos.get(i));
+					indices.add(i);
+				}
+			}
+			int x = rnd.nextInt(ANCHO + 1);
+			int y = rnd.nextInt(ALTO + 1);
+			int[] esperado = masCercanos(pedidos, x, y, indices, k);
+
+			int encontrados = listas.masCercanosEntre(x, y, pendientes, mejores, distancias);
+			assertArrayEquals(esperado, Arrays.copyOf(mejores, encontrados));
+		}
+
+		Pedido ajeno = pedido(0, 0);
+		assertEquals(-1, listas.masCercanosEntre(0, 0, List.of(ajeno), mejores, distancias));
+	}
+
+	private static ACOParameters parametros(int k, boolean precalculadas) {
+		ACOParameters parametros = new ACOParameters();
+		parametros.setNumeroCandidatos(k);
+		parametros.setMaxPedidosPorGrupo(precalculadas ? k + 1 : k);
+		return parametros;
+	}
+
+	/**
+	 * Mezcla posiciones al azar con posiciones justo en los bordes de las celdas del índice
+	 * (múltiplos de 8 y sus vecinos) y algunas fuera de la rejilla
+	 */
+	private static List<Pedido> pedidosAleatorios(Random rnd, int cantidad) {
+		List<Pedido> pedidos = new ArrayList<>();
+		for (int i = 0; i < cantidad; i++) {
+			int x;
+			int y;
+			switch (i % 3) {
+				case 0 -> {
+					x = 8 * rnd.nextInt(ANCHO / 8 + 1) + rnd.nextInt(3) - 1;
+					y = 8 * rnd.nextInt(ALTO / 8 + 1) + rnd.nextInt(3) - 1;
+				}
+				case 1 -> {
+					x = rnd.nextInt(ANCHO + 1);
+					y = rnd.nextInt(ALTO + 1);
+				}
+				default -> {
+					x = rnd.nextInt(ANCHO + 10) - 2;
+					y = rnd.nextInt(ALTO + 10) - 2;
+				}
+			}
+			pedidos.add(pedido(x, y));
+		}
+		return pedidos;
+	}
+
+	private static Pedido pedido(int x, int y) {
+		Pedido pedido = new Pedido();
+		pedido.setDestino(Ubicacion.of(x, y));
+		pedido.setVolumen(1.0);
+		return pedido;
+	}
+
+	private static List<Integer> indicesDe(int n) {
+		List<Integer> indices = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			indices.add(i);
+		}
+		return indices;
+	}
+
+	private static int[] masCercanos(List<Pedido> pedidos, int x, int y, List<Integer> indices, int k) {
+		Comparator<Integer> porDistancia = Comparator.comparingInt(i -> distancia(pedidos.get(i), x, y));
+		return indices.stream()
+				.sorted(porDistancia.thenComparingInt(i -> i))
+				.limit(k)
+				.mapToInt(Integer::intValue)
+				.toArray();
+	}
+
+	private static int distancia(Pedido pedido, int x, int y) {
+		return Math.abs(pedido.getDestino().getX() - x) + Math.abs(pedido.getDestino().getY() - y);
+	}
+}
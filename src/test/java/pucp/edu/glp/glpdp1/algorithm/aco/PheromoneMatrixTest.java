@@ -0,0 +1,127 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.algorithm.model.CamionAsignacion;
+import pucp.edu.glp.glpdp1.algorithm.model.GrafoRutas;
+import pucp.edu.glp.glpdp1.algorithm.model.Ruta;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PheromoneMatrixTest {
+
+	private static final int LADO = 10;
+	private static final double EVAPORACION = 0.1;
+	private static final double FEROMONA_MINIMA = 1e-3;
+	private static final double TOLERANCIA = 1e-9;
+
+	/**
+	 * Matriz densa de referencia que evapora y perturba todas las celdas en cada paso
+	 */
+	private static final class MatrizAnsiosa {
+		private final Map<Long, Double> valores = new HashMap<>();
+		private final Random random;
+		private double valorPorDefecto;
+
+		MatrizAnsiosa(double valorInicial, long semilla) {
+			this.valorPorDefecto = valorInicial;
+			this.random = new Random(semilla);
+		}
+
+		double get(int origen, int destino) {
+			return valores.getOrDefault(TablaAristas.clave(origen, destino), valorPorDefecto);
+		}
+
+		void set(int origen, int destino, double valor) {
+			valores.put(TablaAristas.clave(origen, destino), valor);
+		}
+
+		void evaporar() {
+			valores.replaceAll((clave, valor) -> valor * (1 - EVAPORACION));
+			valorPorDefecto *= (1 - EVAPORACION);
+		}
+
+		void depositar(int origen, int destino, double incremento) {
+			set(origen, destino, get(origen, destino) + incremento);
+			set(destino, origen, get(destino, origen) + incremento);
+		}
+
+		void perturbar() {
+			long semilla = random.nextLong();
+			valores.replaceAll((clave, valor) -> {
+				double ruido = 1.0 + (PheromoneMatrix.ruidoUniforme(clave, semilla) * 0.4 - 0.2);
+				return Math.max(valor * ruido, FEROMONA_MINIMA / 2);
+			});
+			valorPorDefecto = Math.max(valorPorDefecto, FEROMONA_MINIMA / 2);
+		}
+	}
+
+	@Test
+	void evaporacionPerezosaCoincideConReferenciaAnsiosa() {
+		GrafoRutas grafo = new GrafoRutas(LADO, LADO, List.of());
+		PheromoneMatrix feromonas = new PheromoneMatrix(grafo, 1.0);
+		feromonas.setRandom(new Random(11));
+		MatrizAnsiosa referencia = new MatrizAnsiosa(1.0, 11);
+
+		feromonas.setValor(grafo.calcularId(1, 1), grafo.calcularId(2, 2), 5.0);
+		referencia.set(grafo.calcularId(1, 1), grafo.calcularId(2, 2), 5.0);
+		feromonas.setValor(grafo.calcularId(7, 7), grafo.calcularId(8, 8), 0.3);
+		referencia.set(grafo.calcularId(7, 7), grafo.calcularId(8, 8), 0.3);
+
+		// Seis aristas almacenadas como máximo: por debajo de diez la perturbación no
+		// refuerza caminos al azar y la referencia puede reproducirla exactamente
+		Ruta[] tramos = {
+				new Ruta(new Ubicacion(0, 0), new Ubicacion(3, 0), 3),
+				new Ruta(new Ubicacion(5, 5), new Ubicacion(5, 9), 4)
+		};
+
+		// Perturbaciones frecuentes al inicio (se materializan al llenar el registro de
+		// eventos) y luego un tramo largo sin ellas, donde la escala llega a renormalizarse
+		for (int iteracion = 1; iteracion <= 4000; iteracion++) {
+			List<ACOSolution> soluciones = new ArrayList<>();
+			if (iteracion % 50 == 0) {
+				Ruta tramo = tramos[(iteracion / 50) % 2];
+				ACOSolution solucion = new ACOSolution();
+				solucion.setCalidad(0.5 + (iteracion % 7) / 10.0);
+				solucion.addAsignacion(new CamionAsignacion(new Camion(), List.of(), List.of(tramo)));
+				soluciones.add(solucion);
+			}
+			feromonas.actualizarFeromonas(soluciones, EVAPORACION);
+			referencia.evaporar();
+			for (ACOSolution solucion : soluciones) {
+				for (Ruta tramo : solucion.getAsignaciones().get(0).getRutas()) {
+					referencia.depositar(grafo.calcularId(tramo.getOrigen()), grafo.calcularId(tramo.getDestino()),
+							solucion.getCalidad() * 10.0 / tramo.getDistancia());
+				}
+			}
+
+			if ((iteracion <= 1000 && iteracion % 30 == 0) || iteracion == 3900) {
+				feromonas.perturbarFeromonas(FEROMONA_MINIMA);
+				referencia.perturbar();
+			}
+
+			if (iteracion % 250 == 0) {
+				compararTodo(grafo, feromonas, referencia, iteracion);
+			}
+		}
+	}
+
+	private static void compararTodo(GrafoRutas grafo, PheromoneMatrix feromonas, MatrizAnsiosa referencia,
+									 int iteracion) {
+		int nodos = grafo.getTotalNodos();
+		for (int origen = 0; origen < nodos; origen++) {
+			for (int destino = 0; destino < nodos; destino++) {
+				double esperado = referencia.get(origen, destino);
+				assertEquals(esperado, feromonas.getValor(origen, destino), Math.abs(esperado) * TOLERANCIA,
+						"iteración " + iteracion + ", arista " + origen + "->" + destino);
+			}
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package pucp.edu.glp.glpdp1.algorithm.aco;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablaAristasTest {
+
+	@Test
+	void conservaTodasLasClavesTrasVariosRedimensionamientos() {
+		TablaAristas tabla = new TablaAristas(1);
+		int capacidadInicial = tabla.capacidad();
+		Map<Long, Double> esperado = new HashMap<>();
+		Random rnd = new Random(7);
+
+		for (int i = 0; i < 5000; i++) {
+			long clave = TablaAristas.clave(rnd.nextInt(800), rnd.nextInt(800));
+			double valor = rnd.nextDouble();
+			tabla.put(clave, valor);
+			esperado.put(clave, valor);
+		}
+
+		// 64 -> 16384 posiciones: al menos ocho redimensionamientos
+		assertTrue(tabla.capacidad() >= capacidadInicial << 8);
+		assertEquals(esperado.size(), tabla.size());
+		for (Map.Entry<Long, Double> entrada : esperado.entrySet()) {
+			assertEquals(entrada.getValue(), tabla.get(entrada.getKey(), Double.NaN));
+		}
+	}
+
+	@Test
+	void putQueProvocaRedimensionGuardaElValorEnLaTablaNueva() {
+		TablaAristas tabla = new TablaAristas(1);
+		int capacidad = tabla.capacidad();
+		int i = 0;
+		// Se inserta justo hasta la inserción que dispara el crecimiento
+		while (tabla.capacidad() == capacidad) {
+			tabla.put(TablaAristas.clave(i, i + 1), i);
+			i++;
+		}
+		long ultima = TablaAristas.clave(i - 1, i);
+		assertEquals(i - 1, tabla.get(ultima, Double.NaN));
+		tabla.put(ultima, -1.0);
+		assertEquals(-1.0, tabla.get(ultima, Double.NaN));
+		assertEquals(i, tabla.size());
+	}
+
+	@Test
+	void sumarYMultiplicarPartenDelValorBase() {
+		TablaAristas tabla = new TablaAristas(4);
+		long clave = TablaAristas.clave(3, -5);
+		assertEquals(3, TablaAristas.origenDe(clave));
+		assertEquals(-5, TablaAristas.destinoDe(clave));
+
+		tabla.sumar(clave, 2.0, 1.0);
+		tabla.multiplicar(clave, 0.5, 10.0);
+		assertEquals(1.5, tabla.get(clave, 0.0));
+
+		tabla.multiplicar(TablaAristas.clave(1, 1), 0.5, 10.0);
+		assertEquals(5.0, tabla.get(TablaAristas.clave(1, 1), 0.0));
+
+		tabla.limpiar();
+		assertEquals(0, tabla.size());
+		assertEquals(-1, tabla.buscar(clave));
+	}
+}
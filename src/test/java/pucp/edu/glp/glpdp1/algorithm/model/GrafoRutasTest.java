@@ -0,0 +1,133 @@
+package pucp.edu.glp.glpdp1.algorithm.model;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.domain.Bloqueo;
+import pucp.edu.glp.glpdp1.domain.IndiceBloqueos;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GrafoRutasTest {
+
+	private static final LocalDateTime INICIO = LocalDateTime.of(2025, 4, 1, 0, 0);
+
+	@Test
+	void aEstrellaCoincideConBfsEnRejillasConBloqueos() {
+		Random rnd = new Random(3);
+		for (int caso = 0; caso < 40; caso++) {
+			int ancho = 5 + rnd.nextInt(20);
+			int alto = 5 + rnd.nextInt(15);
+			List<Bloqueo> bloqueos = bloqueosAleatorios(rnd, ancho, alto);
+			GrafoRutas grafo = new GrafoRutas(ancho, alto, List.of());
+			grafo.setIndiceBloqueos(new IndiceBloqueos(bloqueos, ancho, alto));
+
+			for (int consulta = 0; consulta < 60; consulta++) {
+				LocalDateTime momento = INICIO.plusMinutes(rnd.nextInt(24 * 60));
+				Nodo origen = grafo.getNodoPorId(rnd.nextInt(grafo.getTotalNodos()));
+				Nodo destino = grafo.getNodoPorId(rnd.nextInt(grafo.getTotalNodos()));
+
+				int esperado = bfs(grafo, bloqueos, momento, origen.getId(), destino.getId());
+				assertEquals(esperado, grafo.calcularDistanciaViable(origen, destino, momento),
+						"caso " + caso + ": " + origen.getUbicacion() + " -> " + destino.getUbicacion());
+
+				List<Nodo> ruta = grafo.encontrarRutaViable(origen, destino, momento);
+				if (esperado < 0) {
+					assertTrue(ruta.isEmpty());
+				} else {
+					verificarRuta(grafo, bloqueos, momento, ruta, origen, destino, esperado);
+				}
+			}
+		}
+	}
+
+	@Test
+	void contextoSeRedimensionaParaUnaRejillaMayor() {
+		BusquedaAEstrella busqueda = new BusquedaAEstrella(4);
+		GrafoRutas grafo = new GrafoRutas(30, 20, List.of());
+		int origen = grafo.calcularId(0, 0);
+		int destino = grafo.calcularId(30, 20);
+		assertEquals(50, busqueda.buscar(grafo, origen, destino, INICIO));
+		assertEquals(grafo.calcularId(30, 19), busqueda.getPadre(destino));
+	}
+
+	private static List<Bloqueo> bloqueosAleatorios(Random rnd, int ancho, int alto) {
+		List<Bloqueo> bloqueos = new ArrayList<>();
+		int cantidad = rnd.nextInt(8);
+		for (int b = 0; b < cantidad; b++) {
+			// Poligonal rectilínea de 1 a 4 tramos, que puede salir de la rejilla
+			int tramos = 1 + rnd.nextInt(4);
+			int[] vertices = new int[2 * (tramos + 1)];
+			vertices[0] = rnd.nextInt(ancho + 3) - 1;
+			vertices[1] = rnd.nextInt(alto + 3) - 1;
+			for (int t = 1; t <= tramos; t++) {
+				vertices[2 * t] = vertices[2 * t - 2];
+				vertices[2 * t + 1] = vertices[2 * t - 1];
+				if (t % 2 == 1) {
+					vertices[2 * t] = rnd.nextInt(ancho + 3) - 1;
+				} else {
+					vertices[2 * t + 1] = rnd.nextInt(alto + 3) - 1;
+				}
+			}
+			LocalDateTime desde = INICIO.plusMinutes(rnd.nextInt(20 * 60));
+			bloqueos.add(new Bloqueo(desde, desde.plusMinutes(30 + rnd.nextInt(10 * 60)), vertices));
+		}
+		return bloqueos;
+	}
+
+	private static boolean bloqueada(List<Bloqueo> bloqueos, LocalDateTime momento, int x, int y) {
+		for (Bloqueo bloqueo : bloqueos) {
+			if (!momento.isBefore(bloqueo.getFechaInicio()) && !momento.isAfter(bloqueo.getFechaFinal())
+					&& bloqueo.contiene(x, y)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Búsqueda en anchura de referencia; el origen se puede abandonar aunque esté bloqueado
+	 */
+	private static int bfs(GrafoRutas grafo, List<Bloqueo> bloqueos, LocalDateTime momento, int origen, int destino) {
+		int[] distancia = new int[grafo.getTotalNodos()];
+		Arrays.fill(distancia, -1);
+		distancia[origen] = 0;
+		ArrayDeque<Integer> cola = new ArrayDeque<>();
+		cola.add(origen);
+		int[][] pasos = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+		while (!cola.isEmpty()) {
+			int actual = cola.poll();
+			if (actual == destino) {
+				return distancia[actual];
+			}
+			for (int[] paso : pasos) {
+				int x = grafo.coordenadaX(actual) + paso[0];
+				int y = grafo.coordenadaY(actual) + paso[1];
+				int vecino = grafo.calcularId(x, y);
+				if (vecino >= 0 && distancia[vecino] < 0 && !bloqueada(bloqueos, momento, x, y)) {
+					distancia[vecino] = distancia[actual] + 1;
+					cola.add(vecino);
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static void verificarRuta(GrafoRutas grafo, List<Bloqueo> bloqueos, LocalDateTime momento,
+									  List<Nodo> ruta, Nodo origen, Nodo destino, int distancia) {
+		assertEquals(distancia + 1, ruta.size());
+		assertEquals(origen.getId(), ruta.get(0).getId());
+		assertEquals(destino.getId(), ruta.get(ruta.size() - 1).getId());
+		for (int i = 1; i < ruta.size(); i++) {
+			assertEquals(1, grafo.distanciaManhattan(ruta.get(i - 1).getId(), ruta.get(i).getId()));
+			assertFalse(bloqueada(bloqueos, momento, ruta.get(i).getUbicacion().getX(), ruta.get(i).getUbicacion().getY()));
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package pucp.edu.glp.glpdp1.algorithm.simulacion;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOParameters;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOSolution;
+import pucp.edu.glp.glpdp1.algorithm.model.CamionAsignacion;
+import pucp.edu.glp.glpdp1.algorithm.model.Ruta;
+import pucp.edu.glp.glpdp1.domain.Averia;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+import pucp.edu.glp.glpdp1.domain.enums.Incidente;
+import pucp.edu.glp.glpdp1.domain.enums.TipoEvento;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimuladorEventosTest {
+
+	private static final LocalDateTime INICIO = LocalDateTime.of(2025, 5, 1, 0, 0);
+	// A 50 km del almacén central (12,8): cada tramo dura 60 minutos a 50 km/h
+	private static final Ubicacion DESTINO = Ubicacion.of(37, 33);
+	private static final String CAMION = "TD01";
+
+	@Test
+	void losEventosSeOrdenanPorTiempoYLuegoPorSecuencia() {
+		Evento tardio = evento(INICIO.plusHours(1), 0);
+		Evento segundo = evento(INICIO, 5);
+		Evento primero = evento(INICIO, 2);
+		PriorityQueue<Evento> cola = new PriorityQueue<>();
+		cola.add(tardio);
+		cola.add(segundo);
+		cola.add(primero);
+
+		assertSame(primero, cola.poll());
+		assertSame(segundo, cola.poll());
+		assertSame(tardio, cola.poll());
+	}
+
+	@Test
+	void ti1RetrasaDosHorasElRestoDelViaje() {
+		// Sin avería: A se entrega a la 01:10 y el camión vuelve a las 02:40
+		Escenario normal = new Escenario();
+		ResultadoSimulacion sinAveria = normal.simular(INICIO.plusHours(12));
+		assertEquals(List.of(INICIO.plusMinutes(10), INICIO.plusHours(3)), normal.despachos);
+		assertEquals(2, sinAveria.getEntregasATiempo());
+
+		// TI1 a las 00:30: entrega a las 03:10 (fuera de plazo) y regreso a las 04:40
+		Escenario ti1 = new Escenario();
+		ti1.averia(Incidente.TI1, INICIO.plusMinutes(30));
+		ResultadoSimulacion conAveria = ti1.simular(INICIO.plusHours(12));
+		assertEquals(List.of(INICIO.plusMinutes(10), INICIO.plusHours(4).plusMinutes(50)), ti1.despachos);
+		assertEquals(1, conAveria.getAveriasAplicadas());
+		assertEquals(2, conAveria.getPedidosEntregados());
+		assertEquals(1, conAveria.getEntregasConRetraso());
+	}
+
+	@Test
+	void ti1EnElMismoMinutoDeUnEventoDelViajeTambienLoRetrasa() {
+		// La avería se programa antes que el viaje: a igual minuto se procesa primero
+		// TI1 a la 01:10, junto a la entrega de A: se entrega a las 03:10
+		Escenario enEntrega = new Escenario();
+		enEntrega.averia(Incidente.TI1, INICIO.plusHours(1).plusMinutes(10));
+		ResultadoSimulacion entrega = enEntrega.simular(INICIO.plusHours(12));
+		assertEquals(List.of(INICIO.plusMinutes(10), INICIO.plusHours(4).plusMinutes(50)), enEntrega.despachos);
+		assertEquals(2, entrega.getPedidosEntregados());
+		assertEquals(1, entrega.getEntregasConRetraso());
+		assertEquals(0, entrega.getPedidosPendientes());
+
+		// TI1 a las 02:40, junto al regreso: vuelve a las 04:40 y la entrega ya hecha no se repite
+		Escenario enRegreso = new Escenario();
+		enRegreso.averia(Incidente.TI1, INICIO.plusHours(2).plusMinutes(40));
+		ResultadoSimulacion regreso = enRegreso.simular(INICIO.plusHours(12));
+		assertEquals(List.of(INICIO.plusMinutes(10), INICIO.plusHours(4).plusMinutes(50)), enRegreso.despachos);
+		assertEquals(2, regreso.getPedidosEntregados());
+		assertEquals(2, regreso.getEntregasATiempo());
+		assertEquals(0, regreso.getPedidosPendientes());
+	}
+
+	@Test
+	void ti2DejaElCamionEnTallerHastaElTurnoSubsiguiente() {
+		// Avería en T1: disponible al inicio de T3 (16:00)
+		Escenario enT1 = new Escenario();
+		enT1.averia(Incidente.TI2, INICIO.plusMinutes(30));
+		ResultadoSimulacion resultado = enT1.simular(INICIO.plusDays(1));
+		assertEquals(List.of(INICIO.plusMinutes(10), INICIO.plusHours(16).plusMinutes(10)), enT1.despachos);
+		assertEquals(1, resultado.getAveriasAplicadas());
+
+		// Avería en T2: disponible al inicio del T1 del día siguiente
+		Escenario enT2 = new Escenario(INICIO.plusHours(9).plusMinutes(50));
+		enT2.averia(Incidente.TI2, INICIO.plusHours(10).plusMinutes(30));
+		enT2.simular(INICIO.plusDays(2));
+		assertEquals(List.of(INICIO.plusHours(10), INICIO.plusDays(1).plusMinutes(10)), enT2.despachos);
+	}
+
+	@Test
+	void ti3DejaElCamionEnTallerHastaElDiaATres() {
+		Escenario ti3 = new Escenario();
+		ti3.averia(Incidente.TI3, INICIO.plusHours(3).plusMinutes(30));
+		ti3.pedidos.get(0).setFechaLimite(INICIO.plusDays(5));
+		ti3.pedidos.get(1).setFechaLimite(INICIO.plusDays(5));
+		ResultadoSimulacion resultado = ti3.simular(INICIO.plusDays(4));
+
+		// El viaje de las 00:10 ya terminó; la avería de las 03:30 detiene el de las 03:00 hasta el día A+3
+		assertEquals(List.of(INICIO.plusMinutes(10), INICIO.plusHours(3), INICIO.plusDays(3).plusMinutes(10)),
+				ti3.despachos);
+		assertEquals(1, resultado.getAveriasAplicadas());
+		assertEquals(2, resultado.getPedidosEntregados());
+		assertFalse(resultado.isColapso());
+	}
+
+	@Test
+	void losEventosDeUnViajeAnuladoSeIgnoran() {
+		// TI3 a las 00:30: la entrega de la 01:10 y el regreso de las 02:40 quedan anulados
+		Escenario escenario = new Escenario();
+		escenario.averia(Incidente.TI3, INICIO.plusMinutes(30));
+		ResultadoSimulacion resultado = escenario.simular(INICIO.plusDays(1));
+
+		assertEquals(List.of(INICIO.plusMinutes(10)), escenario.despachos);
+		assertEquals(0, resultado.getPedidosEntregados());
+		assertEquals(2, resultado.getPedidosPendientes());
+	}
+
+	@Test
+	void elColapsoSeDetieneEnElPrimerPlazoVencido() {
+		List<Pedido> pedidos = List.of(
+				pedido(1, INICIO, 1),
+				pedido(2, INICIO.plusMinutes(20), 3),
+				pedido(3, INICIO.plusHours(2), 24));
+		Planificador sinCamiones = (pendientes, camiones, ahora) -> null;
+
+		SimuladorEventos colapso = new SimuladorEventos(mapa(pedidos), new ACOParameters(), sinCamiones);
+		colapso.setAplicarAverias(false);
+		colapso.setDetenerEnColapso(true);
+		ResultadoSimulacion detenido = colapso.simular(INICIO, INICIO.plusDays(1));
+
+		assertTrue(detenido.isColapso());
+		assertEquals(INICIO.plusHours(1), detenido.getFechaColapso());
+		assertEquals(Integer.valueOf(1), detenido.getPedidoColapso());
+		assertEquals(INICIO.plusHours(1), detenido.getFechaAlcanzada());
+		assertEquals(2, detenido.getPedidosRecibidos());
+
+		// Sin detenerse, el colapso sigue siendo el primer vencimiento
+		SimuladorEventos completo = new SimuladorEventos(mapa(pedidos), new ACOParameters(), sinCamiones);
+		completo.setAplicarAverias(false);
+		ResultadoSimulacion continuado = completo.simular(INICIO, INICIO.plusDays(1));
+		assertEquals(INICIO.plusHours(1), continuado.getFechaColapso());
+		assertEquals(Integer.valueOf(1), continuado.getPedidoColapso());
+		assertEquals(3, continuado.getPedidosRecibidos());
+	}
+
+	/**
+	 * Dos pedidos al mismo destino: A al inicio (plazo 2 h) y B a las 02:50 (plazo 24 h).
+	 * El planificador solo despacha el camión TD01, con todo lo pendiente, y registra cuándo sale.
+	 */
+	private static class Escenario implements Planificador {
+		private final List<Pedido> pedidos;
+		private final Mapa mapa;
+		private final List<LocalDateTime> despachos = new ArrayList<>();
+
+		Escenario() {
+			this(INICIO);
+		}
+
+		Escenario(LocalDateTime llegadaA) {
+			pedidos = List.of(pedido(1, llegadaA, 2), pedido(2, llegadaA.plusMinutes(170), 24));
+			mapa = mapa(pedidos);
+		}
+
+		void averia(Incidente incidente, LocalDateTime fecha) {
+			Averia averia = new Averia();
+			averia.setCodigo(CAMION);
+			averia.setIncidente(incidente);
+			averia.setFechaIncidente(fecha);
+			mapa.setAverias(List.of(averia));
+		}
+
+		ResultadoSimulacion simular(LocalDateTime fin) {
+			return new SimuladorEventos(mapa, new ACOParameters(), this).simular(INICIO, fin);
+		}
+
+		@Override
+		public ACOSolution planificar(List<Pedido> pendientes, List<Camion> camionesDisponibles, LocalDateTime ahora) {
+			for (Camion camion : camionesDisponibles) {
+				if (camion.getIdC().equals(CAMION)) {
+					despachos.add(ahora);
+					ACOSolution plan = new ACOSolution();
+					plan.addAsignacion(asignacion(camion, pendientes));
+					return plan;
+				}
+			}
+			return null;
+		}
+	}
+
+	private static CamionAsignacion asignacion(Camion camion, List<Pedido> pedidos) {
+		Ubicacion central = Ubicacion.of(12, 8);
+		List<Ruta> rutas = new ArrayList<>();
+		Ubicacion actual = central;
+		for (Pedido pedido : pedidos) {
+			rutas.add(new Ruta(actual, pedido.getDestino(), distancia(actual, pedido.getDestino()),
+					true, false, false, pedido));
+			actual = pedido.getDestino();
+		}
+		rutas.add(new Ruta(actual, central, distancia(actual, central), false, false, true, null));
+		return new CamionAsignacion(camion, new ArrayList<>(pedidos), rutas);
+	}
+
+	private static double distancia(Ubicacion a, Ubicacion b) {
+		return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
+	}
+
+	private static Pedido pedido(int id, LocalDateTime registro, int horasLimite) {
+		Pedido pedido = new Pedido();
+		pedido.setIdPedido(id);
+		pedido.setIdCliente("c-" + id);
+		pedido.setDestino(DESTINO);
+		pedido.setVolumen(2);
+		pedido.setFechaRegistro(registro);
+		pedido.setHorasLimite(horasLimite);
+		pedido.setFechaLimite(registro.plusHours(horasLimite));
+		return pedido;
+	}
+
+	private static Mapa mapa(List<Pedido> pedidos) {
+		Mapa mapa = new Mapa(70, 50);
+		mapa.setPedidos(new ArrayList<>(pedidos));
+		return mapa;
+	}
+
+	private static Evento evento(LocalDateTime tiempo, long secuencia) {
+		Evento evento = new Evento(tiempo, TipoEvento.PLANIFICACION);
+		evento.setSecuencia(secuencia);
+		return evento;
+	}
+}
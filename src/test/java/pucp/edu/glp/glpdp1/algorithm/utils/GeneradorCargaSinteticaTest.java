@@ -0,0 +1,85 @@
+package pucp.edu.glp.glpdp1.algorithm.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pucp.edu.glp.glpdp1.domain.Averia;
+import pucp.edu.glp.glpdp1.domain.Bloqueo;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.service.AveriaService;
+import pucp.edu.glp.glpdp1.service.BloqueosService;
+import pucp.edu.glp.glpdp1.service.PedidoService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneradorCargaSinteticaTest {
+
+	private static final String[] ARCHIVOS = {"pedidos.txt", "bloqueos.txt", "averias.txt"};
+
+	@Test
+	void losServiciosLeenTodasLasLineasGeneradas(@TempDir Path directorio) throws IOException {
+		GeneradorCargaSintetica.Configuracion configuracion = configuracion(5);
+		new GeneradorCargaSintetica(configuracion).generarArchivos(directorio);
+
+		List<Pedido> pedidos = new PedidoService()
+				.cargarPedidosDesdeArchivo(directorio.resolve("pedidos.txt").toString());
+		assertEquals(configuracion.getNumeroPedidos(), pedidos.size());
+		for (Pedido pedido : pedidos) {
+			assertTrue(pedido.getDestino().getX() >= 0 && pedido.getDestino().getX() <= configuracion.getAncho());
+			assertTrue(pedido.getDestino().getY() >= 0 && pedido.getDestino().getY() <= configuracion.getAlto());
+			assertTrue(pedido.getVolumen() >= configuracion.getVolumenMinimo()
+					&& pedido.getVolumen() <= configuracion.getVolumenMaximo());
+			assertTrue(pedido.getHorasLimite() >= configuracion.getPlazoMinimoHoras()
+					&& pedido.getHorasLimite() <= configuracion.getPlazoMaximoHoras());
+		}
+
+		List<Bloqueo> bloqueos = new BloqueosService()
+				.cargarBloqueosDesdeArchivo(directorio.resolve("bloqueos.txt").toString());
+		assertFalse(bloqueos.isEmpty());
+		assertEquals(lineas(directorio.resolve("bloqueos.txt")), bloqueos.size());
+		for (Bloqueo bloqueo : bloqueos) {
+			assertTrue(bloqueo.esRectilineo());
+			assertTrue(bloqueo.getFechaInicio().isBefore(bloqueo.getFechaFinal()));
+		}
+
+		List<Averia> averias = new AveriaService()
+				.cargarAveriasDesdeBytes(Files.readAllBytes(directorio.resolve("averias.txt")));
+		assertEquals(configuracion.getNumeroAverias(), averias.size());
+	}
+
+	@Test
+	void laMismaSemillaGeneraLosMismosArchivos(@TempDir Path directorio) throws IOException {
+		new GeneradorCargaSintetica(configuracion(5)).generarArchivos(directorio.resolve("a"));
+		new GeneradorCargaSintetica(configuracion(5)).generarArchivos(directorio.resolve("b"));
+		new GeneradorCargaSintetica(configuracion(6)).generarArchivos(directorio.resolve("c"));
+
+		for (String archivo : ARCHIVOS) {
+			byte[] a = Files.readAllBytes(directorio.resolve("a").resolve(archivo));
+			assertArrayEquals(a, Files.readAllBytes(directorio.resolve("b").resolve(archivo)), archivo);
+		}
+		assertFalse(Files.readString(directorio.resolve("a").resolve("pedidos.txt"))
+				.equals(Files.readString(directorio.resolve("c").resolve("pedidos.txt"))));
+	}
+
+	private static GeneradorCargaSintetica.Configuracion configuracion(long semilla) {
+		GeneradorCargaSintetica.Configuracion configuracion = new GeneradorCargaSintetica.Configuracion();
+		configuracion.setSemilla(semilla);
+		configuracion.setNumeroPedidos(2000);
+		configuracion.setPedidosPorHora(15.0);
+		configuracion.setNumeroAverias(30);
+		return configuracion;
+	}
+
+	private static long lineas(Path archivo) throws IOException {
+		try (var lineas = Files.lines(archivo)) {
+			return lineas.filter(linea -> !linea.isBlank()).count();
+		}
+	}
+}
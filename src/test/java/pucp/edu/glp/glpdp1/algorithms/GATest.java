@@ -0,0 +1,516 @@
+package pucp.edu.glp.glpdp1.algorithms;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.domain.Bloqueo;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.Rutas;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GATest {
+
+	private static final int ANCHO = 70;
+	private static final int ALTO = 50;
+	private static final LocalDateTime INICIO = LocalDateTime.of(2025, 5, 1, 8, 0);
+	// Tamaños alrededor de los puntos de control de la evaluación incremental (cada 32 genes)
+	private static final int[] TAMANIOS = {1, 2, 31, 32, 33, 63, 64, 65, 100, 130};
+
+	@Test
+	void fitnessCoincideConEvaluacionDirecta() {
+		Random rnd = new Random(22);
+		int factibles = 0;
+		for (int n : TAMANIOS) {
+			for (boolean conBloqueos : new boolean[]{false, true}) {
+				Mapa mapa = mapaAleatorio(rnd, n, conBloqueos ? 12 : 0);
+				GA ga = new GA(mapa, 10, 1, 0.8, 0.1, 0.1);
+				for (int caso = 0; caso < 20; caso++) {
+					int[] genes = permutacion(rnd, n);
+					GA.Individual individuo = ga.new Individual(genes.clone());
+					individuo.evaluate();
+
+					List<Rutas> esperadas = new ArrayList<>();
+					double esperado = evaluacionDirecta(mapa, genes, esperadas);
+					String contexto = "n=" + n + " bloqueos=" + conBloqueos + " caso " + caso;
+					assertEquals(esperado, individuo.getDistance(), contexto);
+					if (esperado != Double.MAX_VALUE) {
+						factibles++;
+						compararRutas(esperadas, individuo.getRutas(), contexto);
+					}
+				}
+			}
+		}
+		assertTrue(factibles > 100, "Pocas permutaciones factibles: " + factibles);
+	}
+
+	@Test
+	void movimientosIncrementalesCoincidenConReevaluacionCompleta() {
+		Random rnd = new Random(23);
+		for (int n : new int[]{2, 33, 65, 100, 130}) {
+			for (boolean conBloqueos : new boolean[]{false, true}) {
+				Mapa mapa = mapaAleatorio(rnd, n, conBloqueos ? 12 : 0);
+				GA ga = new GA(mapa, 10, 1, 0.8, 0.1, 0.1);
+				GA.Individual individuo = ga.new Individual(permutacion(rnd, n));
+				individuo.evaluate();
+				for (int paso = 0; paso < 300; paso++) {
+					int tipo = paso % 4;
+					// Uno de cada cinco movimientos usa el primer o el último gen
+					boolean extremo = rnd.nextInt(5) == 0;
+					individuo.aplicar(movimiento(individuo, rnd, tipo, n, extremo));
+					if (rnd.nextInt(3) == 0) {
+						// Dos movimientos antes de evaluar: se acumula el rango modificado
+						individuo.aplicar(movimiento(individuo, rnd, rnd.nextInt(4), n, false));
+					}
+					individuo.evaluate();
+					verificarContraReevaluacion(ga, individuo, "n=" + n + " bloqueos=" + conBloqueos + " paso " + paso);
+				}
+			}
+		}
+	}
+
+	@Test
+	void movimientosEnElPrimerYUltimoGen() {
+		Random rnd = new Random(230);
+		for (int n : new int[]{33, 64, 100}) {
+			Mapa mapa = mapaAleatorio(rnd, n, 12);
+			GA ga = new GA(mapa, 10, 1, 0.8, 0.1, 0.1);
+			int u = n - 1;
+			List<Consumer<GA.Individual>> movimientos = List.of(
+					ind -> ind.intercambiar(0, 1),
+					ind -> ind.intercambiar(u - 1, u),
+					ind -> ind.intercambiar(0, u),
+					ind -> ind.insertar(0, n / 2),
+					ind -> ind.insertar(n / 2, 0),
+					ind -> ind.insertar(u, 3),
+					ind -> ind.insertar(3, u),
+					ind -> ind.insertar(0, u),
+					ind -> { ind.intercambiar(0, 5); ind.intercambiar(u, 7); },
+					ind -> { ind.intercambiar(u, u - 2); ind.intercambiar(1, 0); },
+					ind -> ind.moverBloque(0, 4, n / 2),
+					ind -> ind.moverBloque(n / 2, 4, 0),
+					ind -> ind.moverBloque(n - 4, 4, 10),
+					ind -> ind.moverBloque(10, 4, n - 4),
+					ind -> ind.moverBloque(0, 8, n - 8));
+			for (int m = 0; m < movimientos.size(); m++) {
+				// Cada movimiento parte de un individuo ya evaluado, con puntos de control completos
+				GA.Individual individuo = ga.new Individual(permutacion(rnd, n));
+				individuo.evaluate();
+				Consumer<GA.Individual> movimiento = movimientos.get(m);
+				individuo.aplicar(() -> movimiento.accept(individuo));
+				individuo.evaluate();
+				verificarContraReevaluacion(ga, individuo, "n=" + n + " movimiento " + m);
+			}
+		}
+	}
+
+	@Test
+	void busquedaLocalConservaFitnessDeReevaluacionCompleta() {
+		Random rnd = new Random(231);
+		for (int n : new int[]{2, 40, 100}) {
+			Mapa mapa = mapaAleatorio(rnd, n, 12);
+			GA ga = new GA(mapa, 10, 1, 0.8, 0.1, 0.1);
+			GA.Individual individuo = ga.new Individual(permutacion(rnd, n));
+			individuo.evaluate();
+			double inicial = individuo.getDistance();
+			individuo.busquedaLocal(500, rnd);
+			assertTrue(individuo.getDistance() <= inicial, "n=" + n);
+			verificarContraReevaluacion(ga, individuo, "n=" + n);
+		}
+	}
+
+	@Test
+	void cruceProducePermutacionesConElSegmentoDelDonante() {
+		Random rnd = new Random(24);
+		for (int n : new int[]{1, 2, 5, 33, 100}) {
+			GA ga = new GA(mapaAleatorio(rnd, n, 0), 10, 1, 0.8, 0.1, 0.1);
+			for (int caso = 0; caso < 200; caso++) {
+				int[] base = permutacion(rnd, n);
+				int[] donante = permutacion(rnd, n);
+				int a;
+				int b;
+				switch (caso % 4) {
+					case 0: a = 0; b = rnd.nextInt(n); break;
+					case 1: a = rnd.nextInt(n); b = n - 1; break;
+					case 2: a = 0; b = n - 1; break;
+					default: a = rnd.nextInt(n); b = rnd.nextInt(n);
+				}
+				int start = Math.min(a, b);
+				int end = Math.max(a, b);
+				// El hijo viene de la reserva: parte con genes de otro individuo
+				int[] hijo = permutacion(rnd, n);
+				ga.cruzar(hijo, base, donante, start, end);
+
+				String contexto = "n=" + n + " [" + start + ", " + end + "]";
+				assertTrue(esPermutacion(hijo), contexto);
+				for (int i = start; i <= end; i++) {
+					assertEquals(donante[i], hijo[i], contexto);
+				}
+				// El resto de pedidos sigue el orden del padre base desde después del segmento
+				Set<Integer> segmento = new HashSet<>();
+				for (int i = start; i <= end; i++) segmento.add(donante[i]);
+				int pos = (end + 1) % n;
+				for (int k = 0; k < n; k++) {
+					int g = base[(end + 1 + k) % n];
+					if (!segmento.contains(g)) {
+						assertEquals(g, hijo[pos], contexto);
+						pos = (pos + 1) % n;
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void nuevaGeneracionNoModificaPadresNiAlMejor() {
+		Random rnd = new Random(240);
+		for (int n : new int[]{2, 40, 100}) {
+			Mapa mapa = mapaAleatorio(rnd, n, 12);
+			GA ga = new GA(mapa, 30, 1, 0.7, 0.5, 0.1);
+			GA.ReservaIndividuos reserva = ga.new ReservaIndividuos();
+			List<GA.Individual> poblacion = ga.initializePopulation(rnd, false);
+			GA.Individual mejor = mejorDe(poblacion);
+			int[] genesMejor = mejor.copiaGenes();
+			double fitnessMejor = mejor.getDistance();
+
+			for (int gen = 0; gen < 40; gen++) {
+				Map<GA.Individual, int[]> padres = new IdentityHashMap<>();
+				for (GA.Individual ind : poblacion) {
+					padres.put(ind, ind.copiaGenes());
+				}
+				List<GA.Individual> siguiente = ga.nextGeneration(poblacion, rnd, false, reserva, mejor);
+
+				String contexto = "n=" + n + " generación " + gen;
+				assertEquals(30, siguiente.size(), contexto);
+				for (Map.Entry<GA.Individual, int[]> padre : padres.entrySet()) {
+					assertArrayEquals(padre.getValue(), padre.getKey().copiaGenes(), contexto);
+				}
+				for (GA.Individual hijo : siguiente) {
+					verificarContraReevaluacion(ga, hijo, contexto);
+				}
+				// El mejor se sigue usando fuera de la población: ni la mutación de una copia
+				// ni la reserva pueden cambiarlo
+				assertArrayEquals(genesMejor, mejor.copiaGenes(), contexto);
+				assertEquals(fitnessMejor, mejor.getDistance(), contexto);
+				verificarContraReevaluacion(ga, mejor, contexto);
+
+				GA.Individual mejorGeneracion = mejorDe(siguiente);
+				if (mejorGeneracion.getDistance() < mejor.getDistance()) {
+					mejor = mejorGeneracion;
+					genesMejor = mejor.copiaGenes();
+					fitnessMejor = mejor.getDistance();
+				}
+				poblacion = siguiente;
+			}
+		}
+	}
+
+	@Test
+	void mutarUnaCopiaNoCambiaElOriginal() {
+		Random rnd = new Random(241);
+		Mapa mapa = mapaAleatorio(rnd, 70, 12);
+		GA ga = new GA(mapa, 10, 1, 0.8, 0.1, 0.1);
+		GA.Individual original = factible(ga, rnd, 70);
+		int[] genesOriginal = original.copiaGenes();
+		double fitnessOriginal = original.getDistance();
+
+		GA.Individual copia = original.copy();
+		GA.Individual otraCopia = original.copy();
+		for (int i = 0; i < 50; i++) {
+			copia.mutate(rnd);
+			copia.evaluate();
+		}
+		assertArrayEquals(genesOriginal, original.copiaGenes());
+		assertEquals(fitnessOriginal, original.getDistance());
+		verificarContraReevaluacion(ga, copia, "copia");
+
+		// Y al revés: modificar el original no cambia las copias que aún comparten sus arreglos
+		original.aplicar(() -> original.intercambiar(0, 69));
+		original.evaluate();
+		assertArrayEquals(genesOriginal, otraCopia.copiaGenes());
+		assertEquals(fitnessOriginal, otraCopia.getDistance());
+		verificarContraReevaluacion(ga, original, "original");
+		verificarContraReevaluacion(ga, otraCopia, "otra copia");
+	}
+
+	@Test
+	void reservaReutilizaIndividuosSinArrastrarGenesAnteriores() {
+		Random rnd = new Random(242);
+		int n = 70;
+		Mapa mapa = mapaAleatorio(rnd, n, 0);
+		GA ga = new GA(mapa, 10, 1, 0.8, 0.1, 0.1);
+		GA.ReservaIndividuos reserva = ga.new ReservaIndividuos();
+
+		for (boolean padreEvaluado : new boolean[]{true, false}) {
+			GA.Individual viejo = factible(ga, rnd, n);            // Con asignaciones y puntos de control propios
+			reserva.liberar(viejo);
+
+			// Factible: la evaluación incremental del hijo repite sus asignaciones registradas
+			GA.Individual padre = padreEvaluado ? factible(ga, rnd, n) : ga.new Individual(permutacion(rnd, n));
+			int[] genesPadre = padre.copiaGenes();
+			GA.Individual hijo = reserva.copiaDe(padre);
+
+			String contexto = "padre evaluado: " + padreEvaluado;
+			assertSame(viejo, hijo, contexto);
+			assertArrayEquals(genesPadre, hijo.copiaGenes(), contexto);
+			if (padreEvaluado) {
+				assertEquals(padre.getDistance(), hijo.getDistance(), contexto);
+			}
+			hijo.evaluate();
+			verificarContraReevaluacion(ga, hijo, contexto);
+			for (int i = 0; i < 20; i++) {
+				hijo.mutate(rnd);
+				hijo.evaluate();
+				verificarContraReevaluacion(ga, hijo, contexto + " mutación " + i);
+			}
+			assertArrayEquals(genesPadre, padre.copiaGenes(), contexto);
+		}
+
+		// Un individuo que comparte arreglos con una copia no vuelve a la reserva
+		GA.Individual compartido = ga.new Individual(permutacion(rnd, n));
+		compartido.evaluate();
+		GA.Individual copia = compartido.copy();
+		int[] genesCopia = copia.copiaGenes();
+		reserva.liberar(compartido);
+		GA.Individual nuevo = reserva.copiaDe(ga.new Individual(permutacion(rnd, n)));
+		assertNotSame(compartido, nuevo);
+		nuevo.mutate(rnd);
+		assertArrayEquals(genesCopia, copia.copiaGenes());
+	}
+
+	@Test
+	void mismaSemillaDaElMismoResultado() {
+		Mapa mapa = mapaAleatorio(new Random(25), 60, 12);
+		for (int islas : new int[]{1, 3}) {
+			GA.Individual primero = ejecutar(mapa, islas, 1, 99);
+			GA.Individual segundo = ejecutar(mapa, islas, 3, 99);
+
+			String contexto = "islas=" + islas;
+			assertArrayEquals(primero.copiaGenes(), segundo.copiaGenes(), contexto);
+			assertEquals(primero.getDistance(), segundo.getDistance(), contexto);
+		}
+	}
+
+	/**
+	 * Corrida corta con semilla fija y búsqueda local final
+	 */
+	private static GA.Individual ejecutar(Mapa mapa, int islas, int hilos, long semilla) {
+		GA ga = new GA(mapa, 20, 30, 0.8, 0.3, 0.1, islas, 5, 2);
+		ga.setNumeroHilos(hilos);
+		ga.setIntentosBusquedaLocal(200);
+		ga.setSemilla(semilla);
+		return ga.run();
+	}
+
+	/**
+	 * Individuo evaluado cuyos pedidos se asignan todos
+	 */
+	private static GA.Individual factible(GA ga, Random rnd, int n) {
+		for (int intento = 0; intento < 1000; intento++) {
+			GA.Individual individuo = ga.new Individual(permutacion(rnd, n));
+			individuo.evaluate();
+			if (individuo.getDistance() != Double.MAX_VALUE) {
+				return individuo;
+			}
+		}
+		throw new AssertionError("Sin permutaciones factibles para n=" + n);
+	}
+
+	private static GA.Individual mejorDe(List<GA.Individual> poblacion) {
+		GA.Individual mejor = poblacion.get(0);
+		for (GA.Individual ind : poblacion) {
+			if (ind.getDistance() < mejor.getDistance()) mejor = ind;
+		}
+		return mejor;
+	}
+
+	/**
+	 * Movimiento aleatorio del tipo indicado (0 intercambio, 1 inserción, 2 intercambio doble,
+	 * 3 movimiento de bloque); si extremo, uno de sus extremos es el primer o el último gen
+	 */
+	private static Runnable movimiento(GA.Individual ind, Random rnd, int tipo, int n, boolean extremo) {
+		int i = extremo ? (rnd.nextBoolean() ? 0 : n - 1) : rnd.nextInt(n);
+		int j = rnd.nextInt(n);
+		switch (tipo) {
+			case 0:
+				return () -> ind.intercambiar(i, j);
+			case 1:
+				return rnd.nextBoolean() ? () -> ind.insertar(i, j) : () -> ind.insertar(j, i);
+			case 2:
+				int k = rnd.nextInt(n);
+				int l = rnd.nextInt(n);
+				return () -> {
+					ind.intercambiar(i, j);
+					ind.intercambiar(k, l);
+				};
+			default:
+				int largo = 1 + rnd.nextInt(Math.max(1, Math.min(8, n / 2)));
+				int desde = extremo ? (i == 0 ? 0 : n - largo) : rnd.nextInt(n - largo + 1);
+				int hacia = rnd.nextInt(n - largo + 1);
+				return () -> ind.moverBloque(desde, largo, hacia);
+		}
+	}
+
+	private static void verificarContraReevaluacion(GA ga, GA.Individual individuo, String contexto) {
+		int[] genes = individuo.copiaGenes();
+		assertTrue(esPermutacion(genes), contexto);
+		GA.Individual completo = ga.new Individual(genes);
+		completo.evaluate();
+		assertEquals(completo.getDistance(), individuo.getDistance(), contexto);
+		if (completo.getDistance() != Double.MAX_VALUE) {
+			compararRutas(completo.getRutas(), individuo.getRutas(), contexto);
+		}
+	}
+
+	static boolean esPermutacion(int[] genes) {
+		boolean[] visto = new boolean[genes.length];
+		for (int g : genes) {
+			if (g < 0 || g >= genes.length || visto[g]) return false;
+			visto[g] = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Evaluación voraz sin índices ni estado reutilizado: cada pedido, en el orden de los genes,
+	 * va al primer camión con capacidad, que llega a tiempo y cuyo camino en L no pasa por una
+	 * celda bloqueada (se revisa celda por celda contra cada bloqueo)
+	 * @param rutas Recibe las rutas por camión
+	 * @return Distancia total, o Double.MAX_VALUE si algún pedido no cabe en ningún camión
+	 */
+	static double evaluacionDirecta(Mapa mapa, int[] genes, List<Rutas> rutas) {
+		List<Camion> flota = mapa.getFlota();
+		Ubicacion origen = mapa.getAlmacenes().get(0).getUbicacion();
+		double[] carga = new double[flota.size()];
+		for (Camion camion : flota) {
+			Rutas r = new Rutas();
+			r.setCamion(camion);
+			r.setUbicaciones(new ArrayList<>());
+			rutas.add(r);
+		}
+
+		for (int g : genes) {
+			Pedido pedido = mapa.getPedidos().get(g);
+			boolean asignado = false;
+			for (int t = 0; t < flota.size() && !asignado; t++) {
+				Rutas r = rutas.get(t);
+				if (carga[t] + pedido.getVolumen() > flota.get(t).getCargaM3()) continue;
+				Ubicacion ultima = r.getUbicaciones().isEmpty() ? origen
+						: r.getUbicaciones().get(r.getUbicaciones().size() - 1);
+				double dist = Math.abs(ultima.getX() - pedido.getDestino().getX())
+						+ Math.abs(ultima.getY() - pedido.getDestino().getY());
+				double hrs = dist / 50.0 + 0.25;
+				LocalDateTime llegada = INICIO.plusSeconds((long) (hrs * 3600));
+				if (llegada.isAfter(pedido.getFechaLimite())) continue;
+				if (!caminoLibre(mapa, ultima, pedido.getDestino(), llegada.minusSeconds((long) (hrs * 1800)))) continue;
+
+				r.getUbicaciones().add(pedido.getDestino());
+				r.setDistanciaTotal(r.getDistanciaTotal() + dist);
+				r.setTiempoTotal(r.getTiempoTotal() + dist / 50.0 + 0.25);
+				carga[t] += pedido.getVolumen();
+				asignado = true;
+			}
+			if (!asignado) {
+				return Double.MAX_VALUE;
+			}
+		}
+
+		double total = 0;
+		for (Rutas r : rutas) {
+			total += r.getDistanciaTotal();
+		}
+		return total;
+	}
+
+	private static boolean caminoLibre(Mapa mapa, Ubicacion origen, Ubicacion destino, LocalDateTime momento) {
+		int x = origen.getX();
+		int y = origen.getY();
+		while (x != destino.getX()) {
+			x += destino.getX() > x ? 1 : -1;
+			if (bloqueada(mapa, x, y, momento)) return false;
+		}
+		while (y != destino.getY()) {
+			y += destino.getY() > y ? 1 : -1;
+			if (bloqueada(mapa, x, y, momento)) return false;
+		}
+		return true;
+	}
+
+	private static boolean bloqueada(Mapa mapa, int x, int y, LocalDateTime momento) {
+		for (Bloqueo bloqueo : mapa.getBloqueos()) {
+			if (!momento.isBefore(bloqueo.getFechaInicio()) && !momento.isAfter(bloqueo.getFechaFinal())
+					&& bloqueo.contiene(x, y)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void compararRutas(List<Rutas> esperadas, List<Rutas> obtenidas, String contexto) {
+		assertEquals(esperadas.size(), obtenidas.size(), contexto);
+		for (int t = 0; t < esperadas.size(); t++) {
+			assertEquals(esperadas.get(t).getUbicaciones(), obtenidas.get(t).getUbicaciones(), contexto + " camión " + t);
+			assertEquals(esperadas.get(t).getDistanciaTotal(), obtenidas.get(t).getDistanciaTotal(), contexto + " camión " + t);
+			assertEquals(esperadas.get(t).getTiempoTotal(), obtenidas.get(t).getTiempoTotal(), 1e-9, contexto + " camión " + t);
+		}
+	}
+
+	/**
+	 * Mapa con la flota por defecto, n pedidos y bloqueos rectos activos durante las primeras horas.
+	 * Los volúmenes son múltiplos de 0.5 para que las sumas de carga sean exactas en cualquier orden.
+	 */
+	static Mapa mapaAleatorio(Random rnd, int n, int bloqueos) {
+		Mapa mapa = new Mapa(ANCHO, ALTO);
+		mapa.setFechaInicio(INICIO);
+		List<Pedido> pedidos = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			Pedido pedido = new Pedido();
+			pedido.setIdPedido(i + 1);
+			pedido.setDestino(Ubicacion.of(rnd.nextInt(ANCHO + 1), rnd.nextInt(ALTO + 1)));
+			pedido.setVolumen(0.5 + rnd.nextInt(4) * 0.5);
+			pedido.setFechaRegistro(INICIO);
+			pedido.setFechaLimite(INICIO.plusMinutes(60 + rnd.nextInt(24 * 60)));
+			pedidos.add(pedido);
+		}
+		mapa.setPedidos(pedidos);
+
+		List<Bloqueo> lista = new ArrayList<>(bloqueos);
+		for (int b = 0; b < bloqueos; b++) {
+			LocalDateTime desde = INICIO.plusMinutes(rnd.nextInt(120) - 30);
+			LocalDateTime hasta = desde.plusMinutes(30 + rnd.nextInt(180));
+			int x = rnd.nextInt(ANCHO + 1);
+			int y = rnd.nextInt(ALTO + 1);
+			int[] vertices = rnd.nextBoolean()
+					? new int[]{x, y, Math.min(ANCHO, x + 5 + rnd.nextInt(30)), y}
+					: new int[]{x, y, x, Math.min(ALTO, y + 5 + rnd.nextInt(20))};
+			lista.add(new Bloqueo(desde, hasta, vertices));
+		}
+		mapa.setBloqueos(lista);
+		return mapa;
+	}
+
+	static int[] permutacion(Random rnd, int n) {
+		int[] genes = new int[n];
+		for (int i = 0; i < n; i++) genes[i] = i;
+		for (int i = n - 1; i > 0; i--) {
+			int j = rnd.nextInt(i + 1);
+			int tmp = genes[i]; genes[i] = genes[j]; genes[j] = tmp;
+		}
+		return genes;
+	}
+}
@@ -0,0 +1,86 @@
+package pucp.edu.glp.glpdp1.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.ResultadoSimulacion;
+import pucp.edu.glp.glpdp1.service.AveriaService;
+import pucp.edu.glp.glpdp1.service.BloqueosService;
+import pucp.edu.glp.glpdp1.service.MapaService;
+import pucp.edu.glp.glpdp1.service.PedidoService;
+import pucp.edu.glp.glpdp1.service.PlanificacionService;
+import pucp.edu.glp.glpdp1.service.SimulacionBloqueada;
+import pucp.edu.glp.glpdp1.service.SimulacionService;
+import pucp.edu.glp.glpdp1.service.TrabajoPlanificacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class MapaControllerTest {
+
+	// Un hilo y un lugar en cola
+	private final PlanificacionService planificacionService = new PlanificacionService(1, 1, 50, 1000);
+	private final MapaController controller = controller(planificacionService);
+
+	@AfterEach
+	void detener() {
+		planificacionService.detener();
+	}
+
+	@Test
+	void elResultadoSoloSeEntregaAlCompletarse() throws InterruptedException {
+		assertEquals(HttpStatus.NOT_FOUND, controller.obtenerResultadoPlanificacion("no-existe").getStatusCode());
+
+		SimulacionBloqueada simulacion = new SimulacionBloqueada();
+		TrabajoPlanificacion trabajo = simulacion.enviar(planificacionService);
+		simulacion.esperarInicio();
+		assertEquals(HttpStatus.CONFLICT, controller.obtenerResultadoPlanificacion(trabajo.getId()).getStatusCode());
+
+		simulacion.liberar();
+		SimulacionBloqueada.esperarFin(trabajo);
+		ResponseEntity<?> respuesta = controller.obtenerResultadoPlanificacion(trabajo.getId());
+		assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+		assertInstanceOf(ResultadoSimulacion.class, respuesta.getBody());
+	}
+
+	@Test
+	void unTrabajoCanceladoNoTieneResultado() throws InterruptedException {
+		SimulacionBloqueada simulacion = new SimulacionBloqueada();
+		TrabajoPlanificacion trabajo = simulacion.enviar(planificacionService);
+		simulacion.esperarInicio();
+
+		assertEquals(HttpStatus.ACCEPTED, controller.cancelarPlanificacion(trabajo.getId()).getStatusCode());
+		SimulacionBloqueada.esperarFin(trabajo);
+		assertEquals(HttpStatus.CONFLICT, controller.obtenerResultadoPlanificacion(trabajo.getId()).getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, controller.cancelarPlanificacion("no-existe").getStatusCode());
+	}
+
+	@Test
+	void conLaColaLlenaSimularResponde429() throws InterruptedException {
+		SimulacionBloqueada enEjecucion = new SimulacionBloqueada();
+		enEjecucion.enviar(planificacionService);
+		enEjecucion.esperarInicio();
+		new SimulacionBloqueada().enviar(planificacionService);
+
+		// El escenario se valida antes de intentar encolar
+		assertEquals(HttpStatus.BAD_REQUEST, controller.simular("mensual", null, null).getStatusCode());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+				controller.simular("semana", "2025-05-01T00:00", "2025-05-02T00:00").getStatusCode());
+	}
+
+	@Test
+	void replanificarRechazaIteracionesNoPositivas() {
+		assertEquals(HttpStatus.BAD_REQUEST, controller.replanificarRutas(null, "dia", null, null, 0).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.replanificarRutas(null, "dia", null, null, -5).getStatusCode());
+	}
+
+	private static MapaController controller(PlanificacionService planificacionService) {
+		MapaController controller = new MapaController(
+				new MapaService(new PedidoService(), new AveriaService(), new BloqueosService()));
+		ReflectionTestUtils.setField(controller, "planificacionService", planificacionService);
+		ReflectionTestUtils.setField(controller, "simulacionService", new SimulacionService());
+		return controller;
+	}
+}
@@ -0,0 +1,130 @@
+package pucp.edu.glp.glpdp1.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloqueoTest {
+
+	private static final int ANCHO = 10;
+	private static final int ALTO = 8;
+	private static final LocalDateTime INICIO = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+	private static Bloqueo bloqueo(int... vertices) {
+		return new Bloqueo(INICIO, INICIO.plusHours(1), vertices);
+	}
+
+	@Test
+	void unSoloVerticeNoBloqueaNinguna() {
+		Bloqueo bloqueo = bloqueo(3, 4);
+		long[] celdas = new long[palabras()];
+
+		assertFalse(bloqueo.rasterizar(celdas, ANCHO, ALTO));
+		assertEquals(Set.of(), marcadas(celdas));
+		assertFalse(bloqueo.contiene(3, 4));
+		assertTrue(bloqueo.getTramos().isEmpty());
+		assertTrue(bloqueo.esRectilineo());
+	}
+
+	@Test
+	void tramoHorizontal() {
+		// Dibujado de derecha a izquierda: el sentido no cambia las celdas
+		verificar(bloqueo(6, 2, 2, 2), Set.of(c(2, 2), c(3, 2), c(4, 2), c(5, 2), c(6, 2)));
+	}
+
+	@Test
+	void tramoVertical() {
+		verificar(bloqueo(1, 0, 1, 3), Set.of(c(1, 0), c(1, 1), c(1, 2), c(1, 3)));
+	}
+
+	@Test
+	void poligonalDeVariosTramos() {
+		Bloqueo bloqueo = bloqueo(0, 0, 3, 0, 3, 2, 1, 2, 1, 4);
+		verificar(bloqueo, Set.of(
+				c(0, 0), c(1, 0), c(2, 0), c(3, 0),
+				c(3, 1), c(3, 2),
+				c(2, 2), c(1, 2),
+				c(1, 3), c(1, 4)));
+		// Las esquinas no se repiten y el orden sigue la poligonal
+		List<Ubicacion> tramos = bloqueo.getTramos();
+		assertEquals(10, tramos.size());
+		assertEquals(c(0, 0), celda(tramos.get(0)));
+		assertEquals(c(3, 0), celda(tramos.get(3)));
+		assertEquals(c(1, 4), celda(tramos.get(9)));
+	}
+
+	@Test
+	void tramosFueraDeLaRejillaSeRecortan() {
+		// Horizontal que sale por la izquierda y la derecha, vertical que sale por arriba,
+		// y un tramo completamente fuera
+		Bloqueo bloqueo = bloqueo(-3, 5, ANCHO + 4, 5, ANCHO + 4, ALTO + 2);
+		long[] celdas = new long[palabras()];
+		assertTrue(bloqueo.rasterizar(celdas, ANCHO, ALTO));
+		Set<Integer> esperado = new HashSet<>();
+		for (int x = 0; x <= ANCHO; x++) {
+			esperado.add(c(x, 5));
+		}
+		assertEquals(esperado, marcadas(celdas));
+
+		long[] vacias = new long[palabras()];
+		assertFalse(bloqueo(-5, -1, -5, 20).rasterizar(vacias, ANCHO, ALTO));
+		assertEquals(Set.of(), marcadas(vacias));
+	}
+
+	@Test
+	void tramoDiagonalNoBloqueaNinguna() {
+		Bloqueo bloqueo = bloqueo(0, 0, 2, 0, 5, 3, 5, 5);
+		assertFalse(bloqueo.esRectilineo());
+		verificar(bloqueo, Set.of(c(0, 0), c(1, 0), c(2, 0), c(5, 3), c(5, 4), c(5, 5)));
+	}
+
+	/**
+	 * Compara rasterizar con las celdas esperadas, con contiene y con getTramos
+	 */
+	private static void verificar(Bloqueo bloqueo, Set<Integer> esperado) {
+		long[] celdas = new long[palabras()];
+		assertTrue(bloqueo.rasterizar(celdas, ANCHO, ALTO));
+		assertEquals(esperado, marcadas(celdas));
+
+		for (int x = 0; x <= ANCHO; x++) {
+			for (int y = 0; y <= ALTO; y++) {
+				assertEquals(esperado.contains(c(x, y)), bloqueo.contiene(x, y), "(" + x + "," + y + ")");
+			}
+		}
+
+		Set<Integer> deTramos = new HashSet<>();
+		for (Ubicacion tramo : bloqueo.getTramos()) {
+			deTramos.add(celda(tramo));
+		}
+		assertEquals(esperado, deTramos);
+	}
+
+	private static int palabras() {
+		return ((ANCHO + 1) * (ALTO + 1) + 63) >>> 6;
+	}
+
+	private static Set<Integer> marcadas(long[] celdas) {
+		Set<Integer> ids = new HashSet<>();
+		for (int id = 0; id < (ANCHO + 1) * (ALTO + 1); id++) {
+			if ((celdas[id >>> 6] & (1L << id)) != 0) {
+				ids.add(id);
+			}
+		}
+		return ids;
+	}
+
+	private static int c(int x, int y) {
+		return x * (ALTO + 1) + y;
+	}
+
+	private static int celda(Ubicacion ubicacion) {
+		return c(ubicacion.getX(), ubicacion.getY());
+	}
+}
@@ -0,0 +1,228 @@
+package pucp.edu.glp.glpdp1.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class IndiceBloqueosTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2025, 4, 1, 8, 0);
+
+	private static Bloqueo bloqueo(LocalDateTime inicio, LocalDateTime fin, int... vertices) {
+		return new Bloqueo(inicio, fin, vertices);
+	}
+
+	@Test
+	void limiteExactoEnFechaInicio() {
+		IndiceBloqueos indice = new IndiceBloqueos(
+				List.of(bloqueo(T0, T0.plusHours(2), 1, 1, 3, 1)), 10, 10);
+
+		assertFalse(indice.estaBloqueado(2, 1, T0.minusNanos(1)));
+		assertTrue(indice.estaBloqueado(2, 1, T0));
+		assertEquals(-1, indice.intervaloEnSegundos(T0.toEpochSecond(ZoneOffset.UTC) - 1));
+		assertTrue(indice.intervaloEnSegundos(T0.toEpochSecond(ZoneOffset.UTC)) >= 0);
+	}
+
+	@Test
+	void limiteExactoEnFechaFinalEsInclusivo() {
+		LocalDateTime fin = T0.plusHours(2);
+		IndiceBloqueos indice = new IndiceBloqueos(List.of(bloqueo(T0, fin, 1, 1, 3, 1)), 10, 10);
+
+		assertTrue(indice.estaBloqueado(3, 1, fin.minusNanos(1)));
+		assertTrue(indice.estaBloqueado(3, 1, fin));
+		assertFalse(indice.estaBloqueado(3, 1, fin.plusNanos(1)));
+		assertFalse(indice.estaBloqueado(3, 1, fin.plusSeconds(1)));
+	}
+
+	@Test
+	void bloqueosSolapados() {
+		// A: fila y = 1 de 8:00 a 10:00; B: columna x = 2 de 9:00 a 11:00
+		Bloqueo a = bloqueo(T0, T0.plusHours(2), 0, 1, 4, 1);
+		Bloqueo b = bloqueo(T0.plusHours(1), T0.plusHours(3), 2, 0, 2, 4);
+		IndiceBloqueos indice = new IndiceBloqueos(List.of(a, b), 10, 10);
+
+		LocalDateTime[] momentos = {
+				T0.minusMinutes(1), T0, T0.plusMinutes(30), T0.plusHours(1), T0.plusMinutes(90),
+				T0.plusHours(2), T0.plusHours(2).plusNanos(1), T0.plusMinutes(150), T0.plusHours(3),
+				T0.plusHours(3).plusSeconds(1)
+		};
+		for (LocalDateTime momento : momentos) {
+			for (int x = 0; x <= 10; x++) {
+				for (int y = 0; y <= 10; y++) {
+					boolean esperado = (activo(a, momento) && a.contiene(x, y))
+							|| (activo(b, momento) && b.contiene(x, y));
+					assertEquals(esperado, indice.estaBloqueado(x, y, momento), momento + " (" + x + "," + y + ")");
+				}
+			}
+		}
+		// La celda de cruce sigue bloqueada mientras cualquiera de los dos esté activo
+		assertTrue(indice.estaBloqueado(2, 1, T0.plusHours(2)));
+		assertTrue(indice.estaBloqueado(2, 1, T0.plusHours(2).plusNanos(1)));
+		assertFalse(indice.estaBloqueado(0, 1, T0.plusHours(2).plusNanos(1)));
+	}
+
+	@Test
+	void bloqueosContiguosCompartenElInstanteDeCambio() {
+		Bloqueo a = bloqueo(T0, T0.plusHours(1), 5, 5, 5, 7);
+		Bloqueo b = bloqueo(T0.plusHours(1), T0.plusHours(2), 6, 5, 6, 7);
+		IndiceBloqueos indice = new IndiceBloqueos(List.of(a, b), 10, 10);
+
+		assertTrue(indice.estaBloqueado(5, 6, T0.plusHours(1)));
+		assertTrue(indice.estaBloqueado(6, 6, T0.plusHours(1)));
+		assertFalse(indice.estaBloqueado(6, 6, T0.plusHours(1).minusNanos(1)));
+		assertFalse(indice.estaBloqueado(5, 6, T0.plusHours(1).plusNanos(1)));
+	}
+
+	@Test
+	void compartidoReutilizaLaMismaLista() {
+		List<Bloqueo> bloqueos = new ArrayList<>(List.of(bloqueo(T0, T0.plusHours(1), 1, 1, 1, 4)));
+		IndiceBloqueos indice = IndiceBloqueos.compartido(bloqueos, 10, 10);
+		assertSame(indice, IndiceBloqueos.compartido(bloqueos, 10, 10));
+
+		// Una lista que crece deja de coincidir aunque sea la misma instancia
+		bloqueos.add(bloqueo(T0, T0.plusHours(1), 8, 8, 9, 8));
+		IndiceBloqueos crecido = IndiceBloqueos.compartido(bloqueos, 10, 10);
+		assertNotSame(indice, crecido);
+		assertTrue(crecido.estaBloqueado(9, 8, T0));
+	}
+
+	@Test
+	void mapaNoReutilizaElIndiceTrasSetBloqueosConListaDelMismoTamanio() {
+		Mapa mapa = new Mapa(10, 10);
+		mapa.setBloqueos(new ArrayList<>(List.of(bloqueo(T0, T0.plusHours(1), 1, 1, 1, 4))));
+		IndiceBloqueos anterior = mapa.indiceBloqueos();
+		assertTrue(mapa.estaBloqueado(Ubicacion.of(1, 2), T0));
+
+		mapa.setBloqueos(new ArrayList<>(List.of(bloqueo(T0, T0.plusHours(1), 7, 1, 7, 4))));
+		assertNotSame(anterior, mapa.indiceBloqueos());
+		assertFalse(mapa.estaBloqueado(Ubicacion.of(1, 2), T0));
+		assertTrue(mapa.estaBloqueado(Ubicacion.of(7, 2), T0));
+	}
+
+	@Test
+	void caminoEnLCoincideConRecorridoCeldaPorCelda() {
+		int ancho = 20;
+		int alto = 12;
+		List<Bloqueo> bloqueos = bloqueosDeBorde(ancho, alto);
+		IndiceBloqueos indice = new IndiceBloqueos(bloqueos, ancho, alto);
+
+		LocalDateTime[] momentos = {T0.minusMinutes(1), T0, T0.plusMinutes(30), T0.plusHours(1), T0.plusHours(2)};
+		for (LocalDateTime momento : momentos) {
+			int intervalo = indice.intervalo(momento);
+			// Extremos en toda la rejilla y una celda fuera de ella en cada lado
+			for (int x0 = -1; x0 <= ancho + 1; x0++) {
+				for (int y0 = -1; y0 <= alto + 1; y0++) {
+					for (int x1 = -1; x1 <= ancho + 1; x1++) {
+						for (int y1 = -1; y1 <= alto + 1; y1++) {
+							boolean esperado = caminoLibre(bloqueos, momento, x0, y0, x1, y1);
+							if (esperado != indice.caminoEnLLibre(intervalo, x0, y0, x1, y1)) {
+								fail(momento + " (" + x0 + "," + y0 + ") -> (" + x1 + "," + y1 + ")");
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void sumasCalculadasDesdeVariosHilosCoinciden() throws Exception {
+		int ancho = 20;
+		int alto = 12;
+		List<Bloqueo> bloqueos = bloqueosDeBorde(ancho, alto);
+		Random rnd = new Random(25);
+		int consultas = 2000;
+		int[][] caminos = new int[consultas][];
+		boolean[] esperados = new boolean[consultas];
+		for (int i = 0; i < consultas; i++) {
+			caminos[i] = new int[]{rnd.nextInt(ancho + 1), rnd.nextInt(alto + 1), rnd.nextInt(ancho + 1), rnd.nextInt(alto + 1)};
+			esperados[i] = caminoLibre(bloqueos, T0.plusMinutes(30), caminos[i][0], caminos[i][1], caminos[i][2], caminos[i][3]);
+		}
+
+		for (int repeticion = 0; repeticion < 20; repeticion++) {
+			// Índice nuevo en cada repetición: los hilos compiten por calcular las mismas sumas
+			IndiceBloqueos indice = new IndiceBloqueos(bloqueos, ancho, alto);
+			int intervalo = indice.intervalo(T0.plusMinutes(30));
+			int hilos = 8;
+			CountDownLatch salida = new CountDownLatch(1);
+			ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+			try {
+				List<Future<Integer>> resultados = new ArrayList<>();
+				for (int h = 0; h < hilos; h++) {
+					resultados.add(ejecutor.submit(() -> {
+						salida.await();
+						int errores = 0;
+						for (int i = 0; i < consultas; i++) {
+							int[] c = caminos[i];
+							if (indice.caminoEnLLibre(intervalo, c[0], c[1], c[2], c[3]) != esperados[i]) {
+								errores++;
+							}
+						}
+						return errores;
+					}));
+				}
+				salida.countDown();
+				for (Future<Integer> resultado : resultados) {
+					assertEquals(0, resultado.get().intValue(), "repetición " + repeticion);
+				}
+			} finally {
+				ejecutor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Bloqueos sobre las cuatro filas y columnas del borde, en distintos intervalos, y uno interior
+	 */
+	private static List<Bloqueo> bloqueosDeBorde(int ancho, int alto) {
+		return List.of(
+				bloqueo(T0, T0.plusHours(1), 0, 0, ancho, 0),
+				bloqueo(T0, T0.plusHours(1), 0, 3, 0, alto),
+				bloqueo(T0.plusMinutes(30), T0.plusHours(2), ancho, 0, ancho, alto - 2),
+				bloqueo(T0.plusMinutes(30), T0.plusHours(2), 2, alto, ancho - 1, alto),
+				bloqueo(T0, T0.plusHours(2), 5, 4, 12, 4, 12, 9));
+	}
+
+	/**
+	 * Camino en L (primero en X, luego en Y, sin contar el origen) revisado celda por celda
+	 */
+	private static boolean caminoLibre(List<Bloqueo> bloqueos, LocalDateTime momento, int x, int y, int x1, int y1) {
+		while (x != x1) {
+			x += x1 > x ? 1 : -1;
+			if (bloqueada(bloqueos, momento, x, y)) return false;
+		}
+		while (y != y1) {
+			y += y1 > y ? 1 : -1;
+			if (bloqueada(bloqueos, momento, x, y)) return false;
+		}
+		return true;
+	}
+
+	private static boolean bloqueada(List<Bloqueo> bloqueos, LocalDateTime momento, int x, int y) {
+		for (Bloqueo bloqueo : bloqueos) {
+			if (activo(bloqueo, momento) && bloqueo.contiene(x, y)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean activo(Bloqueo bloqueo, LocalDateTime momento) {
+		return !momento.isBefore(bloqueo.getFechaInicio()) && !momento.isAfter(bloqueo.getFechaFinal());
+	}
+}
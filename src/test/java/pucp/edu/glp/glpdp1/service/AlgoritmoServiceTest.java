@@ -0,0 +1,72 @@
+package pucp.edu.glp.glpdp1.service;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOAlgorithm;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static pucp.edu.glp.glpdp1.algorithm.aco.DatosPruebaACO.INICIO;
+import static pucp.edu.glp.glpdp1.algorithm.aco.DatosPruebaACO.leer;
+import static pucp.edu.glp.glpdp1.algorithm.aco.DatosPruebaACO.parametros;
+
+class AlgoritmoServiceTest {
+
+	private static final String PEDIDOS = String.join("\n",
+			"01d00h10m:20,10,c-1,3m3,24h",
+			"01d00h20m:30,15,c-2,6m3,24h",
+			"01d00h30m:35,20,c-3,5m3,24h");
+	private static final String PEDIDO_NUEVO = "\n01d01h00m:32,18,c-4,4m3,24h";
+
+	@Test
+	void soloCambiosDePedidosReutilizanElPlanVigente() throws IOException {
+		AlgoritmoService servicio = new AlgoritmoService();
+		Mapa origen = new Mapa(70, 50);
+		servicio.planificarRutas(origen, filtrado(origen, leer(PEDIDOS)), parametros());
+		ACOAlgorithm vigente = servicio.algoritmoVigente(origen);
+		assertNotNull(vigente);
+
+		// Archivo recargado con un pedido más: misma flota y mismos bloqueos
+		servicio.replanificarRutas(origen, filtrado(origen, leer(PEDIDOS + PEDIDO_NUEVO)), parametros(), 1);
+		assertSame(vigente, servicio.algoritmoVigente(origen));
+	}
+
+	@Test
+	void cambiosDeBloqueosOFlotaPlanificanDesdeCero() throws IOException {
+		AlgoritmoService servicio = new AlgoritmoService();
+		Mapa origen = new Mapa(70, 50);
+		servicio.planificarRutas(origen, filtrado(origen, leer(PEDIDOS)), parametros());
+		ACOAlgorithm inicial = servicio.algoritmoVigente(origen);
+
+		origen.setBloqueos(new ArrayList<>());
+		servicio.replanificarRutas(origen, filtrado(origen, leer(PEDIDOS + PEDIDO_NUEVO)), parametros(), 1);
+		ACOAlgorithm trasBloqueos = servicio.algoritmoVigente(origen);
+		assertNotSame(inicial, trasBloqueos);
+
+		List<Camion> flota = new ArrayList<>(origen.getFlota());
+		flota.remove(0);
+		origen.setFlota(flota);
+		servicio.replanificarRutas(origen, filtrado(origen, leer(PEDIDOS + PEDIDO_NUEVO)), parametros(), 1);
+		assertNotSame(trasBloqueos, servicio.algoritmoVigente(origen));
+	}
+
+	/**
+	 * Mapa filtrado como el que arma el controlador: comparte flota, bloqueos y almacenes con el origen
+	 */
+	private static Mapa filtrado(Mapa origen, List<Pedido> pedidos) {
+		Mapa mapa = new Mapa(origen.getAncho(), origen.getAlto());
+		mapa.setPedidos(pedidos);
+		mapa.setBloqueos(origen.getBloqueos());
+		mapa.setAlmacenes(origen.getAlmacenes());
+		mapa.setFlota(origen.getFlota());
+		mapa.setFechaInicio(INICIO);
+		return mapa;
+	}
+}
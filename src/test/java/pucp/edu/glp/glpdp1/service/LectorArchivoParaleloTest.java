@@ -0,0 +1,118 @@
+package pucp.edu.glp.glpdp1.service;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LectorArchivoParaleloTest {
+
+	private static final int TAMANIO_BLOQUE = 100;
+
+	@Test
+	void lecturaPorBloquesIgualALecturaSecuencial() throws IOException {
+		Random rnd = new Random(23);
+		StringBuilder texto = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			// Líneas de largo variable, algunas más largas que un bloque completo
+			texto.append(i).append(':').append("x".repeat(rnd.nextInt(i % 50 == 0 ? 400 : 60)));
+			texto.append(i % 7 == 0 ? "\r\n" : "\n");
+		}
+		texto.append("ultima-sin-salto");
+
+		Path archivo = Files.createTempFile("lector-paralelo", ".txt");
+		try {
+			Files.writeString(archivo, texto, StandardCharsets.UTF_8);
+
+			long[] limites = limites(archivo);
+			assertTrue(limites.length > 100);
+			byte[] bytes = Files.readAllBytes(archivo);
+			for (int i = 1; i < limites.length - 1; i++) {
+				// Cada bloque empieza justo después de un salto de línea: la línea que cruza el
+				// tamaño nominal del bloque queda completa en el bloque anterior
+				assertEquals('\n', bytes[(int) limites[i] - 1]);
+				assertTrue(limites[i] - limites[i - 1] >= TAMANIO_BLOQUE);
+			}
+
+			List<String> porBloques = LectorArchivoParalelo.leer(archivo, LectorArchivoParaleloTest::lineas, TAMANIO_BLOQUE);
+			assertEquals(Files.readAllLines(archivo, StandardCharsets.UTF_8), porBloques);
+		} finally {
+			Files.deleteIfExists(archivo);
+		}
+	}
+
+	@Test
+	void pedidosPorBloquesIgualALecturaSecuencial() throws IOException {
+		Random rnd = new Random(29);
+		StringBuilder texto = new StringBuilder();
+		for (int i = 0; i < 3000; i++) {
+			texto.append(String.format("%02dd%02dh%02dm:%d,%d,c-%d,%dm3,%dh\n", rnd.nextInt(30), rnd.nextInt(24),
+					rnd.nextInt(60), rnd.nextInt(71), rnd.nextInt(51), i, 1 + rnd.nextInt(25), 4 + rnd.nextInt(33)));
+		}
+		Path archivo = Files.createTempFile("pedidos-paralelo", ".txt");
+		try {
+			Files.writeString(archivo, texto, StandardCharsets.UTF_8);
+
+			List<Pedido> porBloques = LectorArchivoParalelo.leer(archivo,
+					bloque -> new LectorPedidos(bloque).leerTodos(), TAMANIO_BLOQUE);
+			List<Pedido> secuencial;
+			try (InputStream entrada = Files.newInputStream(archivo)) {
+				secuencial = new PedidoService().cargarPedidosDesdeStream(entrada);
+			}
+
+			assertEquals(3000, secuencial.size());
+			assertEquals(secuencial.size(), porBloques.size());
+			for (int i = 0; i < secuencial.size(); i++) {
+				assertEquals(secuencial.get(i).getIdCliente(), porBloques.get(i).getIdCliente());
+				assertEquals(secuencial.get(i).getFechaRegistro(), porBloques.get(i).getFechaRegistro());
+				assertEquals(secuencial.get(i).getVolumen(), porBloques.get(i).getVolumen());
+			}
+		} finally {
+			Files.deleteIfExists(archivo);
+		}
+	}
+
+	@Test
+	void archivoVacioYArchivoDeUnaLinea() throws IOException {
+		Path archivo = Files.createTempFile("lector-paralelo", ".txt");
+		try {
+			assertEquals(List.of(), LectorArchivoParalelo.leer(archivo, LectorArchivoParaleloTest::lineas, TAMANIO_BLOQUE));
+
+			String linea = "y".repeat(5 * TAMANIO_BLOQUE);
+			Files.writeString(archivo, linea, StandardCharsets.UTF_8);
+			assertEquals(List.of(linea), LectorArchivoParalelo.leer(archivo, LectorArchivoParaleloTest::lineas, TAMANIO_BLOQUE));
+		} finally {
+			Files.deleteIfExists(archivo);
+		}
+	}
+
+	private static long[] limites(Path archivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			return LectorArchivoParalelo.calcularLimites(canal, canal.size(), TAMANIO_BLOQUE);
+		}
+	}
+
+	private static List<String> lineas(InputStream bloque) throws IOException {
+		List<String> lineas = new ArrayList<>();
+		BufferedReader lector = new BufferedReader(new InputStreamReader(bloque, StandardCharsets.UTF_8));
+		String linea;
+		while ((linea = lector.readLine()) != null) {
+			lineas.add(linea);
+		}
+		return lineas;
+	}
+}
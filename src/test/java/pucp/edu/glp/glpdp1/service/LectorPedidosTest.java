@@ -0,0 +1,194 @@
+package pucp.edu.glp.glpdp1.service;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LectorPedidosTest {
+
+	// Expresión regular del parser anterior, usada como referencia
+	private static final Pattern FORMATO = Pattern.compile("(\\d+)d(\\d+)h(\\d+)m:(\\d+),(\\d+),c-(\\d+),(\\d+)m3,(\\d+)h");
+	private static final LocalDateTime FECHA_BASE = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+	@Test
+	void leeBomCrlfLineasVaciasYDiasDeVariosDigitos() throws IOException {
+		String texto = "\uFEFF01d00h24m:16,13,c-198,3m3,4h\r\n"
+				+ "\r\n"
+				+ "   \n"
+				+ "123d05h07m:5,6,c-7,8m3,9h\r\n"
+				+ "1000d23h59m:70,50,c-0012,25m3,36h";
+		List<Pedido> pedidos = new PedidoService().cargarPedidosDesdeBytes(texto.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(3, pedidos.size());
+		Pedido primero = pedidos.get(0);
+		assertEquals(16, primero.getDestino().getX());
+		assertEquals(13, primero.getDestino().getY());
+		assertEquals("c-198", primero.getIdCliente());
+		assertEquals(3.0, primero.getVolumen());
+		assertEquals(4, primero.getHorasLimite());
+		assertEquals(LocalDateTime.of(2025, 5, 2, 0, 24), primero.getFechaRegistro());
+		assertEquals(LocalDateTime.of(2025, 5, 2, 4, 24), primero.getFechaLimite());
+
+		assertEquals(FECHA_BASE.plusDays(123).plusHours(5).plusMinutes(7), pedidos.get(1).getFechaRegistro());
+		assertEquals(FECHA_BASE.plusDays(1000).plusHours(23).plusMinutes(59), pedidos.get(2).getFechaRegistro());
+		assertEquals("c-0012", pedidos.get(2).getIdCliente());
+	}
+
+	@Test
+	void ignoraLineasMalformadas() throws IOException {
+		String texto = String.join("\n",
+				"01d00h24m:16,13,c-198,3m3",
+				"01d00h24m16,13,c-198,3m3,4h",
+				"01d00h24m:16,13,198,3m3,4h",
+				"01d00h24m:-16,13,c-198,3m3,4h",
+				"01d00h24m:16,13,c-,3m3,4h",
+				"d00h24m:16,13,c-198,3m3,4h",
+				"01d00h24m:16,13,c-198,3.5m3,4h",
+				"99999999999d00h24m:16,13,c-198,3m3,4h",
+				"texto sin pedido",
+				"02d01h00m:1,2,c-3,4m3,5h");
+		List<Pedido> pedidos = new PedidoService().cargarPedidosDesdeBytes(texto.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(1, pedidos.size());
+		assertEquals("c-3", pedidos.get(0).getIdCliente());
+	}
+
+	@Test
+	void coincideConLaExpresionRegularAnterior() throws IOException {
+		List<String> lineas = new ArrayList<>(List.of(
+				"# encabezado 01d00h24m:16,13,c-198,3m3,4h",
+				"01d00h24m:16,13,c-198,3m3,4h fin",
+				"1d2h3m:4,5,x 6d7h8m:9,10,c-11,12m3,13h",
+				"1d2h3m:4,5,c-6,7m3,8h9d",
+				"001d002h003m:004,005,c-006,007m3,008h",
+				"12d12h12m:1,1,c-1,123456789012345678901234m3,1h",
+				"\t 7d0h0m:0,0,c-0,0m3,0h"));
+		Random rnd = new Random(17);
+		for (int i = 0; i < 2000; i++) {
+			lineas.add(lineaAleatoria(rnd));
+		}
+		String texto = String.join("\n", lineas);
+		List<Pedido> esperados = parsearConExpresionRegular(lineas);
+
+		List<Pedido> pedidos = new PedidoService().cargarPedidosDesdeBytes(texto.getBytes(StandardCharsets.UTF_8));
+		assertIguales(esperados, pedidos);
+
+		// Un flujo que entrega pocos bytes por lectura parte las líneas entre rellenos del buffer
+		List<Pedido> porGoteo = new LectorPedidos(new FlujoPorGoteo(texto.replace("\n", "\r\n")
+				.getBytes(StandardCharsets.UTF_8), 7)).leerTodos();
+		assertIguales(esperados, porGoteo);
+
+		// Líneas separadas solo por \r, como las partía BufferedReader.readLine
+		List<Pedido> soloRetorno = new PedidoService().cargarPedidosDesdeBytes(
+				texto.replace("\n", "\r").getBytes(StandardCharsets.UTF_8));
+		assertIguales(esperados, soloRetorno);
+	}
+
+	@Test
+	void leeLineasMasLargasQueElBuffer() throws IOException {
+		String relleno = "x".repeat(200_000);
+		String texto = relleno + " 3d4h5m:6,7,c-8,9m3,10h\n" + "4d0h0m:1,1,c-1,1m3,1h" + relleno + "\n";
+		List<Pedido> pedidos = new LectorPedidos(new ByteArrayInputStream(
+				texto.getBytes(StandardCharsets.UTF_8))).leerTodos();
+		assertEquals(2, pedidos.size());
+		assertEquals("c-8", pedidos.get(0).getIdCliente());
+		assertEquals("c-1", pedidos.get(1).getIdCliente());
+	}
+
+	private static String lineaAleatoria(Random rnd) {
+		String linea = String.format("%02dd%02dh%02dm:%d,%d,c-%d,%dm3,%dh",
+				rnd.nextInt(400), rnd.nextInt(24), rnd.nextInt(60), rnd.nextInt(71), rnd.nextInt(51),
+				rnd.nextInt(1000), 1 + rnd.nextInt(25), 4 + rnd.nextInt(33));
+		// Una de cada cinco líneas se corrompe en un carácter
+		if (rnd.nextInt(5) == 0) {
+			char[] caracteres = linea.toCharArray();
+			caracteres[rnd.nextInt(caracteres.length)] = ",:dhmc-x3 ".charAt(rnd.nextInt(10));
+			linea = new String(caracteres);
+		}
+		return linea;
+	}
+
+	private static List<Pedido> parsearConExpresionRegular(List<String> lineas) {
+		List<Pedido> pedidos = new ArrayList<>();
+		for (String linea : lineas) {
+			Matcher matcher = FORMATO.matcher(linea);
+			if (!matcher.find()) {
+				continue;
+			}
+			Pedido pedido = new Pedido();
+			pedido.setDestino(Ubicacion.of(
+					Integer.parseInt(matcher.group(4)), Integer.parseInt(matcher.group(5))));
+			LocalDateTime fechaRegistro = FECHA_BASE.plusDays(Integer.parseInt(matcher.group(1)))
+					.plusHours(Integer.parseInt(matcher.group(2)))
+					.plusMinutes(Integer.parseInt(matcher.group(3)));
+			pedido.setFechaRegistro(fechaRegistro);
+			pedido.setIdCliente("c-" + matcher.group(6));
+			pedido.setVolumen(Double.parseDouble(matcher.group(7)));
+			pedido.setHorasLimite(Integer.parseInt(matcher.group(8)));
+			pedido.setFechaLimite(fechaRegistro.plusHours(pedido.getHorasLimite()));
+			pedidos.add(pedido);
+		}
+		return pedidos;
+	}
+
+	private static void assertIguales(List<Pedido> esperados, List<Pedido> obtenidos) {
+		assertEquals(esperados.size(), obtenidos.size());
+		assertTrue(esperados.size() > 1000);
+		for (int i = 0; i < esperados.size(); i++) {
+			Pedido esperado = esperados.get(i);
+			Pedido obtenido = obtenidos.get(i);
+			String contexto = "pedido " + i;
+			assertEquals(esperado.getDestino().getX(), obtenido.getDestino().getX(), contexto);
+			assertEquals(esperado.getDestino().getY(), obtenido.getDestino().getY(), contexto);
+			assertEquals(esperado.getFechaRegistro(), obtenido.getFechaRegistro(), contexto);
+			assertEquals(esperado.getFechaLimite(), obtenido.getFechaLimite(), contexto);
+			assertEquals(esperado.getIdCliente(), obtenido.getIdCliente(), contexto);
+			assertEquals(esperado.getVolumen(), obtenido.getVolumen(), contexto);
+			assertEquals(esperado.getHorasLimite(), obtenido.getHorasLimite(), contexto);
+		}
+	}
+
+	/**
+	 * Flujo que devuelve como máximo unos pocos bytes por llamada a read
+	 */
+	private static final class FlujoPorGoteo extends InputStream {
+		private final byte[] datos;
+		private final int maximo;
+		private int posicion;
+
+		FlujoPorGoteo(byte[] datos, int maximo) {
+			this.datos = datos;
+			this.maximo = maximo;
+		}
+
+		@Override
+		public int read() {
+			return posicion < datos.length ? datos[posicion++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] destino, int desde, int largo) {
+			if (posicion >= datos.length) {
+				return -1;
+			}
+			int n = Math.min(Math.min(largo, maximo), datos.length - posicion);
+			System.arraycopy(datos, posicion, destino, desde, n);
+			posicion += n;
+			return n;
+		}
+	}
+}
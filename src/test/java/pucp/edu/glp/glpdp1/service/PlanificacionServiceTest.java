@@ -0,0 +1,119 @@
+package pucp.edu.glp.glpdp1.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.ResultadoSimulacion;
+import pucp.edu.glp.glpdp1.domain.enums.EstadoTrabajo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlanificacionServiceTest {
+
+	// Un hilo y un lugar en cola: el tercer trabajo simultáneo se rechaza
+	private final PlanificacionService servicio = new PlanificacionService(1, 1, 50, 1000);
+
+	@AfterEach
+	void detener() {
+		servicio.detener();
+	}
+
+	@Test
+	void conLaColaLlenaSeRechazaElTrabajo() throws InterruptedException {
+		SimulacionBloqueada enEjecucion = new SimulacionBloqueada();
+		TrabajoPlanificacion primero = enEjecucion.enviar(servicio);
+		enEjecucion.esperarInicio();
+		assertEquals(EstadoTrabajo.EN_EJECUCION, primero.getEstado());
+
+		SimulacionBloqueada enCola = new SimulacionBloqueada();
+		TrabajoPlanificacion segundo = enCola.enviar(servicio);
+		assertEquals(EstadoTrabajo.EN_COLA, segundo.getEstado());
+
+		assertThrows(RejectedExecutionException.class, () -> new SimulacionBloqueada().enviar(servicio));
+
+		// Al liberarse el hilo, el trabajo en cola se ejecuta
+		enEjecucion.liberar();
+		SimulacionBloqueada.esperarFin(primero);
+		assertEquals(EstadoTrabajo.COMPLETADO, primero.getEstado());
+		assertInstanceOf(ResultadoSimulacion.class, primero.getResultado());
+		enCola.esperarInicio();
+		enCola.liberar();
+		SimulacionBloqueada.esperarFin(segundo);
+		assertEquals(EstadoTrabajo.COMPLETADO, segundo.getEstado());
+	}
+
+	@Test
+	void cancelarEnColaEvitaQueSeEjecute() throws InterruptedException {
+		SimulacionBloqueada enEjecucion = new SimulacionBloqueada();
+		TrabajoPlanificacion primero = enEjecucion.enviar(servicio);
+		enEjecucion.esperarInicio();
+		SimulacionBloqueada enCola = new SimulacionBloqueada();
+		TrabajoPlanificacion segundo = enCola.enviar(servicio);
+
+		assertSame(segundo, servicio.cancelar(segundo.getId()));
+		assertEquals(EstadoTrabajo.CANCELADO, segundo.getEstado());
+
+		// El pool es FIFO: cuando termina el tercero, el segundo ya pasó por el hilo
+		enEjecucion.liberar();
+		SimulacionBloqueada.esperarFin(primero);
+		SimulacionBloqueada libre = new SimulacionBloqueada();
+		libre.liberar();
+		TrabajoPlanificacion tercero = libre.enviar(servicio);
+		SimulacionBloqueada.esperarFin(tercero);
+
+		assertFalse(enCola.haIniciado());
+		assertNull(segundo.getFechaInicio());
+		assertEquals(EstadoTrabajo.CANCELADO, segundo.getEstado());
+	}
+
+	@Test
+	void cancelarEnEjecucionDetieneLaSimulacion() throws InterruptedException {
+		SimulacionBloqueada enEjecucion = new SimulacionBloqueada();
+		TrabajoPlanificacion trabajo = enEjecucion.enviar(servicio);
+		enEjecucion.esperarInicio();
+
+		assertSame(trabajo, servicio.cancelar(trabajo.getId()));
+		SimulacionBloqueada.esperarFin(trabajo);
+		assertEquals(EstadoTrabajo.CANCELADO, trabajo.getEstado());
+		assertNotNull(trabajo.getFechaInicio());
+		assertNull(trabajo.getResultado());
+
+		assertNull(servicio.cancelar("no-existe"));
+	}
+
+	@Test
+	void soloSeConservanLosUltimosTrabajosTerminados() throws InterruptedException {
+		List<TrabajoPlanificacion> terminados = new ArrayList<>();
+		for (int i = 0; i < 51; i++) {
+			SimulacionBloqueada libre = new SimulacionBloqueada();
+			libre.liberar();
+			TrabajoPlanificacion trabajo = libre.enviar(servicio);
+			SimulacionBloqueada.esperarFin(trabajo);
+			terminados.add(trabajo);
+			Thread.sleep(2); // Fechas de fin distintas
+		}
+		// Se descarta al enviar un trabajo nuevo, no al terminar
+		for (TrabajoPlanificacion trabajo : terminados) {
+			assertSame(trabajo, servicio.obtener(trabajo.getId()));
+		}
+
+		SimulacionBloqueada libre = new SimulacionBloqueada();
+		libre.liberar();
+		TrabajoPlanificacion nuevo = libre.enviar(servicio);
+
+		assertNull(servicio.obtener(terminados.get(0).getId()));
+		for (int i = 1; i < terminados.size(); i++) {
+			assertSame(terminados.get(i), servicio.obtener(terminados.get(i).getId()));
+		}
+		assertSame(nuevo, servicio.obtener(nuevo.getId()));
+	}
+}
@@ -0,0 +1,91 @@
+package pucp.edu.glp.glpdp1.service;
+
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOParameters;
+import pucp.edu.glp.glpdp1.algorithm.aco.ACOSolution;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.Planificador;
+import pucp.edu.glp.glpdp1.algorithm.simulacion.SimuladorEventos;
+import pucp.edu.glp.glpdp1.domain.Camion;
+import pucp.edu.glp.glpdp1.domain.Mapa;
+import pucp.edu.glp.glpdp1.domain.Pedido;
+import pucp.edu.glp.glpdp1.domain.Ubicacion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulación de prueba para los trabajos en segundo plano: su planificador se queda
+ * bloqueado hasta que se libera o se cancela, y así mantiene ocupado el hilo del pool
+ */
+public class SimulacionBloqueada implements Planificador {
+
+	public static final LocalDateTime INICIO = LocalDateTime.of(2025, 5, 1, 0, 0);
+	private static final long ESPERA_MS = 10_000;
+
+	private final CountDownLatch iniciada = new CountDownLatch(1);
+	private final CountDownLatch liberada = new CountDownLatch(1);
+
+	@Override
+	public ACOSolution planificar(List<Pedido> pendientes, List<Camion> camionesDisponibles, LocalDateTime ahora) {
+		iniciada.countDown();
+		try {
+			liberada.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+	@Override
+	public void cancelar() {
+		liberada.countDown();
+	}
+
+	public void liberar() {
+		liberada.countDown();
+	}
+
+	public boolean haIniciado() {
+		return iniciada.getCount() == 0;
+	}
+
+	public void esperarInicio() throws InterruptedException {
+		assertTrue(iniciada.await(ESPERA_MS, TimeUnit.MILLISECONDS), "la simulación no llegó a planificar");
+	}
+
+	/**
+	 * Simulador con un solo pedido: invoca a este planificador a las 00:10
+	 */
+	public SimuladorEventos simulador() {
+		Pedido pedido = new Pedido();
+		pedido.setIdPedido(1);
+		pedido.setIdCliente("c-1");
+		pedido.setDestino(Ubicacion.of(20, 10));
+		pedido.setVolumen(2);
+		pedido.setFechaRegistro(INICIO);
+		pedido.setHorasLimite(24);
+		pedido.setFechaLimite(INICIO.plusHours(24));
+		Mapa mapa = new Mapa(70, 50);
+		mapa.setPedidos(new ArrayList<>(List.of(pedido)));
+
+		SimuladorEventos simulador = new SimuladorEventos(mapa, new ACOParameters(), this);
+		simulador.setAplicarAverias(false);
+		return simulador;
+	}
+
+	public TrabajoPlanificacion enviar(PlanificacionService servicio) {
+		return servicio.enviarSimulacion(simulador(), "semana", INICIO, INICIO.plusDays(1));
+	}
+
+	public static void esperarFin(TrabajoPlanificacion trabajo) throws InterruptedException {
+		long limite = System.currentTimeMillis() + ESPERA_MS;
+		while (!trabajo.estaTerminado()) {
+			assertTrue(System.currentTimeMillis() < limite, "el trabajo " + trabajo.getId() + " no terminó");
+			Thread.sleep(5);
+		}
+	}
+}
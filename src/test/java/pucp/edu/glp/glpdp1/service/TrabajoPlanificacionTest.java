@@ -0,0 +1,78 @@
+package pucp.edu.glp.glpdp1.service;
+
+import org.junit.jupiter.api.Test;
+import pucp.edu.glp.glpdp1.domain.enums.EstadoTrabajo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrabajoPlanificacionTest {
+
+	@Test
+	void seIniciaUnaSolaVezYSeCompleta() {
+		TrabajoPlanificacion trabajo = new TrabajoPlanificacion("t", "dia", 10);
+		assertEquals(EstadoTrabajo.EN_COLA, trabajo.getEstado());
+		assertFalse(trabajo.estaTerminado());
+
+		assertTrue(trabajo.iniciar(() -> { }));
+		assertEquals(EstadoTrabajo.EN_EJECUCION, trabajo.getEstado());
+		assertNotNull(trabajo.getFechaInicio());
+		assertFalse(trabajo.iniciar(() -> { }));
+
+		Object resultado = new Object();
+		trabajo.completar(resultado);
+		assertEquals(EstadoTrabajo.COMPLETADO, trabajo.getEstado());
+		assertSame(resultado, trabajo.getResultado());
+		assertNotNull(trabajo.getFechaFin());
+		assertTrue(trabajo.estaTerminado());
+		assertFalse(trabajo.cancelar());
+	}
+
+	@Test
+	void cancelarEnColaLoTerminaSinIniciarlo() {
+		TrabajoPlanificacion trabajo = new TrabajoPlanificacion("t", "dia", 10);
+		assertTrue(trabajo.cancelar());
+		assertEquals(EstadoTrabajo.CANCELADO, trabajo.getEstado());
+		assertTrue(trabajo.estaTerminado());
+
+		// El hilo del pool ya no lo ejecuta
+		assertFalse(trabajo.iniciar(() -> { }));
+		assertNull(trabajo.getFechaInicio());
+		assertFalse(trabajo.cancelar());
+	}
+
+	@Test
+	void cancelarEnEjecucionDetieneElAlgoritmo() {
+		TrabajoPlanificacion trabajo = new TrabajoPlanificacion("t", "dia", 10);
+		AtomicInteger cancelaciones = new AtomicInteger();
+		trabajo.iniciar(cancelaciones::incrementAndGet);
+
+		// El estado cambia cuando el algoritmo se detiene, no al pedir la cancelación
+		assertTrue(trabajo.cancelar());
+		assertEquals(1, cancelaciones.get());
+		assertEquals(EstadoTrabajo.EN_EJECUCION, trabajo.getEstado());
+
+		trabajo.marcarCancelado();
+		assertEquals(EstadoTrabajo.CANCELADO, trabajo.getEstado());
+		assertFalse(trabajo.cancelar());
+		assertEquals(1, cancelaciones.get());
+	}
+
+	@Test
+	void unFalloGuardaElMensaje() {
+		TrabajoPlanificacion trabajo = new TrabajoPlanificacion("t", "dia", 10);
+		trabajo.iniciar(() -> { });
+		trabajo.fallar(new IllegalStateException());
+
+		assertEquals(EstadoTrabajo.FALLIDO, trabajo.getEstado());
+		assertEquals("IllegalStateException", trabajo.getMensajeError());
+		assertEquals("IllegalStateException", trabajo.resumen().get("error"));
+		assertNull(trabajo.getResultado());
+	}
+}